@@ -0,0 +1,196 @@
+/*******************************************************************************
+ * Copyright (c) 2015 OpenDSE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *******************************************************************************/
+package net.sf.opendse.io;
+
+import java.util.Scanner;
+import java.util.regex.MatchResult;
+
+import net.sf.opendse.model.parameter.ParameterRange;
+import net.sf.opendse.model.parameter.ParameterRangeDiscrete;
+import net.sf.opendse.model.parameter.ParameterUniqueID;
+import net.sf.opendse.model.parameter.Parameters;
+
+/**
+ * The {@code AttributeCodecs} class contains the built-in
+ * {@link AttributeCodec}s for primitive arrays and parameters. Arrays are
+ * encoded as comma-separated lists, parameters with their string
+ * representation.
+ * 
+ * @author Martin Lukasiewycz
+ * 
+ */
+public class AttributeCodecs {
+
+	public static final AttributeCodec<int[]> INT_ARRAY = new AttributeCodec<int[]>() {
+		@Override
+		public String encode(int[] value) {
+			StringBuilder sb = new StringBuilder();
+			for (int i = 0; i < value.length; i++) {
+				sb.append(i > 0 ? "," : "").append(value[i]);
+			}
+			return sb.toString();
+		}
+
+		@Override
+		public int[] decode(String value) {
+			String[] parts = split(value);
+			int[] array = new int[parts.length];
+			for (int i = 0; i < parts.length; i++) {
+				array[i] = Integer.parseInt(parts[i].trim());
+			}
+			return array;
+		}
+	};
+
+	public static final AttributeCodec<long[]> LONG_ARRAY = new AttributeCodec<long[]>() {
+		@Override
+		public String encode(long[] value) {
+			StringBuilder sb = new StringBuilder();
+			for (int i = 0; i < value.length; i++) {
+				sb.append(i > 0 ? "," : "").append(value[i]);
+			}
+			return sb.toString();
+		}
+
+		@Override
+		public long[] decode(String value) {
+			String[] parts = split(value);
+			long[] array = new long[parts.length];
+			for (int i = 0; i < parts.length; i++) {
+				array[i] = Long.parseLong(parts[i].trim());
+			}
+			return array;
+		}
+	};
+
+	public static final AttributeCodec<double[]> DOUBLE_ARRAY = new AttributeCodec<double[]>() {
+		@Override
+		public String encode(double[] value) {
+			StringBuilder sb = new StringBuilder();
+			for (int i = 0; i < value.length; i++) {
+				sb.append(i > 0 ? "," : "").append(value[i]);
+			}
+			return sb.toString();
+		}
+
+		@Override
+		public double[] decode(String value) {
+			String[] parts = split(value);
+			double[] array = new double[parts.length];
+			for (int i = 0; i < parts.length; i++) {
+				array[i] = Double.parseDouble(parts[i].trim());
+			}
+			return array;
+		}
+	};
+
+	public static final AttributeCodec<boolean[]> BOOL_ARRAY = new AttributeCodec<boolean[]>() {
+		@Override
+		public String encode(boolean[] value) {
+			StringBuilder sb = new StringBuilder();
+			for (int i = 0; i < value.length; i++) {
+				sb.append(i > 0 ? "," : "").append(value[i]);
+			}
+			return sb.toString();
+		}
+
+		@Override
+		public boolean[] decode(String value) {
+			String[] parts = split(value);
+			boolean[] array = new boolean[parts.length];
+			for (int i = 0; i < parts.length; i++) {
+				array[i] = Boolean.parseBoolean(parts[i].trim());
+			}
+			return array;
+		}
+	};
+
+	public static final AttributeCodec<ParameterRange> RANGE = new AttributeCodec<ParameterRange>() {
+		@Override
+		public String encode(ParameterRange value) {
+			return value.toString();
+		}
+
+		@Override
+		public ParameterRange decode(String value) {
+			Scanner scanner = new Scanner(value);
+			scanner.useDelimiter("[\\s+,()]+");
+
+			double v = new Double(scanner.next());
+			double lb = new Double(scanner.next());
+			double ub = new Double(scanner.next());
+			double gr = new Double(scanner.next());
+
+			scanner.close();
+
+			return Parameters.range(v, lb, ub, gr);
+		}
+	};
+
+	public static final AttributeCodec<ParameterRangeDiscrete> DISCRETERANGE = new AttributeCodec<ParameterRangeDiscrete>() {
+		@Override
+		public String encode(ParameterRangeDiscrete value) {
+			return value.toString();
+		}
+
+		@Override
+		public ParameterRangeDiscrete decode(String value) {
+			Scanner scanner = new Scanner(value);
+			scanner.useDelimiter("[\\s+,()]+");
+
+			int v = new Integer(scanner.next());
+			int lb = new Integer(scanner.next());
+			int ub = new Integer(scanner.next());
+
+			scanner.close();
+
+			return Parameters.range(v, lb, ub);
+		}
+	};
+
+	public static final AttributeCodec<ParameterUniqueID> UID = new AttributeCodec<ParameterUniqueID>() {
+		@Override
+		public String encode(ParameterUniqueID value) {
+			return value.toString();
+		}
+
+		@Override
+		public ParameterUniqueID decode(String value) {
+			Scanner scanner = new Scanner(value);
+			scanner.findInLine("(\\w+) \\[UID:(\\w+)\\]");
+
+			MatchResult result = scanner.match();
+			int def = new Integer(result.group(1));
+			String identifier = result.group(2);
+
+			scanner.close();
+
+			return Parameters.uniqueID(def, identifier);
+		}
+	};
+
+	protected static String[] split(String value) {
+		value = value.trim();
+		return value.isEmpty() ? new String[0] : value.split(",");
+	}
+
+}
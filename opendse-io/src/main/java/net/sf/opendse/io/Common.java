@@ -30,10 +30,16 @@ import java.io.Serializable;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
+import net.sf.opendse.model.Architecture;
 import net.sf.opendse.model.Attributes;
 import net.sf.opendse.model.Communication;
 import net.sf.opendse.model.Dependency;
@@ -47,6 +53,8 @@ import net.sf.opendse.model.parameter.ParameterRangeDiscrete;
 import net.sf.opendse.model.parameter.ParameterSelect;
 import net.sf.opendse.model.parameter.ParameterUniqueID;
 
+import edu.uci.ics.jung.graph.util.Pair;
+
 import org.apache.commons.collections15.BidiMap;
 import org.apache.commons.collections15.bidimap.DualHashBidiMap;
 
@@ -78,8 +86,78 @@ public class Common {
 		classMap.put("mapping", Mapping.class);
 		classMap.put("SET", HashSet.class);
 		classMap.put("LIST", ArrayList.class);
+		classMap.put("MAP", HashMap.class);
+	}
+
+	protected static Map<Class<?>, AttributeCodec<?>> codecs = new HashMap<Class<?>, AttributeCodec<?>>();
+
+	static {
+		addCodec("INT[]", int[].class, AttributeCodecs.INT_ARRAY);
+		addCodec("LONG[]", long[].class, AttributeCodecs.LONG_ARRAY);
+		addCodec("DOUBLE[]", double[].class, AttributeCodecs.DOUBLE_ARRAY);
+		addCodec("BOOL[]", boolean[].class, AttributeCodecs.BOOL_ARRAY);
+		addCodec("RANGE", ParameterRange.class, AttributeCodecs.RANGE);
+		addCodec("DISCRETERANGE", ParameterRangeDiscrete.class, AttributeCodecs.DISCRETERANGE);
+		addCodec("UID", ParameterUniqueID.class, AttributeCodecs.UID);
+	}
+
+	/**
+	 * Registers an {@link AttributeCodec} for the attribute values of a class.
+	 * The values are written with the given type name and the encoded value
+	 * instead of the Base64 encoded Java serialization.
+	 * 
+	 * @param <T>
+	 *            the type of the attribute values
+	 * @param type
+	 *            the type name
+	 * @param clazz
+	 *            the class of the attribute values
+	 * @param codec
+	 *            the codec
+	 */
+	public static <T> void addCodec(String type, Class<T> clazz, AttributeCodec<T> codec) {
+		classMap.put(type, clazz);
+		codecs.put(clazz, codec);
+	}
+
+	/**
+	 * Returns the registered {@link AttributeCodec} for the class.
+	 * 
+	 * @param clazz
+	 *            the class of the attribute values
+	 * @return the codec or {@code null} if no codec is registered
+	 */
+	@SuppressWarnings("unchecked")
+	public static AttributeCodec<Object> getCodec(Class<?> clazz) {
+		return (AttributeCodec<Object>) codecs.get(clazz);
+	}
+
+	/**
+	 * Returns {@code true} if the object is a map with {@code String} keys and
+	 * non-null values. These maps are written entry by entry with the key as
+	 * the attribute name.
+	 * 
+	 * @param object
+	 *            the object
+	 * @return {@code true} if the object is a map that is written entry by
+	 *         entry
+	 */
+	protected static boolean isStringMap(Object object) {
+		if (!(object instanceof Map)) {
+			return false;
+		}
+		for (Map.Entry<?, ?> entry : ((Map<?, ?>) object).entrySet()) {
+			if (!(entry.getKey() instanceof String) || entry.getValue() == null) {
+				return false;
+			}
+		}
+		return true;
 	}
 
+	protected static Map<String, Class<?>> classes = new ConcurrentHashMap<String, Class<?>>();
+
+	protected static Map<List<Class<?>>, Constructor<?>> constructors = new ConcurrentHashMap<List<Class<?>>, Constructor<?>>();
+
 	protected static Set<Class<?>> primitives = new HashSet<Class<?>>();
 
 	static {
@@ -139,12 +217,69 @@ public class Common {
 		}
 	}
 
+	/**
+	 * Returns the class with the given name. Each class is loaded only once.
+	 * 
+	 * @param name
+	 *            the fully qualified name of the class
+	 * @return the class
+	 * @throws ClassNotFoundException
+	 *             thrown in case the class does not exist
+	 */
+	protected static Class<?> forName(String name) throws ClassNotFoundException {
+		Class<?> clazz = classes.get(name);
+		if (clazz == null) {
+			clazz = Class.forName(name);
+			classes.put(name, clazz);
+		}
+		return clazz;
+	}
+
+	/**
+	 * Returns the public constructor of the class with the given parameter
+	 * types. Each constructor is resolved only once.
+	 * 
+	 * @param <T>
+	 *            the type of the class
+	 * @param clazz
+	 *            the class
+	 * @param parameterTypes
+	 *            the parameter types
+	 * @return the constructor
+	 * @throws NoSuchMethodException
+	 *             thrown in case the constructor does not exist
+	 */
+	@SuppressWarnings("unchecked")
+	protected static <T> Constructor<T> getConstructor(Class<T> clazz, Class<?>... parameterTypes)
+			throws NoSuchMethodException {
+		List<Class<?>> key = new ArrayList<Class<?>>(parameterTypes.length + 1);
+		key.add(clazz);
+		key.addAll(Arrays.asList(parameterTypes));
+
+		Constructor<?> constructor = constructors.get(key);
+		if (constructor == null) {
+			constructor = clazz.getConstructor(parameterTypes);
+			constructors.put(key, constructor);
+		}
+		return (Constructor<T>) constructor;
+	}
+
 	@SuppressWarnings("rawtypes")
 	protected static Object toInstance(String value, Class<?> clazz) throws IllegalArgumentException,
 			SecurityException, InstantiationException, IllegalAccessException, InvocationTargetException,
 			NoSuchMethodException {
-		if (!clazz.isEnum()) {
-			Constructor constructor = clazz.getConstructor(String.class);
+		if (clazz == Integer.class) {
+			return Integer.valueOf(value.trim());
+		} else if (clazz == Double.class) {
+			return Double.valueOf(value.trim());
+		} else if (clazz == String.class) {
+			return value.trim();
+		} else if (clazz == Boolean.class) {
+			return Boolean.valueOf(value.trim());
+		} else if (clazz == Long.class) {
+			return Long.valueOf(value.trim());
+		} else if (!clazz.isEnum()) {
+			Constructor constructor = getConstructor(clazz, String.class);
 			if (constructor != null) {
 				return constructor.newInstance(value.trim());
 			}
@@ -159,6 +294,36 @@ public class Common {
 		return null;
 	}
 
+	/**
+	 * Returns a key that is equal for two routings if and only if they are
+	 * written identically: The key contains the id, class, and end points of
+	 * each element and the local attributes if the parent of the element is
+	 * the resource with the same id in the architecture.
+	 * 
+	 * @param routing
+	 *            the routing
+	 * @param resources
+	 *            the resources of the architecture by their id
+	 * @return the key
+	 */
+	protected static Set<List<Object>> getRoutingKey(Architecture<Resource, Link> routing,
+			Map<String, Resource> resources) {
+		Set<List<Object>> key = new HashSet<List<Object>>();
+		for (Resource resource : routing) {
+			boolean local = resource.getParent() == resources.get(resource.getId());
+			key.add(Arrays.<Object> asList(resource.getId(), resource.getClass(),
+					local ? resource.getLocalAttributes() : null));
+		}
+		for (Link link : routing.getEdges()) {
+			Pair<Resource> endpoints = routing.getEndpoints(link);
+			boolean local = link.getParent() == resources.get(link.getId());
+			key.add(Arrays.<Object> asList(link.getId(), link.getClass(), endpoints.getFirst().getId(),
+					endpoints.getSecond().getId(), routing.getEdgeType(link),
+					local ? link.getLocalAttributes() : null));
+		}
+		return key;
+	}
+
 	protected static void setAttributes(IAttributes e, Attributes attributes) {
 		for (String name : attributes.keySet()) {
 			e.setAttribute(name, attributes.get(name));
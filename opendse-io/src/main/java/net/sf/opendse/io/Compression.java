@@ -0,0 +1,145 @@
+/*******************************************************************************
+ * Copyright (c) 2015 OpenDSE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *******************************************************************************/
+package net.sf.opendse.io;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.channels.Channels;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The {@code Compression} class opens specification files that are
+ * transparently compressed with gzip.
+ * <p>
+ * Compressed files are detected by their magic bytes when reading and by the
+ * {@code .gz} extension when writing. All streams are buffered and read from
+ * or written to the underlying file channel.
+ * 
+ * @author Martin Lukasiewycz
+ * 
+ */
+public class Compression {
+
+	public static final String GZIP_EXTENSION = ".gz";
+
+	protected static final int GZIP_MAGIC = 0x8b1f;
+
+	protected static final int BUFFER_SIZE = 1 << 16;
+
+	/**
+	 * Returns {@code true} if the file starts with the gzip magic bytes.
+	 * 
+	 * @param file
+	 *            the file
+	 * @return {@code true} if the file is compressed
+	 */
+	public static boolean isCompressed(File file) {
+		try {
+			InputStream in = new FileInputStream(file);
+			try {
+				return (in.read() | (in.read() << 8)) == GZIP_MAGIC;
+			} finally {
+				in.close();
+			}
+		} catch (IOException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Returns the uncompressed size of the file. For compressed files, the
+	 * size is taken from the gzip trailer which holds the size modulo
+	 * 2<sup>32</sup>.
+	 * 
+	 * @param file
+	 *            the file
+	 * @return the uncompressed size in bytes
+	 */
+	public static long getUncompressedLength(File file) {
+		if (!isCompressed(file)) {
+			return file.length();
+		}
+		try {
+			RandomAccessFile in = new RandomAccessFile(file, "r");
+			try {
+				in.seek(in.length() - 4);
+				long size = 0;
+				for (int i = 0; i < 4; i++) {
+					size |= (long) in.read() << (8 * i);
+				}
+				return size;
+			} finally {
+				in.close();
+			}
+		} catch (IOException e) {
+			return file.length();
+		}
+	}
+
+	/**
+	 * Opens a buffered input stream on the file that decompresses the content
+	 * if the file is compressed.
+	 * 
+	 * @param file
+	 *            the file
+	 * @return the input stream
+	 * @throws IOException
+	 *             if the file cannot be opened
+	 */
+	public static InputStream openInputStream(File file) throws IOException {
+		InputStream in = new BufferedInputStream(Channels.newInputStream(new FileInputStream(file).getChannel()),
+				BUFFER_SIZE);
+		in.mark(2);
+		int magic = in.read() | (in.read() << 8);
+		in.reset();
+		if (magic == GZIP_MAGIC) {
+			return new BufferedInputStream(new GZIPInputStream(in, BUFFER_SIZE), BUFFER_SIZE);
+		}
+		return in;
+	}
+
+	/**
+	 * Opens a buffered output stream on the file that compresses the content
+	 * if the file name ends with {@value #GZIP_EXTENSION}.
+	 * 
+	 * @param file
+	 *            the file
+	 * @return the output stream
+	 * @throws IOException
+	 *             if the file cannot be opened
+	 */
+	public static OutputStream openOutputStream(File file) throws IOException {
+		OutputStream out = Channels.newOutputStream(new FileOutputStream(file).getChannel());
+		if (file.getName().endsWith(GZIP_EXTENSION)) {
+			return new BufferedOutputStream(new GZIPOutputStream(out, BUFFER_SIZE), BUFFER_SIZE);
+		}
+		return new BufferedOutputStream(out, BUFFER_SIZE);
+	}
+}
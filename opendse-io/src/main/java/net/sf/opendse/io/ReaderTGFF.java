@@ -14,6 +14,8 @@ import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.regex.Pattern;
 
 import net.sf.opendse.model.Application;
 import net.sf.opendse.model.Communication;
@@ -73,11 +75,14 @@ public class ReaderTGFF {
 	protected static final String CONNECTOR = "_";
 	protected static final String HEADER = "#---------";
 
+	protected static final Pattern WHITESPACE = Pattern.compile(SEPARATOR);
+
 	protected Map<String, String> properties;
 	protected Map<String, Double> messageSizes;
 	protected double hyperperiod;
 
 	protected Map<String, List<Task>> tgffTypeMap = new HashMap<String, List<Task>>();
+	protected Map<String, Task> tasks = new HashMap<String, Task>();
 
 	/**
 	 * Reads a {@link SpecificationTypeBased} from a tgff-file.
@@ -114,20 +119,8 @@ public class ReaderTGFF {
 	 * @return the specification
 	 */
 	public SpecificationTypeBased read(InputStream in) {
-
-		List<String> tgffFile = new ArrayList<String>();
-		try {
-			BufferedReader br = new BufferedReader(new InputStreamReader(in));
-
-			String currentLine;
-			while ((currentLine = br.readLine()) != null) {
-				tgffFile.add(currentLine);
-			}
-
-		} catch (IOException e) {
-			e.printStackTrace();
-		}
-		return toSpecification(tgffFile);
+		BufferedReader br = new BufferedReader(new InputStreamReader(in));
+		return toSpecification(new LineIterator(br));
 	}
 
 	/**
@@ -140,12 +133,55 @@ public class ReaderTGFF {
 	 * @return the type-based specification
 	 */
 	public SpecificationTypeBased toSpecification(List<String> in) {
+		return toSpecification(in.iterator());
+	}
+
+	/**
+	 * Reads {@link Application}, {@link Mappings}, {@link ResourceTypes} and
+	 * {@link LinkTypes} in a single pass over the lines of a tgff-file. Each
+	 * section is imported when it is encountered. Only the lines of the
+	 * resource type sections are kept, since their mappings are created
+	 * after all task graphs are known.
+	 * 
+	 * @param it
+	 *            an iterator on the lines of the tgff-file
+	 * @return the type-based specification
+	 */
+	public SpecificationTypeBased toSpecification(Iterator<String> it) {
+
+		Application<Task, Dependency> application = new Application<Task, Dependency>();
+		ResourceTypes<Resource> resourceTypes = new ResourceTypes<Resource>();
+		LinkTypes<Link> linkTypes = new LinkTypes<Link>();
+
+		List<String> coreNames = new ArrayList<String>();
+		List<List<String>> cores = new ArrayList<List<String>>();
+
+		while (it.hasNext()) {
+			String currentLine = it.next();
+
+			if (currentLine.contains(HYPERPERIOD)) {
+				this.hyperperiod = importHyperperiod(currentLine);
+			} else if (currentLine.contains(COMMUN_QUANT)) {
+				this.messageSizes = importMessageSizes(it);
+			} else if (currentLine.contains(TASK_GRAPH)) {
+				importTaskGraph(currentLine, it, application);
+			} else if (currentLine.contains(CORE) || currentLine.contains(PROC) || currentLine.contains(CLIENT_PE)
+					|| currentLine.contains(SERVER_PE)) {
+				List<String> core = importSection(it);
+				importCore(currentLine, core.iterator(), resourceTypes);
+				coreNames.add(currentLine);
+				cores.add(core);
+			} else if (currentLine.contains(WIRE)) {
+				importLink(it, linkTypes);
+			}
+		}
 
-		Application<Task, Dependency> application = toApplication(in);
-		ResourceTypes<Resource> resourceTypes = toResourceTypes(in);
-		Mappings<Task, Resource> mappings = toMappings(in, resourceTypes);
+		Mappings<Task, Resource> mappings = new Mappings<Task, Resource>();
+		for (int i = 0; i < cores.size(); i++) {
+			importMappings(coreNames.get(i), cores.get(i).iterator(), resourceTypes, mappings);
+		}
 
-		return new SpecificationTypeBased(application, resourceTypes, mappings, toLinkTypes(in));
+		return new SpecificationTypeBased(application, resourceTypes, mappings, linkTypes);
 	}
 
 	/**
@@ -274,7 +310,7 @@ public class ReaderTGFF {
 	 */
 	protected void importTaskGraph(String name, Iterator<String> it, Application<Task, Dependency> application) {
 
-		String id = CONNECTOR + name.split(SEPARATOR)[1];
+		String id = CONNECTOR + WHITESPACE.split(name)[1];
 
 		String line = "";
 		double period = -1;
@@ -285,7 +321,7 @@ public class ReaderTGFF {
 			if (!isComment(line)) {
 
 				if (line.contains(PERIOD)) {
-					period = Double.parseDouble(line.replace(PERIOD, "").replaceAll(SEPARATOR, ""));
+					period = Double.parseDouble(WHITESPACE.matcher(line.replace(PERIOD, "")).replaceAll(""));
 				}
 
 				else if (line.contains(TASK)) {
@@ -319,7 +355,7 @@ public class ReaderTGFF {
 	 */
 	protected void addTask(String line, String suffix, double period, Application<Task, Dependency> application) {
 
-		String[] entries = line.trim().split(SEPARATOR);
+		String[] entries = split(line);
 		assert entries.length >= 4 : "tgff-file \"" + TASK + "\": wrong number of entries";
 
 		String id = entries[1] + suffix;
@@ -340,6 +376,7 @@ public class ReaderTGFF {
 			tgffTypeMap.put(type, taskList);
 		}
 		application.addVertex(task);
+		tasks.put(id, task);
 	}
 
 	/**
@@ -358,7 +395,7 @@ public class ReaderTGFF {
 	protected void addCommunication(String line, String suffix, double period,
 			Application<Task, Dependency> application) {
 
-		String[] entries = line.trim().split(SEPARATOR);
+		String[] entries = split(line);
 		assert entries.length == 8 : "tgff-file \"ARC\": wrong number of entries in line";
 
 		String id = entries[1];
@@ -372,8 +409,8 @@ public class ReaderTGFF {
 			comm.setAttribute(MSG_SIZE, messageSizes.get(entries[7]));
 		}
 
-		Task t1 = application.getVertex(entries[3] + suffix);
-		Task t2 = application.getVertex(entries[5] + suffix);
+		Task t1 = getTask(entries[3] + suffix, application);
+		Task t2 = getTask(entries[5] + suffix, application);
 
 		application.addVertex(comm);
 		application.addEdge(new Dependency(id + "_0"), t1, comm);
@@ -395,10 +432,10 @@ public class ReaderTGFF {
 	protected void addDeadline(String line, String suffix, Application<Task, Dependency> application,
 			String deadlineType) {
 
-		String[] entries = line.trim().split(SEPARATOR);
+		String[] entries = split(line);
 		assert entries.length == 6 : "tgff-file \"" + deadlineType + "\": wrong number of entries";
 
-		Task t = application.getVertex(entries[3] + suffix);
+		Task t = getTask(entries[3] + suffix, application);
 		assert t != null : "error in tgff file: task " + entries[3]
 				+ " does not exist, so cannot be assigned a deadline.";
 
@@ -418,16 +455,16 @@ public class ReaderTGFF {
 	protected void importCore(String name, Iterator<String> it, ResourceTypes<Resource> resourceTypes) {
 
 		// create resource (type)
-		String id = "r" + name.split(SEPARATOR)[1];
+		String id = "r" + WHITESPACE.split(name)[1];
 		Resource res = new Resource(id);
 
 		// first line contains attributes of resources
 		String[] resAttributes;
 
-		resAttributes = (it.next()).replace(COMMENT, "").trim().split(SEPARATOR);
+		resAttributes = split(it.next().replace(COMMENT, ""));
 
 		// second line contains attribute values
-		String[] resValues = it.next().trim().split(SEPARATOR);
+		String[] resValues = split(it.next());
 
 		assert resAttributes.length == resValues.length : "tgff-file \"" + CORE + "\": number of values is not "
 				+ "equal to required number of resource attributes";
@@ -454,7 +491,7 @@ public class ReaderTGFF {
 			Mappings<Task, Resource> mappings) {
 
 		// create resource (type)
-		String id = "r" + name.split(SEPARATOR)[1];
+		String id = "r" + WHITESPACE.split(name)[1];
 		Resource res = resourceTypes.get(id);
 
 		// skip resource type information (already imported in
@@ -470,12 +507,12 @@ public class ReaderTGFF {
 
 			// extract attributes of resource type
 			if (line.contains(TYPE)) {
-				attributes = new LinkedList<String>(Arrays.asList(line.replace(COMMENT, "").trim().split(SEPARATOR)));
+				attributes = new LinkedList<String>(Arrays.asList(split(line.replace(COMMENT, ""))));
 			}
 			// extract values for each attribute
 			else if (!isComment(line) && line.length() > 0) {
 
-				String[] values = line.trim().split(SEPARATOR);
+				String[] values = split(line);
 
 				assert values.length == attributes.size() : "tgff-file \"" + CORE + "\": number of values is not "
 						+ "equal to required number of attributes";
@@ -522,7 +559,7 @@ public class ReaderTGFF {
 
 		while (!isClosing(line = it.next())) {
 			if (!isComment(line)) {
-				String[] entries = line.trim().split(SEPARATOR);
+				String[] entries = split(line);
 				assert entries.length >= 2 : "tgff-file \"" + COMMUN_QUANT + "\": wrong number of entries";
 
 				sizes.put(entries[0], Double.valueOf(entries[1]));
@@ -560,6 +597,48 @@ public class ReaderTGFF {
 		linkTypes.put(WIRE, link);
 	}
 
+	/**
+	 * Returns the lines of a section up to and including the closing line.
+	 * 
+	 * @param it
+	 *            an iterator on the lines of the section
+	 * @return the lines of the section
+	 */
+	protected List<String> importSection(Iterator<String> it) {
+		List<String> lines = new ArrayList<String>();
+		String line;
+		do {
+			line = it.next();
+			lines.add(line);
+		} while (!isClosing(line));
+		return lines;
+	}
+
+	/**
+	 * Returns the {@link Task} with the given id.
+	 * 
+	 * @param id
+	 *            the id of the task
+	 * @param application
+	 *            the application
+	 * @return the task
+	 */
+	protected Task getTask(String id, Application<Task, Dependency> application) {
+		Task task = tasks.get(id);
+		return task != null ? task : application.getVertex(id);
+	}
+
+	/**
+	 * Splits a trimmed line into its whitespace-separated entries.
+	 * 
+	 * @param line
+	 *            the line
+	 * @return the entries
+	 */
+	protected String[] split(String line) {
+		return WHITESPACE.split(line.trim());
+	}
+
 	protected double importHyperperiod(String line) {
 		return Double.parseDouble(line.replace(HYPERPERIOD, "").trim());
 	}
@@ -575,4 +654,47 @@ public class ReaderTGFF {
 	protected boolean skip(String line) {
 		return !(line.contains(HEADER));
 	}
+
+	/**
+	 * The {@code LineIterator} reads the lines of a tgff-file on demand.
+	 */
+	protected static class LineIterator implements Iterator<String> {
+
+		protected final BufferedReader reader;
+		protected String next;
+
+		public LineIterator(BufferedReader reader) {
+			this.reader = reader;
+			this.next = readLine();
+		}
+
+		@Override
+		public boolean hasNext() {
+			return next != null;
+		}
+
+		@Override
+		public String next() {
+			if (next == null) {
+				throw new NoSuchElementException();
+			}
+			String line = next;
+			next = readLine();
+			return line;
+		}
+
+		@Override
+		public void remove() {
+			throw new UnsupportedOperationException();
+		}
+
+		protected String readLine() {
+			try {
+				return reader.readLine();
+			} catch (IOException e) {
+				e.printStackTrace();
+				return null;
+			}
+		}
+	}
 }
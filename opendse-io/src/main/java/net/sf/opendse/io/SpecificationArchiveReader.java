@@ -0,0 +1,199 @@
+/*******************************************************************************
+ * Copyright (c) 2015 OpenDSE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *******************************************************************************/
+package net.sf.opendse.io;
+
+import static net.sf.opendse.io.SpecificationArchiveWriter.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import net.sf.opendse.model.Specification;
+
+/**
+ * The {@code SpecificationArchiveReader} reads an archive that was written
+ * by the {@link SpecificationArchiveWriter}.
+ * <p>
+ * Only the index is read when the archive is opened. The objectives of all
+ * specifications are available from the index, while a specification itself
+ * is read from its offset in the archive when it is requested.
+ * 
+ * @author Martin Lukasiewycz
+ * 
+ */
+public class SpecificationArchiveReader implements Closeable {
+
+	protected final RandomAccessFile file;
+	protected final FileChannel channel;
+	protected final SpecificationBinaryReader reader = new SpecificationBinaryReader();
+
+	protected long[] offsets;
+	protected int[] lengths;
+	protected Map<String, Object>[] objectives;
+
+	/**
+	 * Constructs a new {@code SpecificationArchiveReader} and reads the index
+	 * of the archive.
+	 * 
+	 * @param file
+	 *            the archive
+	 * @throws IOException
+	 *             if the archive cannot be read
+	 * @throws IllegalArgumentException
+	 *             if the file is not an archive
+	 */
+	public SpecificationArchiveReader(File file) throws IOException {
+		this.file = new RandomAccessFile(file, "r");
+		this.channel = this.file.getChannel();
+		try {
+			readIndex();
+		} catch (IOException e) {
+			close();
+			throw e;
+		} catch (RuntimeException e) {
+			close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Returns the number of specifications in the archive.
+	 * 
+	 * @return the number of specifications
+	 */
+	public int size() {
+		return offsets.length;
+	}
+
+	/**
+	 * Returns the objectives of a specification as stored in the index.
+	 * 
+	 * @param index
+	 *            the index of the specification
+	 * @return the objectives by their name
+	 */
+	public Map<String, Object> getObjectives(int index) {
+		return objectives[index];
+	}
+
+	/**
+	 * Reads a single specification from the archive.
+	 * 
+	 * @param index
+	 *            the index of the specification
+	 * @return the specification
+	 */
+	public Specification read(int index) {
+		try {
+			return reader.read(read(offsets[index], lengths[index]));
+		} catch (IOException e) {
+			throw new IllegalArgumentException(e);
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		file.close();
+	}
+
+	@SuppressWarnings("unchecked")
+	protected void readIndex() throws IOException {
+		long size = channel.size();
+		int trailer = 8 + MAGIC.length;
+		if (size < MAGIC.length + 4 + 4 + trailer) {
+			throw new IllegalArgumentException("Not a specification archive");
+		}
+		ByteBuffer header = read(0, MAGIC.length + 4);
+		ByteBuffer footer = read(size - trailer, trailer);
+		checkMagic(header);
+		int version = header.getInt();
+		if (version != VERSION) {
+			throw new IllegalArgumentException("Unsupported version of the specification archive: " + version);
+		}
+		long indexOffset = footer.getLong();
+		checkMagic(footer);
+		if (indexOffset < MAGIC.length + 4 || indexOffset > size - trailer) {
+			throw new IllegalArgumentException("Corrupt specification archive");
+		}
+
+		ByteBuffer buffer = read(indexOffset, (int) (size - trailer - indexOffset));
+		DataInputStream in = new DataInputStream(new ByteArrayInputStream(buffer.array()));
+
+		int count = in.readInt();
+		offsets = new long[count];
+		lengths = new int[count];
+		objectives = new Map[count];
+		for (int i = 0; i < count; i++) {
+			offsets[i] = in.readLong();
+			lengths[i] = in.readInt();
+			int n = in.readInt();
+			Map<String, Object> values = new LinkedHashMap<String, Object>();
+			for (int j = 0; j < n; j++) {
+				String name = in.readUTF();
+				values.put(name, readValue(in));
+			}
+			objectives[i] = Collections.unmodifiableMap(values);
+		}
+	}
+
+	protected Object readValue(DataInputStream in) throws IOException {
+		int tag = in.read();
+		switch (tag) {
+		case INT:
+			return in.readInt();
+		case DOUBLE:
+			return in.readDouble();
+		case STRING:
+			return in.readUTF();
+		default:
+			throw new IllegalArgumentException("Unknown objective value type: " + tag);
+		}
+	}
+
+	protected void checkMagic(ByteBuffer buffer) {
+		byte[] magic = new byte[MAGIC.length];
+		buffer.get(magic);
+		if (!Arrays.equals(magic, MAGIC)) {
+			throw new IllegalArgumentException("Not a specification archive");
+		}
+	}
+
+	protected ByteBuffer read(long position, int length) throws IOException {
+		ByteBuffer buffer = ByteBuffer.allocate(length);
+		while (buffer.hasRemaining()) {
+			if (channel.read(buffer, position + buffer.position()) < 0) {
+				throw new IOException("Unexpected end of specification archive");
+			}
+		}
+		buffer.flip();
+		return buffer;
+	}
+}
@@ -0,0 +1,205 @@
+/*******************************************************************************
+ * Copyright (c) 2015 OpenDSE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *******************************************************************************/
+package net.sf.opendse.io;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import net.sf.opendse.model.Attributes;
+import net.sf.opendse.model.Specification;
+
+/**
+ * The {@code SpecificationArchiveWriter} writes a sequence of specifications
+ * (typically implementations) to an archive that is read by the
+ * {@link SpecificationArchiveReader}.
+ * <p>
+ * An archive starts with the {@link #MAGIC} bytes and the {@link #VERSION},
+ * followed by the specifications in the format of the
+ * {@link SpecificationBinaryWriter}. The index at the end of the archive
+ * contains the offset and length of each specification together with its
+ * objective attributes, i.e., all attributes with the suffix
+ * {@link #OBJECTIVE}. The archive ends with the offset of the index and the
+ * magic bytes. Archives are not compressed since the specifications are read
+ * by their offset.
+ * 
+ * @author Martin Lukasiewycz
+ * 
+ */
+public class SpecificationArchiveWriter {
+
+	/**
+	 * The magic bytes at the start and the end of each archive.
+	 */
+	public static final byte[] MAGIC = { 'O', 'D', 'S', 'A' };
+
+	/**
+	 * The current version of the format.
+	 */
+	public static final int VERSION = 1;
+
+	/**
+	 * The file extension of archives.
+	 */
+	public static final String EXTENSION = ".odsa";
+
+	/**
+	 * The suffix of the objective attributes that are written to the index.
+	 */
+	public static final String OBJECTIVE = ":OBJECTIVE";
+
+	protected static final int INT = 1;
+	protected static final int DOUBLE = 2;
+	protected static final int STRING = 3;
+
+	protected final SpecificationBinaryWriter writer;
+
+	/**
+	 * Constructs a new {@code SpecificationArchiveWriter} that exports the
+	 * routings.
+	 */
+	public SpecificationArchiveWriter() {
+		this(true);
+	}
+
+	/**
+	 * Constructs a new {@code SpecificationArchiveWriter}.
+	 * 
+	 * @param writeRoutings
+	 *            true if the routings shall be exported
+	 */
+	public SpecificationArchiveWriter(boolean writeRoutings) {
+		this.writer = new SpecificationBinaryWriter(writeRoutings);
+	}
+
+	/**
+	 * Write the specifications to a file.
+	 * 
+	 * @param specifications
+	 *            the specifications
+	 * @param file
+	 *            the file
+	 */
+	public void write(Iterable<Specification> specifications, File file) {
+		try {
+			OutputStream out = new BufferedOutputStream(new FileOutputStream(file), 1 << 16);
+			write(specifications, out);
+			out.close();
+		} catch (FileNotFoundException e) {
+			e.printStackTrace();
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+	}
+
+	/**
+	 * Write the specifications to an output stream. Each specification is
+	 * written before the next one is requested from the iterable such that
+	 * the iterable may create the specifications lazily.
+	 * 
+	 * @param specifications
+	 *            the specifications
+	 * @param out
+	 *            the output stream
+	 */
+	public synchronized void write(Iterable<Specification> specifications, OutputStream out) {
+		try {
+			DataOutputStream data = new DataOutputStream(out);
+			data.write(MAGIC);
+			data.writeInt(VERSION);
+			long offset = MAGIC.length + 4;
+
+			List<Long> offsets = new ArrayList<Long>();
+			List<Integer> lengths = new ArrayList<Integer>();
+			List<Map<String, Object>> objectives = new ArrayList<Map<String, Object>>();
+
+			ByteArrayOutputStream entry = new ByteArrayOutputStream();
+			for (Specification specification : specifications) {
+				entry.reset();
+				writer.write(specification, entry);
+				entry.writeTo(data);
+
+				offsets.add(offset);
+				lengths.add(entry.size());
+				objectives.add(getObjectives(specification));
+				offset += entry.size();
+			}
+
+			data.writeInt(offsets.size());
+			for (int i = 0; i < offsets.size(); i++) {
+				data.writeLong(offsets.get(i));
+				data.writeInt(lengths.get(i));
+				Map<String, Object> values = objectives.get(i);
+				data.writeInt(values.size());
+				for (Map.Entry<String, Object> value : values.entrySet()) {
+					data.writeUTF(value.getKey());
+					writeValue(data, value.getValue());
+				}
+			}
+			data.writeLong(offset);
+			data.write(MAGIC);
+			data.flush();
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+	}
+
+	/**
+	 * Returns the objective attributes of the specification.
+	 * 
+	 * @param specification
+	 *            the specification
+	 * @return the objective attributes by their name without the suffix
+	 */
+	public static Map<String, Object> getObjectives(Specification specification) {
+		Map<String, Object> objectives = new LinkedHashMap<String, Object>();
+		Attributes attributes = specification.getAttributes();
+		for (String name : attributes.keySet()) {
+			if (name.endsWith(OBJECTIVE)) {
+				objectives.put(name.substring(0, name.length() - OBJECTIVE.length()), attributes.get(name));
+			}
+		}
+		return objectives;
+	}
+
+	protected void writeValue(DataOutputStream data, Object value) throws IOException {
+		if (value instanceof Integer) {
+			data.write(INT);
+			data.writeInt((Integer) value);
+		} else if (value instanceof Number) {
+			data.write(DOUBLE);
+			data.writeDouble(((Number) value).doubleValue());
+		} else {
+			data.write(STRING);
+			data.writeUTF(String.valueOf(value));
+		}
+	}
+}
@@ -0,0 +1,534 @@
+/*******************************************************************************
+ * Copyright (c) 2015 OpenDSE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *******************************************************************************/
+package net.sf.opendse.io;
+
+import static net.sf.opendse.io.Common.getCodec;
+import static net.sf.opendse.io.Common.getConstructor;
+import static net.sf.opendse.io.Common.toInstance;
+import static net.sf.opendse.io.SpecificationBinaryWriter.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import net.sf.opendse.model.Application;
+import net.sf.opendse.model.Architecture;
+import net.sf.opendse.model.Dependency;
+import net.sf.opendse.model.Edge;
+import net.sf.opendse.model.Element;
+import net.sf.opendse.model.IAttributes;
+import net.sf.opendse.model.Link;
+import net.sf.opendse.model.Mapping;
+import net.sf.opendse.model.Mappings;
+import net.sf.opendse.model.Node;
+import net.sf.opendse.model.Resource;
+import net.sf.opendse.model.Routings;
+import net.sf.opendse.model.Specification;
+import net.sf.opendse.model.Task;
+import edu.uci.ics.jung.graph.util.EdgeType;
+
+/**
+ * The {@code SpecificationBinaryReader} reads a {@code Specification} that
+ * was written by the {@link SpecificationBinaryWriter}.
+ * <p>
+ * Files are memory-mapped instead of being copied to the heap. Only the
+ * offsets of the string table are determined when the file is opened, the
+ * strings themselves are decoded once when they are referenced for the first
+ * time.
+ * 
+ * @author Martin Lukasiewycz
+ * 
+ */
+public class SpecificationBinaryReader extends SpecificationReader {
+
+	protected ByteBuffer buffer = null;
+	protected int[] offsets = null;
+	protected int[] lengths = null;
+	protected String[] strings = null;
+	protected Class<?>[] classes = null;
+
+	/**
+	 * Read specification from a file by mapping the file into memory. Files
+	 * that are compressed with gzip are decompressed to the heap instead.
+	 * 
+	 * @param file
+	 *            the file
+	 * @return the specification
+	 */
+	@Override
+	public Specification read(File file) {
+		try {
+			if (Compression.isCompressed(file)) {
+				InputStream in = Compression.openInputStream(file);
+				try {
+					return read(in);
+				} finally {
+					in.close();
+				}
+			}
+			RandomAccessFile in = new RandomAccessFile(file, "r");
+			try {
+				FileChannel channel = in.getChannel();
+				return read(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+			} finally {
+				in.close();
+			}
+		} catch (IOException e) {
+			e.printStackTrace();
+			return null;
+		}
+	}
+
+	/**
+	 * Read specification from an input stream.
+	 * 
+	 * @param in
+	 *            the input stream
+	 * @return the specification
+	 */
+	@Override
+	public Specification read(InputStream in) {
+		try {
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			byte[] bytes = new byte[8192];
+			int length;
+			while ((length = in.read(bytes)) > 0) {
+				out.write(bytes, 0, length);
+			}
+			return read(ByteBuffer.wrap(out.toByteArray()));
+		} catch (IOException e) {
+			throw new IllegalArgumentException(e);
+		}
+	}
+
+	@Override
+	protected Specification readStreaming(InputStream in) {
+		return read(in);
+	}
+
+	/**
+	 * Read specification from a buffer. Each specification is read with new
+	 * elements, i.e., elements of previously read specifications are not
+	 * reused.
+	 * 
+	 * @param buffer
+	 *            the buffer that is positioned at the start of the
+	 *            specification
+	 * @return the specification
+	 */
+	public synchronized Specification read(ByteBuffer buffer) {
+		this.buffer = buffer;
+		this.knownElements.clear();
+		try {
+			byte[] magic = new byte[MAGIC.length];
+			if (buffer.remaining() < magic.length) {
+				throw new IllegalArgumentException("Not a binary specification");
+			}
+			buffer.get(magic);
+			if (!Arrays.equals(magic, MAGIC)) {
+				throw new IllegalArgumentException("Not a binary specification");
+			}
+			int version = readVarint();
+			if (version != VERSION) {
+				throw new IllegalArgumentException("Unsupported version of the binary specification: " + version);
+			}
+			int flags = buffer.get();
+
+			readStringTable();
+
+			List<Resource> resources = new ArrayList<Resource>();
+			List<Link> links = new ArrayList<Link>();
+			List<Task> tasks = new ArrayList<Task>();
+
+			Architecture<Resource, Link> architecture = readArchitecture(resources, links);
+			Application<Task, Dependency> application = readApplication(tasks);
+			Mappings<Task, Resource> mappings = readMappings(resources, tasks);
+
+			Specification specification = null;
+			if ((flags & FLAG_ROUTINGS) != 0) {
+				Routings<Task, Resource, Link> routings = readRoutings(resources, links, tasks);
+				specification = new Specification(application, architecture, mappings, routings);
+			} else {
+				specification = new Specification(application, architecture, mappings);
+			}
+			readAttributes(specification);
+
+			return specification;
+		} catch (IllegalArgumentException e) {
+			throw e;
+		} catch (Exception e) {
+			throw new IllegalArgumentException(e);
+		} finally {
+			this.buffer = null;
+			this.offsets = null;
+			this.lengths = null;
+			this.strings = null;
+			this.classes = null;
+			this.knownElements.clear();
+		}
+	}
+
+	protected void readStringTable() {
+		int size = readVarint();
+		offsets = new int[size];
+		lengths = new int[size];
+		strings = new String[size];
+		classes = new Class<?>[size];
+		for (int i = 0; i < size; i++) {
+			lengths[i] = readVarint();
+			offsets[i] = buffer.position();
+			buffer.position(offsets[i] + lengths[i]);
+		}
+	}
+
+	protected Architecture<Resource, Link> readArchitecture(List<Resource> resources, List<Link> links)
+			throws Exception {
+		Architecture<Resource, Link> architecture = new Architecture<Resource, Link>();
+
+		int size = readVarint();
+		for (int i = 0; i < size; i++) {
+			Resource resource = readNode();
+			architecture.addVertex(resource);
+			resources.add(resource);
+		}
+		size = readVarint();
+		for (int i = 0; i < size; i++) {
+			Link link = readEdge();
+			Resource source = resources.get(readVarint());
+			Resource destination = resources.get(readVarint());
+			architecture.addEdge(link, source, destination, readEdgeType());
+			readAttributes(link);
+			links.add(link);
+		}
+
+		return architecture;
+	}
+
+	protected Application<Task, Dependency> readApplication(List<Task> tasks) throws Exception {
+		Application<Task, Dependency> application = new Application<Task, Dependency>();
+
+		int size = readVarint();
+		for (int i = 0; i < size; i++) {
+			Task task = readNode();
+			application.addVertex(task);
+			tasks.add(task);
+		}
+		size = readVarint();
+		for (int i = 0; i < size; i++) {
+			Dependency dependency = readEdge();
+			Task source = tasks.get(readVarint());
+			Task destination = tasks.get(readVarint());
+			application.addEdge(dependency, source, destination, EdgeType.DIRECTED);
+			readAttributes(dependency);
+		}
+
+		size = readVarint();
+		for (int i = 0; i < size; i++) {
+			Task anchor = tasks.get(readVarint());
+			readAttributes(application.getFunction(anchor));
+		}
+
+		return application;
+	}
+
+	protected Mappings<Task, Resource> readMappings(List<Resource> resources, List<Task> tasks) throws Exception {
+		Mappings<Task, Resource> mappings = new Mappings<Task, Resource>();
+
+		int size = readVarint();
+		for (int i = 0; i < size; i++) {
+			Class<Mapping<Task, Resource>> type = readClass();
+			String id = readString();
+			Task source = tasks.get(readVarint());
+			Resource target = resources.get(readVarint());
+			Mapping<Task, Resource> mapping = getConstructor(type, String.class, Task.class, Resource.class)
+					.newInstance(id, source, target);
+			readAttributes(mapping);
+			mappings.add(mapping);
+		}
+
+		return mappings;
+	}
+
+	protected Routings<Task, Resource, Link> readRoutings(List<Resource> resources, List<Link> links,
+			List<Task> tasks) throws Exception {
+		Routings<Task, Resource, Link> routings = new Routings<Task, Resource, Link>();
+
+		int size = readVarint();
+		for (int i = 0; i < size; i++) {
+			Task task = tasks.get(readVarint());
+			Architecture<Resource, Link> routing = new Architecture<Resource, Link>();
+
+			int vertices = readVarint();
+			List<Resource> index = new ArrayList<Resource>(vertices);
+			for (int j = 0; j < vertices; j++) {
+				Resource resource = readReference(resources, true);
+				readAttributes(resource);
+				routing.addVertex(resource);
+				index.add(resource);
+			}
+			int edges = readVarint();
+			for (int j = 0; j < edges; j++) {
+				Link link = readReference(links, false);
+				Resource source = index.get(readVarint());
+				Resource destination = index.get(readVarint());
+				routing.addEdge(link, source, destination, readEdgeType());
+				readAttributes(link);
+			}
+
+			routings.set(task, routing);
+		}
+
+		return routings;
+	}
+
+	/**
+	 * Reads a routing element that is either a copy of an architecture
+	 * element or, if it has no counterpart in the architecture, a new element.
+	 * 
+	 * @param elements
+	 *            the elements of the architecture
+	 * @param node
+	 *            true if the element is a node
+	 * @return the routing element
+	 */
+	@SuppressWarnings("unchecked")
+	protected <E extends Element> E readReference(List<E> elements, boolean node) throws Exception {
+		int reference = readVarint();
+		E parent = reference > 0 ? elements.get(reference - 1) : null;
+		String id = parent == null ? readString() : null;
+		Class<E> type = readClass();
+
+		if (parent != null) {
+			return getConstructor(type, Element.class).newInstance(parent);
+		} else if (node && knownElements.containsKey(id)) {
+			return (E) knownElements.get(id);
+		} else {
+			E element = getConstructor(type, String.class).newInstance(id);
+			if (node) {
+				knownElements.put(id, element);
+			}
+			return element;
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	protected <N extends Node> N readNode() throws Exception {
+		Class<N> type = readClass();
+		String id = readString();
+
+		N node = null;
+		if (knownElements.containsKey(id)) {
+			node = (N) knownElements.get(id);
+		} else {
+			node = getConstructor(type, String.class).newInstance(id);
+			knownElements.put(id, node);
+		}
+		readAttributes(node);
+
+		return node;
+	}
+
+	protected <E extends Edge> E readEdge() throws Exception {
+		Class<E> type = readClass();
+		String id = readString();
+		return getConstructor(type, String.class).newInstance(id);
+	}
+
+	protected EdgeType readEdgeType() {
+		return buffer.get() == 1 ? EdgeType.DIRECTED : EdgeType.UNDIRECTED;
+	}
+
+	protected void readAttributes(IAttributes element) throws Exception {
+		int size = readVarint();
+		for (int i = 0; i < size; i++) {
+			String name = readString();
+			element.setAttribute(name, readValue());
+		}
+	}
+
+	/**
+	 * Reads a type tag and the attribute value, see
+	 * {@link SpecificationBinaryWriter#writeValue(Object)}.
+	 * 
+	 * @return the attribute value
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	protected Object readValue() throws Exception {
+		int tag = buffer.get();
+		switch (tag) {
+		case NULL:
+			return null;
+		case INT:
+			return unzigzag(readVarint());
+		case LONG:
+			return unzigzag(readVarlong());
+		case DOUBLE:
+			return buffer.getDouble();
+		case FLOAT:
+			return buffer.getFloat();
+		case BOOL:
+			return buffer.get() != 0;
+		case SHORT:
+			return (short) unzigzag(readVarint());
+		case BYTE:
+			return buffer.get();
+		case CHAR:
+			return (char) readVarint();
+		case STRING:
+			return readString();
+		case ELEMENT: {
+			Class<?> clazz = readClass();
+			return toAttributeObject(readString(), clazz);
+		}
+		case ENUM: {
+			Class<?> clazz = readClass();
+			return toInstance(readString(), clazz);
+		}
+		case COLLECTION: {
+			Class<?> clazz = readClass();
+			Collection collection = (Collection) getConstructor(clazz).newInstance();
+			int size = readVarint();
+			for (int i = 0; i < size; i++) {
+				collection.add(readValue());
+			}
+			return collection;
+		}
+		case PARAMETER: {
+			String parameter = readString();
+			String type = readString();
+			String value = readString();
+			if (parameter.equals("RANGE")) {
+				return getRange(value);
+			} else if (parameter.equals("DISCRETERANGE")) {
+				return getRangeInt(value);
+			} else if (parameter.equals("SELECT")) {
+				return getSelectRefList(type, value);
+			} else if (parameter.equals("UID")) {
+				return getUniqueID(value);
+			} else {
+				throw new IllegalArgumentException("Unknown parameter type: " + parameter);
+			}
+		}
+		case MAP: {
+			Class<?> clazz = readClass();
+			Map map = (Map) getConstructor(clazz).newInstance();
+			int size = readVarint();
+			for (int i = 0; i < size; i++) {
+				String key = readString();
+				map.put(key, readValue());
+			}
+			return map;
+		}
+		case CODEC: {
+			Class<?> clazz = readClass();
+			return getCodec(clazz).decode(readString());
+		}
+		case SERIALIZABLE: {
+			byte[] bytes = new byte[readVarint()];
+			buffer.get(bytes);
+			ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(bytes));
+			Object object = ois.readObject();
+			ois.close();
+			return object;
+		}
+		default:
+			throw new IllegalArgumentException("Unknown attribute type tag: " + tag);
+		}
+	}
+
+	/**
+	 * Returns the string with the next index. The string is decoded and
+	 * cached when it is referenced for the first time.
+	 * 
+	 * @return the string
+	 */
+	protected String readString() {
+		int index = readVarint();
+		String string = strings[index];
+		if (string == null) {
+			byte[] bytes = new byte[lengths[index]];
+			ByteBuffer source = buffer.duplicate();
+			source.position(offsets[index]);
+			source.get(bytes);
+			string = new String(bytes, UTF8);
+			strings[index] = string;
+		}
+		return string;
+	}
+
+	@SuppressWarnings("unchecked")
+	protected <C> Class<C> readClass() throws ClassNotFoundException {
+		int position = buffer.position();
+		int index = readVarint();
+		Class<?> clazz = classes[index];
+		if (clazz == null) {
+			buffer.position(position);
+			clazz = getClass(readString());
+			classes[index] = clazz;
+		}
+		return (Class<C>) clazz;
+	}
+
+	protected int readVarint() {
+		int value = 0;
+		int shift = 0;
+		byte b;
+		do {
+			b = buffer.get();
+			value |= (b & 0x7F) << shift;
+			shift += 7;
+		} while ((b & 0x80) != 0);
+		return value;
+	}
+
+	protected long readVarlong() {
+		long value = 0;
+		int shift = 0;
+		byte b;
+		do {
+			b = buffer.get();
+			value |= (long) (b & 0x7F) << shift;
+			shift += 7;
+		} while ((b & 0x80) != 0);
+		return value;
+	}
+
+	protected static int unzigzag(int value) {
+		return (value >>> 1) ^ -(value & 1);
+	}
+
+	protected static long unzigzag(long value) {
+		return (value >>> 1) ^ -(value & 1);
+	}
+
+}
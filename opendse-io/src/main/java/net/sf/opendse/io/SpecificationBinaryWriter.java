@@ -0,0 +1,522 @@
+/*******************************************************************************
+ * Copyright (c) 2015 OpenDSE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *******************************************************************************/
+package net.sf.opendse.io;
+
+import static net.sf.opendse.io.Common.getType;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import net.sf.opendse.model.Application;
+import net.sf.opendse.model.Architecture;
+import net.sf.opendse.model.Attributes;
+import net.sf.opendse.model.Dependency;
+import net.sf.opendse.model.Element;
+import net.sf.opendse.model.Function;
+import net.sf.opendse.model.Link;
+import net.sf.opendse.model.Mapping;
+import net.sf.opendse.model.Mappings;
+import net.sf.opendse.model.Resource;
+import net.sf.opendse.model.Routings;
+import net.sf.opendse.model.Specification;
+import net.sf.opendse.model.Task;
+import net.sf.opendse.model.parameter.Parameter;
+import edu.uci.ics.jung.graph.util.EdgeType;
+import edu.uci.ics.jung.graph.util.Pair;
+
+/**
+ * The {@code SpecificationBinaryWriter} writes a {@code Specification} in a
+ * compact binary format that is read by the
+ * {@link SpecificationBinaryReader}.
+ * <p>
+ * A file starts with the {@link #MAGIC} bytes, the {@link #VERSION}, and a
+ * flag byte, followed by a string table that contains each id, class name,
+ * attribute name, and string value exactly once. The body refers to strings
+ * by their index in the table. Edges and mappings refer to their end points
+ * by the index of the node within its graph. All integers are written as
+ * variable-length integers, and attribute values are tagged with their type.
+ * In contrast to the {@link SpecificationWriter}, parameters are kept as
+ * parameters and the local attributes of all routing elements are written.
+ * 
+ * @author Martin Lukasiewycz
+ * 
+ */
+public class SpecificationBinaryWriter {
+
+	/**
+	 * The magic bytes at the start of each binary specification.
+	 */
+	public static final byte[] MAGIC = { 'O', 'D', 'S', 'E' };
+
+	/**
+	 * The current version of the format.
+	 */
+	public static final int VERSION = 1;
+
+	protected static final Charset UTF8 = Charset.forName("UTF-8");
+
+	protected static final int FLAG_ROUTINGS = 1;
+
+	protected static final int NULL = 0;
+	protected static final int INT = 1;
+	protected static final int LONG = 2;
+	protected static final int DOUBLE = 3;
+	protected static final int FLOAT = 4;
+	protected static final int BOOL = 5;
+	protected static final int SHORT = 6;
+	protected static final int BYTE = 7;
+	protected static final int CHAR = 8;
+	protected static final int STRING = 9;
+	protected static final int ELEMENT = 10;
+	protected static final int ENUM = 11;
+	protected static final int COLLECTION = 12;
+	protected static final int PARAMETER = 13;
+	protected static final int SERIALIZABLE = 14;
+	protected static final int MAP = 15;
+	protected static final int CODEC = 16;
+
+	protected final boolean writeRoutings;
+
+	protected final Map<String, Integer> stringIndex = new HashMap<String, Integer>();
+	protected final List<String> strings = new ArrayList<String>();
+	protected final ByteArrayOutputStream body = new ByteArrayOutputStream();
+
+	/**
+	 * Constructs a new {@code SpecificationBinaryWriter} that exports the
+	 * {@link Routings}.
+	 */
+	public SpecificationBinaryWriter() {
+		this(true);
+	}
+
+	/**
+	 * Constructs a new {@code SpecificationBinaryWriter}.
+	 * 
+	 * @param writeRoutings
+	 *            true if the routings shall be exported
+	 */
+	public SpecificationBinaryWriter(boolean writeRoutings) {
+		this.writeRoutings = writeRoutings;
+	}
+
+	/**
+	 * Write the specification to a file.
+	 * 
+	 * @param specification
+	 *            the specification
+	 * @param filename
+	 *            the name of the target file
+	 */
+	public void write(Specification specification, String filename) {
+		write(specification, new File(filename));
+	}
+
+	/**
+	 * Write the specification to a file.
+	 * 
+	 * @param specification
+	 *            the specification
+	 * @param file
+	 *            the file
+	 */
+	public void write(Specification specification, File file) {
+		try {
+			OutputStream out = Compression.openOutputStream(file);
+			write(specification, out);
+			out.close();
+		} catch (FileNotFoundException e) {
+			e.printStackTrace();
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+	}
+
+	/**
+	 * Write the specification to an output stream.
+	 * 
+	 * @param specification
+	 *            the specification
+	 * @param out
+	 *            the output stream
+	 */
+	public synchronized void write(Specification specification, OutputStream out) {
+		try {
+			boolean routings = writeRoutings && specification.getRoutings() != null;
+
+			writeArchitecture(specification.getArchitecture());
+			writeApplication(specification.getApplication());
+			writeMappings(specification.getMappings(), specification.getArchitecture(),
+					specification.getApplication());
+			if (routings) {
+				writeRoutings(specification.getRoutings(), specification.getArchitecture(),
+						specification.getApplication());
+			}
+			writeAttributes(specification.getAttributes());
+
+			ByteArrayOutputStream header = new ByteArrayOutputStream();
+			header.write(MAGIC);
+			writeVarint(header, VERSION);
+			header.write(routings ? FLAG_ROUTINGS : 0);
+			writeVarint(header, strings.size());
+			for (String string : strings) {
+				byte[] bytes = string.getBytes(UTF8);
+				writeVarint(header, bytes.length);
+				header.write(bytes);
+			}
+
+			header.writeTo(out);
+			body.writeTo(out);
+			out.flush();
+		} catch (IOException e) {
+			e.printStackTrace();
+		} finally {
+			stringIndex.clear();
+			strings.clear();
+			body.reset();
+		}
+	}
+
+	protected void writeArchitecture(Architecture<Resource, Link> architecture) {
+		Map<Resource, Integer> index = new HashMap<Resource, Integer>();
+		writeVarint(architecture.getVertexCount());
+		for (Resource resource : architecture) {
+			index.put(resource, index.size());
+			writeElement(resource, resource.getAttributes());
+		}
+		writeVarint(architecture.getEdgeCount());
+		for (Link link : architecture.getEdges()) {
+			Pair<Resource> endpoints = architecture.getEndpoints(link);
+			writeElement(link, null);
+			writeVarint(index.get(endpoints.getFirst()));
+			writeVarint(index.get(endpoints.getSecond()));
+			writeEdgeType(architecture.getEdgeType(link));
+			writeAttributes(link.getAttributes());
+		}
+	}
+
+	protected void writeApplication(Application<Task, Dependency> application) {
+		Map<Task, Integer> index = new HashMap<Task, Integer>();
+		writeVarint(application.getVertexCount());
+		for (Task task : application) {
+			index.put(task, index.size());
+			writeElement(task, task.getAttributes());
+		}
+		writeVarint(application.getEdgeCount());
+		for (Dependency dependency : application.getEdges()) {
+			Pair<Task> endpoints = application.getEndpoints(dependency);
+			writeElement(dependency, null);
+			writeVarint(index.get(endpoints.getFirst()));
+			writeVarint(index.get(endpoints.getSecond()));
+			writeAttributes(dependency.getAttributes());
+		}
+
+		Collection<Function<Task, Dependency>> functions = application.getFunctions();
+		writeVarint(functions.size());
+		for (Function<Task, Dependency> function : functions) {
+			writeVarint(index.get(function.getVertices().iterator().next()));
+			writeAttributes(function.getAttributes());
+		}
+	}
+
+	protected void writeMappings(Mappings<Task, Resource> mappings, Architecture<Resource, Link> architecture,
+			Application<Task, Dependency> application) {
+		Map<Resource, Integer> resources = indexVertices(architecture);
+		Map<Task, Integer> tasks = indexVertices(application);
+
+		writeVarint(mappings.size());
+		for (Mapping<Task, Resource> mapping : mappings) {
+			writeElement(mapping, null);
+			writeVarint(tasks.get(mapping.getSource()));
+			writeVarint(resources.get(mapping.getTarget()));
+			writeAttributes(mapping.getAttributes());
+		}
+	}
+
+	/**
+	 * Writes the routings. Each routing resource and link is written with
+	 * the index of the element in the architecture plus one, or zero and its
+	 * id if the architecture does not contain an element with the same id.
+	 * The local attributes are written if the parent of the element is the
+	 * element of the architecture.
+	 * 
+	 * @param routings
+	 *            the routings
+	 * @param architecture
+	 *            the architecture
+	 * @param application
+	 *            the application
+	 */
+	protected void writeRoutings(Routings<Task, Resource, Link> routings, Architecture<Resource, Link> architecture,
+			Application<Task, Dependency> application) {
+		Map<String, Integer> resources = new HashMap<String, Integer>();
+		List<Resource> resourceList = new ArrayList<Resource>();
+		for (Resource resource : architecture) {
+			resources.put(resource.getId(), resources.size());
+			resourceList.add(resource);
+		}
+		Map<String, Integer> links = new HashMap<String, Integer>();
+		List<Link> linkList = new ArrayList<Link>();
+		for (Link link : architecture.getEdges()) {
+			links.put(link.getId(), links.size());
+			linkList.add(link);
+		}
+		Map<Task, Integer> tasks = indexVertices(application);
+
+		writeVarint(routings.getTasks().size());
+		for (Task task : routings.getTasks()) {
+			Architecture<Resource, Link> routing = routings.get(task);
+			writeVarint(tasks.get(task));
+
+			Map<Resource, Integer> index = new HashMap<Resource, Integer>();
+			writeVarint(routing.getVertexCount());
+			for (Resource resource : routing) {
+				index.put(resource, index.size());
+				Integer i = resources.get(resource.getId());
+				writeReference(resource, i);
+				boolean local = i != null && resource.getParent() == resourceList.get(i);
+				writeAttributes(local ? resource.getLocalAttributes() : null);
+			}
+			writeVarint(routing.getEdgeCount());
+			for (Link link : routing.getEdges()) {
+				Pair<Resource> endpoints = routing.getEndpoints(link);
+				Integer i = links.get(link.getId());
+				writeReference(link, i);
+				writeVarint(index.get(endpoints.getFirst()));
+				writeVarint(index.get(endpoints.getSecond()));
+				writeEdgeType(routing.getEdgeType(link));
+				boolean local = i != null && link.getParent() == linkList.get(i);
+				writeAttributes(local ? link.getLocalAttributes() : null);
+			}
+		}
+	}
+
+	protected <V> Map<V, Integer> indexVertices(Iterable<V> vertices) {
+		Map<V, Integer> index = new HashMap<V, Integer>();
+		for (V vertex : vertices) {
+			index.put(vertex, index.size());
+		}
+		return index;
+	}
+
+	/**
+	 * Writes the class and id of an element and, if given, its attributes.
+	 * 
+	 * @param element
+	 *            the element
+	 * @param attributes
+	 *            the attributes or {@code null} if the attributes are written
+	 *            separately
+	 */
+	protected void writeElement(Element element, Attributes attributes) {
+		writeString(getType(element.getClass()));
+		writeString(element.getId());
+		if (attributes != null) {
+			writeAttributes(attributes);
+		}
+	}
+
+	protected void writeReference(Element element, Integer index) {
+		if (index != null) {
+			writeVarint(index + 1);
+		} else {
+			writeVarint(0);
+			writeString(element.getId());
+		}
+		writeString(getType(element.getClass()));
+	}
+
+	protected void writeEdgeType(EdgeType edgeType) {
+		body.write(edgeType == EdgeType.DIRECTED ? 1 : 0);
+	}
+
+	protected void writeAttributes(Attributes attributes) {
+		if (attributes == null) {
+			writeVarint(0);
+			return;
+		}
+		int size = 0;
+		for (Object value : attributes.values()) {
+			if (value != null) {
+				size++;
+			}
+		}
+		writeVarint(size);
+		for (Map.Entry<String, Object> entry : attributes.entrySet()) {
+			if (entry.getValue() != null) {
+				writeString(entry.getKey());
+				writeValue(entry.getValue());
+			}
+		}
+	}
+
+	/**
+	 * Writes the type tag and the value of an attribute.
+	 * 
+	 * @param value
+	 *            the attribute value
+	 */
+	@SuppressWarnings("rawtypes")
+	protected void writeValue(Object value) {
+		if (value == null) {
+			body.write(NULL);
+			return;
+		}
+
+		Class<?> cls = value.getClass();
+
+		if (cls.equals(Integer.class)) {
+			body.write(INT);
+			writeVarint(zigzag((Integer) value));
+		} else if (cls.equals(Double.class)) {
+			body.write(DOUBLE);
+			writeFixed(Double.doubleToLongBits((Double) value), 8);
+		} else if (cls.equals(String.class)) {
+			body.write(STRING);
+			writeString((String) value);
+		} else if (cls.equals(Boolean.class)) {
+			body.write(BOOL);
+			body.write((Boolean) value ? 1 : 0);
+		} else if (cls.equals(Long.class)) {
+			body.write(LONG);
+			writeVarlong(zigzag((Long) value));
+		} else if (cls.equals(Float.class)) {
+			body.write(FLOAT);
+			writeFixed(Float.floatToIntBits((Float) value), 4);
+		} else if (cls.equals(Short.class)) {
+			body.write(SHORT);
+			writeVarint(zigzag((Short) value));
+		} else if (cls.equals(Byte.class)) {
+			body.write(BYTE);
+			body.write((Byte) value);
+		} else if (cls.equals(Character.class)) {
+			body.write(CHAR);
+			writeVarint((Character) value);
+		} else if (value instanceof Element) {
+			body.write(ELEMENT);
+			writeString(getType(cls));
+			writeString(((Element) value).getId());
+		} else if (cls.isEnum()) {
+			body.write(ENUM);
+			writeString(getType(cls));
+			writeString(((Enum) value).name());
+		} else if (value instanceof Collection) {
+			Collection collection = (Collection) value;
+			body.write(COLLECTION);
+			writeString(getType(cls));
+			writeVarint(collection.size());
+			for (Object entry : collection) {
+				writeValue(entry);
+			}
+		} else if (value instanceof Parameter) {
+			Object parameterValue = ((Parameter) value).getValue();
+			body.write(PARAMETER);
+			writeString(getType(cls));
+			writeString(parameterValue == null ? "" : getType(parameterValue.getClass()));
+			writeString(value.toString());
+		} else if (Common.isStringMap(value)) {
+			Map<?, ?> map = (Map<?, ?>) value;
+			body.write(MAP);
+			writeString(getType(cls));
+			writeVarint(map.size());
+			for (Map.Entry<?, ?> entry : map.entrySet()) {
+				writeString((String) entry.getKey());
+				writeValue(entry.getValue());
+			}
+		} else if (Common.getCodec(cls) != null) {
+			body.write(CODEC);
+			writeString(getType(cls));
+			writeString(Common.getCodec(cls).encode(value));
+		} else if (value instanceof Serializable) {
+			try {
+				ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+				ObjectOutputStream oos = new ObjectOutputStream(bytes);
+				oos.writeObject(value);
+				oos.close();
+				body.write(SERIALIZABLE);
+				writeVarint(bytes.size());
+				bytes.writeTo(body);
+			} catch (IOException e) {
+				e.printStackTrace();
+				body.write(NULL);
+			}
+		} else {
+			System.err.println("Failed to write attribute " + value);
+			body.write(NULL);
+		}
+	}
+
+	protected void writeString(String string) {
+		Integer index = stringIndex.get(string);
+		if (index == null) {
+			index = strings.size();
+			stringIndex.put(string, index);
+			strings.add(string);
+		}
+		writeVarint(index);
+	}
+
+	protected void writeVarint(int value) {
+		writeVarint(body, value);
+	}
+
+	protected void writeVarlong(long value) {
+		while ((value & ~0x7FL) != 0) {
+			body.write((int) ((value & 0x7F) | 0x80));
+			value >>>= 7;
+		}
+		body.write((int) value);
+	}
+
+	protected void writeFixed(long value, int bytes) {
+		for (int i = bytes - 1; i >= 0; i--) {
+			body.write((int) (value >>> (8 * i)));
+		}
+	}
+
+	protected static void writeVarint(ByteArrayOutputStream out, int value) {
+		while ((value & ~0x7F) != 0) {
+			out.write((value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+		out.write(value);
+	}
+
+	protected static int zigzag(int value) {
+		return (value << 1) ^ (value >> 31);
+	}
+
+	protected static long zigzag(long value) {
+		return (value << 1) ^ (value >> 63);
+	}
+
+}
@@ -17,13 +17,13 @@
 package net.sf.opendse.io;
 
 import static net.sf.opendse.io.Common.classMap;
+import static net.sf.opendse.io.Common.getCodec;
+import static net.sf.opendse.io.Common.getConstructor;
 import static net.sf.opendse.io.Common.iterable;
 import static net.sf.opendse.io.Common.setAttributes;
 import static net.sf.opendse.io.Common.toInstance;
 
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.Serializable;
@@ -31,10 +31,15 @@ import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Scanner;
-import java.util.regex.MatchResult;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import edu.uci.ics.jung.graph.util.EdgeType;
 import net.sf.opendse.model.Application;
@@ -70,6 +75,47 @@ public class SpecificationReader {
 
 	protected Map<String, Element> knownElements = new HashMap<String, Element>();
 
+	/**
+	 * Files of at least this size (in bytes) are read with the
+	 * {@link SpecificationStreamReader} instead of building the XML tree.
+	 */
+	protected long streamingThreshold = 32L * 1024 * 1024;
+
+	/**
+	 * The number of threads of the parallel load mode, one for the sequential
+	 * mode.
+	 */
+	protected int threads = 1;
+
+	/**
+	 * Sets the file size (in bytes) from which on files are read with the
+	 * {@link SpecificationStreamReader}. Use {@link Long#MAX_VALUE} to always
+	 * build the XML tree.
+	 * 
+	 * @param streamingThreshold
+	 *            the file size threshold
+	 */
+	public void setStreamingThreshold(long streamingThreshold) {
+		this.streamingThreshold = streamingThreshold;
+	}
+
+	/**
+	 * Sets the number of threads. With more than one thread, the architecture
+	 * and the application are converted concurrently and the routings are
+	 * converted in chunks by a thread pool. The parallel mode requires the
+	 * XML tree, such that files are never read with the
+	 * {@link SpecificationStreamReader} in this mode.
+	 * 
+	 * @param threads
+	 *            the number of threads
+	 */
+	public void setThreads(int threads) {
+		if (threads < 1) {
+			throw new IllegalArgumentException("At least one thread is required: " + threads);
+		}
+		this.threads = threads;
+	}
+
 	/**
 	 * Read specification from a file.
 	 * 
@@ -82,7 +128,8 @@ public class SpecificationReader {
 	}
 
 	/**
-	 * Read specification from a file.
+	 * Read specification from a file. Files that are compressed with gzip are
+	 * decompressed transparently.
 	 * 
 	 * @param file
 	 *            the file
@@ -90,8 +137,16 @@ public class SpecificationReader {
 	 */
 	public Specification read(File file) {
 		try {
-			return read(new FileInputStream(file));
-		} catch (FileNotFoundException e) {
+			InputStream in = Compression.openInputStream(file);
+			try {
+				if (threads == 1 && Compression.getUncompressedLength(file) >= streamingThreshold) {
+					return readStreaming(in);
+				}
+				return read(in);
+			} finally {
+				in.close();
+			}
+		} catch (IOException e) {
 			e.printStackTrace();
 			return null;
 		}
@@ -117,6 +172,21 @@ public class SpecificationReader {
 		}
 	}
 
+	/**
+	 * Read specification from an input stream with the
+	 * {@link SpecificationStreamReader} that shares the known elements of this
+	 * reader.
+	 * 
+	 * @param in
+	 *            the input stream
+	 * @return the specification
+	 */
+	protected Specification readStreaming(InputStream in) {
+		SpecificationStreamReader reader = new SpecificationStreamReader();
+		reader.knownElements = knownElements;
+		return reader.read(in);
+	}
+
 	/**
 	 * Convert an XML element to a specification
 	 * 
@@ -125,14 +195,29 @@ public class SpecificationReader {
 	 * @return the specification
 	 */
 	public Specification toSpecification(nu.xom.Element eSpecification) {
+		ExecutorService executor = threads > 1 ? Executors.newFixedThreadPool(threads) : null;
 		try {
-			nu.xom.Element eArchitecture = eSpecification.getChildElements("architecture", SpecificationWriter.NS)
-					.get(0);
+			final nu.xom.Element eArchitecture = eSpecification.getChildElements("architecture",
+					SpecificationWriter.NS).get(0);
 			nu.xom.Element eApplication = eSpecification.getChildElements("application", SpecificationWriter.NS).get(0);
 			nu.xom.Element eMappings = eSpecification.getChildElements("mappings", SpecificationWriter.NS).get(0);
 
-			Architecture<Resource, Link> architecture = toArchitecture(eArchitecture);
-			Application<Task, Dependency> application = toApplication(eApplication);
+			Architecture<Resource, Link> architecture = null;
+			Application<Task, Dependency> application = null;
+			if (executor != null) {
+				Future<Architecture<Resource, Link>> future = executor
+						.submit(new Callable<Architecture<Resource, Link>>() {
+							@Override
+							public Architecture<Resource, Link> call() throws Exception {
+								return toArchitecture(eArchitecture);
+							}
+						});
+				application = toApplication(eApplication);
+				architecture = get(future);
+			} else {
+				architecture = toArchitecture(eArchitecture);
+				application = toApplication(eApplication);
+			}
 			Mappings<Task, Resource> mappings = toMappings(eMappings, architecture, application);
 
 			Specification specification = null;
@@ -140,7 +225,8 @@ public class SpecificationReader {
 			Elements routingElements = eSpecification.getChildElements("routings", SpecificationWriter.NS);
 			if (routingElements != null && routingElements.size() > 0) {
 				nu.xom.Element eRoutings = routingElements.get(0);
-				Routings<Task, Resource, Link> routings = toRoutings(eRoutings, architecture, application);
+				Routings<Task, Resource, Link> routings = executor != null ? toRoutings(eRoutings, architecture,
+						application, executor) : toRoutings(eRoutings, architecture, application);
 				specification = new Specification(application, architecture, mappings, routings);
 			} else {
 				specification = new Specification(application, architecture, mappings);
@@ -156,6 +242,10 @@ public class SpecificationReader {
 			return specification;
 		} catch (Exception ex) {
 			throw new IllegalArgumentException(ex);
+		} finally {
+			if (executor != null) {
+				executor.shutdownNow();
+			}
 		}
 	}
 
@@ -165,18 +255,127 @@ public class SpecificationReader {
 			IllegalAccessException, InvocationTargetException, NoSuchMethodException {
 		Routings<Task, Resource, Link> routings = new Routings<Task, Resource, Link>();
 
+		Map<Task, Task> references = new HashMap<Task, Task>();
+
 		nu.xom.Elements eRoutingList = eRoutings.getChildElements("routing", SpecificationWriter.NS);
 		for (nu.xom.Element eRouting : iterable(eRoutingList)) {
 			String sourceId = eRouting.getAttributeValue("source");
 			Task source = application.getVertex(sourceId);
 
-			Architecture<Resource, Link> routing = toRouting(eRouting, architecture, application);
-			routings.set(source, routing);
+			String referenceId = eRouting.getAttributeValue("ref");
+			if (referenceId != null) {
+				references.put(source, application.getVertex(referenceId));
+			} else {
+				Architecture<Resource, Link> routing = toRouting(eRouting, architecture, application);
+				routings.set(source, routing);
+			}
 		}
+		setReferences(routings, references);
 
 		return routings;
 	}
 
+	/**
+	 * Converts the routings in chunks with the given executor. The routings
+	 * are set in the order of the routing elements.
+	 * 
+	 * @param eRoutings
+	 *            the routings element
+	 * @param architecture
+	 *            the architecture
+	 * @param application
+	 *            the application
+	 * @param executor
+	 *            the executor
+	 * @return the routings
+	 */
+	protected Routings<Task, Resource, Link> toRoutings(nu.xom.Element eRoutings,
+			final Architecture<Resource, Link> architecture, final Application<Task, Dependency> application,
+			ExecutorService executor) throws Exception {
+		Routings<Task, Resource, Link> routings = new Routings<Task, Resource, Link>();
+
+		Map<String, Task> tasks = new HashMap<String, Task>();
+		for (Task task : application) {
+			tasks.put(task.getId(), task);
+		}
+		Map<Task, Task> references = new HashMap<Task, Task>();
+		List<nu.xom.Element> eRoutingList = new ArrayList<nu.xom.Element>();
+
+		for (nu.xom.Element eRouting : iterable(eRoutings.getChildElements("routing", SpecificationWriter.NS))) {
+			String referenceId = eRouting.getAttributeValue("ref");
+			if (referenceId != null) {
+				references.put(tasks.get(eRouting.getAttributeValue("source")), tasks.get(referenceId));
+			} else {
+				eRoutingList.add(eRouting);
+			}
+		}
+
+		int chunk = Math.max(1, (eRoutingList.size() + 4 * threads - 1) / (4 * threads));
+		List<Future<List<Architecture<Resource, Link>>>> futures = new ArrayList<Future<List<Architecture<Resource, Link>>>>();
+		for (int i = 0; i < eRoutingList.size(); i += chunk) {
+			final List<nu.xom.Element> eChunk = eRoutingList.subList(i, Math.min(i + chunk, eRoutingList.size()));
+			futures.add(executor.submit(new Callable<List<Architecture<Resource, Link>>>() {
+				@Override
+				public List<Architecture<Resource, Link>> call() throws Exception {
+					List<Architecture<Resource, Link>> result = new ArrayList<Architecture<Resource, Link>>();
+					for (nu.xom.Element eRouting : eChunk) {
+						result.add(toRouting(eRouting, architecture, application));
+					}
+					return result;
+				}
+			}));
+		}
+
+		Iterator<nu.xom.Element> iterator = eRoutingList.iterator();
+		for (Future<List<Architecture<Resource, Link>>> future : futures) {
+			for (Architecture<Resource, Link> routing : get(future)) {
+				routings.set(tasks.get(iterator.next().getAttributeValue("source")), routing);
+			}
+		}
+		setReferences(routings, references);
+
+		return routings;
+	}
+
+	/**
+	 * Returns the result of the future and rethrows the cause if the
+	 * computation failed.
+	 * 
+	 * @param future
+	 *            the future
+	 * @return the result
+	 */
+	protected <T> T get(Future<T> future) throws Exception {
+		try {
+			return future.get();
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof Exception) {
+				throw (Exception) cause;
+			}
+			throw e;
+		}
+	}
+
+	/**
+	 * Sets the routings that refer to the routing of another communication.
+	 * The referring communications share the same routing object.
+	 * 
+	 * @param routings
+	 *            the routings
+	 * @param references
+	 *            the referenced communication for each referring communication
+	 */
+	protected void setReferences(Routings<Task, Resource, Link> routings, Map<Task, Task> references) {
+		for (Map.Entry<Task, Task> entry : references.entrySet()) {
+			Task reference = entry.getValue();
+			if (reference == null || !routings.getTasks().contains(reference)) {
+				throw new IllegalArgumentException("Routing of " + entry.getKey() + " refers to an unknown routing");
+			}
+			routings.set(entry.getKey(), routings.get(reference));
+		}
+	}
+
 	protected Architecture<Resource, Link> toRouting(nu.xom.Element eRouting, Architecture<Resource, Link> architecture,
 			Application<Task, Dependency> application)
 			throws IllegalArgumentException, SecurityException, ClassNotFoundException, InstantiationException,
@@ -339,7 +538,7 @@ public class SpecificationReader {
 	protected <C> Class<C> getClass(nu.xom.Element eElement) throws ClassNotFoundException {
 		Class<C> type = null;
 		if (eElement.getAttribute("class") != null) {
-			type = (Class<C>) Class.forName(eElement.getAttributeValue("class"));
+			type = (Class<C>) Common.forName(eElement.getAttributeValue("class"));
 		} else {
 			type = (Class<C>) classMap.get(eElement.getLocalName());
 		}
@@ -353,7 +552,7 @@ public class SpecificationReader {
 		if (classMap.containsKey(name)) {
 			return classMap.get(name);
 		} else {
-			return Class.forName(name);
+			return Common.forName(name);
 		}
 	}
 
@@ -367,14 +566,16 @@ public class SpecificationReader {
 
 		if (parent == null) {
 			String id = eNode.getAttributeValue("id");
-			if (knownElements.containsKey(id)) {
-				node = (N) knownElements.get(id);
-			} else {
-				node = type.getConstructor(String.class).newInstance(id);
-				knownElements.put(node.getId(), node);
+			synchronized (knownElements) {
+				if (knownElements.containsKey(id)) {
+					node = (N) knownElements.get(id);
+				} else {
+					node = getConstructor(type, String.class).newInstance(id);
+					knownElements.put(node.getId(), node);
+				}
 			}
 		} else {
-			node = type.getConstructor(Element.class).newInstance(parent);
+			node = getConstructor(type, Element.class).newInstance(parent);
 		}
 
 		nu.xom.Elements eAttributes = eNode.getChildElements("attributes", SpecificationWriter.NS);
@@ -396,9 +597,9 @@ public class SpecificationReader {
 
 		if (parent == null) {
 			String id = eEdge.getAttributeValue("id");
-			edge = type.getConstructor(String.class).newInstance(id);
+			edge = getConstructor(type, String.class).newInstance(id);
 		} else {
-			edge = type.getConstructor(Element.class).newInstance(parent);
+			edge = getConstructor(type, Element.class).newInstance(parent);
 		}
 
 		nu.xom.Elements eAttributes = eEdge.getChildElements("attributes", SpecificationWriter.NS);
@@ -418,7 +619,7 @@ public class SpecificationReader {
 		M node = null;
 
 		String id = eMapping.getAttributeValue("id");
-		node = type.getConstructor(String.class, Task.class, Resource.class).newInstance(id, source, target);
+		node = getConstructor(type, String.class, Task.class, Resource.class).newInstance(id, source, target);
 
 		nu.xom.Elements eAttributes = eMapping.getChildElements("attributes", SpecificationWriter.NS);
 		if (eAttributes.size() > 0) {
@@ -480,6 +681,8 @@ public class SpecificationReader {
 			}
 			if (Collection.class.isAssignableFrom(clazz)) {
 				return toAttributeCollection(eAttribute, clazz);
+			} else if (Map.class.isAssignableFrom(clazz)) {
+				return toAttributeMap(eAttribute, clazz);
 			} else {
 				return toAttributeObject(value, clazz);
 			}
@@ -498,7 +701,7 @@ public class SpecificationReader {
 	@SuppressWarnings({ "rawtypes", "unchecked" })
 	protected Object toAttributeCollection(nu.xom.Element eAttribute, Class<?> clazz) throws InstantiationException,
 			IllegalAccessException, InvocationTargetException, NoSuchMethodException, ClassNotFoundException {
-		Collection collectionAttribute = (Collection) clazz.getConstructor().newInstance();
+		Collection collectionAttribute = (Collection) getConstructor(clazz).newInstance();
 		for (nu.xom.Element childElement : iterable(eAttribute.getChildElements())) {
 			Object actualEntry = toAttribute(childElement);
 			collectionAttribute.add(actualEntry);
@@ -506,6 +709,26 @@ public class SpecificationReader {
 		return collectionAttribute;
 	}
 
+	/**
+	 * Constructs an attribute map that contains an entry for each child
+	 * element with the name of the child as key.
+	 * 
+	 * @param eAttribute
+	 *            the attribute element
+	 * @param clazz
+	 *            the class of the map
+	 * @return the constructed map
+	 */
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	protected Object toAttributeMap(nu.xom.Element eAttribute, Class<?> clazz) throws InstantiationException,
+			IllegalAccessException, InvocationTargetException, NoSuchMethodException, ClassNotFoundException {
+		Map mapAttribute = (Map) getConstructor(clazz).newInstance();
+		for (nu.xom.Element childElement : iterable(eAttribute.getChildElements())) {
+			mapAttribute.put(childElement.getAttributeValue("name"), toAttribute(childElement));
+		}
+		return mapAttribute;
+	}
+
 	/**
 	 * Constructs an instance of the passed class that contains the passed value.
 	 *
@@ -519,14 +742,19 @@ public class SpecificationReader {
 			IllegalAccessException, InvocationTargetException, NoSuchMethodException, ClassNotFoundException {
 		Object object = null;
 
-		if (Element.class.isAssignableFrom(clazz) && knownElements.containsKey(value)) {
-			object = knownElements.get(value);
+		AttributeCodec<Object> codec = getCodec(clazz);
+		if (codec != null) {
+			object = codec.decode(value);
+		} else if (Element.class.isAssignableFrom(clazz)) {
+			synchronized (knownElements) {
+				object = knownElements.get(value);
+				if (object == null) {
+					object = toInstance(value, clazz);
+					knownElements.put(value, (Element) object);
+				}
+			}
 		} else {
 			object = toInstance(value, clazz);
-			if (object instanceof Element) {
-				knownElements.put(value, (Element) object);
-			}
-
 		}
 
 		// "fallback procedure"
@@ -549,17 +777,7 @@ public class SpecificationReader {
 	 * @return the corresponding parameter
 	 */
 	protected ParameterRange getRange(String value) {
-		Scanner scanner = new Scanner(value);
-		scanner.useDelimiter("[\\s+,()]+");
-
-		double v = new Double(scanner.next());
-		double lb = new Double(scanner.next());
-		double ub = new Double(scanner.next());
-		double gr = new Double(scanner.next());
-
-		scanner.close();
-
-		return Parameters.range(v, lb, ub, gr);
+		return AttributeCodecs.RANGE.decode(value);
 	}
 
 	/**
@@ -570,16 +788,7 @@ public class SpecificationReader {
 	 * @return the corresponding parameter
 	 */
 	protected ParameterRangeDiscrete getRangeInt(String value) {
-		Scanner scanner = new Scanner(value);
-		scanner.useDelimiter("[\\s+,()]+");
-
-		int v = new Integer(scanner.next());
-		int lb = new Integer(scanner.next());
-		int ub = new Integer(scanner.next());
-
-		scanner.close();
-
-		return Parameters.range(v, lb, ub);
+		return AttributeCodecs.DISCRETERANGE.decode(value);
 	}
 
 	/**
@@ -625,15 +834,6 @@ public class SpecificationReader {
 	 * @return the corresponding parameter
 	 */
 	protected ParameterUniqueID getUniqueID(String value) {
-		Scanner scanner = new Scanner(value);
-		scanner.findInLine("(\\w+) \\[UID:(\\w+)\\]");
-
-		MatchResult result = scanner.match();
-		int def = new Integer(result.group(1));
-		String identifier = result.group(2);
-
-		scanner.close();
-
-		return Parameters.uniqueID(def, identifier);
+		return AttributeCodecs.UID.decode(value);
 	}
 }
@@ -0,0 +1,577 @@
+/*******************************************************************************
+ * Copyright (c) 2015 OpenDSE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *******************************************************************************/
+package net.sf.opendse.io;
+
+import static net.sf.opendse.io.Common.classMap;
+import static net.sf.opendse.io.Common.getConstructor;
+import static net.sf.opendse.io.Common.setAttributes;
+
+import java.io.InputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import net.sf.opendse.model.Application;
+import net.sf.opendse.model.Architecture;
+import net.sf.opendse.model.Attributes;
+import net.sf.opendse.model.Dependency;
+import net.sf.opendse.model.Edge;
+import net.sf.opendse.model.Element;
+import net.sf.opendse.model.Function;
+import net.sf.opendse.model.Link;
+import net.sf.opendse.model.Mapping;
+import net.sf.opendse.model.Mappings;
+import net.sf.opendse.model.Node;
+import net.sf.opendse.model.Resource;
+import net.sf.opendse.model.Routings;
+import net.sf.opendse.model.Specification;
+import net.sf.opendse.model.Task;
+import edu.uci.ics.jung.graph.util.EdgeType;
+
+/**
+ * The {@code SpecificationStreamReader} reads a {@code Specification} in a
+ * single pass from a StAX pull parser without building an intermediate XML
+ * tree. It creates the same {@code Specification} as the
+ * {@link SpecificationReader} while the memory consumption is independent of
+ * the document size.
+ * <p>
+ * In contrast to the tree-based reader, the elements are processed in document
+ * order, i.e., the architecture and application have to precede the mappings
+ * and routings as defined by the schema and written by the
+ * {@link SpecificationWriter}. Elements are referenced by id through hash maps
+ * instead of searching the graphs.
+ * 
+ * @author Martin Lukasiewycz
+ * 
+ */
+public class SpecificationStreamReader extends SpecificationReader {
+
+	protected final XMLInputFactory factory;
+
+	public SpecificationStreamReader() {
+		super();
+		factory = XMLInputFactory.newInstance();
+		factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, true);
+		factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+	}
+
+	/**
+	 * Read specification from an input stream.
+	 * 
+	 * @param in
+	 *            the input stream
+	 * @return the specification
+	 */
+	@Override
+	public Specification read(InputStream in) {
+		try {
+			XMLStreamReader reader = factory.createXMLStreamReader(in);
+			try {
+				if (!nextElement(reader)) {
+					throw new IllegalArgumentException("No specification found.");
+				}
+				return readSpecification(reader);
+			} finally {
+				reader.close();
+			}
+		} catch (IllegalArgumentException ex) {
+			throw ex;
+		} catch (Exception ex) {
+			throw new IllegalArgumentException(ex);
+		}
+	}
+
+	@Override
+	protected Specification readStreaming(InputStream in) {
+		return read(in);
+	}
+
+	/**
+	 * Reads the specification element at the current position of the reader.
+	 * 
+	 * @param reader
+	 *            the reader positioned at the specification start element
+	 * @return the specification
+	 */
+	public Specification readSpecification(XMLStreamReader reader) throws XMLStreamException,
+			IllegalArgumentException, SecurityException, InstantiationException, IllegalAccessException,
+			InvocationTargetException, NoSuchMethodException, ClassNotFoundException {
+		Map<String, Resource> resources = new HashMap<String, Resource>();
+		Map<String, Link> links = new HashMap<String, Link>();
+		Map<String, Task> tasks = new HashMap<String, Task>();
+
+		Architecture<Resource, Link> architecture = null;
+		Application<Task, Dependency> application = null;
+		Mappings<Task, Resource> mappings = null;
+		Routings<Task, Resource, Link> routings = null;
+		Attributes attributes = null;
+
+		while (nextChild(reader)) {
+			String name = reader.getLocalName();
+			if (!isOwn(reader)) {
+				skip(reader);
+			} else if (name.equals("architecture")) {
+				architecture = readArchitecture(reader, resources, links);
+			} else if (name.equals("application")) {
+				application = readApplication(reader, tasks);
+			} else if (name.equals("mappings")) {
+				mappings = readMappings(reader, resources, tasks);
+			} else if (name.equals("routings")) {
+				routings = readRoutings(reader, resources, links, tasks);
+			} else if (name.equals("attributes")) {
+				attributes = readAttributes(reader);
+			} else {
+				skip(reader);
+			}
+		}
+
+		if (architecture == null || application == null || mappings == null) {
+			throw new IllegalArgumentException("Specification requires architecture, application, and mappings.");
+		}
+
+		Specification specification = null;
+		if (routings != null) {
+			specification = new Specification(application, architecture, mappings, routings);
+		} else {
+			specification = new Specification(application, architecture, mappings);
+		}
+		if (attributes != null) {
+			setAttributes(specification, attributes);
+		}
+		return specification;
+	}
+
+	protected Architecture<Resource, Link> readArchitecture(XMLStreamReader reader, Map<String, Resource> resources,
+			Map<String, Link> links) throws XMLStreamException, IllegalArgumentException, SecurityException,
+			InstantiationException, IllegalAccessException, InvocationTargetException, NoSuchMethodException,
+			ClassNotFoundException {
+		Architecture<Resource, Link> architecture = new Architecture<Resource, Link>();
+
+		while (nextChild(reader)) {
+			String name = reader.getLocalName();
+			if (isOwn(reader) && name.equals("resource")) {
+				Resource resource = readNode(reader, null);
+				architecture.addVertex(resource);
+				resources.put(resource.getId(), resource);
+			} else if (isOwn(reader) && name.equals("link")) {
+				String id = reader.getAttributeValue(null, "id");
+				EdgeType edgeType = getEdgeType(reader);
+				String srcName = reader.getAttributeValue(null, "source");
+				String dstName = reader.getAttributeValue(null, "destination");
+				Link link = readEdge(reader, null);
+
+				Resource source = resources.get(srcName);
+				if (source == null) {
+					throw new IllegalArgumentException("Source of link " + id + " not found: " + srcName);
+				}
+				Resource destination = resources.get(dstName);
+				if (destination == null) {
+					throw new IllegalArgumentException("Destination of link " + id + " not found: " + dstName);
+				}
+				architecture.addEdge(link, source, destination, edgeType);
+				links.put(link.getId(), link);
+			} else {
+				skip(reader);
+			}
+		}
+
+		return architecture;
+	}
+
+	protected Application<Task, Dependency> readApplication(XMLStreamReader reader, Map<String, Task> tasks)
+			throws XMLStreamException, IllegalArgumentException, SecurityException, InstantiationException,
+			IllegalAccessException, InvocationTargetException, NoSuchMethodException, ClassNotFoundException {
+		Application<Task, Dependency> application = new Application<Task, Dependency>();
+
+		while (nextChild(reader)) {
+			String name = reader.getLocalName();
+			if (isOwn(reader) && (name.equals("task") || name.equals("communication"))) {
+				Task task = readNode(reader, null);
+				application.addVertex(task);
+				tasks.put(task.getId(), task);
+			} else if (isOwn(reader) && name.equals("dependency")) {
+				String id = reader.getAttributeValue(null, "id");
+				String srcName = reader.getAttributeValue(null, "source");
+				String dstName = reader.getAttributeValue(null, "destination");
+				Dependency dependency = readEdge(reader, null);
+
+				Task source = tasks.get(srcName);
+				if (source == null) {
+					throw new IllegalArgumentException("Source of dependency " + id + " not found: " + srcName);
+				}
+				Task destination = tasks.get(dstName);
+				if (destination == null) {
+					throw new IllegalArgumentException("Destination of dependency " + id + " not found: " + dstName);
+				}
+				application.addEdge(dependency, source, destination, EdgeType.DIRECTED);
+			} else if (isOwn(reader) && name.equals("functions")) {
+				readFunctions(reader, application, tasks);
+			} else {
+				skip(reader);
+			}
+		}
+
+		return application;
+	}
+
+	protected void readFunctions(XMLStreamReader reader, Application<Task, Dependency> application,
+			Map<String, Task> tasks) throws XMLStreamException, IllegalArgumentException, SecurityException, InstantiationException,
+			IllegalAccessException, InvocationTargetException, NoSuchMethodException, ClassNotFoundException {
+		while (nextChild(reader)) {
+			if (isOwn(reader) && reader.getLocalName().equals("function")) {
+				Task task = tasks.get(reader.getAttributeValue(null, "anchor"));
+				Function<Task, Dependency> function = application.getFunction(task);
+				while (nextChild(reader)) {
+					if (isOwn(reader) && reader.getLocalName().equals("attributes")) {
+						setAttributes(function, readAttributes(reader));
+					} else {
+						skip(reader);
+					}
+				}
+			} else {
+				skip(reader);
+			}
+		}
+	}
+
+	protected Mappings<Task, Resource> readMappings(XMLStreamReader reader, Map<String, Resource> resources,
+			Map<String, Task> tasks) throws XMLStreamException, IllegalArgumentException, SecurityException,
+			InstantiationException, IllegalAccessException, InvocationTargetException, NoSuchMethodException,
+			ClassNotFoundException {
+		Mappings<Task, Resource> mappings = new Mappings<Task, Resource>();
+
+		while (nextChild(reader)) {
+			if (isOwn(reader) && reader.getLocalName().equals("mapping")) {
+				String sourceId = reader.getAttributeValue(null, "source");
+				String targetId = reader.getAttributeValue(null, "target");
+
+				Task source = tasks.get(sourceId);
+				Resource target = resources.get(targetId);
+				assert source != null : "Unknown task: " + sourceId;
+				assert target != null : "Unknown resource: " + targetId;
+
+				Mapping<Task, Resource> mapping = readMapping(reader, source, target);
+				mappings.add(mapping);
+			} else {
+				skip(reader);
+			}
+		}
+
+		return mappings;
+	}
+
+	protected Routings<Task, Resource, Link> readRoutings(XMLStreamReader reader, Map<String, Resource> resources,
+			Map<String, Link> links, Map<String, Task> tasks) throws XMLStreamException, IllegalArgumentException,
+			SecurityException, InstantiationException, IllegalAccessException, InvocationTargetException,
+			NoSuchMethodException, ClassNotFoundException {
+		Routings<Task, Resource, Link> routings = new Routings<Task, Resource, Link>();
+		Map<Task, Task> references = new HashMap<Task, Task>();
+
+		while (nextChild(reader)) {
+			if (isOwn(reader) && reader.getLocalName().equals("routing")) {
+				Task source = tasks.get(reader.getAttributeValue(null, "source"));
+				String referenceId = reader.getAttributeValue(null, "ref");
+				if (referenceId != null) {
+					references.put(source, tasks.get(referenceId));
+					skip(reader);
+				} else {
+					Architecture<Resource, Link> routing = readRouting(reader, resources, links);
+					routings.set(source, routing);
+				}
+			} else {
+				skip(reader);
+			}
+		}
+		setReferences(routings, references);
+
+		return routings;
+	}
+
+	protected Architecture<Resource, Link> readRouting(XMLStreamReader reader, Map<String, Resource> resources,
+			Map<String, Link> links) throws XMLStreamException, IllegalArgumentException, SecurityException, InstantiationException,
+			IllegalAccessException, InvocationTargetException, NoSuchMethodException, ClassNotFoundException {
+		Map<String, Resource> map = new HashMap<String, Resource>();
+		Architecture<Resource, Link> routing = new Architecture<Resource, Link>();
+
+		while (nextChild(reader)) {
+			String name = reader.getLocalName();
+			if (isOwn(reader) && name.equals("resource")) {
+				Resource parent = resources.get(reader.getAttributeValue(null, "id"));
+				Resource resource = readNode(reader, parent);
+				routing.addVertex(resource);
+				map.put(resource.getId(), resource);
+			} else if (isOwn(reader) && name.equals("link")) {
+				Link parent = links.get(reader.getAttributeValue(null, "id"));
+				EdgeType edgeType = getEdgeType(reader);
+				Resource source = map.get(reader.getAttributeValue(null, "source"));
+				Resource destination = map.get(reader.getAttributeValue(null, "destination"));
+				Link link = readEdge(reader, parent);
+				routing.addEdge(link, source, destination, edgeType);
+			} else {
+				skip(reader);
+			}
+		}
+
+		return routing;
+	}
+
+	@SuppressWarnings("unchecked")
+	protected <N extends Node> N readNode(XMLStreamReader reader, N parent) throws XMLStreamException,
+			IllegalArgumentException, SecurityException, InstantiationException, IllegalAccessException,
+			InvocationTargetException, NoSuchMethodException, ClassNotFoundException {
+		Class<N> type = getClass(reader);
+
+		N node = null;
+
+		if (parent == null) {
+			String id = reader.getAttributeValue(null, "id");
+			if (knownElements.containsKey(id)) {
+				node = (N) knownElements.get(id);
+			} else {
+				node = getConstructor(type, String.class).newInstance(id);
+				knownElements.put(node.getId(), node);
+			}
+		} else {
+			node = getConstructor(type, Element.class).newInstance(parent);
+		}
+
+		readElementAttributes(reader, node);
+		return node;
+	}
+
+	protected <E extends Edge> E readEdge(XMLStreamReader reader, E parent) throws XMLStreamException,
+			IllegalArgumentException, SecurityException, InstantiationException, IllegalAccessException,
+			InvocationTargetException, NoSuchMethodException, ClassNotFoundException {
+		Class<E> type = getClass(reader);
+
+		E edge = null;
+
+		if (parent == null) {
+			String id = reader.getAttributeValue(null, "id");
+			edge = getConstructor(type, String.class).newInstance(id);
+		} else {
+			edge = getConstructor(type, Element.class).newInstance(parent);
+		}
+
+		readElementAttributes(reader, edge);
+		return edge;
+	}
+
+	protected <M extends Mapping<?, ?>> M readMapping(XMLStreamReader reader, Task source, Resource target)
+			throws XMLStreamException, IllegalArgumentException, SecurityException, InstantiationException,
+			IllegalAccessException, InvocationTargetException, NoSuchMethodException, ClassNotFoundException {
+		Class<M> type = getClass(reader);
+
+		String id = reader.getAttributeValue(null, "id");
+		M mapping = getConstructor(type, String.class, Task.class, Resource.class).newInstance(id, source, target);
+
+		readElementAttributes(reader, mapping);
+		return mapping;
+	}
+
+	/**
+	 * Reads the children of the current element and sets the contained
+	 * attributes to the given element.
+	 */
+	protected void readElementAttributes(XMLStreamReader reader, Element element) throws XMLStreamException,
+			IllegalArgumentException, SecurityException, InstantiationException, IllegalAccessException,
+			InvocationTargetException, NoSuchMethodException, ClassNotFoundException {
+		while (nextChild(reader)) {
+			if (isOwn(reader) && reader.getLocalName().equals("attributes")) {
+				setAttributes(element, readAttributes(reader));
+			} else {
+				skip(reader);
+			}
+		}
+	}
+
+	protected Attributes readAttributes(XMLStreamReader reader) throws XMLStreamException, IllegalArgumentException,
+			SecurityException, InstantiationException, IllegalAccessException, InvocationTargetException,
+			NoSuchMethodException, ClassNotFoundException {
+		Attributes attributes = new Attributes();
+
+		while (nextChild(reader)) {
+			if (isOwn(reader) && reader.getLocalName().equals("attribute")) {
+				String name = reader.getAttributeValue(null, "name");
+				Object value = readAttribute(reader);
+				attributes.put(name, value);
+			} else {
+				skip(reader);
+			}
+		}
+
+		return attributes;
+	}
+
+	/**
+	 * Reads the attribute value at the current attribute element, see
+	 * {@link SpecificationReader#toAttribute(nu.xom.Element)}.
+	 */
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	protected Object readAttribute(XMLStreamReader reader) throws XMLStreamException, IllegalArgumentException,
+			SecurityException, InstantiationException, IllegalAccessException, InvocationTargetException,
+			NoSuchMethodException, ClassNotFoundException {
+		String parameter = reader.getAttributeValue(null, "parameter");
+		String type = reader.getAttributeValue(null, "type");
+
+		if (type == null) {
+			throw new IllegalArgumentException("no type given for attribute " + reader.getAttributeValue(null, "name"));
+		}
+		if (parameter != null) {
+			String value = reader.getElementText();
+
+			if (parameter.equals("RANGE")) {
+				return getRange(value);
+			} else if (parameter.equals("DISCRETERANGE")) {
+				return getRangeInt(value);
+			} else if (parameter.equals("SELECT")) {
+				return getSelectRefList(type, value);
+			} else if (parameter.equals("UID")) {
+				return getUniqueID(value);
+			} else {
+				throw new IllegalArgumentException("Unknown parameter type: " + parameter);
+			}
+		} else {
+			Class<?> clazz = null;
+			try {
+				clazz = getClass(type);
+			} catch (ClassNotFoundException e) {
+				System.err.println("Class " + type + " not found. Ignoring attribute value " + getText(reader));
+				return null;
+			}
+			if (Collection.class.isAssignableFrom(clazz)) {
+				Collection collection = (Collection) getConstructor(clazz).newInstance();
+				while (nextChild(reader)) {
+					collection.add(readAttribute(reader));
+				}
+				return collection;
+			} else if (Map.class.isAssignableFrom(clazz)) {
+				Map map = (Map) getConstructor(clazz).newInstance();
+				while (nextChild(reader)) {
+					String name = reader.getAttributeValue(null, "name");
+					map.put(name, readAttribute(reader));
+				}
+				return map;
+			} else {
+				return toAttributeObject(reader.getElementText(), clazz);
+			}
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	protected <C> Class<C> getClass(XMLStreamReader reader) throws ClassNotFoundException {
+		Class<C> type = null;
+		String className = reader.getAttributeValue(null, "class");
+		if (className != null) {
+			type = (Class<C>) Common.forName(className);
+		} else {
+			type = (Class<C>) classMap.get(reader.getLocalName());
+		}
+		if (type == null) {
+			throw new RuntimeException("Unknown node type for " + reader.getLocalName());
+		}
+		return type;
+	}
+
+	protected EdgeType getEdgeType(XMLStreamReader reader) {
+		String type = reader.getAttributeValue(null, "orientation");
+		return type != null ? EdgeType.valueOf(type) : EdgeType.UNDIRECTED;
+	}
+
+	protected boolean isOwn(XMLStreamReader reader) {
+		return SpecificationWriter.NS.equals(reader.getNamespaceURI());
+	}
+
+	/**
+	 * Advances the reader to the next start element.
+	 * 
+	 * @return {@code true} if a start element was found
+	 */
+	protected boolean nextElement(XMLStreamReader reader) throws XMLStreamException {
+		while (reader.hasNext()) {
+			if (reader.next() == XMLStreamConstants.START_ELEMENT) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Advances the reader to the next child start element of the current
+	 * element. Returns {@code false} if the reader reached the end element of
+	 * the current element instead.
+	 * 
+	 * @return {@code true} if a child start element was found
+	 */
+	protected boolean nextChild(XMLStreamReader reader) throws XMLStreamException {
+		while (reader.hasNext()) {
+			int event = reader.next();
+			if (event == XMLStreamConstants.START_ELEMENT) {
+				return true;
+			} else if (event == XMLStreamConstants.END_ELEMENT) {
+				return false;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Skips the current element including all children.
+	 */
+	protected void skip(XMLStreamReader reader) throws XMLStreamException {
+		int depth = 1;
+		while (depth > 0 && reader.hasNext()) {
+			int event = reader.next();
+			if (event == XMLStreamConstants.START_ELEMENT) {
+				depth++;
+			} else if (event == XMLStreamConstants.END_ELEMENT) {
+				depth--;
+			}
+		}
+	}
+
+	/**
+	 * Returns the concatenated text of the current element and skips it.
+	 */
+	protected String getText(XMLStreamReader reader) throws XMLStreamException {
+		StringBuilder sb = new StringBuilder();
+		int depth = 1;
+		while (depth > 0 && reader.hasNext()) {
+			int event = reader.next();
+			if (event == XMLStreamConstants.START_ELEMENT) {
+				depth++;
+			} else if (event == XMLStreamConstants.END_ELEMENT) {
+				depth--;
+			} else if (event == XMLStreamConstants.CHARACTERS || event == XMLStreamConstants.CDATA) {
+				sb.append(reader.getText());
+			}
+		}
+		return sb.toString();
+	}
+
+}
@@ -0,0 +1,542 @@
+/*******************************************************************************
+ * Copyright (c) 2015 OpenDSE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *******************************************************************************/
+package net.sf.opendse.io;
+
+import static net.sf.opendse.io.Common.getRoutingKey;
+import static net.sf.opendse.io.Common.getType;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
+import net.sf.opendse.model.Application;
+import net.sf.opendse.model.Architecture;
+import net.sf.opendse.model.Attributes;
+import net.sf.opendse.model.Dependency;
+import net.sf.opendse.model.Edge;
+import net.sf.opendse.model.Element;
+import net.sf.opendse.model.Function;
+import net.sf.opendse.model.Link;
+import net.sf.opendse.model.Mapping;
+import net.sf.opendse.model.Mappings;
+import net.sf.opendse.model.Models;
+import net.sf.opendse.model.Node;
+import net.sf.opendse.model.Resource;
+import net.sf.opendse.model.Routings;
+import net.sf.opendse.model.Specification;
+import net.sf.opendse.model.Task;
+import net.sf.opendse.model.parameter.Parameter;
+import edu.uci.ics.jung.graph.util.EdgeType;
+import edu.uci.ics.jung.graph.util.Pair;
+
+/**
+ * The {@code SpecificationStreamWriter} writes a {@code Specification} with
+ * the same schema as the {@link SpecificationWriter}, but emits the elements
+ * directly to a StAX stream without building an intermediate XML tree.
+ * Collections of specifications are written one specification at a time.
+ * 
+ * @author Martin Lukasiewycz
+ * 
+ */
+public class SpecificationStreamWriter {
+
+	protected final boolean writeRoutings;
+	protected final boolean indent;
+	protected final boolean deduplicateRoutings;
+	protected final XMLOutputFactory factory = XMLOutputFactory.newInstance();
+
+	protected static final int EMPTY = 0;
+	protected static final int OPEN = 1;
+	protected static final int PARENT = 2;
+	protected static final int TEXT = 3;
+
+	protected XMLStreamWriter writer = null;
+	protected final List<Integer> states = new ArrayList<Integer>();
+
+	/**
+	 * Constructs a new {@code SpecificationStreamWriter} that exports
+	 * {@link Routings} and indents the output.
+	 */
+	public SpecificationStreamWriter() {
+		this(true, true);
+	}
+
+	/**
+	 * Constructs a new {@code SpecificationStreamWriter}.
+	 * 
+	 * @param writeRoutings
+	 *            true if the routings shall be exported
+	 * @param indent
+	 *            true if the output shall be indented, false for the most
+	 *            compact output
+	 */
+	public SpecificationStreamWriter(boolean writeRoutings, boolean indent) {
+		this(writeRoutings, indent, false);
+	}
+
+	/**
+	 * Constructs a new {@code SpecificationStreamWriter}.
+	 * 
+	 * @param writeRoutings
+	 *            true if the routings shall be exported
+	 * @param indent
+	 *            true if the output shall be indented, false for the most
+	 *            compact output
+	 * @param deduplicateRoutings
+	 *            true if a routing that equals a previously written routing
+	 *            shall only refer to the communication of this routing
+	 */
+	public SpecificationStreamWriter(boolean writeRoutings, boolean indent, boolean deduplicateRoutings) {
+		this.writeRoutings = writeRoutings;
+		this.indent = indent;
+		this.deduplicateRoutings = deduplicateRoutings;
+	}
+
+	/**
+	 * Write the specification to a file.
+	 * 
+	 * @param specification
+	 *            the specification
+	 * @param filename
+	 *            the name of the target file
+	 */
+	public void write(Specification specification, String filename) {
+		write(specification, new File(filename));
+	}
+
+	/**
+	 * Write the specification to a file.
+	 * 
+	 * @param specification
+	 *            the specification
+	 * @param file
+	 *            the file
+	 */
+	public void write(Specification specification, File file) {
+		try {
+			OutputStream out = Compression.openOutputStream(file);
+			write(specification, out);
+			out.close();
+		} catch (FileNotFoundException e) {
+			e.printStackTrace();
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+	}
+
+	/**
+	 * Write the specification to an output stream.
+	 * 
+	 * @param specification
+	 *            the specification
+	 * @param out
+	 *            the output stream
+	 */
+	public synchronized void write(Specification specification, OutputStream out) {
+		try {
+			begin(out);
+			startElement("specification", false);
+			writer.writeDefaultNamespace(SpecificationWriter.NS);
+			writer.writeNamespace("xsi", "http://www.w3.org/2001/XMLSchema-instance");
+			writer.writeAttribute("http://www.w3.org/2001/XMLSchema-instance", "schemaLocation",
+					"http://opendse.sourceforge.net http://opendse.sourceforge.net/schema.xsd");
+			writeContent(specification);
+			endElement();
+			end();
+		} catch (XMLStreamException ex) {
+			throw new RuntimeException(ex);
+		}
+	}
+
+	/**
+	 * Write the specifications to an output stream. Each specification is
+	 * written and flushed before the next one is requested from the iterable
+	 * such that the iterable may create the specifications lazily.
+	 * 
+	 * @param specifications
+	 *            the specifications
+	 * @param out
+	 *            the output stream
+	 */
+	public synchronized void write(Iterable<Specification> specifications, OutputStream out) {
+		try {
+			begin(out);
+			startElement("specifications", false);
+			writer.writeDefaultNamespace(SpecificationWriter.NS);
+			for (Specification specification : specifications) {
+				startElement("specification", false);
+				writeContent(specification);
+				endElement();
+				writer.flush();
+			}
+			endElement();
+			end();
+		} catch (XMLStreamException ex) {
+			throw new RuntimeException(ex);
+		}
+	}
+
+	protected void begin(OutputStream out) throws XMLStreamException {
+		writer = factory.createXMLStreamWriter(out, "UTF-8");
+		states.clear();
+		writer.writeStartDocument("UTF-8", "1.0");
+	}
+
+	protected void end() throws XMLStreamException {
+		writer.writeEndDocument();
+		if (indent) {
+			writer.writeCharacters("\n");
+		}
+		writer.flush();
+		writer.close();
+		writer = null;
+	}
+
+	protected void writeContent(Specification specification) throws XMLStreamException {
+		writeArchitecture(specification.getArchitecture());
+		writeApplication(specification.getApplication());
+		writeMappings(specification.getMappings());
+		if (specification.getRoutings() != null && writeRoutings) {
+			writeRoutings(specification.getRoutings(), specification.getArchitecture());
+		}
+		if (specification.getAttributes().size() > 0) {
+			writeAttributes(specification.getAttributes());
+		}
+	}
+
+	protected void writeArchitecture(Architecture<Resource, Link> architecture) throws XMLStreamException {
+		startElement("architecture", architecture.getVertexCount() == 0);
+		for (Resource resource : architecture) {
+			writeNode(resource, "resource", false, true);
+		}
+		for (Link link : architecture.getEdges()) {
+			Pair<Resource> endpoints = architecture.getEndpoints(link);
+			writeEdge(link, "link", endpoints.getFirst(), endpoints.getSecond(), architecture.getEdgeType(link),
+					false, true);
+		}
+		endElement();
+	}
+
+	protected void writeApplication(Application<Task, Dependency> application) throws XMLStreamException {
+		startElement("application", false);
+		for (Task task : application) {
+			if (Models.isProcess(task)) {
+				writeNode(task, "task", false, true);
+			}
+		}
+		for (Task task : application) {
+			if (!Models.isProcess(task)) {
+				writeNode(task, "communication", false, true);
+			}
+		}
+		for (Dependency dependency : application.getEdges()) {
+			Pair<Task> endpoints = application.getEndpoints(dependency);
+			writeEdge(dependency, "dependency", endpoints.getFirst(), endpoints.getSecond(),
+					application.getEdgeType(dependency), false, true);
+		}
+		Collection<Function<Task, Dependency>> functions = application.getFunctions();
+		startElement("functions", functions.isEmpty());
+		for (Function<Task, Dependency> function : functions) {
+			startElement("function", false);
+			writer.writeAttribute("anchor", function.getVertices().iterator().next().getId());
+			writeAttributes(function.getAttributes());
+			endElement();
+		}
+		endElement();
+		endElement();
+	}
+
+	protected void writeMappings(Mappings<Task, Resource> mappings) throws XMLStreamException {
+		startElement("mappings", mappings.size() == 0);
+		for (Mapping<Task, Resource> mapping : mappings) {
+			boolean attributes = hasAttributes(mapping.getAttributes());
+			startElement("mapping", !attributes);
+			writer.writeAttribute("id", mapping.getId());
+			if (!getType(mapping.getClass()).equals("mapping")) {
+				writer.writeAttribute("class", getType(mapping.getClass()));
+			}
+			writer.writeAttribute("source", mapping.getSource().getId());
+			writer.writeAttribute("target", mapping.getTarget().getId());
+			if (attributes) {
+				writeAttributes(mapping.getAttributes());
+			}
+			endElement();
+		}
+		endElement();
+	}
+
+	protected void writeRoutings(Routings<Task, Resource, Link> routings, Architecture<Resource, Link> architecture)
+			throws XMLStreamException {
+		Map<String, Resource> resources = new HashMap<String, Resource>();
+		for (Resource resource : architecture) {
+			resources.put(resource.getId(), resource);
+		}
+
+		Map<Set<List<Object>>, Task> written = new HashMap<Set<List<Object>>, Task>();
+
+		startElement("routings", routings.getTasks().isEmpty());
+		for (Task task : routings.getTasks()) {
+			Architecture<Resource, Link> routing = routings.get(task);
+			if (deduplicateRoutings) {
+				Set<List<Object>> key = getRoutingKey(routing, resources);
+				Task reference = written.get(key);
+				if (reference != null) {
+					startElement("routing", true);
+					writer.writeAttribute("source", task.getId());
+					writer.writeAttribute("ref", reference.getId());
+					endElement();
+					continue;
+				}
+				written.put(key, task);
+			}
+			startElement("routing", routing.getVertexCount() == 0);
+			writer.writeAttribute("source", task.getId());
+			for (Resource resource : routing) {
+				// as the SpecificationWriter, the attributes are only written
+				// if the parent is the resource in the architecture
+				boolean local = resource.getParent() == resources.get(resource.getId());
+				writeNode(resource, "resource", true, local);
+			}
+			for (Link link : routing.getEdges()) {
+				Pair<Resource> endpoints = routing.getEndpoints(link);
+				boolean local = link.getParent() == resources.get(link.getId());
+				writeEdge(link, "link", endpoints.getFirst(), endpoints.getSecond(), routing.getEdgeType(link), true,
+						local);
+			}
+			endElement();
+		}
+		endElement();
+	}
+
+	protected void writeNode(Node node, String name, boolean local, boolean writeAttributes)
+			throws XMLStreamException {
+		Attributes attributes = local ? node.getLocalAttributes() : node.getAttributes();
+		boolean hasAttributes = writeAttributes && hasAttributes(attributes);
+
+		startElement(name, !hasAttributes);
+		writer.writeAttribute("id", node.getId());
+		if (!getType(node.getClass()).equals(name)) {
+			writer.writeAttribute("class", getType(node.getClass()));
+		}
+		if (hasAttributes) {
+			writeAttributes(attributes);
+		}
+		endElement();
+	}
+
+	protected void writeEdge(Edge edge, String name, Node source, Node dest, EdgeType edgeType, boolean local,
+			boolean writeAttributes) throws XMLStreamException {
+		Attributes attributes = local ? edge.getLocalAttributes() : edge.getAttributes();
+		boolean hasAttributes = writeAttributes && hasAttributes(attributes);
+
+		startElement(name, !hasAttributes);
+		writer.writeAttribute("id", edge.getId());
+		if (!getType(edge.getClass()).equals(name)) {
+			writer.writeAttribute("class", getType(edge.getClass()));
+		}
+		writer.writeAttribute("source", source.getId());
+		writer.writeAttribute("destination", dest.getId());
+		writer.writeAttribute("orientation", edgeType.toString());
+		if (hasAttributes) {
+			writeAttributes(attributes);
+		}
+		endElement();
+	}
+
+	protected boolean hasAttributes(Attributes attributes) {
+		for (String attributeName : attributes.getAttributeNames()) {
+			if (attributes.getAttribute(attributeName) != null) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	protected void writeAttributes(Attributes attributes) throws XMLStreamException {
+		startElement("attributes", !hasAttributes(attributes));
+		for (String attributeName : attributes.getAttributeNames()) {
+			Object value = attributes.getAttribute(attributeName);
+			if (value != null) {
+				writeAttribute(attributeName, value);
+			}
+		}
+		endElement();
+	}
+
+	/**
+	 * Writes the attribute element, see
+	 * {@link SpecificationWriter#toElement(String, Object)}.
+	 * 
+	 * @param attributeName
+	 *            the name of the attribute
+	 * @param attribute
+	 *            the attribute value
+	 */
+	@SuppressWarnings("rawtypes")
+	protected void writeAttribute(String attributeName, Object attribute) throws XMLStreamException {
+		if (attribute == null) {
+			startElement("attribute", true);
+			writer.writeAttribute("name", attributeName);
+			endElement();
+			return;
+		}
+
+		Class<?> cls = attribute.getClass();
+
+		if (Collection.class.isAssignableFrom(cls)) {
+			Collection collection = (Collection) attribute;
+			startElement("attribute", collection.isEmpty());
+			writer.writeAttribute("name", attributeName);
+			writer.writeAttribute("type", getType(cls));
+			for (Object o : collection) {
+				writeAttribute("entry", o);
+			}
+			endElement();
+			return;
+		}
+
+		String type = null;
+		String parameter = null;
+		String value = null;
+
+		if (attribute instanceof Parameter) {
+			type = getType(cls);
+			parameter = getType(attribute.getClass());
+			value = attribute.toString();
+		} else if (Common.isPrimitive(cls) || cls.equals(String.class)) {
+			type = getType(cls);
+			value = attribute.toString();
+		} else if (attribute instanceof Element) {
+			type = getType(cls);
+			value = ((Element) attribute).getId();
+		} else if (cls.isEnum()) {
+			type = getType(cls);
+			value = ((Enum) attribute).name();
+		} else if (Common.isStringMap(attribute)) {
+			Map map = (Map) attribute;
+			startElement("attribute", map.isEmpty());
+			writer.writeAttribute("name", attributeName);
+			writer.writeAttribute("type", getType(cls));
+			for (Object o : map.entrySet()) {
+				Map.Entry entry = (Map.Entry) o;
+				writeAttribute((String) entry.getKey(), entry.getValue());
+			}
+			endElement();
+			return;
+		} else if (Common.getCodec(cls) != null) {
+			type = getType(cls);
+			value = Common.getCodec(cls).encode(attribute);
+		} else if (attribute instanceof Serializable) {
+			type = Serializable.class.getName();
+			try {
+				value = Common.toString((Serializable) attribute);
+			} catch (IOException e) {
+				e.printStackTrace();
+			}
+		} else {
+			System.err.println("Failed to write attribute " + attribute);
+		}
+
+		startElement("attribute", value == null || value.length() == 0);
+		writer.writeAttribute("name", attributeName);
+		if (type != null) {
+			writer.writeAttribute("type", type);
+		}
+		if (parameter != null) {
+			writer.writeAttribute("parameter", parameter);
+		}
+		if (value != null && value.length() > 0) {
+			characters(value);
+		}
+		endElement();
+	}
+
+	/**
+	 * Starts a new element and, if the output is indented, places it on a new
+	 * line.
+	 * 
+	 * @param name
+	 *            the local name
+	 * @param empty
+	 *            true if the element has no content
+	 */
+	protected void startElement(String name, boolean empty) throws XMLStreamException {
+		if (!states.isEmpty()) {
+			states.set(states.size() - 1, PARENT);
+		}
+		newLine(states.size());
+		if (empty) {
+			writer.writeEmptyElement(name);
+			states.add(EMPTY);
+		} else {
+			writer.writeStartElement(name);
+			states.add(OPEN);
+		}
+	}
+
+	/**
+	 * Writes the text content of the current element.
+	 * 
+	 * @param text
+	 *            the text
+	 */
+	protected void characters(String text) throws XMLStreamException {
+		writer.writeCharacters(text);
+		states.set(states.size() - 1, TEXT);
+	}
+
+	/**
+	 * Ends the current element.
+	 */
+	protected void endElement() throws XMLStreamException {
+		int state = states.remove(states.size() - 1);
+		if (state == PARENT) {
+			newLine(states.size());
+		}
+		if (state != EMPTY) {
+			writer.writeEndElement();
+		}
+	}
+
+	protected void newLine(int depth) throws XMLStreamException {
+		if (indent) {
+			StringBuilder sb = new StringBuilder("\n");
+			for (int i = 0; i < depth; i++) {
+				sb.append("  ");
+			}
+			writer.writeCharacters(sb.toString());
+		}
+	}
+
+}
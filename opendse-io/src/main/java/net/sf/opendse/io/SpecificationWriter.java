@@ -21,15 +21,19 @@
  *******************************************************************************/
 package net.sf.opendse.io;
 
+import static net.sf.opendse.io.Common.getRoutingKey;
 import static net.sf.opendse.io.Common.getType;
 
 import java.io.File;
 import java.io.FileNotFoundException;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.io.Serializable;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import net.sf.opendse.model.Application;
 import net.sf.opendse.model.Architecture;
@@ -63,6 +67,7 @@ public class SpecificationWriter {
 	public static final String NS = "http://opendse.sourceforge.net";
 
 	private final boolean writeRoutings;
+	private final boolean deduplicateRoutings;
 
 	/**
 	 * Constructs a new {@link SpecificationWriter} that will always export
@@ -79,7 +84,21 @@ public class SpecificationWriter {
 	 *            true if the routings shall be exported
 	 */
 	public SpecificationWriter(boolean writeRoutings) {
+		this(writeRoutings, false);
+	}
+
+	/**
+	 * Constructs a new {@link SpecificationWriter} instance.
+	 *
+	 * @param writeRoutings
+	 *            true if the routings shall be exported
+	 * @param deduplicateRoutings
+	 *            true if a routing that equals a previously written routing
+	 *            shall only refer to the communication of this routing
+	 */
+	public SpecificationWriter(boolean writeRoutings, boolean deduplicateRoutings) {
 		this.writeRoutings = writeRoutings;
+		this.deduplicateRoutings = deduplicateRoutings;
 	}
 
 	/**
@@ -104,7 +123,7 @@ public class SpecificationWriter {
 	 */
 	public void write(Specification specification, File file) {
 		try {
-			FileOutputStream out = new FileOutputStream(file);
+			OutputStream out = Compression.openOutputStream(file);
 			write(specification, out);
 			out.close();
 		} catch (FileNotFoundException e) {
@@ -200,8 +219,29 @@ public class SpecificationWriter {
 			Architecture<Resource, Link> architecture) {
 		nu.xom.Element eRoutings = new nu.xom.Element("routings", NS);
 
+		Map<String, Resource> resources = new HashMap<String, Resource>();
+		Map<Set<List<Object>>, Task> written = new HashMap<Set<List<Object>>, Task>();
+		if (deduplicateRoutings) {
+			for (Resource resource : architecture) {
+				resources.put(resource.getId(), resource);
+			}
+		}
+
 		for (Task task : routings.getTasks()) {
-			nu.xom.Element eRouting = toElement(routings.get(task), architecture);
+			Architecture<Resource, Link> routing = routings.get(task);
+			if (deduplicateRoutings) {
+				Set<List<Object>> key = getRoutingKey(routing, resources);
+				Task reference = written.get(key);
+				if (reference != null) {
+					nu.xom.Element eRouting = new nu.xom.Element("routing", NS);
+					eRouting.addAttribute(new nu.xom.Attribute("source", task.getId()));
+					eRouting.addAttribute(new nu.xom.Attribute("ref", reference.getId()));
+					eRoutings.appendChild(eRouting);
+					continue;
+				}
+				written.put(key, task);
+			}
+			nu.xom.Element eRouting = toElement(routing, architecture);
 			eRouting.setLocalName("routing");
 			eRouting.addAttribute(new nu.xom.Attribute("source", task.getId()));
 			eRoutings.appendChild(eRouting);
@@ -385,6 +425,16 @@ public class SpecificationWriter {
 			} else if (cls.isEnum()) {
 				eAttr.addAttribute(new nu.xom.Attribute("type", getType(cls)));
 				eAttr.appendChild(((Enum) attribute).name());
+			} else if (Common.isStringMap(attribute)) {
+				eAttr.addAttribute(new nu.xom.Attribute("type", getType(cls)));
+
+				for (Object o : ((Map) attribute).entrySet()) {
+					Map.Entry entry = (Map.Entry) o;
+					eAttr.appendChild(toElement((String) entry.getKey(), entry.getValue()));
+				}
+			} else if (Common.getCodec(cls) != null) {
+				eAttr.addAttribute(new nu.xom.Attribute("type", getType(cls)));
+				eAttr.appendChild(Common.getCodec(cls).encode(attribute));
 			} else if (attribute instanceof Serializable) {
 				Serializable s = (Serializable) attribute;
 				eAttr.addAttribute(new nu.xom.Attribute("type", Serializable.class.getName()));
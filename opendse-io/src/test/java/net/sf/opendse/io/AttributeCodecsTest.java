@@ -0,0 +1,134 @@
+/*******************************************************************************
+ * Copyright (c) 2015 OpenDSE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *******************************************************************************/
+package net.sf.opendse.io;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.HashMap;
+import java.util.Map;
+
+import net.sf.opendse.model.Resource;
+import net.sf.opendse.model.Specification;
+import net.sf.opendse.model.parameter.ParameterRange;
+import net.sf.opendse.model.parameter.ParameterRangeDiscrete;
+import net.sf.opendse.model.parameter.ParameterUniqueID;
+import net.sf.opendse.model.parameter.Parameters;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class AttributeCodecsTest {
+
+	public static class Point {
+		final int x;
+		final int y;
+
+		public Point(int x, int y) {
+			this.x = x;
+			this.y = y;
+		}
+	}
+
+	@Test
+	public void testArrays() {
+		int[] ints = AttributeCodecs.INT_ARRAY.decode(AttributeCodecs.INT_ARRAY.encode(new int[] { -1, 0, 7 }));
+		Assert.assertArrayEquals(new int[] { -1, 0, 7 }, ints);
+
+		long[] longs = AttributeCodecs.LONG_ARRAY.decode(AttributeCodecs.LONG_ARRAY.encode(new long[] { 1L << 40 }));
+		Assert.assertArrayEquals(new long[] { 1L << 40 }, longs);
+
+		double[] values = { 0.1, -2.5e-300, Double.NaN };
+		double[] doubles = AttributeCodecs.DOUBLE_ARRAY.decode(AttributeCodecs.DOUBLE_ARRAY.encode(values));
+		Assert.assertArrayEquals(values, doubles, 0);
+
+		boolean[] bools = AttributeCodecs.BOOL_ARRAY.decode(AttributeCodecs.BOOL_ARRAY.encode(new boolean[] { true,
+				false }));
+		Assert.assertTrue(bools[0]);
+		Assert.assertFalse(bools[1]);
+
+		Assert.assertEquals(0, AttributeCodecs.INT_ARRAY.decode(AttributeCodecs.INT_ARRAY.encode(new int[0])).length);
+	}
+
+	@Test
+	public void testParameters() {
+		ParameterRange range = AttributeCodecs.RANGE.decode(Parameters.range(1.5, 0, 3, 0.5).toString());
+		Assert.assertEquals(1.5, range.getValue(), 0);
+		Assert.assertEquals(3, range.getUpperBound(), 0);
+
+		ParameterRangeDiscrete discrete = AttributeCodecs.DISCRETERANGE.decode(Parameters.range(2, 1, 4).toString());
+		Assert.assertEquals(2, discrete.getValue().intValue());
+		Assert.assertEquals(1, discrete.getLowerBound());
+
+		ParameterUniqueID uid = AttributeCodecs.UID.decode(Parameters.uniqueID(3, "bus").toString());
+		Assert.assertEquals(3, uid.getValue());
+		Assert.assertEquals("bus", uid.getIdentifier());
+	}
+
+	@Test
+	public void testCustomCodec() {
+		Common.addCodec("POINT", Point.class, new AttributeCodec<Point>() {
+			@Override
+			public String encode(Point value) {
+				return value.x + ";" + value.y;
+			}
+
+			@Override
+			public Point decode(String value) {
+				String[] parts = value.split(";");
+				return new Point(Integer.parseInt(parts[0]), Integer.parseInt(parts[1]));
+			}
+		});
+
+		Specification specification = TestSpecifications.create();
+		Resource r1 = specification.getArchitecture().getVertex("r1");
+		r1.setAttribute("position", new Point(3, 4));
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		new SpecificationWriter().write(specification, out);
+		String xml = new String(out.toByteArray());
+		Assert.assertTrue(xml.contains("type=\"POINT\">3;4<"));
+
+		Specification read = new SpecificationReader().read(new ByteArrayInputStream(out.toByteArray()));
+		Point point = read.getArchitecture().getVertex("r1").getAttribute("position");
+		Assert.assertEquals(3, point.x);
+		Assert.assertEquals(4, point.y);
+	}
+
+	@Test
+	public void testMapAndArray() {
+		Specification specification = TestSpecifications.create();
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		new SpecificationWriter().write(specification, out);
+		String xml = new String(out.toByteArray());
+		Assert.assertFalse(xml.contains(java.io.Serializable.class.getName()));
+
+		Specification read = new SpecificationReader().read(new ByteArrayInputStream(out.toByteArray()));
+		Resource r2 = read.getArchitecture().getVertex("r2");
+		Assert.assertArrayEquals(new double[] { 0.5, 1.0 }, r2.<double[]> getAttribute("loads"), 0);
+		Map<String, Object> limits = new HashMap<String, Object>();
+		limits.put("cpu", 80);
+		limits.put("memory", 0.5);
+		Assert.assertEquals(limits, r2.getAttribute("limits"));
+	}
+
+}
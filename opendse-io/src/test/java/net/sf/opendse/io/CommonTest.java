@@ -2,6 +2,7 @@ package net.sf.opendse.io;
 
 import java.lang.reflect.InvocationTargetException;
 
+import net.sf.opendse.model.Element;
 import net.sf.opendse.model.Resource;
 
 import org.junit.Assert;
@@ -27,4 +28,23 @@ public class CommonTest {
 		Assert.assertEquals(new Resource("a"), o);
 		Assert.assertNotEquals(new Resource("b"), o);
 	}
+
+	@Test
+	public void primitiveToInstance() throws IllegalArgumentException, SecurityException, InstantiationException,
+			IllegalAccessException, InvocationTargetException, NoSuchMethodException {
+		Assert.assertEquals(3, Common.toInstance(" 3 ", Integer.class));
+		Assert.assertEquals(1.5, Common.toInstance("1.5", Double.class));
+		Assert.assertEquals(4L, Common.toInstance("4", Long.class));
+		Assert.assertEquals(true, Common.toInstance("true", Boolean.class));
+		Assert.assertEquals("a b", Common.toInstance(" a b ", String.class));
+	}
+
+	@Test
+	public void cachedConstructor() throws NoSuchMethodException, ClassNotFoundException {
+		Assert.assertSame(Common.getConstructor(Resource.class, String.class),
+				Common.getConstructor(Resource.class, String.class));
+		Assert.assertNotSame(Common.getConstructor(Resource.class, String.class),
+				Common.getConstructor(Resource.class, Element.class));
+		Assert.assertEquals(Resource.class, Common.forName(Resource.class.getName()));
+	}
 }
@@ -0,0 +1,89 @@
+/*******************************************************************************
+ * Copyright (c) 2015 OpenDSE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *******************************************************************************/
+package net.sf.opendse.io;
+
+import java.io.File;
+
+import net.sf.opendse.model.Specification;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class CompressionTest {
+
+	protected File createTempFile(String suffix) throws Exception {
+		File file = File.createTempFile("specification", suffix);
+		file.deleteOnExit();
+		return file;
+	}
+
+	@Test
+	public void testCompressedXml() throws Exception {
+		Specification specification = TestSpecifications.create();
+
+		File file = createTempFile(".xml.gz");
+		new SpecificationWriter().write(specification, file);
+
+		Assert.assertTrue(Compression.isCompressed(file));
+		Assert.assertTrue(Compression.getUncompressedLength(file) > file.length());
+
+		SpecificationReader reader = new SpecificationReader();
+		reader.setStreamingThreshold(Long.MAX_VALUE);
+		Specification read = reader.read(file);
+		Assert.assertEquals(TestSpecifications.toXML(specification), TestSpecifications.toXML(read));
+
+		reader = new SpecificationReader();
+		reader.setStreamingThreshold(0);
+		read = reader.read(file);
+		Assert.assertEquals(TestSpecifications.toXML(specification), TestSpecifications.toXML(read));
+		file.delete();
+	}
+
+	@Test
+	public void testUncompressedXml() throws Exception {
+		Specification specification = TestSpecifications.create();
+
+		File file = createTempFile(".xml");
+		new SpecificationStreamWriter().write(specification, file);
+
+		Assert.assertFalse(Compression.isCompressed(file));
+		Assert.assertEquals(file.length(), Compression.getUncompressedLength(file));
+
+		Specification read = new SpecificationReader().read(file);
+		Assert.assertEquals(TestSpecifications.toXML(specification), TestSpecifications.toXML(read));
+		file.delete();
+	}
+
+	@Test
+	public void testCompressedBinary() throws Exception {
+		Specification specification = TestSpecifications.create();
+
+		File file = createTempFile(".bin.gz");
+		new SpecificationBinaryWriter().write(specification, file);
+
+		Assert.assertTrue(Compression.isCompressed(file));
+
+		Specification read = new SpecificationBinaryReader().read(file);
+		Assert.assertEquals(TestSpecifications.toXML(specification), TestSpecifications.toXML(read));
+		file.delete();
+	}
+}
@@ -110,6 +110,36 @@ public class ReaderTGFFTest {
 		Assert.assertNotNull(spec.getMappings());
 	}
 
+	/**
+	 * Test method for
+	 * {@link net.sf.opendse.io.ReaderTGFF#toSpecification(java.util.Iterator)}.
+	 */
+	@Test
+	public void testToSpecificationIterator() throws FileNotFoundException {
+
+		List<String> in = new ArrayList<String>();
+		Iterator<String> it = new ReaderTGFF.LineIterator(
+				new java.io.BufferedReader(new java.io.InputStreamReader(new FileInputStream(testFile))));
+		while (it.hasNext()) {
+			in.add(it.next());
+		}
+
+		SpecificationTypeBased spec = new ReaderTGFF().toSpecification(in.iterator());
+
+		ReaderTGFF reader = new ReaderTGFF();
+		Application<Task, Dependency> application = reader.toApplication(in);
+		ResourceTypes<Resource> resourceTypes = reader.toResourceTypes(in);
+		Mappings<Task, Resource> mappings = reader.toMappings(in, resourceTypes);
+		LinkTypes<Link> linkTypes = reader.toLinkTypes(in);
+
+		Assert.assertEquals(application.getVertexCount(), spec.getApplication().getVertexCount());
+		Assert.assertEquals(application.getEdgeCount(), spec.getApplication().getEdgeCount());
+		Assert.assertEquals(resourceTypes.keySet(), spec.getResourceTypes().keySet());
+		Assert.assertEquals(mappings.size(), spec.getMappings().size());
+		Assert.assertEquals(linkTypes.keySet(), spec.getLinkTypes().keySet());
+		Assert.assertTrue(spec.getMappings().size() > 0);
+	}
+
 	/**
 	 * Test method for
 	 * {@link net.sf.opendse.io.ReaderTGFF#toApplication(java.util.List)}.
@@ -0,0 +1,131 @@
+/*******************************************************************************
+ * Copyright (c) 2015 OpenDSE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *******************************************************************************/
+package net.sf.opendse.io;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import net.sf.opendse.model.Specification;
+import net.sf.opendse.model.Task;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SpecificationArchiveReaderTest {
+
+	protected File createTempFile() throws Exception {
+		File file = File.createTempFile("specifications", ".odsa");
+		file.deleteOnExit();
+		return file;
+	}
+
+	@Test
+	public void testArchive() throws Exception {
+		List<Specification> specifications = new ArrayList<Specification>();
+		for (int i = 0; i < 3; i++) {
+			Specification specification = TestSpecifications.create();
+			specification.setAttribute("costs:OBJECTIVE", (double) i);
+			specification.setAttribute("hops:OBJECTIVE", i);
+			specification.setAttribute("name:OBJECTIVE", "s" + i);
+			specifications.add(specification);
+		}
+		specifications.add(TestSpecifications.createRedundantRoutings());
+
+		File file = createTempFile();
+		new SpecificationArchiveWriter().write(specifications, file);
+
+		SpecificationArchiveReader reader = new SpecificationArchiveReader(file);
+		try {
+			Assert.assertEquals(4, reader.size());
+			Assert.assertEquals(1.0, reader.getObjectives(1).get("costs"));
+			Assert.assertEquals(1, reader.getObjectives(1).get("hops"));
+			Assert.assertEquals("s1", reader.getObjectives(1).get("name"));
+			Assert.assertEquals(42.0, reader.getObjectives(3).get("costs"));
+			Assert.assertEquals(1, reader.getObjectives(3).size());
+
+			for (int i = specifications.size() - 1; i >= 0; i--) {
+				Assert.assertEquals(TestSpecifications.toXML(specifications.get(i)),
+						TestSpecifications.toXML(reader.read(i)));
+			}
+		} finally {
+			reader.close();
+			file.delete();
+		}
+	}
+
+	@Test
+	public void testIndependentEntries() throws Exception {
+		List<Specification> specifications = new ArrayList<Specification>();
+		for (int i = 0; i < 2; i++) {
+			Specification specification = TestSpecifications.create();
+			specification.getApplication().getVertex("t1").setAttribute("prio", i + 1);
+			specifications.add(specification);
+		}
+
+		File file = createTempFile();
+		new SpecificationArchiveWriter().write(specifications, file);
+
+		SpecificationArchiveReader reader = new SpecificationArchiveReader(file);
+		try {
+			Specification s0 = reader.read(0);
+			Specification s1 = reader.read(1);
+			Task t0 = s0.getApplication().getVertex("t1");
+			Task t1 = s1.getApplication().getVertex("t1");
+
+			Assert.assertNotSame(t0, t1);
+			Assert.assertEquals(1, t0.getAttribute("prio"));
+			Assert.assertEquals(2, t1.getAttribute("prio"));
+			Assert.assertSame(t0, s0.getMappings().getSources(s0.getArchitecture().getVertex("r1")).iterator()
+					.next());
+		} finally {
+			reader.close();
+			file.delete();
+		}
+	}
+
+	@Test
+	public void testEmptyArchive() throws Exception {
+		File file = createTempFile();
+		new SpecificationArchiveWriter().write(new ArrayList<Specification>(), file);
+
+		SpecificationArchiveReader reader = new SpecificationArchiveReader(file);
+		Assert.assertEquals(0, reader.size());
+		reader.close();
+		file.delete();
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testNoArchive() throws Exception {
+		File file = createTempFile();
+		FileOutputStream out = new FileOutputStream(file);
+		out.write(new byte[64]);
+		out.close();
+
+		try {
+			new SpecificationArchiveReader(file);
+		} finally {
+			file.delete();
+		}
+	}
+}
@@ -0,0 +1,128 @@
+/*******************************************************************************
+ * Copyright (c) 2015 OpenDSE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *******************************************************************************/
+package net.sf.opendse.io;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.util.HashMap;
+import java.util.Map;
+
+import net.sf.opendse.model.Architecture;
+import net.sf.opendse.model.Link;
+import net.sf.opendse.model.Resource;
+import net.sf.opendse.model.Specification;
+import net.sf.opendse.model.Task;
+import net.sf.opendse.model.parameter.ParameterRange;
+import net.sf.opendse.model.parameter.ParameterSelect;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SpecificationBinaryReaderTest {
+
+	protected byte[] write(Specification specification, boolean writeRoutings) {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		new SpecificationBinaryWriter(writeRoutings).write(specification, out);
+		return out.toByteArray();
+	}
+
+	protected Specification read(byte[] bytes) {
+		return new SpecificationBinaryReader().read(new ByteArrayInputStream(bytes));
+	}
+
+	@Test
+	public void testRoundTrip() {
+		Specification specification = TestSpecifications.create();
+		Specification read = read(write(specification, true));
+
+		Assert.assertEquals(TestSpecifications.toXML(specification), TestSpecifications.toXML(read));
+	}
+
+	@Test
+	public void testFile() throws Exception {
+		Specification specification = TestSpecifications.create();
+
+		File file = File.createTempFile("specification", ".bin");
+		file.deleteOnExit();
+		new SpecificationBinaryWriter().write(specification, file);
+		Specification read = new SpecificationBinaryReader().read(file);
+		file.delete();
+
+		Assert.assertEquals(TestSpecifications.toXML(specification), TestSpecifications.toXML(read));
+	}
+
+	@Test
+	public void testValues() {
+		Specification specification = TestSpecifications.create();
+		Task t1 = specification.getApplication().getVertex("t1");
+		Map<String, Integer> map = new HashMap<String, Integer>();
+		map.put("a", 1);
+		t1.setAttribute("map", map);
+		t1.setAttribute("long", -1L << 40);
+		t1.setAttribute("float", 0.25f);
+		t1.setAttribute("char", '\u00e4');
+		t1.setAttribute("negative", -7);
+
+		Specification read = read(write(specification, true));
+		Task task = read.getApplication().getVertex("t1");
+		Assert.assertEquals(map, task.getAttribute("map"));
+		Assert.assertEquals(-1L << 40, task.<Long> getAttribute("long").longValue());
+		Assert.assertEquals(0.25f, task.<Float> getAttribute("float"), 0);
+		Assert.assertEquals('\u00e4', task.<Character> getAttribute("char").charValue());
+		Assert.assertEquals(-7, task.<Integer> getAttribute("negative").intValue());
+		Assert.assertSame(read.getArchitecture().getVertex("r2"), task.getAttribute("host"));
+
+		Resource r1 = read.getArchitecture().getVertex("r1");
+		Assert.assertTrue(r1.getAttributeParameter("frequency") instanceof ParameterRange);
+		Assert.assertTrue(r1.getAttributeParameter("vendor") instanceof ParameterSelect);
+		Assert.assertEquals(100.0, r1.<Double> getAttribute("frequency"), 0);
+	}
+
+	@Test
+	public void testRoutingAttributes() {
+		Specification specification = TestSpecifications.create();
+		Task c1 = specification.getApplication().getVertex("c1");
+		specification.getRoutings().get(c1).getEdge("l1").setAttribute("delay", 2);
+
+		Specification read = read(write(specification, true));
+		Architecture<Resource, Link> routing = read.getRoutings().get(read.getApplication().getVertex("c1"));
+		Link link = routing.getEdge("l1");
+		Assert.assertSame(read.getArchitecture().getEdge("l1"), link.getParent());
+		Assert.assertEquals(2, link.<Integer> getAttribute("delay").intValue());
+		Assert.assertEquals(1000, link.<Integer> getAttribute("bandwidth").intValue());
+		Assert.assertEquals(3, routing.getVertex("bus").<Integer> getAttribute("slot").intValue());
+	}
+
+	@Test
+	public void testWithoutRoutings() {
+		Specification read = read(write(TestSpecifications.create(), false));
+		Assert.assertNotNull(read.getApplication().getVertex("c1"));
+		Assert.assertEquals(2, read.getMappings().size());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalid() {
+		read("<specification/>".getBytes());
+	}
+
+}
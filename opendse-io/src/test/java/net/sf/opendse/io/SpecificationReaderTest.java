@@ -2,6 +2,8 @@ package net.sf.opendse.io;
 
 import static net.sf.opendse.io.Common.getType;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.lang.reflect.InvocationTargetException;
 import java.util.HashSet;
@@ -13,10 +15,13 @@ import org.junit.Test;
 import net.sf.opendse.io.CommonTest.E1;
 import net.sf.opendse.model.Application;
 import net.sf.opendse.model.Architecture;
+import net.sf.opendse.model.Communication;
 import net.sf.opendse.model.Dependency;
 import net.sf.opendse.model.Element;
 import net.sf.opendse.model.Link;
 import net.sf.opendse.model.Resource;
+import net.sf.opendse.model.Routings;
+import net.sf.opendse.model.Specification;
 import net.sf.opendse.model.Task;
 import net.sf.opendse.model.parameter.ParameterRangeDiscrete;
 import nu.xom.Attribute;
@@ -25,6 +30,52 @@ import nu.xom.ParsingException;
 import nu.xom.ValidityException;
 
 public class SpecificationReaderTest {
+	@Test
+	public void deduplicatedRoutingsTest() {
+		Specification specification = TestSpecifications.createRedundantRoutings();
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		new SpecificationWriter(true, true).write(specification, out);
+		String xml = new String(out.toByteArray());
+		Assert.assertEquals(1, xml.split(" ref=").length - 1);
+
+		Specification read = new SpecificationReader().read(new ByteArrayInputStream(out.toByteArray()));
+		Application<Task, Dependency> application = read.getApplication();
+		Routings<Task, Resource, Link> routings = read.getRoutings();
+		Assert.assertSame(routings.get(application.getVertex("c1")), routings.get(application.getVertex("c2")));
+		Assert.assertNotSame(routings.get(application.getVertex("c1")), routings.get(application.getVertex("c3")));
+		Assert.assertEquals(TestSpecifications.toXML(specification), TestSpecifications.toXML(read));
+	}
+
+	@Test
+	public void parallelTest() {
+		Specification specification = TestSpecifications.createRedundantRoutings();
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		new SpecificationWriter(true, true).write(specification, out);
+
+		SpecificationReader reader = new SpecificationReader();
+		reader.setThreads(4);
+		Specification read = reader.read(new ByteArrayInputStream(out.toByteArray()));
+		Application<Task, Dependency> application = read.getApplication();
+		Routings<Task, Resource, Link> routings = read.getRoutings();
+		Assert.assertSame(routings.get(application.getVertex("c1")), routings.get(application.getVertex("c2")));
+		Assert.assertSame(read.getArchitecture().getVertex("r2"), application.getVertex("t1").getAttribute("host"));
+		Assert.assertEquals(TestSpecifications.toXML(specification), TestSpecifications.toXML(read));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void unknownRoutingReferenceTest() throws Exception {
+		nu.xom.Element eRoutings = new Builder().build(
+				"<routings xmlns='" + SpecificationWriter.NS + "'><routing source='c1' ref='c2'/></routings>", "")
+				.getRootElement();
+		Application<Task, Dependency> application = new Application<Task, Dependency>();
+		application.addVertex(new Communication("c1"));
+		application.addVertex(new Communication("c2"));
+
+		new SpecificationReader().toRoutings(eRoutings, new Architecture<Resource, Link>(), application);
+	}
+
 	@Test
 	public void toApplicationTest() throws ValidityException, ParsingException, IOException, ClassNotFoundException,
 			InstantiationException, IllegalAccessException, InvocationTargetException, NoSuchMethodException {
@@ -0,0 +1,87 @@
+/*******************************************************************************
+ * Copyright (c) 2015 OpenDSE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *******************************************************************************/
+package net.sf.opendse.io;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+
+import net.sf.opendse.model.Link;
+import net.sf.opendse.model.Resource;
+import net.sf.opendse.model.Specification;
+import net.sf.opendse.model.Task;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SpecificationStreamReaderTest {
+
+	@Test
+	public void testRoundTrip() {
+		Specification specification = TestSpecifications.create();
+		String xml = TestSpecifications.toXML(specification);
+
+		Specification dom = new SpecificationReader().read(new ByteArrayInputStream(xml.getBytes()));
+		Specification stream = new SpecificationStreamReader().read(new ByteArrayInputStream(xml.getBytes()));
+
+		Assert.assertEquals(TestSpecifications.toXML(dom), TestSpecifications.toXML(stream));
+		Assert.assertEquals(xml, TestSpecifications.toXML(stream));
+	}
+
+	@Test
+	public void testReferences() {
+		String xml = TestSpecifications.toXML(TestSpecifications.create());
+		Specification stream = new SpecificationStreamReader().read(new ByteArrayInputStream(xml.getBytes()));
+
+		Task t1 = stream.getApplication().getVertex("t1");
+		Resource r2 = stream.getArchitecture().getVertex("r2");
+		Assert.assertSame(r2, t1.getAttribute("host"));
+
+		Task c1 = stream.getApplication().getVertex("c1");
+		Link l1 = stream.getRoutings().get(c1).getEdge("l1");
+		Assert.assertSame(stream.getArchitecture().getEdge("l1"), l1.getParent());
+		Assert.assertEquals(1000, (int) l1.<Integer> getAttribute("bandwidth"));
+	}
+
+	@Test
+	public void testStreamingThreshold() throws IOException {
+		Specification specification = TestSpecifications.create();
+		File file = File.createTempFile("spec", ".xml");
+		file.deleteOnExit();
+		new SpecificationWriter().write(specification, file);
+
+		SpecificationReader reader = new SpecificationReader();
+		reader.setStreamingThreshold(0);
+		Specification stream = reader.read(file);
+
+		Assert.assertEquals(TestSpecifications.toXML(specification), TestSpecifications.toXML(stream));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testMissingSource() {
+		String xml = "<specification xmlns=\"" + SpecificationWriter.NS + "\"><architecture>"
+				+ "<resource id=\"r1\"/><link id=\"l\" source=\"r0\" destination=\"r1\"/>"
+				+ "</architecture></specification>";
+		new SpecificationStreamReader().read(new ByteArrayInputStream(xml.getBytes()));
+	}
+
+}
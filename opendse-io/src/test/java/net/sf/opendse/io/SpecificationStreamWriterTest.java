@@ -0,0 +1,111 @@
+/*******************************************************************************
+ * Copyright (c) 2015 OpenDSE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *******************************************************************************/
+package net.sf.opendse.io;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import net.sf.opendse.model.Specification;
+import net.sf.opendse.model.Task;
+import nu.xom.Builder;
+import nu.xom.Document;
+import nu.xom.Elements;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SpecificationStreamWriterTest {
+
+	protected Specification read(byte[] bytes) {
+		return new SpecificationReader().read(new ByteArrayInputStream(bytes));
+	}
+
+	@Test
+	public void testRoundTrip() {
+		Specification specification = TestSpecifications.create();
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		new SpecificationStreamWriter().write(specification, out);
+
+		Assert.assertEquals(TestSpecifications.toXML(specification), TestSpecifications.toXML(read(out.toByteArray())));
+	}
+
+	@Test
+	public void testCompact() {
+		Specification specification = TestSpecifications.create();
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		new SpecificationStreamWriter(true, false).write(specification, out);
+		String xml = new String(out.toByteArray());
+
+		Assert.assertFalse(xml.contains("\n  <"));
+		Assert.assertEquals(TestSpecifications.toXML(specification), TestSpecifications.toXML(read(out.toByteArray())));
+	}
+
+	@Test
+	public void testWithoutRoutings() {
+		Specification specification = TestSpecifications.create();
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		new SpecificationStreamWriter(false, true).write(specification, out);
+
+		String xml = new String(out.toByteArray());
+		Assert.assertFalse(xml.contains("<routings"));
+		Assert.assertNotNull(read(out.toByteArray()).getApplication().getVertex("c1"));
+	}
+
+	@Test
+	public void testDeduplicatedRoutings() {
+		Specification specification = TestSpecifications.createRedundantRoutings();
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		new SpecificationStreamWriter(true, true, true).write(specification, out);
+		String xml = new String(out.toByteArray());
+		Assert.assertEquals(1, xml.split(" ref=").length - 1);
+
+		Specification read = new SpecificationStreamReader().read(new ByteArrayInputStream(out.toByteArray()));
+		Task c1 = read.getApplication().getVertex("c1");
+		Task c2 = read.getApplication().getVertex("c2");
+		Assert.assertSame(read.getRoutings().get(c1), read.getRoutings().get(c2));
+		Assert.assertEquals(TestSpecifications.toXML(specification), TestSpecifications.toXML(read));
+	}
+
+	@Test
+	public void testCollection() throws Exception {
+		List<Specification> specifications = new ArrayList<Specification>();
+		specifications.add(TestSpecifications.create());
+		specifications.add(TestSpecifications.create());
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		new SpecificationStreamWriter().write(specifications, out);
+
+		Document document = new Builder().build(new ByteArrayInputStream(out.toByteArray()));
+		Elements elements = document.getRootElement().getChildElements("specification", SpecificationWriter.NS);
+		Assert.assertEquals(2, elements.size());
+
+		Specification specification = new SpecificationReader().toSpecification(elements.get(1));
+		Assert.assertEquals(TestSpecifications.toXML(specifications.get(1)), TestSpecifications.toXML(specification));
+	}
+
+}
@@ -0,0 +1,170 @@
+/*******************************************************************************
+ * Copyright (c) 2015 OpenDSE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *******************************************************************************/
+package net.sf.opendse.io;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import net.sf.opendse.model.Application;
+import net.sf.opendse.model.Architecture;
+import net.sf.opendse.model.Communication;
+import net.sf.opendse.model.Dependency;
+import net.sf.opendse.model.Function;
+import net.sf.opendse.model.Link;
+import net.sf.opendse.model.Mapping;
+import net.sf.opendse.model.Mappings;
+import net.sf.opendse.model.Resource;
+import net.sf.opendse.model.Routings;
+import net.sf.opendse.model.Specification;
+import net.sf.opendse.model.Task;
+import net.sf.opendse.model.parameter.Parameters;
+import edu.uci.ics.jung.graph.util.EdgeType;
+
+/**
+ * Creates specifications for the round-trip tests of the readers and writers.
+ */
+public class TestSpecifications {
+
+	/**
+	 * Returns a specification that contains all attribute types, functions,
+	 * routings with local attributes, and specification attributes.
+	 * 
+	 * @return the specification
+	 */
+	public static Specification create() {
+		Architecture<Resource, Link> architecture = new Architecture<Resource, Link>();
+		Resource r1 = new Resource("r1");
+		r1.setAttribute("costs", 10.5);
+		r1.setAttribute("cores", 2);
+		r1.setAttribute("orientation", EdgeType.DIRECTED);
+		r1.setAttribute("name", "ecu & <1>");
+		r1.setAttribute("frequency", Parameters.range(100.0, 50.0, 200.0, 10));
+		r1.setAttribute("level", Parameters.range(1, 0, 3));
+		r1.setAttribute("vendor", Parameters.select("a", "a", "b", "c"));
+		Resource bus = new Resource("bus");
+		bus.setAttribute("shared", true);
+		Resource r2 = new Resource("r2");
+		r2.setAttribute("loads", new double[] { 0.5, 1.0 });
+		Map<String, Object> limits = new HashMap<String, Object>();
+		limits.put("cpu", 80);
+		limits.put("memory", 0.5);
+		r2.setAttribute("limits", limits);
+		Link l1 = new Link("l1");
+		l1.setAttribute("bandwidth", 1000);
+		Link l2 = new Link("l2");
+		architecture.addEdge(l1, r1, bus, EdgeType.UNDIRECTED);
+		architecture.addEdge(l2, bus, r2, EdgeType.DIRECTED);
+
+		Application<Task, Dependency> application = new Application<Task, Dependency>();
+		Task t1 = new Task("t1");
+		t1.setAttribute("e", 1.5);
+		Set<String> tags = new HashSet<String>(Arrays.asList("x", "y"));
+		t1.setAttribute("tags", tags);
+		List<Integer> list = new ArrayList<Integer>(Arrays.asList(3, 1, 2));
+		t1.setAttribute("list", list);
+		t1.setAttribute("host", r2);
+		Communication c1 = new Communication("c1");
+		c1.setAttribute("size", 64);
+		Task t2 = new Task("t2");
+		Dependency d1 = new Dependency("d1");
+		d1.setAttribute("weight", 0.5);
+		Dependency d2 = new Dependency("d2");
+		application.addEdge(d1, t1, c1, EdgeType.DIRECTED);
+		application.addEdge(d2, c1, t2, EdgeType.DIRECTED);
+		Function<Task, Dependency> function = application.getFunction(t1);
+		function.setAttribute("h", 10.0);
+
+		Mappings<Task, Resource> mappings = new Mappings<Task, Resource>();
+		Mapping<Task, Resource> m1 = new Mapping<Task, Resource>("m1", t1, r1);
+		m1.setAttribute("e", 2.0);
+		mappings.add(m1);
+		mappings.add(new Mapping<Task, Resource>("m2", t2, r2));
+
+		Routings<Task, Resource, Link> routings = new Routings<Task, Resource, Link>();
+		Architecture<Resource, Link> routing = new Architecture<Resource, Link>();
+		Resource lr1 = new Resource(r1);
+		Resource lbus = new Resource(bus);
+		lbus.setAttribute("slot", 3);
+		Resource lr2 = new Resource(r2);
+		Link ll1 = new Link(l1);
+		Link ll2 = new Link(l2);
+		routing.addEdge(ll1, lr1, lbus, EdgeType.DIRECTED);
+		routing.addEdge(ll2, lbus, lr2, EdgeType.DIRECTED);
+		routings.set(c1, routing);
+
+		Specification specification = new Specification(application, architecture, mappings, routings);
+		specification.setAttribute("costs:OBJECTIVE", 42.0);
+		return specification;
+	}
+
+	/**
+	 * Returns the specification of {@link #create()} with the additional
+	 * communications c2 and c3. The routing of c2 equals the routing of c1,
+	 * the routing of c3 differs in a local attribute.
+	 * 
+	 * @return the specification
+	 */
+	public static Specification createRedundantRoutings() {
+		Specification specification = create();
+		Application<Task, Dependency> application = specification.getApplication();
+		Architecture<Resource, Link> architecture = specification.getArchitecture();
+		Task t1 = application.getVertex("t1");
+		Task t2 = application.getVertex("t2");
+
+		for (int i = 2; i <= 3; i++) {
+			Communication c = new Communication("c" + i);
+			application.addEdge(new Dependency("d" + i + "1"), t1, c, EdgeType.DIRECTED);
+			application.addEdge(new Dependency("d" + i + "2"), c, t2, EdgeType.DIRECTED);
+
+			Architecture<Resource, Link> routing = new Architecture<Resource, Link>();
+			Resource lr1 = new Resource(architecture.getVertex("r1"));
+			Resource lbus = new Resource(architecture.getVertex("bus"));
+			lbus.setAttribute("slot", i == 2 ? 3 : 4);
+			Resource lr2 = new Resource(architecture.getVertex("r2"));
+			routing.addEdge(new Link(architecture.getEdge("l1")), lr1, lbus, EdgeType.DIRECTED);
+			routing.addEdge(new Link(architecture.getEdge("l2")), lbus, lr2, EdgeType.DIRECTED);
+			specification.getRoutings().set(c, routing);
+		}
+		return specification;
+	}
+
+	/**
+	 * Returns the XML representation of the specification as written by the
+	 * {@link SpecificationWriter}.
+	 * 
+	 * @param specification
+	 *            the specification
+	 * @return the XML string
+	 */
+	public static String toXML(Specification specification) {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		new SpecificationWriter().write(specification, out);
+		return new String(out.toByteArray());
+	}
+
+}
@@ -0,0 +1,68 @@
+/*******************************************************************************
+ * Copyright (c) 2015 OpenDSE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *******************************************************************************/
+package net.sf.opendse.optimization;
+
+import org.opt4j.core.config.annotations.Info;
+import org.opt4j.core.start.Constant;
+import org.opt4j.satdecoding.sat4j.SAT4JModule;
+
+/**
+ * The {@code ClauseSharingModule} configures SAT4J decoding solvers that share
+ * their short learned clauses via the {@link SATClauseSharing}. This is most
+ * effective with several solver instances, i.e., parallel decoding.
+ * 
+ * @author lukasiewycz
+ *
+ */
+@Info("SAT4J decoding solvers that share their short learned clauses.")
+public class ClauseSharingModule extends SAT4JModule {
+
+	@Info("Learned clauses up to this size are shared.")
+	@Constant(value = "maxLength", namespace = SATClauseSharing.class)
+	protected int maxLength = 4;
+
+	@Info("The maximal number of shared clauses.")
+	@Constant(value = "capacity", namespace = SATClauseSharing.class)
+	protected int capacity = 100000;
+
+	public int getMaxLength() {
+		return maxLength;
+	}
+
+	public void setMaxLength(int maxLength) {
+		this.maxLength = maxLength;
+	}
+
+	public int getCapacity() {
+		return capacity;
+	}
+
+	public void setCapacity(int capacity) {
+		this.capacity = capacity;
+	}
+
+	@Override
+	public void config() {
+		bindSolver(SharingSAT4JSolver.class, instances);
+	}
+
+}
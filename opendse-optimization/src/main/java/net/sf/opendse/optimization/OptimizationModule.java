@@ -112,6 +112,8 @@ public class OptimizationModule extends ProblemModule {
 
 		Multibinder.newSetBinder(binder(), ImplementationEvaluator.class);
 
+		Multibinder.newSetBinder(binder(), StagnationListener.class);
+
 		if (stagnationRestartEnabled) {
 			addOptimizerIterationListener(StagnationRestart.class);
 		}
@@ -0,0 +1,146 @@
+/*******************************************************************************
+ * Copyright (c) 2015 OpenDSE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *******************************************************************************/
+package net.sf.opendse.optimization;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.opt4j.core.start.Constant;
+import org.opt4j.satdecoding.Constraint;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+
+/**
+ * The {@code SATClauseSharing} collects short clauses that were learned by the
+ * decoding solvers such that they can be injected into the other solvers.
+ * Since all decoding solvers work on the same base constraints, each learned
+ * clause is implied by these constraints and can be added to any of the
+ * solvers without changing the set of feasible solutions.
+ * <p>
+ * The collected clauses can be retrieved with {@link #getClauses()} and
+ * restored with {@link #addAll(Collection)}, e.g., to persist them for
+ * subsequent runs on the same specification.
+ * 
+ * @author lukasiewycz
+ *
+ */
+@Singleton
+public class SATClauseSharing {
+
+	protected final int maxLength;
+	protected final int capacity;
+	protected final List<Constraint> clauses = new ArrayList<Constraint>();
+	protected final Set<Constraint> known = new HashSet<Constraint>();
+
+	/**
+	 * Constructs the {@code SATClauseSharing}.
+	 * 
+	 * @param maxLength
+	 *            the maximal length of shared clauses
+	 * @param capacity
+	 *            the maximal number of shared clauses
+	 */
+	@Inject
+	public SATClauseSharing(@Constant(value = "maxLength", namespace = SATClauseSharing.class) int maxLength,
+			@Constant(value = "capacity", namespace = SATClauseSharing.class) int capacity) {
+		super();
+		this.maxLength = maxLength;
+		this.capacity = capacity;
+	}
+
+	/**
+	 * Returns the maximal length of shared clauses.
+	 * 
+	 * @return the maximal length
+	 */
+	public int getMaxLength() {
+		return maxLength;
+	}
+
+	/**
+	 * Publishes a learned clause.
+	 * 
+	 * @param clause
+	 *            the clause
+	 * @return {@code true} if the clause is new and has been added
+	 */
+	public synchronized boolean publish(Constraint clause) {
+		if (clause.isEmpty() || clause.size() > maxLength || clauses.size() >= capacity) {
+			return false;
+		}
+		if (known.add(clause)) {
+			clauses.add(clause);
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Adds previously collected clauses, e.g., from a preceding run.
+	 * 
+	 * @param clauses
+	 *            the clauses
+	 */
+	public synchronized void addAll(Collection<Constraint> clauses) {
+		for (Constraint clause : clauses) {
+			publish(clause);
+		}
+	}
+
+	/**
+	 * Returns the clauses that were published after the first {@code from}
+	 * clauses.
+	 * 
+	 * @param from
+	 *            the number of clauses that are already known to the caller
+	 * @return the new clauses
+	 */
+	public synchronized List<Constraint> getClauses(int from) {
+		if (from >= clauses.size()) {
+			return new ArrayList<Constraint>();
+		}
+		return new ArrayList<Constraint>(clauses.subList(from, clauses.size()));
+	}
+
+	/**
+	 * Returns all shared clauses.
+	 * 
+	 * @return the shared clauses
+	 */
+	public synchronized List<Constraint> getClauses() {
+		return getClauses(0);
+	}
+
+	/**
+	 * Returns the number of shared clauses.
+	 * 
+	 * @return the number of shared clauses
+	 */
+	public synchronized int size() {
+		return clauses.size();
+	}
+
+}
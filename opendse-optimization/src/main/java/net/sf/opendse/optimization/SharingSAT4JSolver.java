@@ -0,0 +1,139 @@
+/*******************************************************************************
+ * Copyright (c) 2015 OpenDSE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *******************************************************************************/
+package net.sf.opendse.optimization;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.Set;
+
+import org.opt4j.core.start.Constant;
+import org.opt4j.satdecoding.Constraint;
+import org.opt4j.satdecoding.ContradictionException;
+import org.opt4j.satdecoding.Literal;
+import org.opt4j.satdecoding.Model;
+import org.opt4j.satdecoding.Order;
+import org.opt4j.satdecoding.TimeoutException;
+import org.opt4j.satdecoding.sat4j.SAT4JSolver;
+import org.sat4j.core.LiteralsUtils;
+import org.sat4j.specs.IConstr;
+import org.sat4j.specs.ISolverService;
+import org.sat4j.tools.SearchListenerAdapter;
+
+import com.google.inject.Inject;
+
+/**
+ * The {@code SharingSAT4JSolver} is a {@link SAT4JSolver} that publishes its
+ * short learned clauses to the {@link SATClauseSharing} and injects the
+ * clauses learned by the other solvers before each solve.
+ * 
+ * @author lukasiewycz
+ *
+ */
+public class SharingSAT4JSolver extends SAT4JSolver {
+
+	protected final SATClauseSharing sharing;
+	protected final List<Object> index = new ArrayList<Object>();
+	protected final Set<Constraint> own = new HashSet<Constraint>();
+	protected int imported = 0;
+
+	@Inject
+	public SharingSAT4JSolver(@Constant(value = "timeout", namespace = SAT4JSolver.class) int timeout,
+			@Constant(value = "clauseLearningLength", namespace = SAT4JSolver.class) int clauseLearningLength,
+			@Constant(value = "learning", namespace = SAT4JSolver.class) Learning learning,
+			@Constant(value = "restarts", namespace = SAT4JSolver.class) Restarts restarts, SATClauseSharing sharing) {
+		super(timeout, clauseLearningLength, learning, restarts);
+		this.sharing = sharing;
+
+		solver.setSearchListener(new SearchListenerAdapter<ISolverService>() {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			public void learn(IConstr c) {
+				export(c);
+			}
+		});
+	}
+
+	@Override
+	public synchronized Model solve(Order order) throws TimeoutException, ContradictionException {
+		List<Constraint> clauses = sharing.getClauses(imported);
+		imported += clauses.size();
+		for (Constraint clause : clauses) {
+			if (!own.remove(clause)) {
+				addConstraint(clause);
+			}
+		}
+		return super.solve(order);
+	}
+
+	/**
+	 * Publishes a learned constraint if it is short enough.
+	 * 
+	 * @param constr
+	 *            the learned constraint
+	 */
+	protected void export(IConstr constr) {
+		int size = constr.size();
+		if (size == 0 || size > sharing.getMaxLength()) {
+			return;
+		}
+
+		int[] literals = new int[size];
+		for (int i = 0; i < size; i++) {
+			literals[i] = LiteralsUtils.toDimacs(constr.get(i));
+		}
+		Arrays.sort(literals);
+
+		Constraint clause = new Constraint(">=", 1);
+		for (int literal : literals) {
+			Object variable = getVariable(Math.abs(literal));
+			if (variable == null) {
+				return;
+			}
+			clause.add(new Literal(variable, literal > 0));
+		}
+		if (sharing.publish(clause)) {
+			own.add(clause);
+		}
+	}
+
+	protected Object getVariable(int var) {
+		if (var >= index.size()) {
+			index.clear();
+			for (int i = 0; i < nextVariable; i++) {
+				index.add(null);
+			}
+			for (Entry<Object, Integer> entry : variables.entrySet()) {
+				int v = entry.getValue();
+				while (index.size() <= v) {
+					index.add(null);
+				}
+				index.set(v, entry.getKey());
+			}
+		}
+		return var < index.size() ? index.get(var) : null;
+	}
+
+}
@@ -21,16 +21,23 @@
  *******************************************************************************/
 package net.sf.opendse.optimization;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArraySet;
+
 import org.opt4j.core.Individual;
 import org.opt4j.core.IndividualSet;
 import org.opt4j.core.IndividualSetListener;
 import org.opt4j.core.common.archive.CrowdingArchive;
-import org.opt4j.core.optimizer.Archive;
 import org.opt4j.core.optimizer.OptimizerIterationListener;
 import org.opt4j.core.optimizer.Population;
 import org.opt4j.core.start.Constant;
 
 import com.google.inject.Inject;
+import com.google.inject.Singleton;
 
 /**
  * A class that clears the population if no new individuals (individuals that
@@ -39,19 +46,87 @@ import com.google.inject.Inject;
  * individuals are generated for a defined period of time is considered as a
  * stagnation. The population is then cleared and new individuals are created
  * from scratch to prevent being stuck in a local optimum.
+ * <p>
+ * The stagnation is detected incrementally by the update of the archive: only
+ * the individuals that are not yet in the archive are compared, and an
+ * improvement is found if one of them strictly dominates an archive member.
+ * Archive members that are replaced by individuals with equal objectives are
+ * no improvement. The current stagnation is reported to the registered
+ * {@link StagnationListener}s.
  * 
  * @author lukasiewycz
  *
  */
+@Singleton
 public class StagnationRestart implements IndividualSetListener, OptimizerIterationListener {
 
-	protected final Archive archive = new CrowdingArchive(100);
+	protected final StagnationArchive archive = new StagnationArchive(100);
 	protected final Population population;
+	protected final Set<StagnationListener> listeners = new CopyOnWriteArraySet<StagnationListener>();
 
 	protected int iteration = 0;
 	protected int lastUpdate = 0;
 	protected final int diff;
 
+	/**
+	 * The {@code StagnationArchive} is a {@link CrowdingArchive} that counts
+	 * the archive members that were removed during the last update since they
+	 * were strictly dominated by a new individual. The archive itself also
+	 * removes members that are only weakly dominated, these are not counted.
+	 * 
+	 * @author lukasiewycz
+	 *
+	 */
+	protected static class StagnationArchive extends CrowdingArchive {
+
+		protected List<Individual> before = new ArrayList<Individual>();
+		protected int dominated = 0;
+
+		public StagnationArchive(int capacity) {
+			super(capacity);
+		}
+
+		@Override
+		public boolean update(Set<? extends Individual> individuals) {
+			before = new ArrayList<Individual>(this);
+			dominated = 0;
+			try {
+				return super.update(individuals);
+			} finally {
+				before.clear();
+			}
+		}
+
+		@Override
+		protected boolean updateWithNondominated(Collection<Individual> candidates) {
+			// all members that are weakly dominated by a candidate are removed
+			// at this point, the crowding truncation follows
+			if (size() < before.size()) {
+				Set<Individual> removed = new HashSet<Individual>(before);
+				removed.removeAll(this);
+				for (Individual member : removed) {
+					for (Individual candidate : candidates) {
+						if (candidate.getObjectives().dominates(member.getObjectives())) {
+							dominated++;
+							break;
+						}
+					}
+				}
+			}
+			return super.updateWithNondominated(candidates);
+		}
+
+		/**
+		 * Returns the number of archive members that were strictly dominated
+		 * by new individuals in the last update.
+		 * 
+		 * @return the number of dominated archive members
+		 */
+		public int getDominated() {
+			return dominated;
+		}
+	}
+
 	@Inject
 	public StagnationRestart(Population population,
 			@Constant(value = "maximalNumberStagnatingGenerations", namespace = StagnationRestart.class) int diff) {
@@ -59,20 +134,62 @@ public class StagnationRestart implements IndividualSetListener, OptimizerIterat
 		this.diff = diff;
 	}
 
+	/**
+	 * Sets the {@link StagnationListener}s that are bound by the modules.
+	 * 
+	 * @param listeners
+	 *            the listeners
+	 */
+	@Inject(optional = true)
+	public void setStagnationListeners(Set<StagnationListener> listeners) {
+		if (listeners != null) {
+			this.listeners.addAll(listeners);
+		}
+	}
+
+	/**
+	 * Adds a {@link StagnationListener}.
+	 * 
+	 * @param listener
+	 *            the listener to add
+	 */
+	public void addListener(StagnationListener listener) {
+		listeners.add(listener);
+	}
+
+	/**
+	 * Removes a {@link StagnationListener}.
+	 * 
+	 * @param listener
+	 *            the listener to remove
+	 */
+	public void removeListener(StagnationListener listener) {
+		listeners.remove(listener);
+	}
+
+	/**
+	 * Returns the number of generations without an improvement of the archive.
+	 * 
+	 * @return the number of stagnating generations
+	 */
+	public int getStagnatingGenerations() {
+		return iteration - lastUpdate;
+	}
+
 	@Override
 	public void iterationComplete(int iteration) {
 		this.iteration = iteration;
 
-		for (Individual in0 : population) {
-			for (Individual in1 : archive) {
-				if (in0.getObjectives().dominates(in1.getObjectives())) {
-					// new individuals are found
-					lastUpdate = iteration;
-				}
-			}
+		archive.update(population);
+
+		if (archive.getDominated() > 0) {
+			// new individuals are found
+			lastUpdate = iteration;
 		}
 
-		archive.update(population);
+		for (StagnationListener listener : listeners) {
+			listener.stagnationUpdated(iteration, getStagnatingGenerations());
+		}
 
 		if (iteration - lastUpdate > diff) {
 			// the case where no individuals were found for the last diff
@@ -80,6 +197,10 @@ public class StagnationRestart implements IndividualSetListener, OptimizerIterat
 			lastUpdate = iteration;
 			archive.clear();
 			population.clear();
+
+			for (StagnationListener listener : listeners) {
+				listener.restarted(iteration);
+			}
 		}
 
 	}
@@ -23,12 +23,14 @@ package net.sf.opendse.optimization.io;
 
 import java.io.File;
 import java.io.FileNotFoundException;
-import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.util.HashSet;
 import java.util.Set;
 
-import net.sf.opendse.io.SpecificationWriter;
+import net.sf.opendse.io.Compression;
+import net.sf.opendse.io.SpecificationArchiveWriter;
+import net.sf.opendse.io.SpecificationStreamWriter;
 import net.sf.opendse.model.Specification;
 import net.sf.opendse.optimization.ImplementationWrapper;
 
@@ -40,6 +42,12 @@ import org.opt4j.core.start.Constant;
 
 import com.google.inject.Inject;
 
+/**
+ * The {@code ImplementationOutput} writes the implementations of the archive
+ * when the optimization stops. Files with the extension
+ * {@value SpecificationArchiveWriter#EXTENSION} are written as indexed
+ * archives with the {@link SpecificationArchiveWriter}, all other files as XML.
+ */
 public class ImplementationOutput implements OptimizerStateListener {
 
 	protected final Archive archive;
@@ -62,15 +70,21 @@ public class ImplementationOutput implements OptimizerStateListener {
 	@Override
 	public void optimizationStopped(Optimizer optimizer) {
 		File file = new File(filename);
+
+		Set<Specification> implementations = new HashSet<Specification>();
+		for (Individual individual : archive) {
+			ImplementationWrapper wrapper = (ImplementationWrapper) individual.getPhenotype();
+			implementations.add(wrapper.getImplementation());
+		}
+
+		if (filename.endsWith(SpecificationArchiveWriter.EXTENSION)) {
+			new SpecificationArchiveWriter().write(implementations, file);
+			return;
+		}
+
 		try {
-			FileOutputStream out = new FileOutputStream(file);
-
-			Set<Specification> implementations = new HashSet<Specification>();
-			for (Individual individual : archive) {
-				ImplementationWrapper wrapper = (ImplementationWrapper) individual.getPhenotype();
-				implementations.add(wrapper.getImplementation());
-			}
-			SpecificationWriter writer = new SpecificationWriter();
+			OutputStream out = Compression.openOutputStream(file);
+			SpecificationStreamWriter writer = new SpecificationStreamWriter();
 			writer.write(implementations, out);
 			out.close();
 
@@ -21,11 +21,12 @@
  *******************************************************************************/
 package net.sf.opendse.optimization.io;
 
-import java.io.FileInputStream;
+import java.io.File;
 import java.io.FileNotFoundException;
 import java.util.Set;
 
 import net.sf.opendse.io.SpecificationReader;
+import net.sf.opendse.model.Specification;
 
 import org.opt4j.core.start.Constant;
 
@@ -39,7 +40,23 @@ public class SpecificationWrapperFilename extends SpecificationWrapperInstance {
 	public SpecificationWrapperFilename(
 			@Constant(namespace = SpecificationWrapperFilename.class, value = "filename") String filename)
 			throws FileNotFoundException {
-		super(reader.read(new FileInputStream(filename)));
+		super(read(new File(filename)));
+	}
+
+	/**
+	 * Reads the specification from a file that may be compressed.
+	 * 
+	 * @param file
+	 *            the file
+	 * @return the specification
+	 * @throws FileNotFoundException
+	 *             if the file does not exist
+	 */
+	protected static Specification read(File file) throws FileNotFoundException {
+		if (!file.isFile()) {
+			throw new FileNotFoundException(file.getPath());
+		}
+		return reader.read(file);
 	}
 
 	@Override
@@ -0,0 +1,154 @@
+/*******************************************************************************
+ * Copyright (c) 2015 OpenDSE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *******************************************************************************/
+package net.sf.opendse.optimization.island;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The {@code DirectoryTransport} exchanges {@link Migrant}s between islands
+ * in different JVMs (or on different machines) through a shared directory,
+ * e.g., on a network file system. Each batch of emigrants is written to a
+ * separate file that is atomically renamed once it is complete; each island
+ * reads the batches of all other islands exactly once. The files are named
+ * {@code <island>-<batch>.migrants} such that the island is determined by the
+ * last separator since the batch is a number.
+ * 
+ * @author lukasiewycz
+ *
+ */
+public class DirectoryTransport implements MigrationTransport {
+
+	protected static final String SUFFIX = ".migrants";
+
+	protected final File directory;
+	protected final String island;
+	protected final Set<String> seen = new HashSet<String>();
+	protected int batch = 0;
+
+	/**
+	 * Constructs a {@code DirectoryTransport}.
+	 * 
+	 * @param directory
+	 *            the shared directory
+	 * @param island
+	 *            the unique name of this island
+	 */
+	public DirectoryTransport(File directory, String island) {
+		super();
+		this.directory = directory;
+		this.island = island;
+
+		if (!directory.exists() && !directory.mkdirs()) {
+			throw new IllegalArgumentException("Cannot create migration directory " + directory);
+		}
+	}
+
+	@Override
+	public synchronized void send(Collection<Migrant> migrants) {
+		if (migrants.isEmpty()) {
+			return;
+		}
+		String name = island + "-" + (batch++) + SUFFIX;
+		File tmp = new File(directory, "." + name);
+		try {
+			ObjectOutputStream out = new ObjectOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)));
+			try {
+				out.writeObject(new ArrayList<Migrant>(migrants));
+			} finally {
+				out.close();
+			}
+		} catch (IOException e) {
+			throw new RuntimeException(e);
+		}
+		if (!tmp.renameTo(new File(directory, name))) {
+			tmp.delete();
+			throw new RuntimeException("Cannot publish migrants " + name);
+		}
+		seen.add(name);
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public synchronized Collection<Migrant> receive() {
+		List<Migrant> migrants = new ArrayList<Migrant>();
+		String[] names = directory.list();
+		if (names == null) {
+			return migrants;
+		}
+		Arrays.sort(names);
+		for (String name : names) {
+			if (name.endsWith(SUFFIX) && !name.startsWith(".") && !island.equals(getIsland(name))
+					&& seen.add(name)) {
+				try {
+					ObjectInputStream in = new ObjectInputStream(new BufferedInputStream(new FileInputStream(
+							new File(directory, name))));
+					try {
+						migrants.addAll((List<Migrant>) in.readObject());
+					} finally {
+						in.close();
+					}
+				} catch (IOException e) {
+					throw new RuntimeException(e);
+				} catch (ClassNotFoundException e) {
+					throw new RuntimeException(e);
+				}
+			}
+		}
+		return migrants;
+	}
+
+	/**
+	 * Returns the island that published the file with the given name.
+	 * 
+	 * @param name
+	 *            the name of the file
+	 * @return the island or {@code null} if the name is not a batch of
+	 *         migrants
+	 */
+	protected static String getIsland(String name) {
+		String base = name.substring(0, name.length() - SUFFIX.length());
+		int separator = base.lastIndexOf('-');
+		if (separator < 0) {
+			return null;
+		}
+		return base.substring(0, separator);
+	}
+
+	@Override
+	public void close() {
+		// files are left for islands that are still running
+	}
+
+}
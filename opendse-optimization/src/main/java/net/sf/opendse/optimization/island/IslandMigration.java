@@ -0,0 +1,219 @@
+/*******************************************************************************
+ * Copyright (c) 2015 OpenDSE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *******************************************************************************/
+package net.sf.opendse.optimization.island;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import org.opt4j.core.Genotype;
+import org.opt4j.core.Individual;
+import org.opt4j.core.IndividualFactory;
+import org.opt4j.core.Objectives;
+import org.opt4j.core.Value;
+import org.opt4j.core.common.random.Rand;
+import org.opt4j.core.genotype.CompositeGenotype;
+import org.opt4j.core.optimizer.IndividualCompleter;
+import org.opt4j.core.optimizer.Optimizer;
+import org.opt4j.core.optimizer.OptimizerIterationListener;
+import org.opt4j.core.optimizer.OptimizerStateListener;
+import org.opt4j.core.optimizer.Population;
+import org.opt4j.core.optimizer.TerminationException;
+import org.opt4j.core.start.Constant;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+
+/**
+ * The {@code IslandMigration} implements the migration of an island-model
+ * exploration. Every {@code interval} iterations, up to {@code migrants}
+ * randomly chosen non-dominated individuals of the population emigrate via the
+ * {@link MigrationTransport}. Received migrants that are not dominated by the
+ * current population are decoded, evaluated, and added to the population such
+ * that the environmental selection of the optimizer decides on their survival.
+ * 
+ * @author lukasiewycz
+ *
+ */
+@Singleton
+public class IslandMigration implements OptimizerIterationListener, OptimizerStateListener {
+
+	protected final Population population;
+	protected final IndividualFactory individualFactory;
+	protected final IndividualCompleter completer;
+	protected final MigrantCodec codec;
+	protected final MigrationTransport transport;
+	protected final Rand random;
+
+	protected final String island;
+	protected final int interval;
+	protected final int migrants;
+
+	protected int emigrated = 0;
+	protected int immigrated = 0;
+
+	@Inject
+	public IslandMigration(Population population, IndividualFactory individualFactory,
+			IndividualCompleter completer, MigrantCodec codec, MigrationTransport transport, Rand random,
+			@Constant(value = "island", namespace = IslandMigration.class) String island,
+			@Constant(value = "interval", namespace = IslandMigration.class) int interval,
+			@Constant(value = "migrants", namespace = IslandMigration.class) int migrants) {
+		super();
+		this.population = population;
+		this.individualFactory = individualFactory;
+		this.completer = completer;
+		this.codec = codec;
+		this.transport = transport;
+		this.random = random;
+		this.island = island;
+		this.interval = interval;
+		this.migrants = migrants;
+	}
+
+	@Override
+	public void iterationComplete(int iteration) {
+		if (interval <= 0 || iteration % interval != 0) {
+			return;
+		}
+		emigrate();
+		try {
+			immigrate();
+		} catch (TerminationException e) {
+			// the optimizer terminates with its next iteration
+		}
+	}
+
+	/**
+	 * Sends randomly chosen non-dominated individuals of the population to the
+	 * other islands.
+	 */
+	protected void emigrate() {
+		List<Individual> elite = getNondominated(population);
+		Collections.shuffle(elite, random);
+
+		List<Migrant> list = new ArrayList<Migrant>();
+		for (Individual individual : elite.subList(0, Math.min(migrants, elite.size()))) {
+			CompositeGenotype<String, Genotype> genotype = cast(individual.getGenotype());
+			Migrant migrant = codec.encode(island, genotype);
+			migrant.setObjectives(individual.getObjectives());
+			list.add(migrant);
+		}
+		transport.send(list);
+		emigrated += list.size();
+	}
+
+	/**
+	 * Adds the received migrants that are not dominated by the population.
+	 * 
+	 * @throws TerminationException
+	 *             if the optimization is terminated during the evaluation
+	 */
+	protected void immigrate() throws TerminationException {
+		List<Individual> individuals = new ArrayList<Individual>();
+		for (Migrant migrant : transport.receive()) {
+			if (!isDominated(migrant.getObjectives())) {
+				individuals.add(individualFactory.create(codec.decode(migrant)));
+			}
+		}
+		if (!individuals.isEmpty()) {
+			completer.complete(individuals);
+			population.addAll(individuals);
+			immigrated += individuals.size();
+		}
+	}
+
+	protected boolean isDominated(Objectives objectives) {
+		for (Individual individual : population) {
+			if (individual.isEvaluated() && individual.getObjectives().dominates(objectives)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	protected static List<Individual> getNondominated(Collection<Individual> individuals) {
+		List<Individual> candidates = new ArrayList<Individual>();
+		for (Individual individual : individuals) {
+			if (individual.isEvaluated() && isFeasible(individual.getObjectives())) {
+				candidates.add(individual);
+			}
+		}
+		List<Individual> nondominated = new ArrayList<Individual>();
+		for (Individual in0 : candidates) {
+			boolean dominated = false;
+			for (Individual in1 : candidates) {
+				if (in1.getObjectives().dominates(in0.getObjectives())) {
+					dominated = true;
+					break;
+				}
+			}
+			if (!dominated) {
+				nondominated.add(in0);
+			}
+		}
+		return nondominated;
+	}
+
+	protected static boolean isFeasible(Objectives objectives) {
+		for (Value<?> value : objectives.getValues()) {
+			if (value == null || value.getDouble() == null) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Returns the number of individuals that emigrated from this island.
+	 * 
+	 * @return the number of emigrated individuals
+	 */
+	public int getEmigrated() {
+		return emigrated;
+	}
+
+	/**
+	 * Returns the number of individuals that immigrated to this island.
+	 * 
+	 * @return the number of immigrated individuals
+	 */
+	public int getImmigrated() {
+		return immigrated;
+	}
+
+	@Override
+	public void optimizationStarted(Optimizer optimizer) {
+		// No reaction needed
+	}
+
+	@Override
+	public void optimizationStopped(Optimizer optimizer) {
+		transport.close();
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> T cast(Object object) {
+		return (T) object;
+	}
+
+}
@@ -0,0 +1,145 @@
+/*******************************************************************************
+ * Copyright (c) 2015 OpenDSE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *******************************************************************************/
+package net.sf.opendse.optimization.island;
+
+import java.lang.management.ManagementFactory;
+
+import net.sf.opendse.optimization.DesignSpaceExplorationModule;
+
+import org.opt4j.core.config.annotations.File;
+import org.opt4j.core.config.annotations.Info;
+import org.opt4j.core.config.annotations.Required;
+import org.opt4j.core.start.Constant;
+
+/**
+ * The {@code IslandModule} enables the island-model exploration: several
+ * optimization processes explore the same specification with their own
+ * populations and periodically exchange non-dominated individuals.
+ * 
+ * @author lukasiewycz
+ *
+ */
+@Info("Exchanges elite individuals with other islands exploring the same specification.")
+public class IslandModule extends DesignSpaceExplorationModule {
+
+	public enum Transport {
+		/**
+		 * Islands in the same JVM.
+		 */
+		LOOPBACK,
+		/**
+		 * Islands that share a (network) directory.
+		 */
+		DIRECTORY;
+	}
+
+	protected Transport transport = Transport.DIRECTORY;
+
+	@Required(property = "transport", elements = { "LOOPBACK" })
+	protected String group = "default";
+
+	@File
+	@Required(property = "transport", elements = { "DIRECTORY" })
+	protected String directory = "migrants";
+
+	@Info("The unique name of this island; derived from the process if empty.")
+	protected String island = "";
+
+	@Info("The number of iterations between two migrations.")
+	@Constant(value = "interval", namespace = IslandMigration.class)
+	protected int interval = 10;
+
+	@Info("The maximal number of emigrating individuals per migration.")
+	@Constant(value = "migrants", namespace = IslandMigration.class)
+	protected int migrants = 5;
+
+	public Transport getTransport() {
+		return transport;
+	}
+
+	public void setTransport(Transport transport) {
+		this.transport = transport;
+	}
+
+	public String getGroup() {
+		return group;
+	}
+
+	public void setGroup(String group) {
+		this.group = group;
+	}
+
+	public String getDirectory() {
+		return directory;
+	}
+
+	public void setDirectory(String directory) {
+		this.directory = directory;
+	}
+
+	public String getIsland() {
+		return island;
+	}
+
+	public void setIsland(String island) {
+		this.island = island;
+	}
+
+	public int getInterval() {
+		return interval;
+	}
+
+	public void setInterval(int interval) {
+		this.interval = interval;
+	}
+
+	public int getMigrants() {
+		return migrants;
+	}
+
+	public void setMigrants(int migrants) {
+		this.migrants = migrants;
+	}
+
+	@Override
+	protected void config() {
+		String name = island;
+		if (name.isEmpty()) {
+			name = ManagementFactory.getRuntimeMXBean().getName() + "-" + System.identityHashCode(this);
+		}
+		bindConstant("island", IslandMigration.class).to(name);
+
+		MigrationTransport migrationTransport;
+		switch (transport) {
+		case LOOPBACK:
+			migrationTransport = new LoopbackTransport(group);
+			break;
+		default: // DIRECTORY
+			migrationTransport = new DirectoryTransport(new java.io.File(directory), name);
+			break;
+		}
+		bind(MigrationTransport.class).toInstance(migrationTransport);
+
+		addOptimizerIterationListener(IslandMigration.class);
+		addOptimizerStateListener(IslandMigration.class);
+	}
+}
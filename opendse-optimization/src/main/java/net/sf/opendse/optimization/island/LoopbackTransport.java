@@ -0,0 +1,102 @@
+/*******************************************************************************
+ * Copyright (c) 2015 OpenDSE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *******************************************************************************/
+package net.sf.opendse.optimization.island;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * The {@code LoopbackTransport} exchanges {@link Migrant}s between islands
+ * that run in the same JVM. All transports with the same group name form one
+ * archipelago.
+ * 
+ * @author lukasiewycz
+ *
+ */
+public class LoopbackTransport implements MigrationTransport {
+
+	protected static final Map<String, List<LoopbackTransport>> groups = new HashMap<String, List<LoopbackTransport>>();
+
+	protected final String group;
+	protected final ConcurrentLinkedQueue<Migrant> inbox = new ConcurrentLinkedQueue<Migrant>();
+
+	/**
+	 * Constructs a {@code LoopbackTransport} and joins the given group.
+	 * 
+	 * @param group
+	 *            the name of the group
+	 */
+	public LoopbackTransport(String group) {
+		super();
+		this.group = group;
+
+		synchronized (groups) {
+			if (!groups.containsKey(group)) {
+				groups.put(group, new ArrayList<LoopbackTransport>());
+			}
+			groups.get(group).add(this);
+		}
+	}
+
+	@Override
+	public void send(Collection<Migrant> migrants) {
+		List<LoopbackTransport> members;
+		synchronized (groups) {
+			List<LoopbackTransport> list = groups.get(group);
+			members = list == null ? new ArrayList<LoopbackTransport>() : new ArrayList<LoopbackTransport>(list);
+		}
+		for (LoopbackTransport member : members) {
+			if (member != this) {
+				member.inbox.addAll(migrants);
+			}
+		}
+	}
+
+	@Override
+	public Collection<Migrant> receive() {
+		List<Migrant> migrants = new ArrayList<Migrant>();
+		Migrant migrant;
+		while ((migrant = inbox.poll()) != null) {
+			migrants.add(migrant);
+		}
+		return migrants;
+	}
+
+	@Override
+	public void close() {
+		synchronized (groups) {
+			List<LoopbackTransport> members = groups.get(group);
+			if (members != null) {
+				members.remove(this);
+				if (members.isEmpty()) {
+					groups.remove(group);
+				}
+			}
+		}
+		inbox.clear();
+	}
+
+}
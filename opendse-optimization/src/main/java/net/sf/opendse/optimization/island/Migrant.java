@@ -0,0 +1,139 @@
+/*******************************************************************************
+ * Copyright (c) 2015 OpenDSE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *******************************************************************************/
+package net.sf.opendse.optimization.island;
+
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.opt4j.core.Objective;
+import org.opt4j.core.Objective.Sign;
+import org.opt4j.core.Objectives;
+import org.opt4j.core.Value;
+
+/**
+ * The {@code Migrant} is the serializable representation of an individual that
+ * is exchanged between islands. The SAT genotype is stored by the string
+ * representation of its variables and the parameter genotype by the name of
+ * its components such that a {@code Migrant} can be decoded by any island that
+ * explores the same specification, independent of the JVM it runs in.
+ * 
+ * @author lukasiewycz
+ *
+ */
+public class Migrant implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	protected final String island;
+	protected final Map<String, Double> priorities = new HashMap<String, Double>();
+	protected final Map<String, Boolean> phases = new HashMap<String, Boolean>();
+	protected final Map<String, List<Number>> parameters = new HashMap<String, List<Number>>();
+
+	protected String[] objectiveNames = new String[0];
+	protected Sign[] objectiveSigns = new Sign[0];
+	protected double[] objectiveValues = new double[0];
+
+	/**
+	 * Constructs a {@code Migrant}.
+	 * 
+	 * @param island
+	 *            the name of the island this migrant emigrated from
+	 */
+	public Migrant(String island) {
+		super();
+		this.island = island;
+	}
+
+	/**
+	 * Returns the name of the island this migrant emigrated from.
+	 * 
+	 * @return the name of the source island
+	 */
+	public String getIsland() {
+		return island;
+	}
+
+	/**
+	 * Returns the priorities of the SAT variables.
+	 * 
+	 * @return the priorities
+	 */
+	public Map<String, Double> getPriorities() {
+		return priorities;
+	}
+
+	/**
+	 * Returns the phases of the SAT variables.
+	 * 
+	 * @return the phases
+	 */
+	public Map<String, Boolean> getPhases() {
+		return phases;
+	}
+
+	/**
+	 * Returns the values of the parameter genotype components.
+	 * 
+	 * @return the parameter values
+	 */
+	public Map<String, List<Number>> getParameters() {
+		return parameters;
+	}
+
+	/**
+	 * Sets the objectives this migrant achieved on its source island.
+	 * 
+	 * @param objectives
+	 *            the objectives
+	 */
+	public void setObjectives(Objectives objectives) {
+		int n = objectives.size();
+		objectiveNames = new String[n];
+		objectiveSigns = new Sign[n];
+		objectiveValues = new double[n];
+
+		int i = 0;
+		for (Entry<Objective, Value<?>> entry : objectives) {
+			objectiveNames[i] = entry.getKey().getName();
+			objectiveSigns[i] = entry.getKey().getSign();
+			objectiveValues[i] = entry.getValue().getDouble();
+			i++;
+		}
+	}
+
+	/**
+	 * Returns the objectives this migrant achieved on its source island.
+	 * 
+	 * @return the objectives
+	 */
+	public Objectives getObjectives() {
+		Objectives objectives = new Objectives();
+		for (int i = 0; i < objectiveNames.length; i++) {
+			objectives.add(objectiveNames[i], objectiveSigns[i], objectiveValues[i]);
+		}
+		return objectives;
+	}
+
+}
@@ -0,0 +1,194 @@
+/*******************************************************************************
+ * Copyright (c) 2015 OpenDSE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *******************************************************************************/
+package net.sf.opendse.optimization.island;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import net.sf.opendse.model.parameter.ParameterReference;
+import net.sf.opendse.optimization.ParameterCreator;
+import net.sf.opendse.optimization.SATCreatorDecoder;
+
+import org.opt4j.core.Genotype;
+import org.opt4j.core.genotype.BooleanGenotype;
+import org.opt4j.core.genotype.CompositeGenotype;
+import org.opt4j.core.genotype.DoubleGenotype;
+import org.opt4j.core.genotype.PermutationGenotype;
+import org.opt4j.satdecoding.SATGenotype;
+
+import com.google.inject.Inject;
+
+/**
+ * The {@code MigrantCodec} converts the genotypes of the design space
+ * exploration into {@link Migrant}s and vice versa.
+ * <p>
+ * The SAT variables are identified by their string representation since
+ * their hash codes (and, thus, their order) are not stable across JVMs. The
+ * permutations of the unique-id parameters are stored as the indices of
+ * their elements in the sorted list of {@link ParameterReference}s.
+ * 
+ * @author lukasiewycz
+ *
+ */
+public class MigrantCodec {
+
+	protected final SATCreatorDecoder satCreatorDecoder;
+	protected final ParameterCreator parameterCreator;
+
+	protected List<String> variables = null;
+	protected Map<String, Integer> indices = null;
+
+	@Inject
+	public MigrantCodec(SATCreatorDecoder satCreatorDecoder, ParameterCreator parameterCreator) {
+		super();
+		this.satCreatorDecoder = satCreatorDecoder;
+		this.parameterCreator = parameterCreator;
+	}
+
+	/**
+	 * Encodes the given genotype.
+	 * 
+	 * @param island
+	 *            the name of the source island
+	 * @param genotype
+	 *            the genotype
+	 * @return the migrant
+	 */
+	public Migrant encode(String island, CompositeGenotype<String, Genotype> genotype) {
+		Migrant migrant = new Migrant(island);
+		List<String> variables = getVariables();
+
+		SATGenotype sat = genotype.get("SAT");
+		DoubleGenotype priorities = sat.getDoubleVector();
+		BooleanGenotype phases = sat.getBooleanVector();
+		for (int i = 0; i < variables.size(); i++) {
+			migrant.getPriorities().put(variables.get(i), priorities.get(i));
+			migrant.getPhases().put(variables.get(i), phases.get(i));
+		}
+
+		CompositeGenotype<String, Genotype> parameters = genotype.get("PARAMETER");
+		for (Entry<String, Genotype> entry : parameters) {
+			List<Number> values = new ArrayList<Number>();
+			Genotype component = entry.getValue();
+			if (component instanceof PermutationGenotype) {
+				PermutationGenotype<ParameterReference> permutation = cast(component);
+				List<ParameterReference> sorted = new ArrayList<ParameterReference>(permutation);
+				Collections.sort(sorted);
+				for (ParameterReference reference : permutation) {
+					values.add(Collections.binarySearch(sorted, reference));
+				}
+			} else {
+				List<Number> list = cast(component);
+				values.addAll(list);
+			}
+			migrant.getParameters().put(entry.getKey(), values);
+		}
+		return migrant;
+	}
+
+	/**
+	 * Decodes the given migrant into a new genotype. Variables and parameters
+	 * that are unknown to the migrant keep random values.
+	 * 
+	 * @param migrant
+	 *            the migrant
+	 * @return the genotype
+	 */
+	public CompositeGenotype<String, Genotype> decode(Migrant migrant) {
+		Map<String, Integer> indices = getIndices();
+
+		SATGenotype sat = (SATGenotype) satCreatorDecoder.create();
+		DoubleGenotype priorities = sat.getDoubleVector();
+		BooleanGenotype phases = sat.getBooleanVector();
+		for (Entry<String, Double> entry : migrant.getPriorities().entrySet()) {
+			Integer i = indices.get(entry.getKey());
+			if (i != null) {
+				priorities.set(i, entry.getValue());
+			}
+		}
+		for (Entry<String, Boolean> entry : migrant.getPhases().entrySet()) {
+			Integer i = indices.get(entry.getKey());
+			if (i != null) {
+				phases.set(i, entry.getValue());
+			}
+		}
+
+		CompositeGenotype<String, Genotype> parameters = parameterCreator.create();
+		for (Entry<String, Genotype> entry : parameters) {
+			List<Number> values = migrant.getParameters().get(entry.getKey());
+			Genotype component = entry.getValue();
+			if (values == null || values.size() != component.size()) {
+				continue;
+			}
+			if (component instanceof PermutationGenotype) {
+				PermutationGenotype<ParameterReference> permutation = cast(component);
+				List<ParameterReference> sorted = new ArrayList<ParameterReference>(permutation);
+				Collections.sort(sorted);
+				permutation.clear();
+				for (Number value : values) {
+					permutation.add(sorted.get(value.intValue()));
+				}
+			} else {
+				List<Number> list = cast(component);
+				for (int i = 0; i < values.size(); i++) {
+					list.set(i, values.get(i));
+				}
+			}
+		}
+
+		CompositeGenotype<String, Genotype> genotype = new CompositeGenotype<String, Genotype>();
+		genotype.put("SAT", sat);
+		genotype.put("PARAMETER", parameters);
+		return genotype;
+	}
+
+	protected synchronized List<String> getVariables() {
+		if (variables == null) {
+			variables = new ArrayList<String>();
+			for (Object variable : satCreatorDecoder.getVariables()) {
+				variables.add(variable.toString());
+			}
+		}
+		return variables;
+	}
+
+	protected synchronized Map<String, Integer> getIndices() {
+		if (indices == null) {
+			indices = new HashMap<String, Integer>();
+			List<String> variables = getVariables();
+			for (int i = 0; i < variables.size(); i++) {
+				indices.put(variables.get(i), i);
+			}
+		}
+		return indices;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> T cast(Object object) {
+		return (T) object;
+	}
+
+}
@@ -0,0 +1,56 @@
+/*******************************************************************************
+ * Copyright (c) 2015 OpenDSE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *******************************************************************************/
+package net.sf.opendse.optimization.island;
+
+import java.util.Collection;
+
+/**
+ * The {@code MigrationTransport} exchanges {@link Migrant}s between the
+ * islands of an island-model exploration.
+ * 
+ * @author lukasiewycz
+ *
+ */
+public interface MigrationTransport {
+
+	/**
+	 * Sends the given migrants to all other islands.
+	 * 
+	 * @param migrants
+	 *            the emigrating migrants
+	 */
+	public void send(Collection<Migrant> migrants);
+
+	/**
+	 * Returns (and removes) all migrants that were received from other islands
+	 * since the last call. This method must not block.
+	 * 
+	 * @return the immigrating migrants
+	 */
+	public Collection<Migrant> receive();
+
+	/**
+	 * Closes the transport, i.e., this island leaves the archipelago.
+	 */
+	public void close();
+
+}
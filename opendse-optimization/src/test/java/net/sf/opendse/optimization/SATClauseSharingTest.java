@@ -0,0 +1,133 @@
+package net.sf.opendse.optimization;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+import org.opt4j.satdecoding.Constraint;
+import org.opt4j.satdecoding.ContradictionException;
+import org.opt4j.satdecoding.Literal;
+import org.opt4j.satdecoding.Model;
+import org.opt4j.satdecoding.VarOrder;
+import org.opt4j.satdecoding.sat4j.SAT4JSolver;
+import org.opt4j.satdecoding.sat4j.SAT4JSolver.Learning;
+import org.opt4j.satdecoding.sat4j.SAT4JSolver.Restarts;
+
+public class SATClauseSharingTest {
+
+	protected Constraint clause(Literal... literals) {
+		Constraint constraint = new Constraint(">=", 1);
+		for (Literal literal : literals) {
+			constraint.add(literal);
+		}
+		return constraint;
+	}
+
+	@Test
+	public void testPublish() {
+		SATClauseSharing sharing = new SATClauseSharing(2, 2);
+		assertTrue(sharing.publish(clause(new Literal("x", true))));
+		assertFalse(sharing.publish(clause(new Literal("x", true))));
+		assertFalse(sharing.publish(clause()));
+		assertFalse(sharing.publish(clause(new Literal("x", true), new Literal("y", true), new Literal("z", true))));
+		assertTrue(sharing.publish(clause(new Literal("x", false), new Literal("y", true))));
+		assertFalse(sharing.publish(clause(new Literal("z", true))));
+		assertEquals(2, sharing.size());
+		assertEquals(1, sharing.getClauses(1).size());
+		assertTrue(sharing.getClauses(2).isEmpty());
+	}
+
+	@Test
+	public void testInjection() throws Exception {
+		SATClauseSharing sharing = new SATClauseSharing(2, 100);
+		SharingSAT4JSolver solver = new SharingSAT4JSolver(3600, 10, Learning.MINISAT, Restarts.MINISAT, sharing);
+		solver.addConstraint(clause(new Literal("x", true), new Literal("y", true)));
+
+		VarOrder order = new VarOrder();
+		order.setPhase("x", true);
+		order.setPhase("y", false);
+
+		Model model = solver.solve(order);
+		assertTrue(model.get("x"));
+
+		// a clause learned by another solver
+		sharing.publish(clause(new Literal("x", false)));
+		model = solver.solve(order);
+		assertFalse(model.get("x"));
+		assertTrue(model.get("y"));
+	}
+
+	/**
+	 * Returns the pigeonhole constraints for the given number of pigeons and
+	 * holes.
+	 */
+	protected List<Constraint> pigeonhole(int pigeons, int holes) {
+		List<Constraint> constraints = new ArrayList<Constraint>();
+		for (int p = 0; p < pigeons; p++) {
+			Constraint constraint = new Constraint(">=", 1);
+			for (int h = 0; h < holes; h++) {
+				constraint.add(new Literal(p + ":" + h, true));
+			}
+			constraints.add(constraint);
+		}
+		for (int h = 0; h < holes; h++) {
+			for (int p = 0; p < pigeons; p++) {
+				for (int q = p + 1; q < pigeons; q++) {
+					constraints.add(clause(new Literal(p + ":" + h, false), new Literal(q + ":" + h, false)));
+				}
+			}
+		}
+		return constraints;
+	}
+
+	protected Model solve(SAT4JSolver solver, List<Constraint> constraints) throws Exception {
+		for (Constraint constraint : constraints) {
+			solver.addConstraint(constraint);
+		}
+		VarOrder order = new VarOrder();
+		for (Constraint constraint : constraints) {
+			for (Literal literal : constraint.getLiterals()) {
+				order.setPhase(literal.variable(), true);
+			}
+		}
+		return solver.solve(order);
+	}
+
+	protected boolean isSatisfiable(SAT4JSolver solver, List<Constraint> constraints) throws Exception {
+		try {
+			return solve(solver, constraints) != null;
+		} catch (ContradictionException e) {
+			return false;
+		}
+	}
+
+	@Test
+	public void testSharingBetweenSolvers() throws Exception {
+		List<Constraint> constraints = pigeonhole(5, 5);
+		SATClauseSharing sharing = new SATClauseSharing(10, 1000);
+		SharingSAT4JSolver first = new SharingSAT4JSolver(3600, 10, Learning.MINISAT, Restarts.MINISAT, sharing);
+		SharingSAT4JSolver second = new SharingSAT4JSolver(3600, 10, Learning.MINISAT, Restarts.MINISAT, sharing);
+
+		Model model = solve(first, constraints);
+		assertNotNull(model);
+		int learned = sharing.size();
+		assertTrue(learned > 0);
+
+		// the second solver imports all clauses learned by the first one
+		Model shared = solve(second, constraints);
+		assertEquals(learned, second.imported);
+		assertNotNull(shared);
+		for (Constraint constraint : constraints) {
+			assertTrue(constraint.isSatisfied(model));
+			assertTrue(constraint.isSatisfied(shared));
+		}
+
+		// the imported clauses do not change the satisfiability
+		constraints = pigeonhole(6, 5);
+		assertFalse(isSatisfiable(new SharingSAT4JSolver(3600, 10, Learning.MINISAT, Restarts.MINISAT, sharing), constraints));
+		assertFalse(isSatisfiable(new SAT4JSolver(3600, 10, Learning.MINISAT, Restarts.MINISAT), constraints));
+	}
+
+}
@@ -4,58 +4,59 @@ import static org.junit.Assert.*;
 
 import org.junit.Test;
 import org.opt4j.core.Individual;
+import org.opt4j.core.Objective.Sign;
 import org.opt4j.core.Objectives;
 import org.opt4j.core.optimizer.Population;
 
 public class StagnationRestartTest {
 
 	class MockIndividual extends Individual {
-		public MockIndividual(boolean dominated) {
+		public MockIndividual(double costs, double latency) {
 			super();
-			setObjectives(dominated ? new MockDominatedObjectives() : new MockDominantObjectives());
+			Objectives objectives = new Objectives();
+			objectives.add("costs", Sign.MIN, costs);
+			objectives.add("latency", Sign.MIN, latency);
+			setObjectives(objectives);
 		}
 	}
 
-	class MockPopulation extends Population {
+	class MockStagnationListener implements StagnationListener {
+		int stagnatingGenerations = -1;
+		int restarted = -1;
 
-	}
-
-	class MockDominatedObjectives extends Objectives {
 		@Override
-		public boolean dominates(Objectives opponent) {
-			return false;
+		public void stagnationUpdated(int iteration, int stagnatingGenerations) {
+			this.stagnatingGenerations = stagnatingGenerations;
 		}
-	}
 
-	class MockDominantObjectives extends Objectives {
 		@Override
-		public boolean dominates(Objectives opponent) {
-			return true;
+		public void restarted(int iteration) {
+			this.restarted = iteration;
 		}
 	}
 
 	@Test
 	public void testNoStagnation() {
 		Population population = new Population();
-		Individual indi1 = new MockIndividual(false);
-		Individual indi2 = new MockIndividual(false);
-		population.add(indi1);
+		Individual indi1 = new MockIndividual(2, 2);
+		Individual indi2 = new MockIndividual(1, 1);
 		population.add(indi2);
 		StagnationRestart restart = new StagnationRestart(population, 20);
 		restart.archive.add(indi1);
-		restart.archive.add(indi2);
 		assertEquals(0, restart.lastUpdate);
 		restart.iterationComplete(21);
 		assertEquals(21, restart.lastUpdate);
 		assertFalse(population.isEmpty());
 		assertFalse(restart.archive.isEmpty());
+		assertTrue(restart.archive.contains(indi2));
+		assertFalse(restart.archive.contains(indi1));
 	}
 
 	@Test
 	public void testStagnation() {
 		Population population = new Population();
-		Individual indi1 = new MockIndividual(true);
-		Individual indi2 = new MockIndividual(true);
+		Individual indi1 = new MockIndividual(1, 2);
+		Individual indi2 = new MockIndividual(2, 1);
 		population.add(indi1);
 		population.add(indi2);
 		StagnationRestart restart = new StagnationRestart(population, 20);
@@ -72,4 +73,56 @@ public class StagnationRestartTest {
 		assertTrue(restart.archive.isEmpty());
 	}
 
+	@Test
+	public void testEqualObjectivesStagnation() {
+		Population population = new Population();
+		StagnationRestart restart = new StagnationRestart(population, 20);
+		restart.archive.add(new MockIndividual(1, 1));
+		for (int i = 1; i <= 21; i++) {
+			population.clear();
+			population.add(new MockIndividual(1, 1));
+			restart.iterationComplete(i);
+			if (i < 21) {
+				assertEquals(0, restart.lastUpdate);
+				assertEquals(1, restart.archive.size());
+			}
+		}
+		assertEquals(21, restart.lastUpdate);
+		assertTrue(population.isEmpty());
+		assertTrue(restart.archive.isEmpty());
+	}
+
+	@Test
+	public void testNondominatedNoImprovement() {
+		Population population = new Population();
+		Individual indi1 = new MockIndividual(1, 2);
+		Individual indi2 = new MockIndividual(2, 1);
+		population.add(indi2);
+		StagnationRestart restart = new StagnationRestart(population, 20);
+		restart.archive.add(indi1);
+		restart.iterationComplete(5);
+		assertEquals(0, restart.lastUpdate);
+		assertEquals(2, restart.archive.size());
+	}
+
+	@Test
+	public void testListener() {
+		Population population = new Population();
+		population.add(new MockIndividual(1, 1));
+		StagnationRestart restart = new StagnationRestart(population, 20);
+		MockStagnationListener listener = new MockStagnationListener();
+		restart.addListener(listener);
+		restart.iterationComplete(5);
+		assertEquals(5, listener.stagnatingGenerations);
+		assertEquals(5, restart.getStagnatingGenerations());
+		assertEquals(-1, listener.restarted);
+		restart.iterationComplete(21);
+		assertEquals(21, listener.stagnatingGenerations);
+		assertEquals(21, listener.restarted);
+		assertEquals(0, restart.getStagnatingGenerations());
+		restart.removeListener(listener);
+		restart.iterationComplete(22);
+		assertEquals(21, listener.stagnatingGenerations);
+	}
+
 }
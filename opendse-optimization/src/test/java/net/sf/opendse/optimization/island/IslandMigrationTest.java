@@ -0,0 +1,212 @@
+package net.sf.opendse.optimization.island;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import org.junit.Test;
+import org.opt4j.core.Genotype;
+import org.opt4j.core.Individual;
+import org.opt4j.core.IndividualFactory;
+import org.opt4j.core.IndividualStateListener;
+import org.opt4j.core.Objective.Sign;
+import org.opt4j.core.Objectives;
+import org.opt4j.core.common.random.RandomJava;
+import org.opt4j.core.genotype.CompositeGenotype;
+import org.opt4j.core.optimizer.IndividualCompleter;
+import org.opt4j.core.optimizer.Population;
+
+public class IslandMigrationTest {
+
+	class MockIndividual extends Individual {
+		public MockIndividual(Genotype genotype) {
+			super();
+			setGenotype(genotype);
+		}
+	}
+
+	/**
+	 * Encodes and decodes the objectives of the migrants only, the "cost" of
+	 * a decoded genotype is stored as its single component.
+	 */
+	class MockCodec extends MigrantCodec {
+		public MockCodec() {
+			super(null, null);
+		}
+
+		@Override
+		public Migrant encode(String island, CompositeGenotype<String, Genotype> genotype) {
+			return new Migrant(island);
+		}
+
+		@Override
+		public CompositeGenotype<String, Genotype> decode(Migrant migrant) {
+			CompositeGenotype<String, Genotype> genotype = new CompositeGenotype<String, Genotype>();
+			genotype.put("cost", new Cost(migrant.getObjectives().getValues().iterator().next().getDouble()));
+			return genotype;
+		}
+	}
+
+	@SuppressWarnings("serial")
+	class Cost extends ArrayList<Double> implements Genotype {
+		public Cost(double value) {
+			add(value);
+		}
+
+		@Override
+		public <G extends Genotype> G newInstance() {
+			throw new UnsupportedOperationException();
+		}
+	}
+
+	class MockFactory implements IndividualFactory {
+		@Override
+		public Individual create() {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public Individual create(Genotype genotype) {
+			return new MockIndividual(genotype);
+		}
+
+		@Override
+		public void addIndividualStateListener(IndividualStateListener listener) {
+		}
+
+		@Override
+		public void removeIndividualStateListener(IndividualStateListener listener) {
+		}
+	}
+
+	class MockCompleter implements IndividualCompleter {
+		int completed = 0;
+
+		@Override
+		public void complete(Iterable<? extends Individual> individuals) {
+			for (Individual individual : individuals) {
+				CompositeGenotype<String, Genotype> genotype = cast(individual.getGenotype());
+				Cost cost = genotype.get("cost");
+				individual.setObjectives(createObjectives(cost.get(0), cost.get(0)));
+				completed++;
+			}
+		}
+
+		@Override
+		public void complete(Individual... individuals) {
+			complete(Arrays.asList(individuals));
+		}
+	}
+
+	protected Objectives createObjectives(double costs, double latency) {
+		Objectives objectives = new Objectives();
+		objectives.add("costs", Sign.MIN, costs);
+		objectives.add("latency", Sign.MIN, latency);
+		return objectives;
+	}
+
+	protected Individual createIndividual(double costs, double latency) {
+		Individual individual = new MockIndividual(new CompositeGenotype<String, Genotype>());
+		individual.setObjectives(createObjectives(costs, latency));
+		return individual;
+	}
+
+	protected IslandMigration createMigration(Population population, MockCompleter completer,
+			MigrationTransport transport, int interval, int migrants) {
+		return new IslandMigration(population, new MockFactory(), completer, new MockCodec(), transport,
+				new RandomJava(0), "local", interval, migrants);
+	}
+
+	@Test
+	public void testEmigrate() {
+		LoopbackTransport local = new LoopbackTransport("testEmigrate");
+		LoopbackTransport remote = new LoopbackTransport("testEmigrate");
+
+		Population population = new Population();
+		population.add(createIndividual(1, 2));
+		population.add(createIndividual(2, 1));
+		population.add(createIndividual(3, 3));
+		population.add(new MockIndividual(new CompositeGenotype<String, Genotype>()));
+
+		IslandMigration migration = createMigration(population, new MockCompleter(), local, 2, 5);
+
+		migration.iterationComplete(1);
+		assertTrue(remote.receive().isEmpty());
+
+		migration.iterationComplete(2);
+		Collection<Migrant> received = remote.receive();
+		assertEquals(2, received.size());
+		assertEquals(2, migration.getEmigrated());
+		List<Double> costs = new ArrayList<Double>();
+		for (Migrant migrant : received) {
+			assertEquals("local", migrant.getIsland());
+			costs.add(migrant.getObjectives().getValues().iterator().next().getDouble());
+		}
+		assertTrue(costs.containsAll(Arrays.asList(1.0, 2.0)));
+		assertEquals(4, population.size());
+
+		local.close();
+		remote.close();
+	}
+
+	@Test
+	public void testEmigrateLimit() {
+		LoopbackTransport local = new LoopbackTransport("testEmigrateLimit");
+		LoopbackTransport remote = new LoopbackTransport("testEmigrateLimit");
+
+		Population population = new Population();
+		population.add(createIndividual(1, 3));
+		population.add(createIndividual(2, 2));
+		population.add(createIndividual(3, 1));
+
+		IslandMigration migration = createMigration(population, new MockCompleter(), local, 1, 2);
+		migration.iterationComplete(1);
+		assertEquals(2, remote.receive().size());
+		assertEquals(2, migration.getEmigrated());
+
+		local.close();
+		remote.close();
+	}
+
+	@Test
+	public void testImmigrate() {
+		LoopbackTransport local = new LoopbackTransport("testImmigrate");
+		LoopbackTransport remote = new LoopbackTransport("testImmigrate");
+
+		Population population = new Population();
+		Individual resident = createIndividual(2, 2);
+		population.add(resident);
+
+		Migrant better = new Migrant("remote");
+		better.setObjectives(createObjectives(1, 1));
+		Migrant worse = new Migrant("remote");
+		worse.setObjectives(createObjectives(3, 3));
+		remote.send(Arrays.asList(better, worse));
+
+		MockCompleter completer = new MockCompleter();
+		IslandMigration migration = createMigration(population, completer, local, 1, 0);
+		migration.iterationComplete(1);
+
+		assertEquals(1, completer.completed);
+		assertEquals(1, migration.getImmigrated());
+		assertEquals(2, population.size());
+		for (Individual individual : population) {
+			if (individual != resident) {
+				assertTrue(individual.isEvaluated());
+				assertTrue(individual.getObjectives().dominates(resident.getObjectives()));
+			}
+		}
+
+		local.close();
+		remote.close();
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> T cast(Object object) {
+		return (T) object;
+	}
+
+}
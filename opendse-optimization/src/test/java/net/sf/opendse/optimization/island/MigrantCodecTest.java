@@ -0,0 +1,139 @@
+package net.sf.opendse.optimization.island;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.List;
+
+import net.sf.opendse.model.parameter.ParameterReference;
+import net.sf.opendse.optimization.ParameterCreator;
+import net.sf.opendse.optimization.SATCreatorDecoder;
+
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.opt4j.core.Genotype;
+import org.opt4j.core.genotype.BooleanGenotype;
+import org.opt4j.core.genotype.CompositeGenotype;
+import org.opt4j.core.genotype.DoubleGenotype;
+import org.opt4j.core.genotype.PermutationGenotype;
+import org.opt4j.satdecoding.SATGenotype;
+
+public class MigrantCodecTest {
+
+	protected final ParameterReference r0 = new ParameterReference("r0", "id", null);
+	protected final ParameterReference r1 = new ParameterReference("r1", "id", null);
+	protected final ParameterReference r2 = new ParameterReference("r2", "id", null);
+
+	/**
+	 * Creates a codec for the given SAT variables. New genotypes are
+	 * initialized with zeros, false phases, and the sorted permutation.
+	 */
+	protected MigrantCodec createCodec(final List<Object> variables) {
+		SATCreatorDecoder satCreatorDecoder = mock(SATCreatorDecoder.class);
+		when(satCreatorDecoder.getVariables()).thenReturn(variables);
+		when(satCreatorDecoder.create()).thenAnswer(new Answer<Genotype>() {
+			@Override
+			public Genotype answer(InvocationOnMock invocation) {
+				return createSAT(variables.size(), 0.0, false);
+			}
+		});
+
+		ParameterCreator parameterCreator = mock(ParameterCreator.class);
+		when(parameterCreator.create()).thenAnswer(new Answer<CompositeGenotype<String, Genotype>>() {
+			@Override
+			public CompositeGenotype<String, Genotype> answer(InvocationOnMock invocation) {
+				return createParameters(0.0, r0, r1, r2);
+			}
+		});
+		return new MigrantCodec(satCreatorDecoder, parameterCreator);
+	}
+
+	protected SATGenotype createSAT(int size, double priority, boolean phase) {
+		BooleanGenotype phases = new BooleanGenotype();
+		DoubleGenotype priorities = new DoubleGenotype();
+		for (int i = 0; i < size; i++) {
+			phases.add(phase);
+			priorities.add(priority);
+		}
+		return new SATGenotype(phases, priorities);
+	}
+
+	protected CompositeGenotype<String, Genotype> createParameters(double range, ParameterReference... order) {
+		DoubleGenotype ranges = new DoubleGenotype();
+		ranges.add(range);
+		PermutationGenotype<ParameterReference> permutation = new PermutationGenotype<ParameterReference>(
+				Arrays.asList(order));
+
+		CompositeGenotype<String, Genotype> parameters = new CompositeGenotype<String, Genotype>();
+		parameters.put("RANGE", ranges);
+		parameters.put("UID", permutation);
+		return parameters;
+	}
+
+	protected CompositeGenotype<String, Genotype> createGenotype() {
+		SATGenotype sat = createSAT(0, 0.0, false);
+		sat.getDoubleVector().addAll(Arrays.asList(0.1, 0.2, 0.3));
+		sat.getBooleanVector().addAll(Arrays.asList(true, false, true));
+
+		CompositeGenotype<String, Genotype> genotype = new CompositeGenotype<String, Genotype>();
+		genotype.put("SAT", sat);
+		genotype.put("PARAMETER", createParameters(0.7, r2, r0, r1));
+		return genotype;
+	}
+
+	@Test
+	public void testEncode() {
+		MigrantCodec codec = createCodec(Arrays.<Object> asList("v0", "v1", "v2"));
+		Migrant migrant = codec.encode("island", createGenotype());
+
+		assertEquals("island", migrant.getIsland());
+		assertEquals(0.2, migrant.getPriorities().get("v1"), 0.0);
+		assertTrue(migrant.getPhases().get("v2"));
+		assertFalse(migrant.getPhases().get("v1"));
+		assertEquals(Arrays.<Number> asList(0.7), migrant.getParameters().get("RANGE"));
+		// the indices of the references in the sorted order
+		assertEquals(Arrays.<Number> asList(2, 0, 1), migrant.getParameters().get("UID"));
+	}
+
+	@Test
+	public void testDecode() {
+		MigrantCodec codec = createCodec(Arrays.<Object> asList("v0", "v1", "v2"));
+		CompositeGenotype<String, Genotype> genotype = codec.decode(codec.encode("island", createGenotype()));
+
+		SATGenotype sat = genotype.get("SAT");
+		assertEquals(Arrays.asList(0.1, 0.2, 0.3), sat.getDoubleVector());
+		assertEquals(Arrays.asList(true, false, true), sat.getBooleanVector());
+
+		CompositeGenotype<String, Genotype> parameters = genotype.get("PARAMETER");
+		assertEquals(Arrays.asList(0.7), parameters.get("RANGE"));
+		assertEquals(Arrays.asList(r2, r0, r1), parameters.get("UID"));
+	}
+
+	@Test
+	public void testDecodeOtherVariableOrder() {
+		Migrant migrant = createCodec(Arrays.<Object> asList("v0", "v1", "v2")).encode("island", createGenotype());
+
+		// another JVM that knows the variables in a different order and one
+		// unknown variable
+		MigrantCodec codec = createCodec(Arrays.<Object> asList("v2", "v3", "v0"));
+		SATGenotype sat = codec.decode(migrant).get("SAT");
+		assertEquals(Arrays.asList(0.3, 0.0, 0.1), sat.getDoubleVector());
+		assertEquals(Arrays.asList(true, false, true), sat.getBooleanVector());
+	}
+
+	@Test
+	public void testDecodeMismatchingParameter() {
+		MigrantCodec codec = createCodec(Arrays.<Object> asList("v0", "v1", "v2"));
+		Migrant migrant = codec.encode("island", createGenotype());
+		migrant.getParameters().put("UID", Arrays.<Number> asList(1, 0));
+		migrant.getParameters().remove("RANGE");
+
+		CompositeGenotype<String, Genotype> parameters = codec.decode(migrant).get("PARAMETER");
+		assertEquals(Arrays.asList(0.0), parameters.get("RANGE"));
+		assertEquals(Arrays.asList(r0, r1, r2), parameters.get("UID"));
+	}
+
+}
@@ -0,0 +1,105 @@
+package net.sf.opendse.optimization.island;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collection;
+
+import org.junit.Test;
+import org.opt4j.core.Objective.Sign;
+import org.opt4j.core.Objectives;
+
+public class MigrationTransportTest {
+
+	protected Migrant createMigrant(String island, double value) {
+		Migrant migrant = new Migrant(island);
+		migrant.getPriorities().put("r0", 0.5);
+		migrant.getPhases().put("r0", true);
+		Objectives objectives = new Objectives();
+		objectives.add("cost", Sign.MIN, value);
+		migrant.setObjectives(objectives);
+		return migrant;
+	}
+
+	@Test
+	public void testLoopback() {
+		LoopbackTransport t0 = new LoopbackTransport("testLoopback");
+		LoopbackTransport t1 = new LoopbackTransport("testLoopback");
+		LoopbackTransport other = new LoopbackTransport("testLoopbackOther");
+
+		t0.send(Arrays.asList(createMigrant("t0", 1.0)));
+
+		assertTrue(t0.receive().isEmpty());
+		assertTrue(other.receive().isEmpty());
+		Collection<Migrant> received = t1.receive();
+		assertEquals(1, received.size());
+		assertEquals("t0", received.iterator().next().getIsland());
+		assertTrue(t1.receive().isEmpty());
+
+		t1.close();
+		t0.send(Arrays.asList(createMigrant("t0", 2.0)));
+		assertTrue(t1.receive().isEmpty());
+		t0.close();
+		other.close();
+	}
+
+	@Test
+	public void testDirectory() throws Exception {
+		File directory = File.createTempFile("migrants", "");
+		directory.delete();
+
+		DirectoryTransport t0 = new DirectoryTransport(directory, "t0");
+		DirectoryTransport t1 = new DirectoryTransport(directory, "t1");
+
+		t0.send(Arrays.asList(createMigrant("t0", 3.0), createMigrant("t0", 4.0)));
+
+		assertTrue(t0.receive().isEmpty());
+		Collection<Migrant> received = t1.receive();
+		assertEquals(2, received.size());
+		assertTrue(t1.receive().isEmpty());
+
+		Migrant migrant = received.iterator().next();
+		assertEquals(0.5, migrant.getPriorities().get("r0"), 0.0);
+		assertTrue(migrant.getPhases().get("r0"));
+		assertEquals(1, migrant.getObjectives().size());
+
+		for (File file : directory.listFiles()) {
+			file.delete();
+		}
+		directory.delete();
+	}
+
+	@Test
+	public void testDirectoryPrefixIsland() throws Exception {
+		File directory = File.createTempFile("migrants", "");
+		directory.delete();
+
+		DirectoryTransport a = new DirectoryTransport(directory, "a");
+		DirectoryTransport a1 = new DirectoryTransport(directory, "a-1");
+
+		a1.send(Arrays.asList(createMigrant("a-1", 1.0)));
+		a.send(Arrays.asList(createMigrant("a", 2.0)));
+
+		Collection<Migrant> received = a.receive();
+		assertEquals(1, received.size());
+		assertEquals("a-1", received.iterator().next().getIsland());
+		received = a1.receive();
+		assertEquals(1, received.size());
+		assertEquals("a", received.iterator().next().getIsland());
+
+		for (File file : directory.listFiles()) {
+			file.delete();
+		}
+		directory.delete();
+	}
+
+	@Test
+	public void testObjectives() {
+		Migrant better = createMigrant("t0", 1.0);
+		Migrant worse = createMigrant("t0", 2.0);
+		assertTrue(better.getObjectives().dominates(worse.getObjectives()));
+		assertFalse(worse.getObjectives().dominates(better.getObjectives()));
+	}
+
+}
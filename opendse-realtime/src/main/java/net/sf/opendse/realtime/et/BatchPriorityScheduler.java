@@ -0,0 +1,300 @@
+/*******************************************************************************
+ * Copyright (c) 2015 OpenDSE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *******************************************************************************/
+package net.sf.opendse.realtime.et;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import net.sf.opendse.model.Specification;
+import net.sf.opendse.realtime.et.graph.TimingGraph;
+import net.sf.opendse.realtime.et.qcqp.MyEncoder.OptimizationObjective;
+import net.sf.opendse.realtime.et.rta.CompositionalResponseTimeAnalysis;
+import net.sf.opendse.realtime.et.rta.ResponseTimeAnalysis;
+
+/**
+ * The {@code BatchPriorityScheduler} runs the {@link PriorityScheduler} on a
+ * collection of implementations with a thread pool. Each implementation is
+ * scheduled in its own task, such that the solvers are created by the
+ * {@link SolverProvider} in the worker thread and not shared. Therefore, the
+ * provider has to be thread-safe. Since all Gurobi solvers share one static
+ * environment, only the solver calls are synchronized if the provider creates
+ * Gurobi solvers, see {@link PriorityScheduler#setSolverLock(Object)}.
+ * <p>
+ * In the {@link Mode#ANALYSIS} mode, all implementations share one
+ * {@link CompositionalResponseTimeAnalysis} such that resources with the
+ * same tasks and priorities are analyzed only once.
+ * <p>
+ * A failure of an implementation does not stop the batch but is reported in
+ * its {@link Result}.
+ * 
+ * @author lukasiewycz
+ * 
+ */
+public class BatchPriorityScheduler {
+
+	public enum Mode {
+		/**
+		 * Synthesize the priorities with {@link PriorityScheduler#solve}.
+		 */
+		SYNTHESIS,
+		/**
+		 * Analyze the given or rate-monotonic priorities with
+		 * {@link PriorityScheduler#analyze}.
+		 */
+		ANALYSIS;
+	}
+
+	protected final SolverProvider solverProvider;
+	protected final boolean rateMonotonic;
+	protected final int threads;
+
+	protected Mode mode = Mode.SYNTHESIS;
+	protected OptimizationObjective objective = null;
+	protected boolean lazyCycleElimination = false;
+	protected boolean optimalPriorityAssignment = false;
+	protected ResponseTimeAnalysis analysis;
+	protected final TimingAnalysisListeners listeners = new TimingAnalysisListeners();
+
+	/**
+	 * Constructs a {@code BatchPriorityScheduler}.
+	 * 
+	 * @param solverProvider
+	 *            the thread-safe solver provider
+	 * @param rateMonotonic
+	 *            use rate-monotonic priorities
+	 * @param threads
+	 *            the number of threads
+	 */
+	public BatchPriorityScheduler(SolverProvider solverProvider, boolean rateMonotonic, int threads) {
+		if (threads < 1) {
+			throw new IllegalArgumentException("The number of threads has to be positive: " + threads);
+		}
+		this.solverProvider = solverProvider;
+		this.rateMonotonic = rateMonotonic;
+		this.threads = threads;
+		this.analysis = new CompositionalResponseTimeAnalysis(rateMonotonic);
+	}
+
+	public void setMode(Mode mode) {
+		this.mode = mode;
+	}
+
+	public void setObjective(OptimizationObjective objective) {
+		this.objective = objective;
+	}
+
+	/**
+	 * See {@link PriorityScheduler#setLazyCycleElimination(boolean)}.
+	 */
+	public void setLazyCycleElimination(boolean lazyCycleElimination) {
+		this.lazyCycleElimination = lazyCycleElimination;
+	}
+
+	/**
+	 * See {@link PriorityScheduler#setOptimalPriorityAssignment(boolean)}.
+	 */
+	public void setOptimalPriorityAssignment(boolean optimalPriorityAssignment) {
+		this.optimalPriorityAssignment = optimalPriorityAssignment;
+	}
+
+	/**
+	 * Sets the thread-safe analysis that is shared in the {@link Mode#ANALYSIS}
+	 * mode.
+	 * 
+	 * @param analysis
+	 *            the response-time analysis
+	 */
+	public void setAnalysis(ResponseTimeAnalysis analysis) {
+		this.analysis = analysis;
+	}
+
+	public ResponseTimeAnalysis getAnalysis() {
+		return analysis;
+	}
+
+	/**
+	 * Adds a thread-safe listener that is notified by the schedulers of all
+	 * implementations, for instance a {@link TimingAnalysisMetrics}.
+	 * 
+	 * @param listener
+	 *            the listener
+	 */
+	public void addListener(TimingAnalysisListener listener) {
+		listeners.add(listener);
+	}
+
+	public void removeListener(TimingAnalysisListener listener) {
+		listeners.remove(listener);
+	}
+
+	/**
+	 * Schedules the implementations. The timing properties are annotated to
+	 * each implementation as by the {@link PriorityScheduler}.
+	 * 
+	 * @param implementations
+	 *            the implementations
+	 * @return the results in the order of the implementations
+	 */
+	public List<Result> schedule(Collection<Specification> implementations) {
+		Object lock = null;
+		if (threads > 1 && mode == Mode.SYNTHESIS && SolverProviders.isGurobi(solverProvider)) {
+			// only the solver calls of the schedulers are synchronized
+			lock = SolverProviders.GUROBI_LOCK;
+		}
+		final Object solverLock = lock;
+
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			List<Specification> specifications = new ArrayList<Specification>(implementations);
+			List<Future<Result>> futures = new ArrayList<Future<Result>>();
+			for (final Specification implementation : specifications) {
+				futures.add(executor.submit(new Callable<Result>() {
+					@Override
+					public Result call() throws Exception {
+						return schedule(implementation, solverLock);
+					}
+				}));
+			}
+
+			List<Result> results = new ArrayList<Result>();
+			for (int i = 0; i < futures.size(); i++) {
+				Specification implementation = specifications.get(i);
+				try {
+					results.add(futures.get(i).get());
+				} catch (ExecutionException e) {
+					results.add(new Result(implementation, e.getCause()));
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					results.add(new Result(implementation, e));
+				}
+			}
+			return results;
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	protected Result schedule(Specification implementation, Object solverLock) {
+		PriorityScheduler scheduler = new PriorityScheduler(implementation, solverProvider, rateMonotonic);
+		scheduler.addListener(listeners);
+		scheduler.setSolverLock(solverLock);
+		boolean feasible;
+		if (mode == Mode.ANALYSIS) {
+			feasible = scheduler.analyze(analysis);
+		} else {
+			scheduler.setLazyCycleElimination(lazyCycleElimination);
+			scheduler.setOptimalPriorityAssignment(optimalPriorityAssignment);
+			feasible = scheduler.solve(objective);
+		}
+		return new Result(implementation, feasible, scheduler.getReducedTimingGraph(), scheduler.getMIPGap());
+	}
+
+	/**
+	 * The {@code Result} of an implementation.
+	 */
+	public static class Result {
+
+		protected final Specification implementation;
+		protected final boolean feasible;
+		protected final TimingGraph timingGraph;
+		protected final double mipGap;
+		protected final Throwable failure;
+
+		public Result(Specification implementation, boolean feasible, TimingGraph timingGraph, double mipGap) {
+			this.implementation = implementation;
+			this.feasible = feasible;
+			this.timingGraph = timingGraph;
+			this.mipGap = mipGap;
+			this.failure = null;
+		}
+
+		public Result(Specification implementation, Throwable failure) {
+			this.implementation = implementation;
+			this.feasible = false;
+			this.timingGraph = null;
+			this.mipGap = -1.0;
+			this.failure = failure;
+		}
+
+		public Specification getImplementation() {
+			return implementation;
+		}
+
+		/**
+		 * Returns {@code true} if all deadlines are met.
+		 * 
+		 * @return {@code true} if feasible
+		 */
+		public boolean isFeasible() {
+			return feasible;
+		}
+
+		/**
+		 * Returns the reduced timing graph, see
+		 * {@link PriorityScheduler#getReducedTimingGraph()}, or {@code null}
+		 * if the implementation failed.
+		 * 
+		 * @return the timing graph
+		 */
+		public TimingGraph getTimingGraph() {
+			return timingGraph;
+		}
+
+		public double getMIPGap() {
+			return mipGap;
+		}
+
+		public boolean isFailed() {
+			return failure != null;
+		}
+
+		/**
+		 * Returns the failure of the implementation or {@code null}.
+		 * 
+		 * @return the failure
+		 */
+		public Throwable getFailure() {
+			return failure;
+		}
+
+		/**
+		 * Returns the reason of the failure or {@code null}.
+		 * 
+		 * @return the reason
+		 */
+		public String getFailureReason() {
+			return failure == null ? null : failure.toString();
+		}
+
+		@Override
+		public String toString() {
+			return implementation + ": " + (isFailed() ? getFailureReason() : (feasible ? "feasible" : "infeasible"));
+		}
+	}
+
+}
@@ -0,0 +1,75 @@
+/*******************************************************************************
+ * Copyright (c) 2015 OpenDSE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *******************************************************************************/
+package net.sf.opendse.realtime.et;
+
+import net.sf.jmpi.main.MpSolver;
+import net.sf.opendse.realtime.et.milp.SolverBranchAndBound;
+
+/**
+ * The {@code DefaultSolverProvider} is the {@link SolverProvider} that is used
+ * if no provider is given. The solver is selected by the system property
+ * {@link #SOLVER}: {@link #GUROBI} (default) requires a Gurobi installation
+ * and license, {@link #BRANCH_AND_BOUND} uses the pure Java
+ * {@link SolverBranchAndBound}.
+ * 
+ * @author lukasiewycz
+ * 
+ */
+public class DefaultSolverProvider implements SolverProvider {
+
+	public static final String SOLVER = "opendse.realtime.solver";
+	public static final String GUROBI = "gurobi";
+	public static final String BRANCH_AND_BOUND = "branchandbound";
+
+	protected final String solver;
+	protected final int timeout;
+
+	public DefaultSolverProvider() {
+		this(System.getProperty(SOLVER, GUROBI), 3600);
+	}
+
+	public DefaultSolverProvider(String solver, int timeout) {
+		if (!GUROBI.equals(solver) && !BRANCH_AND_BOUND.equals(solver)) {
+			throw new IllegalArgumentException("Unknown solver " + solver + ", use " + GUROBI + " or "
+					+ BRANCH_AND_BOUND + ".");
+		}
+		this.solver = solver;
+		this.timeout = timeout;
+	}
+
+	@Override
+	public MpSolver get() {
+		MpSolver mpSolver;
+		if (GUROBI.equals(solver)) {
+			mpSolver = new SolverSessionGurobi();
+		} else {
+			mpSolver = new SolverBranchAndBound();
+		}
+		mpSolver.setTimeout(timeout);
+		return mpSolver;
+	}
+
+	public String getSolver() {
+		return solver;
+	}
+
+}
@@ -25,11 +25,14 @@ import gurobi.GRB.DoubleAttr;
 import gurobi.GRBException;
 import gurobi.GRBModel;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
+import net.sf.jmpi.main.MpConstraint;
 import net.sf.jmpi.main.MpProblem;
 import net.sf.jmpi.main.MpResult;
 import net.sf.jmpi.main.MpSolver;
@@ -38,10 +41,13 @@ import net.sf.opendse.model.Dependency;
 import net.sf.opendse.model.Function;
 import net.sf.opendse.model.Specification;
 import net.sf.opendse.model.Task;
+import net.sf.opendse.realtime.et.TimingAnalysisListener.Phase;
 import net.sf.opendse.realtime.et.graph.ApplicationDependencyInterferencePredicate;
 import net.sf.opendse.realtime.et.graph.ApplicationPriorityCyclesPredicate;
 import net.sf.opendse.realtime.et.graph.DelaySchedulerEdgePredicate;
 import net.sf.opendse.realtime.et.graph.SourceTargetCommunicationPredicate;
+import net.sf.opendse.realtime.et.graph.TimingDependency;
+import net.sf.opendse.realtime.et.graph.TimingDependencyPriority;
 import net.sf.opendse.realtime.et.graph.TimingElement;
 import net.sf.opendse.realtime.et.graph.TimingGraph;
 import net.sf.opendse.realtime.et.graph.TimingGraphBuilder;
@@ -51,10 +57,14 @@ import net.sf.opendse.realtime.et.qcqp.MyConflictRefinement;
 import net.sf.opendse.realtime.et.qcqp.MyConflictRefinement.ConflictRefinementMethod;
 import net.sf.opendse.realtime.et.qcqp.MyConflictRefinementDeletion;
 import net.sf.opendse.realtime.et.qcqp.MyConflictRefinementHierarchical;
+import net.sf.opendse.realtime.et.qcqp.MyConflictRefinementParallel;
+import net.sf.opendse.realtime.et.qcqp.MyConflictRefinementQuickXplain;
 import net.sf.opendse.realtime.et.qcqp.MyEncoder;
 import net.sf.opendse.realtime.et.qcqp.MyEncoder.OptimizationObjective;
 import net.sf.opendse.realtime.et.qcqp.MyInterpreter;
 import net.sf.opendse.realtime.et.qcqp.MyTimingPropertyAnnotater;
+import net.sf.opendse.realtime.et.rta.OptimalPriorityAssignment;
+import net.sf.opendse.realtime.et.rta.ResponseTimeAnalysis;
 
 public class PriorityScheduler {
 	
@@ -84,16 +94,14 @@ public class PriorityScheduler {
 	protected Boolean solved = false;
 	protected Boolean isInfeasible = null;
 	protected double MIPGap = -1.0;
+	protected boolean lazyCycleElimination = false;
+	protected boolean optimalPriorityAssignment = false;
+	protected Object solverLock = null;
+	protected final TimingAnalysisListeners listeners = new TimingAnalysisListeners();
+	protected final TimingAnalysisMetrics metrics = new TimingAnalysisMetrics();
 	
 	public PriorityScheduler(Specification specification){
-		this(specification, new SolverProvider() {
-			@Override
-			public MpSolver get() {
-				SolverGurobi solver = new SolverGurobi();
-				solver.setTimeout(3600);
-				return solver;
-			}
-		}, true);
+		this(specification, new DefaultSolverProvider(), true);
 	}
 
 	public PriorityScheduler(Specification specification, SolverProvider solverProvider, boolean rateMonotonic) {
@@ -101,6 +109,69 @@ public class PriorityScheduler {
 		this.specification = specification;
 		this.solverProvider = solverProvider;
 		this.rateMonotonic = rateMonotonic;
+		this.listeners.add(metrics);
+	}
+
+	/**
+	 * Adds a listener that is notified about the phases, the model sizes, the
+	 * solver status, and the conflict refinement.
+	 * 
+	 * @param listener
+	 *            the listener
+	 */
+	public void addListener(TimingAnalysisListener listener) {
+		listeners.add(listener);
+	}
+
+	public void removeListener(TimingAnalysisListener listener) {
+		listeners.remove(listener);
+	}
+
+	/**
+	 * Returns the metrics that are collected by this scheduler.
+	 * 
+	 * @return the metrics
+	 */
+	public TimingAnalysisMetrics getMetrics() {
+		return metrics;
+	}
+
+	/**
+	 * Enables or disables the lazy elimination of priority cycles, see
+	 * {@link MyEncoder#setLazyCycleElimination(boolean)}.
+	 * 
+	 * @param lazyCycleElimination
+	 *            true if the cycle constraints shall be added lazily
+	 */
+	public void setLazyCycleElimination(boolean lazyCycleElimination) {
+		this.lazyCycleElimination = lazyCycleElimination;
+	}
+
+	/**
+	 * Enables or disables the {@link OptimalPriorityAssignment} before the
+	 * solver is used. If the assignment meets all deadlines, the solver is
+	 * not called and the objective is not optimized.
+	 * 
+	 * @param optimalPriorityAssignment
+	 *            true if the priorities shall be assigned by the
+	 *            {@link OptimalPriorityAssignment} first
+	 */
+	public void setOptimalPriorityAssignment(boolean optimalPriorityAssignment) {
+		this.optimalPriorityAssignment = optimalPriorityAssignment;
+	}
+
+	/**
+	 * Sets a lock that is held while the solvers are created and used, i.e.,
+	 * from opening the session until the result is interpreted. The timing
+	 * graph, the {@link OptimalPriorityAssignment}, and the encoding are not
+	 * synchronized. This allows schedulers in several threads to share
+	 * solvers that are not thread-safe, see {@link SolverProviders}.
+	 * 
+	 * @param solverLock
+	 *            the lock or {@code null} if the solvers are not synchronized
+	 */
+	public void setSolverLock(Object solverLock) {
+		this.solverLock = solverLock;
 	}
 
 	public boolean solve(OptimizationObjective objective) {
@@ -109,22 +180,80 @@ public class PriorityScheduler {
 		}
 
 		originalTimingGraph = toTimingGraph(specification);
+
+		if (optimalPriorityAssignment) {
+			long start = System.nanoTime();
+			OptimalPriorityAssignment assignment = new OptimalPriorityAssignment(rateMonotonic);
+			TimingGraph tg = assignment.analyze(originalTimingGraph);
+			listeners.phaseCompleted(Phase.PRIORITY_ASSIGNMENT, System.nanoTime() - start);
+			if (tg != null) {
+				start = System.nanoTime();
+				resultingTimingGraph = tg;
+				MyTimingPropertyAnnotater annotator = new MyTimingPropertyAnnotater();
+				annotator.annotate(resultingTimingGraph, specification);
+				listeners.phaseCompleted(Phase.INTERPRETATION, System.nanoTime() - start);
+
+				solved = true;
+				isInfeasible = false;
+				listeners.problemSolved(true, -1);
+				return true;
+			}
+		}
+
+		long start = System.nanoTime();
 		MyEncoder encoder = new MyEncoder(objective);
+		encoder.setLazyCycleElimination(lazyCycleElimination);
 		MpProblem problem = encoder.encode(originalTimingGraph, rateMonotonic);
+		listeners.phaseCompleted(Phase.ENCODING, System.nanoTime() - start);
+		listeners.problemEncoded(problem.getVariablesCount(), problem.getConstraintsCount(),
+				countPriorityEdges(originalTimingGraph));
 
-		MpSolver solver = solverProvider.get();
-		solver.add(problem);
-		MpResult result = solver.solve();
-		
-		if(solver instanceof SolverGurobi){
-			SolverGurobi solverGurobi = (SolverGurobi)solver;
-			GRBModel model = solverGurobi.getGRBModel();
-			try {
-				MIPGap = model.get(DoubleAttr.MIPGap);
-			} catch (GRBException e) {
-				System.err.println("Could not determine MIPGap");
+		boolean feasible;
+		if (solverLock != null) {
+			synchronized (solverLock) {
+				feasible = solve(encoder, problem);
+			}
+		} else {
+			feasible = solve(encoder, problem);
+		}
+
+		if (feasible) {
+			start = System.nanoTime();
+			MyTimingPropertyAnnotater annotator = new MyTimingPropertyAnnotater();
+			annotator.annotate(resultingTimingGraph, specification);
+			listeners.phaseCompleted(Phase.INTERPRETATION, System.nanoTime() - start);
+		}
+		return feasible;
+	}
+
+	/**
+	 * Solves the encoded problem and interprets the result. This is the only
+	 * part of {@link #solve(OptimizationObjective)} that uses the solvers.
+	 * 
+	 * @param encoder
+	 *            the encoder of the problem
+	 * @param problem
+	 *            the problem
+	 * @return true if the problem is feasible
+	 */
+	protected boolean solve(MyEncoder encoder, MpProblem problem) {
+		long start = System.nanoTime();
+		SolverSession session = SolverSessions.open(solverProvider, problem);
+		MpResult result = solve(session);
+
+		int count = problem.getConstraintsCount();
+		while (lazyCycleElimination && result != null
+				&& encoder.addViolatedCycles(originalTimingGraph, problem, result) > 0) {
+			// add the new constraints to the model of the previous solve
+			List<MpConstraint> constraints = new ArrayList<MpConstraint>(problem.getConstraints());
+			for (MpConstraint constraint : constraints.subList(count, constraints.size())) {
+				session.add(constraint);
 			}
+			count = constraints.size();
+			listeners.problemEncoded(problem.getVariablesCount(), count, countPriorityEdges(originalTimingGraph));
+			result = solve(session);
 		}
+		listeners.phaseCompleted(Phase.SOLVE, System.nanoTime() - start);
 
 		solved = true;
 
@@ -133,15 +262,77 @@ public class PriorityScheduler {
 			return false;
 		} else {
 			isInfeasible = false;
+			start = System.nanoTime();
 			MyInterpreter interpreter = new MyInterpreter(solverProvider);
-			MyTimingPropertyAnnotater annotator = new MyTimingPropertyAnnotater();
-
-			resultingTimingGraph = interpreter.interprete(originalTimingGraph, specification, result);
-			annotator.annotate(resultingTimingGraph, specification); 
+			resultingTimingGraph = interpreter.interprete(originalTimingGraph, specification, result, session);
+			listeners.phaseCompleted(Phase.INTERPRETATION, System.nanoTime() - start);
 			return true;
 		}
 	}
 
+	/**
+	 * Solves the current model of the session once and notifies the listeners
+	 * about the status.
+	 * 
+	 * @param session
+	 *            the solver session
+	 * @return the result or {@code null} if the model is infeasible
+	 */
+	protected MpResult solve(SolverSession session) {
+		MpResult result = session.solve();
+
+		MpSolver solver = session.getSolver();
+		if(solver instanceof SolverGurobi){
+			SolverGurobi solverGurobi = (SolverGurobi)solver;
+			GRBModel model = solverGurobi.getGRBModel();
+			try {
+				MIPGap = model.get(DoubleAttr.MIPGap);
+			} catch (GRBException e) {
+				System.err.println("Could not determine MIPGap");
+			}
+		}
+
+		listeners.problemSolved(result != null, MIPGap);
+		return result;
+	}
+
+	/**
+	 * Analyzes the timing with the solver-free {@link ResponseTimeAnalysis}
+	 * using the rate-monotonic or the given priorities instead of
+	 * synthesizing the priorities.
+	 * 
+	 * @return {@code true} if all deadlines are met
+	 */
+	public boolean analyze() {
+		return analyze(new ResponseTimeAnalysis(rateMonotonic));
+	}
+
+	/**
+	 * Analyzes the timing with the given {@link ResponseTimeAnalysis}, for
+	 * instance a {@link net.sf.opendse.realtime.et.rta.CompositionalResponseTimeAnalysis}
+	 * that is shared between implementations.
+	 * 
+	 * @param analysis
+	 *            the response-time analysis
+	 * @return {@code true} if all deadlines are met
+	 */
+	public boolean analyze(ResponseTimeAnalysis analysis) {
+		originalTimingGraph = toTimingGraph(specification);
+
+		long start = System.nanoTime();
+		resultingTimingGraph = analysis.analyze(originalTimingGraph);
+		listeners.phaseCompleted(Phase.ANALYSIS, System.nanoTime() - start);
+
+		start = System.nanoTime();
+		MyTimingPropertyAnnotater annotator = new MyTimingPropertyAnnotater();
+		annotator.annotate(resultingTimingGraph, specification);
+		listeners.phaseCompleted(Phase.INTERPRETATION, System.nanoTime() - start);
+
+		solved = true;
+		isInfeasible = !analysis.isSchedulable(resultingTimingGraph);
+		return !isInfeasible;
+	}
+
 	public TimingGraph getFullTimingGraph() {
 		return originalTimingGraph;
 	}
@@ -150,6 +341,12 @@ public class PriorityScheduler {
 		return resultingTimingGraph;
 	}
 	
+	/**
+	 * Returns the MIP gap of the solver. More details are available via
+	 * {@link #getMetrics()}.
+	 * 
+	 * @return the MIP gap or {@code -1} if it is not available
+	 */
 	public double getMIPGap() {
 		return MIPGap;
 	}
@@ -164,13 +361,18 @@ public class PriorityScheduler {
 			conflictRefinement = new MyConflictRefinementDeletion(solverProvider, rateMonotonic);
 		} else if (method == ConflictRefinementMethod.HIERARCHICAL) {
 			conflictRefinement = new MyConflictRefinementHierarchical(solverProvider, rateMonotonic);
+		} else if (method == ConflictRefinementMethod.QUICKXPLAIN) {
+			conflictRefinement = new MyConflictRefinementQuickXplain(solverProvider, rateMonotonic);
+		} else if (method == ConflictRefinementMethod.PARALLEL_DELETION) {
+			conflictRefinement = new MyConflictRefinementParallel(solverProvider, rateMonotonic);
 		} else {
 			throw new IllegalArgumentException("unknown refinement method " + method);
 		}
+		conflictRefinement.addListener(listeners);
 
+		long start = System.nanoTime();
 		Set<TimingElement> iis = conflictRefinement.find(originalTimingGraph, specification);
-
-		System.out.println("IIS (size=" + iis.size() + "): " + iis);
+		listeners.phaseCompleted(Phase.CONFLICT_REFINEMENT, System.nanoTime() - start);
 
 		Map<Task, Function<Task, Dependency>> taskToFunction = new HashMap<Task, Function<Task, Dependency>>();
 		for (Function<Task, Dependency> function : specification.getApplication().getFunctions()) {
@@ -184,13 +386,32 @@ public class PriorityScheduler {
 			iisFunctions.add(taskToFunction.get(te.getTask()).getId());
 		}
 
-		System.out.println("IIS functions: " + iisFunctions);
+		listeners.conflictDetermined(iis, iisFunctions);
 		
 		return iis;
 	}
 
 	protected TimingGraph toTimingGraph(Specification implementation) {
+		return createTimingGraph(implementation, listeners);
+	}
+
+	public static TimingGraph createTimingGraph(Specification implementation) {
+		return createTimingGraph(implementation, null);
+	}
+
+	/**
+	 * Creates the timing graph of an implementation.
+	 * 
+	 * @param implementation
+	 *            the implementation
+	 * @param listener
+	 *            the listener that is notified about the durations of the
+	 *            graph build and the modifier filtering or {@code null}
+	 * @return the timing graph
+	 */
+	public static TimingGraph createTimingGraph(Specification implementation, TimingAnalysisListener listener) {
 		TimingGraphBuilder builder = new TimingGraphBuilder();
+		builder.setListener(listener);
 		builder.addModifiers(new TimingGraphModifierFilterVertex(new SourceTargetCommunicationPredicate(implementation, builder
 				.getTimingGraph())));
 		builder.addModifiers(new TimingGraphModifierFilterEdge(new ApplicationPriorityCyclesPredicate(builder.getTimingGraph())));
@@ -202,4 +423,14 @@ public class PriorityScheduler {
 		return tg;
 	}
 
+	protected static int countPriorityEdges(TimingGraph tg) {
+		int count = 0;
+		for (TimingDependency td : tg.getEdges()) {
+			if (td instanceof TimingDependencyPriority) {
+				count++;
+			}
+		}
+		return count;
+	}
+
 }
@@ -0,0 +1,172 @@
+/*******************************************************************************
+ * Copyright (c) 2015 OpenDSE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *******************************************************************************/
+package net.sf.opendse.realtime.et;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import net.sf.jmpi.main.MpConstraint;
+import net.sf.jmpi.main.MpDirection;
+import net.sf.jmpi.main.MpProblem;
+import net.sf.jmpi.main.MpResult;
+import net.sf.jmpi.main.MpSolver;
+import net.sf.jmpi.main.MpVariable;
+import net.sf.jmpi.main.expression.MpExpr;
+import net.sf.jmpi.main.expression.MpExprTerm;
+
+/**
+ * The {@code RebuildSolverSession} is the {@link SolverSession} for solvers
+ * that cannot modify their model. The modifications are recorded and a new
+ * solver is built from the modified problem for the next solve.
+ * 
+ * @author lukasiewycz
+ * 
+ */
+public class RebuildSolverSession implements SolverSession {
+
+	protected final SolverProvider solverProvider;
+	protected final Map<Object, MpVariable> variables = new LinkedHashMap<Object, MpVariable>();
+	protected final List<MpConstraint> constraints;
+	protected final Map<MpConstraint, MpConstraint> replaced = new HashMap<MpConstraint, MpConstraint>();
+	protected final Map<Object, MpVariable> bounds = new HashMap<Object, MpVariable>();
+	protected MpExpr objective;
+	protected MpDirection direction;
+
+	protected MpSolver solver;
+	protected boolean current;
+
+	/**
+	 * Constructs a {@code RebuildSolverSession}.
+	 * 
+	 * @param solverProvider
+	 *            the solver provider
+	 * @param problem
+	 *            the problem
+	 * @param solver
+	 *            the solver for the first solve
+	 */
+	public RebuildSolverSession(SolverProvider solverProvider, MpProblem problem, MpSolver solver) {
+		this.solverProvider = solverProvider;
+		for (MpVariable variable : problem.getVariables()) {
+			variables.put(variable.getVar(), variable);
+		}
+		this.constraints = new ArrayList<MpConstraint>(problem.getConstraints());
+		this.objective = problem.getObjective();
+		this.direction = problem.getOptType();
+		this.solver = solver;
+		solver.add(problem);
+		this.current = true;
+	}
+
+	@Override
+	public void add(MpConstraint constraint) {
+		constraints.add(constraint);
+		current = false;
+	}
+
+	@Override
+	public void setBounds(Object var, Number lower, Number upper) {
+		MpVariable variable = variables.get(var);
+		if (variable == null) {
+			throw new IllegalArgumentException("Variable " + var + " is undefined.");
+		}
+		bounds.put(var, new MpVariable(var, lower, upper, variable.getType()));
+		current = false;
+	}
+
+	@Override
+	public void fix(Object var, Number value) {
+		setBounds(var, value, value);
+	}
+
+	@Override
+	public void setCoefficient(MpConstraint constraint, Object var, Number coefficient) {
+		MpConstraint c = replaced.containsKey(constraint) ? replaced.get(constraint) : constraint;
+
+		double previous = 0;
+		for (MpExprTerm term : c.getLhs()) {
+			if (term.size() == 1 && term.var(0).equals(var)) {
+				previous += term.getCoeff().doubleValue();
+			}
+		}
+		for (MpExprTerm term : c.getRhs()) {
+			if (term.size() == 1 && term.var(0).equals(var)) {
+				previous -= term.getCoeff().doubleValue();
+			}
+		}
+
+		MpExpr lhs = new MpExpr();
+		for (MpExprTerm term : c.getLhs()) {
+			lhs.addTerm(term);
+		}
+		lhs.addTerm(new MpExprTerm(coefficient.doubleValue() - previous, var));
+		replaced.put(constraint, new MpConstraint(lhs, c.getOperator(), c.getRhs()));
+		current = false;
+	}
+
+	@Override
+	public void setObjective(MpExpr objective, MpDirection direction) {
+		this.objective = objective;
+		this.direction = direction;
+		current = false;
+	}
+
+	@Override
+	public MpResult solve() {
+		if (!current) {
+			solver = solverProvider.get();
+			solver.add(getProblem());
+			current = true;
+		}
+		return solver.solve();
+	}
+
+	@Override
+	public MpSolver getSolver() {
+		return solver;
+	}
+
+	/**
+	 * Returns the modified problem.
+	 * 
+	 * @return the problem
+	 */
+	public MpProblem getProblem() {
+		MpProblem problem = new MpProblem();
+		for (MpVariable variable : variables.values()) {
+			MpVariable v = bounds.get(variable.getVar());
+			problem.addVariable(v != null ? v : variable);
+		}
+		for (MpConstraint constraint : constraints) {
+			MpConstraint c = replaced.get(constraint);
+			problem.addConstraint(c != null ? c : constraint);
+		}
+		if (objective != null && direction != null) {
+			problem.setObjective(objective, direction);
+		}
+		return problem;
+	}
+
+}
@@ -0,0 +1,72 @@
+/*******************************************************************************
+ * Copyright (c) 2015 OpenDSE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *******************************************************************************/
+package net.sf.opendse.realtime.et;
+
+import net.sf.jmpi.main.MpSolver;
+import net.sf.jmpi.solver.gurobi.SolverGurobi;
+
+/**
+ * The {@code SolverProviders} determines whether a {@link SolverProvider}
+ * creates Gurobi solvers.
+ * <p>
+ * All {@link SolverGurobi} instances share one static Gurobi environment
+ * and a Gurobi environment must not be used by several threads at the same
+ * time. Therefore, classes that solve in several threads synchronize the
+ * creation and use of Gurobi solvers on the {@link #GUROBI_LOCK}. Gurobi uses
+ * several threads for a single model itself, such that only little is lost
+ * by this serialization.
+ * 
+ * @author lukasiewycz
+ * 
+ */
+public class SolverProviders {
+
+	/**
+	 * The lock for the creation and use of Gurobi solvers in several threads.
+	 */
+	public static final Object GUROBI_LOCK = new Object();
+
+	/**
+	 * Returns {@code true} if the provider creates {@link SolverGurobi}
+	 * instances. A {@link DefaultSolverProvider} is checked by its
+	 * configuration, any other provider by creating a solver in the calling
+	 * thread.
+	 * 
+	 * @param solverProvider
+	 *            the solver provider
+	 * @return true if the solvers use the shared Gurobi environment
+	 */
+	public static boolean isGurobi(SolverProvider solverProvider) {
+		if (solverProvider instanceof DefaultSolverProvider) {
+			return DefaultSolverProvider.GUROBI.equals(((DefaultSolverProvider) solverProvider).getSolver());
+		}
+		synchronized (GUROBI_LOCK) {
+			MpSolver solver = solverProvider.get();
+			if (solver instanceof SolverGurobi) {
+				((SolverGurobi) solver).getGRBModel().dispose();
+				return true;
+			}
+			return false;
+		}
+	}
+
+}
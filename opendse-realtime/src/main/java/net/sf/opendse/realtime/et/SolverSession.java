@@ -0,0 +1,108 @@
+/*******************************************************************************
+ * Copyright (c) 2015 OpenDSE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *******************************************************************************/
+package net.sf.opendse.realtime.et;
+
+import net.sf.jmpi.main.MpConstraint;
+import net.sf.jmpi.main.MpDirection;
+import net.sf.jmpi.main.MpResult;
+import net.sf.jmpi.main.MpSolver;
+import net.sf.jmpi.main.expression.MpExpr;
+
+/**
+ * The {@code SolverSession} keeps a problem alive between solves. The problem
+ * can be modified by changing bounds, coefficients, the objective, or by
+ * adding constraints such that the next solve can reuse the previous basis
+ * or incumbent. Sessions are opened with {@link SolverSessions#open}.
+ * 
+ * @author lukasiewycz
+ * 
+ */
+public interface SolverSession {
+
+	/**
+	 * Adds a constraint.
+	 * 
+	 * @param constraint
+	 *            the constraint
+	 */
+	public void add(MpConstraint constraint);
+
+	/**
+	 * Sets the bounds of a variable.
+	 * 
+	 * @param var
+	 *            the variable
+	 * @param lower
+	 *            the lower bound
+	 * @param upper
+	 *            the upper bound
+	 */
+	public void setBounds(Object var, Number lower, Number upper);
+
+	/**
+	 * Fixes a variable to a value.
+	 * 
+	 * @param var
+	 *            the variable
+	 * @param value
+	 *            the value
+	 */
+	public void fix(Object var, Number value);
+
+	/**
+	 * Sets the coefficient of a variable in a linear constraint, where all
+	 * variables of the constraint are on the left hand side.
+	 * 
+	 * @param constraint
+	 *            the constraint
+	 * @param var
+	 *            the variable
+	 * @param coefficient
+	 *            the coefficient
+	 */
+	public void setCoefficient(MpConstraint constraint, Object var, Number coefficient);
+
+	/**
+	 * Sets the objective.
+	 * 
+	 * @param objective
+	 *            the objective
+	 * @param direction
+	 *            the direction
+	 */
+	public void setObjective(MpExpr objective, MpDirection direction);
+
+	/**
+	 * Solves the current problem.
+	 * 
+	 * @return the result or {@code null} if no solution was found
+	 */
+	public MpResult solve();
+
+	/**
+	 * Returns the solver of the last solve.
+	 * 
+	 * @return the solver
+	 */
+	public MpSolver getSolver();
+
+}
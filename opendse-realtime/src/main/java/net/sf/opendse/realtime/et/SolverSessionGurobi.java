@@ -0,0 +1,98 @@
+/*******************************************************************************
+ * Copyright (c) 2015 OpenDSE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *******************************************************************************/
+package net.sf.opendse.realtime.et;
+
+import gurobi.GRB.DoubleAttr;
+import gurobi.GRBConstr;
+import gurobi.GRBException;
+import gurobi.GRBVar;
+
+import java.util.Map.Entry;
+
+import net.sf.jmpi.main.MpConstraint;
+import net.sf.jmpi.main.MpDirection;
+import net.sf.jmpi.main.MpSolver;
+import net.sf.jmpi.main.expression.MpExpr;
+import net.sf.jmpi.solver.gurobi.SolverGurobi;
+
+/**
+ * The {@code SolverSessionGurobi} is a {@link SolverGurobi} that modifies its
+ * model in place such that Gurobi warm-starts the next solve from the
+ * previous basis and incumbent.
+ * 
+ * @author lukasiewycz
+ * 
+ */
+public class SolverSessionGurobi extends SolverGurobi implements SolverSession {
+
+	@Override
+	public void add(MpConstraint constraint) {
+		registerConstraint(constraint, addConstraint(constraint));
+	}
+
+	@Override
+	public void setBounds(Object var, Number lower, Number upper) {
+		GRBVar v = getVar(var);
+		try {
+			v.set(DoubleAttr.LB, lower.doubleValue());
+			v.set(DoubleAttr.UB, upper.doubleValue());
+		} catch (GRBException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	@Override
+	public void fix(Object var, Number value) {
+		setBounds(var, value, value);
+	}
+
+	@Override
+	public void setCoefficient(MpConstraint constraint, Object var, Number coefficient) {
+		for (Entry<Object, MpConstraint> entry : constraints.entrySet()) {
+			if (entry.getValue() == constraint) {
+				if (!(entry.getKey() instanceof GRBConstr)) {
+					throw new IllegalArgumentException("Constraint " + constraint + " is not linear.");
+				}
+				try {
+					getGRBModel().chgCoeff((GRBConstr) entry.getKey(), getVar(var), coefficient.doubleValue());
+				} catch (GRBException e) {
+					throw new RuntimeException(e);
+				}
+				return;
+			}
+		}
+		throw new IllegalArgumentException("Constraint " + constraint + " is undefined.");
+	}
+
+	@Override
+	public void setObjective(MpExpr objective, MpDirection direction) {
+		this.objectiveFunction = objective;
+		this.optType = direction;
+		super.setObjective(objective, direction);
+	}
+
+	@Override
+	public MpSolver getSolver() {
+		return this;
+	}
+
+}
@@ -0,0 +1,56 @@
+/*******************************************************************************
+ * Copyright (c) 2015 OpenDSE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *******************************************************************************/
+package net.sf.opendse.realtime.et;
+
+import net.sf.jmpi.main.MpProblem;
+import net.sf.jmpi.main.MpSolver;
+
+/**
+ * The {@code SolverSessions} opens {@link SolverSession}s.
+ * 
+ * @author lukasiewycz
+ * 
+ */
+public class SolverSessions {
+
+	/**
+	 * Opens a session for the problem. If the solver of the provider is a
+	 * {@link SolverSession} itself, the model is modified in place. Otherwise,
+	 * a {@link RebuildSolverSession} is returned that builds a new solver
+	 * after each modification.
+	 * 
+	 * @param solverProvider
+	 *            the solver provider
+	 * @param problem
+	 *            the problem
+	 * @return the session
+	 */
+	public static SolverSession open(SolverProvider solverProvider, MpProblem problem) {
+		MpSolver solver = solverProvider.get();
+		if (solver instanceof SolverSession) {
+			solver.add(problem);
+			return (SolverSession) solver;
+		}
+		return new RebuildSolverSession(solverProvider, problem, solver);
+	}
+
+}
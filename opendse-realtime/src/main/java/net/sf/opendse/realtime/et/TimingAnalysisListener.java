@@ -0,0 +1,135 @@
+/*******************************************************************************
+ * Copyright (c) 2015 OpenDSE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *******************************************************************************/
+package net.sf.opendse.realtime.et;
+
+import java.util.Set;
+
+import net.sf.opendse.realtime.et.graph.TimingElement;
+
+/**
+ * The {@code TimingAnalysisListener} is notified about the progress of the
+ * {@link PriorityScheduler} and the conflict refinements. Use the
+ * {@link TimingAnalysisMetrics} to collect the notifications.
+ * 
+ * @author lukasiewycz
+ * 
+ */
+public interface TimingAnalysisListener {
+
+	/**
+	 * The phases of a timing analysis.
+	 */
+	public enum Phase {
+		/**
+		 * Building the timing graph from the implementation, including the
+		 * annotation of the timing properties.
+		 */
+		GRAPH_BUILD,
+		/**
+		 * Applying the modifiers that filter the timing graph.
+		 */
+		MODIFIER_FILTERING,
+		/**
+		 * Assigning the priorities with the
+		 * {@link net.sf.opendse.realtime.et.rta.OptimalPriorityAssignment}.
+		 */
+		PRIORITY_ASSIGNMENT,
+		/**
+		 * Encoding the timing graph as problem.
+		 */
+		ENCODING,
+		/**
+		 * Solving the problem, including the lazy cycle elimination.
+		 */
+		SOLVE,
+		/**
+		 * Interpreting the result and annotating the implementation.
+		 */
+		INTERPRETATION,
+		/**
+		 * Analyzing the timing with a
+		 * {@link net.sf.opendse.realtime.et.rta.ResponseTimeAnalysis}.
+		 */
+		ANALYSIS,
+		/**
+		 * Determining an IIS with a conflict refinement.
+		 */
+		CONFLICT_REFINEMENT;
+	}
+
+	/**
+	 * Invoked if a phase is completed.
+	 * 
+	 * @param phase
+	 *            the phase
+	 * @param nanos
+	 *            the duration in nanoseconds
+	 */
+	public void phaseCompleted(Phase phase, long nanos);
+
+	/**
+	 * Invoked if a timing graph is encoded and each time the lazy cycle
+	 * elimination adds constraints to the problem.
+	 * 
+	 * @param variables
+	 *            the number of variables
+	 * @param constraints
+	 *            the number of constraints
+	 * @param priorityEdges
+	 *            the number of priority dependencies of the timing graph
+	 */
+	public void problemEncoded(int variables, int constraints, int priorityEdges);
+
+	/**
+	 * Invoked each time the solver is finished, i.e., once per solve of the
+	 * lazy cycle elimination. A successful
+	 * {@link net.sf.opendse.realtime.et.rta.OptimalPriorityAssignment} is
+	 * reported as feasible without a MIP gap.
+	 * 
+	 * @param feasible
+	 *            true if a solution was found
+	 * @param mipGap
+	 *            the MIP gap or {@code -1} if it is not available
+	 */
+	public void problemSolved(boolean feasible, double mipGap);
+
+	/**
+	 * Invoked for each feasibility check of a conflict refinement.
+	 * 
+	 * @param relaxed
+	 *            the candidates that are relaxed in this check
+	 * @param feasible
+	 *            true if the relaxed problem is feasible
+	 */
+	public void refinementStep(Set<TimingElement> relaxed, boolean feasible);
+
+	/**
+	 * Invoked if an IIS is determined.
+	 * 
+	 * @param iis
+	 *            the timing elements of the IIS
+	 * @param functions
+	 *            the ids of the functions of the IIS
+	 */
+	public void conflictDetermined(Set<TimingElement> iis, Set<String> functions);
+
+}
@@ -0,0 +1,84 @@
+/*******************************************************************************
+ * Copyright (c) 2015 OpenDSE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *******************************************************************************/
+package net.sf.opendse.realtime.et;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import net.sf.opendse.realtime.et.graph.TimingElement;
+
+/**
+ * The {@code TimingAnalysisListeners} forwards each notification to all
+ * registered {@link TimingAnalysisListener}s.
+ * 
+ * @author lukasiewycz
+ * 
+ */
+public class TimingAnalysisListeners implements TimingAnalysisListener {
+
+	protected final List<TimingAnalysisListener> listeners = new CopyOnWriteArrayList<TimingAnalysisListener>();
+
+	public void add(TimingAnalysisListener listener) {
+		listeners.add(listener);
+	}
+
+	public void remove(TimingAnalysisListener listener) {
+		listeners.remove(listener);
+	}
+
+	@Override
+	public void phaseCompleted(Phase phase, long nanos) {
+		for (TimingAnalysisListener listener : listeners) {
+			listener.phaseCompleted(phase, nanos);
+		}
+	}
+
+	@Override
+	public void problemEncoded(int variables, int constraints, int priorityEdges) {
+		for (TimingAnalysisListener listener : listeners) {
+			listener.problemEncoded(variables, constraints, priorityEdges);
+		}
+	}
+
+	@Override
+	public void problemSolved(boolean feasible, double mipGap) {
+		for (TimingAnalysisListener listener : listeners) {
+			listener.problemSolved(feasible, mipGap);
+		}
+	}
+
+	@Override
+	public void refinementStep(Set<TimingElement> relaxed, boolean feasible) {
+		for (TimingAnalysisListener listener : listeners) {
+			listener.refinementStep(relaxed, feasible);
+		}
+	}
+
+	@Override
+	public void conflictDetermined(Set<TimingElement> iis, Set<String> functions) {
+		for (TimingAnalysisListener listener : listeners) {
+			listener.conflictDetermined(iis, functions);
+		}
+	}
+
+}
@@ -0,0 +1,178 @@
+/*******************************************************************************
+ * Copyright (c) 2015 OpenDSE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *******************************************************************************/
+package net.sf.opendse.realtime.et;
+
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import net.sf.opendse.realtime.et.graph.TimingElement;
+
+/**
+ * The {@code TimingAnalysisMetrics} collects the notifications of a
+ * {@link PriorityScheduler}. The durations of the phases and the counters are
+ * accumulated such that one instance can be shared by several schedulers,
+ * for instance by the {@link BatchPriorityScheduler}. The model sizes and the
+ * solver status are those of the last notification.
+ * 
+ * @author lukasiewycz
+ * 
+ */
+public class TimingAnalysisMetrics implements TimingAnalysisListener {
+
+	protected final Map<Phase, Long> nanos = new EnumMap<Phase, Long>(Phase.class);
+	protected int variables = 0;
+	protected int constraints = 0;
+	protected int priorityEdges = 0;
+	protected int solves = 0;
+	protected Boolean feasible = null;
+	protected double mipGap = -1.0;
+	protected int refinementSteps = 0;
+	protected Set<TimingElement> iis = null;
+	protected Set<String> iisFunctions = null;
+
+	@Override
+	public synchronized void phaseCompleted(Phase phase, long nanos) {
+		this.nanos.put(phase, getNanos(phase) + nanos);
+	}
+
+	@Override
+	public synchronized void problemEncoded(int variables, int constraints, int priorityEdges) {
+		this.variables = variables;
+		this.constraints = constraints;
+		this.priorityEdges = priorityEdges;
+	}
+
+	@Override
+	public synchronized void problemSolved(boolean feasible, double mipGap) {
+		this.solves++;
+		this.feasible = feasible;
+		this.mipGap = mipGap;
+	}
+
+	@Override
+	public synchronized void refinementStep(Set<TimingElement> relaxed, boolean feasible) {
+		refinementSteps++;
+	}
+
+	@Override
+	public synchronized void conflictDetermined(Set<TimingElement> iis, Set<String> functions) {
+		this.iis = new HashSet<TimingElement>(iis);
+		this.iisFunctions = new HashSet<String>(functions);
+	}
+
+	/**
+	 * Returns the accumulated duration of a phase.
+	 * 
+	 * @param phase
+	 *            the phase
+	 * @return the duration in nanoseconds
+	 */
+	public synchronized long getNanos(Phase phase) {
+		Long value = nanos.get(phase);
+		return value == null ? 0 : value;
+	}
+
+	public synchronized int getVariables() {
+		return variables;
+	}
+
+	public synchronized int getConstraints() {
+		return constraints;
+	}
+
+	public synchronized int getPriorityEdges() {
+		return priorityEdges;
+	}
+
+	public synchronized int getSolves() {
+		return solves;
+	}
+
+	/**
+	 * Returns the status of the last solver call or successful optimal
+	 * priority assignment.
+	 * 
+	 * @return true if a solution was found, false if not, and {@code null} if
+	 *         no solution was searched
+	 */
+	public synchronized Boolean isFeasible() {
+		return feasible;
+	}
+
+	public synchronized double getMIPGap() {
+		return mipGap;
+	}
+
+	/**
+	 * Returns the number of feasibility checks of the conflict refinements.
+	 * 
+	 * @return the number of checks
+	 */
+	public synchronized int getRefinementSteps() {
+		return refinementSteps;
+	}
+
+	/**
+	 * Returns the last IIS.
+	 * 
+	 * @return the timing elements of the IIS or {@code null} if none was
+	 *         determined
+	 */
+	public synchronized Set<TimingElement> getIIS() {
+		return iis;
+	}
+
+	/**
+	 * Returns the functions of the last IIS.
+	 * 
+	 * @return the ids of the functions or {@code null} if no IIS was
+	 *         determined
+	 */
+	public synchronized Set<String> getIISFunctions() {
+		return iisFunctions;
+	}
+
+	@Override
+	public synchronized String toString() {
+		StringBuilder sb = new StringBuilder();
+		for (Phase phase : Phase.values()) {
+			if (nanos.containsKey(phase)) {
+				sb.append(phase).append("=").append(nanos.get(phase) / 1000000).append("ms ");
+			}
+		}
+		sb.append("variables=").append(variables);
+		sb.append(" constraints=").append(constraints);
+		sb.append(" priorityEdges=").append(priorityEdges);
+		sb.append(" solves=").append(solves);
+		sb.append(" feasible=").append(feasible);
+		sb.append(" MIPGap=").append(mipGap);
+		sb.append(" refinementSteps=").append(refinementSteps);
+		if (iis != null) {
+			sb.append(" IIS(size=").append(iis.size()).append(")=").append(iis);
+			sb.append(" IISfunctions=").append(iisFunctions);
+		}
+		return sb.toString();
+	}
+
+}
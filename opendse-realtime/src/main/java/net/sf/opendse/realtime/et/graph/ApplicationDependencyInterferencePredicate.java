@@ -37,7 +37,7 @@ public class ApplicationDependencyInterferencePredicate extends ApplicationPrior
 			TimingElement source = timingGraph.getSource(timingDependency);
 			TimingElement target = timingGraph.getDest(timingDependency);
 
-			return !predecessors.get(target).contains(source);
+			return !order.isPredecessor(source, target);
 		}
 
 	}
@@ -21,16 +21,45 @@
  *******************************************************************************/
 package net.sf.opendse.realtime.et.graph;
 
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.Map;
 import java.util.Set;
 
+import net.sf.opendse.model.Resource;
+import net.sf.opendse.model.Task;
 import edu.uci.ics.jung.graph.DirectedSparseMultigraph;
 
 public class TimingGraph extends DirectedSparseMultigraph<TimingElement, TimingDependency> implements Iterable<TimingElement> {
 
 	private static final long serialVersionUID = 1L;
 
+	/**
+	 * The index of the (task, resource) pairs to the contained timing
+	 * elements, maintained by {@link #addVertex(TimingElement)} and
+	 * {@link #removeVertex(TimingElement)}.
+	 */
+	protected final Map<TimingElement, TimingElement> index = new HashMap<TimingElement, TimingElement>();
+
+	@Override
+	public boolean addVertex(TimingElement vertex) {
+		boolean added = super.addVertex(vertex);
+		if (added) {
+			index.put(vertex, vertex);
+		}
+		return added;
+	}
+
+	@Override
+	public boolean removeVertex(TimingElement vertex) {
+		boolean removed = super.removeVertex(vertex);
+		if (removed) {
+			index.remove(vertex);
+		}
+		return removed;
+	}
+
 	public Set<TimingDependencyPriority> getPriorityEdges() {
 		Set<TimingDependencyPriority> edges = new HashSet<TimingDependencyPriority>();
 		for (TimingDependency td : this.getEdges()) {
@@ -41,13 +70,29 @@ public class TimingGraph extends DirectedSparseMultigraph<TimingElement, TimingD
 		return edges;
 	}
 
+	/**
+	 * Returns the contained timing element that equals the given one, i.e.,
+	 * has the same task and resource.
+	 * 
+	 * @param timingElement
+	 *            the timing element
+	 * @return the contained timing element or {@code null}
+	 */
 	public TimingElement findNode(TimingElement timingElement) {
-		for (TimingElement te : this.getVertices()) {
-			if (te.equals(timingElement)) {
-				return te;
-			}
-		}
-		return null;
+		return index.get(timingElement);
+	}
+
+	/**
+	 * Returns the timing element of the task on the resource.
+	 * 
+	 * @param task
+	 *            the task
+	 * @param resource
+	 *            the resource
+	 * @return the timing element or {@code null}
+	 */
+	public TimingElement getTimingElement(Task task, Resource resource) {
+		return index.get(new TimingElement(task, resource));
 	}
 
 	@Override
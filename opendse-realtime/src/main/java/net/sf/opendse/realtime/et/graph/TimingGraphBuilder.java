@@ -25,10 +25,9 @@ import static net.sf.opendse.realtime.et.PriorityScheduler.EXECUTION_TIME;
 import static net.sf.opendse.realtime.et.PriorityScheduler.PERIOD;
 
 import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.Collections;
-import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import net.sf.opendse.model.Architecture;
 import net.sf.opendse.model.Dependency;
@@ -40,9 +39,8 @@ import net.sf.opendse.model.Specification;
 import net.sf.opendse.model.Task;
 import net.sf.opendse.model.ValidImplementationPredicate;
 import net.sf.opendse.realtime.et.PriorityScheduler;
-import net.sf.opendse.visualization.algorithm.BellmanFord;
-
-import org.apache.commons.collections15.Transformer;
+import net.sf.opendse.realtime.et.TimingAnalysisListener;
+import net.sf.opendse.realtime.et.TimingAnalysisListener.Phase;
 
 import edu.uci.ics.jung.graph.util.EdgeType;
 
@@ -50,6 +48,7 @@ public class TimingGraphBuilder {
 
 	protected List<TimingGraphModifier> modifiers = new ArrayList<TimingGraphModifier>();
 	protected Specification impl = null;
+	protected TimingAnalysisListener listener = null;
 
 	public TimingGraphBuilder(TimingGraphModifier... modifiers) {
 		addModifiers(modifiers);
@@ -61,6 +60,17 @@ public class TimingGraphBuilder {
 		}
 	}
 
+	/**
+	 * Sets the listener that is notified about the durations of the
+	 * {@link Phase#GRAPH_BUILD} and {@link Phase#MODIFIER_FILTERING}.
+	 * 
+	 * @param listener
+	 *            the listener or {@code null}
+	 */
+	public void setListener(TimingAnalysisListener listener) {
+		this.listener = listener;
+	}
+
 	protected TimingGraph timingGraph = new TimingGraph();
 
 	public TimingGraph getTimingGraph() {
@@ -70,12 +80,15 @@ public class TimingGraphBuilder {
 	public TimingGraph build(Specification implementation) {
 		impl = implementation;
 		
+		long start = System.nanoTime();
 		fillTriggering(implementation, timingGraph);
 		fillPriorities(implementation, timingGraph);
 
+		long filter = System.nanoTime();
 		for (TimingGraphModifier modifier : modifiers) {
 			modifier.apply(implementation, timingGraph);
 		}
+		long annotate = System.nanoTime();
 
 		for (TimingElement te : timingGraph.getVertices()) {
 
@@ -103,45 +116,32 @@ public class TimingGraphBuilder {
 		}
 
 		annotateBackwardsDeadlines(timingGraph);
+
+		if (listener != null) {
+			long end = System.nanoTime();
+			listener.phaseCompleted(Phase.GRAPH_BUILD, (filter - start) + (end - annotate));
+			listener.phaseCompleted(Phase.MODIFIER_FILTERING, annotate - filter);
+		}
 		
 		return timingGraph;
 	}
 
 	public static void annotateBackwardsDeadlines(TimingGraph timingGraph) {
-				
-		
-		TimingGraph tg = new TimingGraph();
-		for (TimingElement te : timingGraph) {
-			tg.addVertex(te);
-			te.setAttribute("deadline*", null);
-		}
-		for (TimingDependency td : timingGraph.getEdges()) {
-			if (td instanceof TimingDependencyTrigger) {
-				tg.addEdge(td, timingGraph.getEndpoints(td));
-			}
-		}
-		
-		BellmanFord<TimingElement, TimingDependency> bellmanFord = new BellmanFord<TimingElement, TimingDependency>();
-		final Transformer<TimingElement, Double> transformer = bellmanFord.transform(tg);
-		List<TimingElement> order = new ArrayList<TimingElement>(tg.getVertices());
-		Collections.sort(order, new Comparator<TimingElement>() {
-			@Override
-			public int compare(TimingElement o1, TimingElement o2) {
-				return transformer.transform(o1).compareTo(transformer.transform(o2));
-			}
-		});
-		Collections.reverse(order);
+		TriggerOrder order = new TriggerOrder(timingGraph);
 
-		for (TimingElement te : order) {
+		for (TimingElement te : order.getReverseOrder()) {
 			Double deadline = te.getAttribute("deadline");
 			if (deadline == null) {
 				deadline = Double.MAX_VALUE;
 			}
 
-			for (TimingElement te2 : tg.getSuccessors(te)) {
-				Double dStar = te2.getAttribute("deadline*");
-				Double e = te2.getAttribute("e");
-				deadline = Math.min(deadline, dStar - e);
+			for (TimingDependency td : timingGraph.getOutEdges(te)) {
+				if (td instanceof TimingDependencyTrigger) {
+					TimingElement te2 = timingGraph.getDest(td);
+					Double dStar = te2.getAttribute("deadline*");
+					Double e = te2.getAttribute("e");
+					deadline = Math.min(deadline, dStar - e);
+				}
 			}
 			te.setAttribute("deadline*", adjust(deadline));
 		}
@@ -201,33 +201,29 @@ public class TimingGraphBuilder {
 
 	protected void fillPriorities(Specification implementation, TimingGraph timingGraph) {
 
+		Map<Resource, List<Task>> resourceToTasks = new HashMap<Resource, List<Task>>();
 		for (Resource resource : implementation.getArchitecture()) {
-			List<Task> tasks = new ArrayList<Task>(implementation.getMappings().getSources(resource));
-			//System.out.println("set "+tasks);
-			
-			for (Task communication : Models.filterCommunications(implementation.getApplication())) {
-				Architecture<Resource, Link> routing = implementation.getRoutings().get(communication);
-
-				if (routing.containsVertex(resource)) {
-					//System.out.println("contains vertex "+resource+" "+communication+" "+routing.getVertices());
+			resourceToTasks.put(resource, new ArrayList<Task>(implementation.getMappings().getSources(resource)));
+		}
+		for (Task communication : Models.filterCommunications(implementation.getApplication())) {
+			for (Resource resource : implementation.getRoutings().get(communication)) {
+				List<Task> tasks = resourceToTasks.get(resource);
+				if (tasks != null) {
 					tasks.add(communication);
 				}
 			}
-			
-			//System.out.println("set "+tasks);
-
-			for (List<Task> taskSet : Arrays.asList(tasks)) {
-				//System.out.println("list "+taskSet);
-				for (int i = 0; i < taskSet.size(); i++) {
-					for (int j = i + 1; j < taskSet.size(); j++) {
-						TimingDependencyPriority d1 = new TimingDependencyPriority();
-						TimingDependencyPriority d2 = new TimingDependencyPriority();
-						timingGraph.addEdge(d1, getTimingElement(taskSet.get(i), resource, timingGraph),
-								getTimingElement(taskSet.get(j), resource, timingGraph));
-						timingGraph.addEdge(d2, getTimingElement(taskSet.get(j), resource, timingGraph),
-								getTimingElement(taskSet.get(i), resource, timingGraph));
-
-					}
+		}
+
+		for (Resource resource : implementation.getArchitecture()) {
+			List<TimingElement> tes = new ArrayList<TimingElement>();
+			for (Task task : resourceToTasks.get(resource)) {
+				tes.add(getTimingElement(task, resource, timingGraph));
+			}
+
+			for (int i = 0; i < tes.size(); i++) {
+				for (int j = i + 1; j < tes.size(); j++) {
+					timingGraph.addEdge(new TimingDependencyPriority(), tes.get(i), tes.get(j));
+					timingGraph.addEdge(new TimingDependencyPriority(), tes.get(j), tes.get(i));
 				}
 			}
 
@@ -235,6 +231,11 @@ public class TimingGraphBuilder {
 	}
 
 	protected TimingElement getTimingElement(Task task, Resource resource, TimingGraph tg) {
+		TimingElement te = tg.getTimingElement(task, resource);
+		if (te != null) {
+			return te;
+		}
+
 		if(Models.isProcess(task)){
 			if(!impl.getMappings().getTargets(task).contains(resource)){
 				throw new RuntimeException(task+" "+resource+" :this timing element does not exist in the implementation");
@@ -244,13 +245,6 @@ public class TimingGraphBuilder {
 				throw new RuntimeException(task+" "+resource+" :this timing element does not exist in the implementation");
 			}
 		}
-		
-		
-		for (TimingElement te : tg.getVertices()) {
-			if (te.getTask().equals(task) && te.getResource().equals(resource)) {
-				return te;
-			}
-		}
 		return null;
 	}
 
@@ -0,0 +1,157 @@
+/*******************************************************************************
+ * Copyright (c) 2015 OpenDSE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *******************************************************************************/
+package net.sf.opendse.realtime.et.graph;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The {@code TriggerOrder} is a topological order of the
+ * {@link TimingElement}s of a {@link TimingGraph} with respect to the
+ * {@link TimingDependencyTrigger}s, determined by Kahn's algorithm in
+ * O(V+E). The transitive predecessors of the elements are stored as bit sets
+ * over the positions in the order and are determined on demand.
+ * 
+ * @author lukasiewycz
+ * 
+ */
+public class TriggerOrder {
+
+	protected final TimingGraph tg;
+	protected final List<TimingElement> order;
+	protected final Map<TimingElement, Integer> positions;
+	protected BitSet[] predecessors = null;
+
+	/**
+	 * Constructs the {@code TriggerOrder} of the timing graph.
+	 * 
+	 * @param tg
+	 *            the timing graph
+	 * @throws IllegalArgumentException
+	 *             if the triggering dependencies are cyclic
+	 */
+	public TriggerOrder(TimingGraph tg) {
+		this.tg = tg;
+		int n = tg.getVertexCount();
+		this.order = new ArrayList<TimingElement>(n);
+		this.positions = new HashMap<TimingElement, Integer>();
+
+		Map<TimingElement, Integer> inDegree = new HashMap<TimingElement, Integer>();
+		for (TimingElement te : tg) {
+			int degree = 0;
+			for (TimingDependency td : tg.getInEdges(te)) {
+				if (td instanceof TimingDependencyTrigger) {
+					degree++;
+				}
+			}
+			inDegree.put(te, degree);
+			if (degree == 0) {
+				add(te);
+			}
+		}
+
+		for (int i = 0; i < order.size(); i++) {
+			for (TimingDependency td : tg.getOutEdges(order.get(i))) {
+				if (td instanceof TimingDependencyTrigger) {
+					TimingElement succ = tg.getDest(td);
+					int degree = inDegree.get(succ) - 1;
+					inDegree.put(succ, degree);
+					if (degree == 0) {
+						add(succ);
+					}
+				}
+			}
+		}
+
+		if (order.size() != n) {
+			throw new IllegalArgumentException("The triggering dependencies of the timing graph are cyclic.");
+		}
+	}
+
+	/**
+	 * Returns the timing elements in topological order, i.e., each element
+	 * is preceded by its triggering predecessors.
+	 * 
+	 * @return the unmodifiable topological order
+	 */
+	public List<TimingElement> getOrder() {
+		return Collections.unmodifiableList(order);
+	}
+
+	/**
+	 * Returns the timing elements in reverse topological order, i.e., each
+	 * element is preceded by its triggered successors.
+	 * 
+	 * @return the reverse topological order
+	 */
+	public List<TimingElement> getReverseOrder() {
+		List<TimingElement> reverse = new ArrayList<TimingElement>(order);
+		Collections.reverse(reverse);
+		return reverse;
+	}
+
+	/**
+	 * Returns {@code true} if the first timing element is a transitive
+	 * predecessor of the second timing element with respect to the triggering
+	 * dependencies.
+	 * 
+	 * @param predecessor
+	 *            the potential predecessor
+	 * @param te
+	 *            the timing element
+	 * @return {@code true} if the first element triggers the second one
+	 *         directly or indirectly
+	 */
+	public boolean isPredecessor(TimingElement predecessor, TimingElement te) {
+		int i = positions.get(predecessor);
+		int j = positions.get(te);
+		return i < j && getPredecessors()[j].get(i);
+	}
+
+	protected synchronized BitSet[] getPredecessors() {
+		if (predecessors == null) {
+			BitSet[] sets = new BitSet[order.size()];
+			for (int j = 0; j < order.size(); j++) {
+				BitSet set = new BitSet(j);
+				for (TimingDependency td : tg.getInEdges(order.get(j))) {
+					if (td instanceof TimingDependencyTrigger) {
+						int i = positions.get(tg.getSource(td));
+						set.set(i);
+						set.or(sets[i]);
+					}
+				}
+				sets[j] = set;
+			}
+			predecessors = sets;
+		}
+		return predecessors;
+	}
+
+	protected void add(TimingElement te) {
+		positions.put(te, order.size());
+		order.add(te);
+	}
+}
@@ -0,0 +1,575 @@
+/*******************************************************************************
+ * Copyright (c) 2015 OpenDSE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *******************************************************************************/
+package net.sf.opendse.realtime.et.milp;
+
+import java.util.Arrays;
+
+/**
+ * The {@code LinearProgram} is a dense bounded-variable simplex for the linear
+ * program
+ * 
+ * <pre>
+ * min c x  s.t.  A x (&lt;=, =, &gt;=) b,  l &lt;= x &lt;= u
+ * </pre>
+ * 
+ * where the bounds may be infinite. The first solve uses the primal simplex
+ * with two phases. After the bounds or costs of variables are changed, the
+ * problem is solved again with {@link #resolve()} starting from the previous
+ * basis, which is the common case in a branch and bound.
+ * 
+ * @author lukasiewycz
+ * 
+ */
+public class LinearProgram {
+
+	public enum Status {
+		OPTIMAL, INFEASIBLE, UNBOUNDED;
+	}
+
+	protected static final double EPSILON = 1e-9;
+	protected static final double FEASIBILITY = 1e-7;
+
+	protected final int m;
+	protected final int n;
+	protected final int artificials;
+	protected final int columns;
+
+	protected final char[] sense;
+	protected final double[] b;
+	protected final double[][] a;
+
+	protected final double[][] tableau;
+	protected final double[] lower;
+	protected final double[] upper;
+	protected final double[] cost;
+	protected final double[] value;
+	protected final double[] reduced;
+	protected final int[] basis;
+	protected final boolean[] basic;
+	protected final boolean[] atUpper;
+
+	protected Status status = null;
+
+	/**
+	 * Constructs a {@code LinearProgram}.
+	 * 
+	 * @param a
+	 *            the coefficients of the rows
+	 * @param sense
+	 *            the sense of each row, {@code '<'}, {@code '='}, or
+	 *            {@code '>'}
+	 * @param b
+	 *            the right hand sides of the rows
+	 * @param c
+	 *            the costs that are minimized
+	 * @param lower
+	 *            the lower bounds of the variables
+	 * @param upper
+	 *            the upper bounds of the variables
+	 */
+	public LinearProgram(double[][] a, char[] sense, double[] b, double[] c, double[] lower, double[] upper) {
+		this.m = b.length;
+		this.n = c.length;
+		this.a = a;
+		this.sense = sense;
+		this.b = b;
+
+		int slacks = 0;
+		for (char s : sense) {
+			if (s != '=') {
+				slacks++;
+			}
+		}
+		this.artificials = n + slacks;
+		this.columns = artificials + m;
+
+		this.tableau = new double[m][columns + 1];
+		this.lower = new double[columns];
+		this.upper = new double[columns];
+		this.cost = new double[columns];
+		this.value = new double[columns];
+		this.reduced = new double[columns];
+		this.basis = new int[m];
+		this.basic = new boolean[columns];
+		this.atUpper = new boolean[columns];
+
+		System.arraycopy(c, 0, cost, 0, n);
+		System.arraycopy(lower, 0, this.lower, 0, n);
+		System.arraycopy(upper, 0, this.upper, 0, n);
+		for (int j = n; j < columns; j++) {
+			this.upper[j] = Double.POSITIVE_INFINITY;
+		}
+	}
+
+	/**
+	 * Sets the bounds of a variable. The changed problem is solved with
+	 * {@link #resolve()}.
+	 * 
+	 * @param j
+	 *            the variable
+	 * @param lower
+	 *            the lower bound
+	 * @param upper
+	 *            the upper bound
+	 */
+	public void setBounds(int j, double lower, double upper) {
+		this.lower[j] = lower;
+		this.upper[j] = upper;
+	}
+
+	/**
+	 * Sets the cost of a variable. The changed problem is solved with
+	 * {@link #resolve()}.
+	 * 
+	 * @param j
+	 *            the variable
+	 * @param cost
+	 *            the cost
+	 */
+	public void setCost(int j, double cost) {
+		this.cost[j] = cost;
+	}
+
+	public double getLower(int j) {
+		return lower[j];
+	}
+
+	public double getUpper(int j) {
+		return upper[j];
+	}
+
+	/**
+	 * Solves the problem from scratch with the two-phase primal simplex.
+	 * 
+	 * @return the status
+	 */
+	public Status solve() {
+		int slack = n;
+		for (int i = 0; i < m; i++) {
+			double[] row = tableau[i];
+			Arrays.fill(row, 0.0);
+			System.arraycopy(a[i], 0, row, 0, n);
+			if (sense[i] == '<') {
+				row[slack++] = 1.0;
+			} else if (sense[i] == '>') {
+				row[slack++] = -1.0;
+			}
+			row[columns] = b[i];
+		}
+
+		for (int j = 0; j < artificials; j++) {
+			basic[j] = false;
+			setNonbasic(j);
+		}
+
+		for (int i = 0; i < m; i++) {
+			double[] row = tableau[i];
+			double residual = row[columns];
+			for (int j = 0; j < artificials; j++) {
+				residual -= row[j] * value[j];
+			}
+			if (residual < 0) {
+				for (int j = 0; j < artificials; j++) {
+					row[j] = -row[j];
+				}
+				row[columns] = -row[columns];
+			}
+			int art = artificials + i;
+			row[art] = 1.0;
+			lower[art] = 0.0;
+			upper[art] = Double.POSITIVE_INFINITY;
+			value[art] = Math.abs(residual);
+			basis[i] = art;
+			basic[art] = true;
+			atUpper[art] = false;
+		}
+
+		// phase 1: minimize the sum of the artificial variables
+		double[] phase = new double[columns];
+		for (int j = artificials; j < columns; j++) {
+			phase[j] = 1.0;
+		}
+		computeReducedCosts(phase);
+		status = primal();
+
+		double infeasibility = 0;
+		for (int j = artificials; j < columns; j++) {
+			infeasibility += value[j];
+		}
+		for (int j = artificials; j < columns; j++) {
+			lower[j] = 0.0;
+			upper[j] = 0.0;
+			if (!basic[j]) {
+				value[j] = 0.0;
+				atUpper[j] = false;
+			}
+		}
+		if (infeasibility > FEASIBILITY * Math.max(1, m)) {
+			status = Status.INFEASIBLE;
+			return status;
+		}
+
+		// phase 2
+		computeReducedCosts(cost);
+		status = primal();
+		return status;
+	}
+
+	/**
+	 * Solves the problem again after the bounds or costs of variables were
+	 * changed, starting from the basis of the previous solve. If the basis is
+	 * still dual feasible, which is the case if only bounds were changed, the
+	 * dual simplex is used. If the basis is still primal feasible, which is
+	 * the case if only costs were changed, the primal simplex is used.
+	 * Otherwise, the problem is solved from scratch.
+	 * 
+	 * @return the status
+	 */
+	public Status resolve() {
+		if (status == null) {
+			return solve();
+		}
+
+		computeReducedCosts(cost);
+		boolean dualFeasible = true;
+		for (int j = 0; j < columns; j++) {
+			if (!basic[j]) {
+				setNonbasic(j);
+				dualFeasible &= isFixed(j) || isDualFeasible(j);
+			}
+		}
+		computeBasicValues();
+
+		if (dualFeasible) {
+			status = dual();
+		} else if (isPrimalFeasible()) {
+			status = primal();
+		} else {
+			status = solve();
+		}
+		return status;
+	}
+
+	/**
+	 * Returns the values of the variables.
+	 * 
+	 * @return the values
+	 */
+	public double[] getValues() {
+		double[] values = new double[n];
+		System.arraycopy(value, 0, values, 0, n);
+		return values;
+	}
+
+	/**
+	 * Returns the value of the objective function.
+	 * 
+	 * @return the objective
+	 */
+	public double getObjective() {
+		double objective = 0;
+		for (int j = 0; j < n; j++) {
+			objective += cost[j] * value[j];
+		}
+		return objective;
+	}
+
+	public Status getStatus() {
+		return status;
+	}
+
+	protected Status primal() {
+		boolean bland = false;
+		int degenerate = 0;
+		int limit = iterationLimit();
+
+		for (int iteration = 0; iteration < limit; iteration++) {
+			int entering = -1;
+			int direction = 0;
+			double best = EPSILON;
+
+			for (int j = 0; j < columns; j++) {
+				if (basic[j] || isFixed(j)) {
+					continue;
+				}
+				double d = reduced[j];
+				int dir = 0;
+				if (d < -EPSILON && !atUpper[j]) {
+					dir = 1;
+				} else if (d > EPSILON && (atUpper[j] || lower[j] == Double.NEGATIVE_INFINITY)) {
+					dir = -1;
+				}
+				if (dir != 0 && Math.abs(d) > best) {
+					entering = j;
+					direction = dir;
+					best = Math.abs(d);
+					if (bland) {
+						break;
+					}
+				}
+			}
+
+			if (entering < 0) {
+				return Status.OPTIMAL;
+			}
+
+			double theta = upper[entering] - lower[entering];
+			int leaving = -1;
+			double pivot = 0;
+
+			for (int i = 0; i < m; i++) {
+				double alpha = tableau[i][entering];
+				if (Math.abs(alpha) < EPSILON) {
+					continue;
+				}
+				int k = basis[i];
+				double change = -direction * alpha;
+				double ratio;
+				if (change < 0) {
+					if (lower[k] == Double.NEGATIVE_INFINITY) {
+						continue;
+					}
+					ratio = (value[k] - lower[k]) / -change;
+				} else {
+					if (upper[k] == Double.POSITIVE_INFINITY) {
+						continue;
+					}
+					ratio = (upper[k] - value[k]) / change;
+				}
+				ratio = Math.max(ratio, 0);
+
+				if (ratio < theta - EPSILON
+						|| (ratio < theta + EPSILON && leaving >= 0 && (bland ? k < basis[leaving] : Math
+								.abs(alpha) > Math.abs(pivot)))) {
+					theta = Math.min(ratio, theta);
+					leaving = i;
+					pivot = alpha;
+				}
+			}
+
+			if (theta == Double.POSITIVE_INFINITY) {
+				return Status.UNBOUNDED;
+			}
+
+			if (theta < EPSILON) {
+				degenerate++;
+				if (degenerate > m) {
+					bland = true;
+				}
+			} else {
+				degenerate = 0;
+			}
+
+			double step = direction * theta;
+			for (int i = 0; i < m; i++) {
+				value[basis[i]] -= step * tableau[i][entering];
+			}
+			value[entering] += step;
+
+			if (leaving < 0) {
+				atUpper[entering] = direction > 0;
+				value[entering] = direction > 0 ? upper[entering] : lower[entering];
+			} else {
+				int k = basis[leaving];
+				boolean toUpper = -direction * pivot > 0;
+				atUpper[k] = toUpper;
+				value[k] = toUpper ? upper[k] : lower[k];
+				pivot(leaving, entering);
+			}
+		}
+		throw new IllegalStateException("The simplex exceeded the iteration limit of " + limit + ".");
+	}
+
+	protected Status dual() {
+		int limit = iterationLimit();
+
+		for (int iteration = 0; iteration < limit; iteration++) {
+			int leaving = -1;
+			double infeasibility = FEASIBILITY;
+			for (int i = 0; i < m; i++) {
+				int k = basis[i];
+				double violation = Math.max(lower[k] - value[k], value[k] - upper[k]);
+				if (violation > infeasibility) {
+					leaving = i;
+					infeasibility = violation;
+				}
+			}
+
+			if (leaving < 0) {
+				return Status.OPTIMAL;
+			}
+
+			int k = basis[leaving];
+			boolean toLower = value[k] < lower[k];
+			double target = toLower ? lower[k] : upper[k];
+
+			int entering = -1;
+			double ratio = Double.POSITIVE_INFINITY;
+			double pivot = 0;
+			for (int j = 0; j < columns; j++) {
+				if (basic[j] || isFixed(j)) {
+					continue;
+				}
+				double alpha = tableau[leaving][j];
+				if (Math.abs(alpha) < EPSILON) {
+					continue;
+				}
+				// increasing j changes the leaving variable by -alpha
+				boolean increase = toLower ? alpha < 0 : alpha > 0;
+				boolean eligible = increase ? !atUpper[j] : (atUpper[j] || lower[j] == Double.NEGATIVE_INFINITY);
+				if (!eligible) {
+					continue;
+				}
+				double r = Math.abs(reduced[j]) / Math.abs(alpha);
+				if (r < ratio - EPSILON || (r < ratio + EPSILON && Math.abs(alpha) > Math.abs(pivot))) {
+					ratio = Math.min(r, ratio);
+					entering = j;
+					pivot = alpha;
+				}
+			}
+
+			if (entering < 0) {
+				return Status.INFEASIBLE;
+			}
+
+			double step = (value[k] - target) / pivot;
+			for (int i = 0; i < m; i++) {
+				value[basis[i]] -= step * tableau[i][entering];
+			}
+			value[entering] += step;
+			value[k] = target;
+			atUpper[k] = !toLower;
+			pivot(leaving, entering);
+		}
+		throw new IllegalStateException("The dual simplex exceeded the iteration limit of " + limit + ".");
+	}
+
+	protected void pivot(int r, int j) {
+		double[] row = tableau[r];
+		double p = row[j];
+		for (int l = 0; l <= columns; l++) {
+			row[l] /= p;
+		}
+		row[j] = 1.0;
+
+		for (int i = 0; i < m; i++) {
+			if (i != r) {
+				double[] other = tableau[i];
+				double f = other[j];
+				if (f != 0) {
+					for (int l = 0; l <= columns; l++) {
+						other[l] -= f * row[l];
+					}
+					other[j] = 0.0;
+				}
+			}
+		}
+
+		double f = reduced[j];
+		if (f != 0) {
+			for (int l = 0; l < columns; l++) {
+				reduced[l] -= f * row[l];
+			}
+			reduced[j] = 0.0;
+		}
+
+		int k = basis[r];
+		basic[k] = false;
+		basic[j] = true;
+		basis[r] = j;
+	}
+
+	protected void computeReducedCosts(double[] c) {
+		System.arraycopy(c, 0, reduced, 0, columns);
+		for (int i = 0; i < m; i++) {
+			double cb = c[basis[i]];
+			if (cb != 0) {
+				double[] row = tableau[i];
+				for (int j = 0; j < columns; j++) {
+					reduced[j] -= cb * row[j];
+				}
+			}
+		}
+		for (int i = 0; i < m; i++) {
+			reduced[basis[i]] = 0.0;
+		}
+	}
+
+	protected void computeBasicValues() {
+		for (int i = 0; i < m; i++) {
+			double[] row = tableau[i];
+			double v = row[columns];
+			for (int j = 0; j < columns; j++) {
+				if (!basic[j] && value[j] != 0) {
+					v -= row[j] * value[j];
+				}
+			}
+			value[basis[i]] = v;
+		}
+	}
+
+	protected void setNonbasic(int j) {
+		if (atUpper[j] && upper[j] != Double.POSITIVE_INFINITY) {
+			value[j] = upper[j];
+		} else if (lower[j] != Double.NEGATIVE_INFINITY) {
+			atUpper[j] = false;
+			value[j] = lower[j];
+		} else if (upper[j] != Double.POSITIVE_INFINITY) {
+			atUpper[j] = true;
+			value[j] = upper[j];
+		} else {
+			atUpper[j] = false;
+			value[j] = 0.0;
+		}
+	}
+
+	protected boolean isDualFeasible(int j) {
+		double d = reduced[j];
+		boolean free = lower[j] == Double.NEGATIVE_INFINITY && upper[j] == Double.POSITIVE_INFINITY;
+		if (free) {
+			return Math.abs(d) <= EPSILON;
+		} else if (atUpper[j]) {
+			return d <= EPSILON;
+		} else {
+			return d >= -EPSILON;
+		}
+	}
+
+	protected boolean isPrimalFeasible() {
+		for (int i = 0; i < m; i++) {
+			int k = basis[i];
+			if (value[k] < lower[k] - FEASIBILITY || value[k] > upper[k] + FEASIBILITY) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	protected boolean isFixed(int j) {
+		return upper[j] - lower[j] < EPSILON;
+	}
+
+	protected int iterationLimit() {
+		return 50 * (m + columns) + 1000;
+	}
+
+}
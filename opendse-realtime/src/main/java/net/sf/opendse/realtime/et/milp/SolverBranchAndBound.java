@@ -0,0 +1,508 @@
+/*******************************************************************************
+ * Copyright (c) 2015 OpenDSE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *******************************************************************************/
+package net.sf.opendse.realtime.et.milp;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import net.sf.jmpi.main.MpConstraint;
+import net.sf.jmpi.main.MpDirection;
+import net.sf.jmpi.main.MpResult;
+import net.sf.jmpi.main.MpResultImpl;
+import net.sf.jmpi.main.MpSolver;
+import net.sf.jmpi.main.MpVariable;
+import net.sf.jmpi.main.expression.MpExpr;
+import net.sf.jmpi.main.expression.MpExprTerm;
+import net.sf.jmpi.solver.AbstractMpSolver;
+import net.sf.opendse.realtime.et.SolverSession;
+import net.sf.opendse.realtime.et.milp.LinearProgram.Status;
+
+/**
+ * The {@code SolverBranchAndBound} is a pure Java {@link net.sf.jmpi.main.MpSolver}
+ * for mixed integer linear programs. It is a depth-first branch and bound
+ * over the {@link LinearProgram} relaxation and requires no native library
+ * or license.
+ * <p>
+ * Products of variables are linearized exactly if at most one factor is not
+ * binary and this factor has finite bounds, which covers the interference
+ * terms of the {@link net.sf.opendse.realtime.et.qcqp.MyEncoder}. Other
+ * products are rejected with an {@link IllegalArgumentException}.
+ * <p>
+ * As a {@link SolverSession}, the relaxation is kept between solves. After
+ * bounds or the objective are changed, the root is solved again from the
+ * previous basis and the previous solution is used as the initial incumbent
+ * if it is still feasible. The bounds of a non-binary factor of a product
+ * must not be relaxed beyond the bounds at the time the product was added.
+ * 
+ * @author lukasiewycz
+ * 
+ */
+public class SolverBranchAndBound extends AbstractMpSolver<Integer, Integer> implements SolverSession {
+
+	protected static final double INFINITY = 1e30;
+	protected static final double INTEGRALITY = 1e-6;
+
+	protected final List<Double> lower = new ArrayList<Double>();
+	protected final List<Double> upper = new ArrayList<Double>();
+	protected final List<Boolean> integer = new ArrayList<Boolean>();
+
+	protected final List<Map<Integer, Double>> rows = new ArrayList<Map<Integer, Double>>();
+	protected final List<Character> senses = new ArrayList<Character>();
+	protected final List<Double> rhs = new ArrayList<Double>();
+
+	protected final Map<List<Integer>, Integer> products = new LinkedHashMap<List<Integer>, Integer>();
+
+	protected Map<Integer, Double> objective = new LinkedHashMap<Integer, Double>();
+	protected double objectiveConstant = 0;
+	protected boolean maximize = false;
+
+	protected int timeout = 0;
+	protected int verbose = 0;
+	protected int nodes = 0;
+
+	protected LinearProgram lp = null;
+	protected boolean modified = true;
+	protected double[] incumbent = null;
+
+	@Override
+	public MpResult solve() {
+		long deadline = timeout > 0 ? System.currentTimeMillis() + 1000L * timeout : Long.MAX_VALUE;
+		nodes = 0;
+
+		int n = lower.size();
+
+		double[] c = new double[n];
+		for (Entry<Integer, Double> entry : objective.entrySet()) {
+			c[entry.getKey()] += maximize ? -entry.getValue() : entry.getValue();
+		}
+
+		List<Integer> ints = new ArrayList<Integer>();
+		double[] lb = new double[n];
+		double[] ub = new double[n];
+		for (int j = 0; j < n; j++) {
+			lb[j] = lower.get(j);
+			ub[j] = upper.get(j);
+			if (integer.get(j)) {
+				ints.add(j);
+				lb[j] = Math.ceil(lb[j] - INTEGRALITY);
+				ub[j] = Math.floor(ub[j] + INTEGRALITY);
+			}
+		}
+
+		boolean warm = !modified;
+		if (modified) {
+			lp = createLinearProgram(c, lb, ub);
+			modified = false;
+		} else {
+			for (int j = 0; j < n; j++) {
+				lp.setBounds(j, lb[j], ub[j]);
+				lp.setCost(j, c[j]);
+			}
+		}
+
+		Node root = new Node(ints.size());
+		for (int k = 0; k < ints.size(); k++) {
+			root.lower[k] = lb[ints.get(k)];
+			root.upper[k] = ub[ints.get(k)];
+		}
+
+		LinkedList<Node> stack = new LinkedList<Node>();
+		stack.push(root);
+
+		double[] best = null;
+		double bound = Double.POSITIVE_INFINITY;
+
+		if (incumbent != null && incumbent.length == n && isFeasible(incumbent, lb, ub)) {
+			best = incumbent;
+			bound = 0;
+			for (int j = 0; j < n; j++) {
+				bound += c[j] * best[j];
+			}
+			if (objective.isEmpty()) {
+				stack.clear();
+			}
+		}
+
+		while (!stack.isEmpty() && System.currentTimeMillis() < deadline) {
+			Node node = stack.pop();
+			nodes++;
+
+			for (int k = 0; k < ints.size(); k++) {
+				lp.setBounds(ints.get(k), node.lower[k], node.upper[k]);
+			}
+
+			Status status = (node == root && !warm) ? lp.solve() : lp.resolve();
+			if (status == Status.UNBOUNDED) {
+				return null;
+			} else if (status == Status.INFEASIBLE || lp.getObjective() >= bound - 1e-9 * Math.max(1, Math.abs(bound))) {
+				continue;
+			}
+
+			double[] values = lp.getValues();
+
+			int branch = -1;
+			double fractionality = INTEGRALITY;
+			for (int k = 0; k < ints.size(); k++) {
+				double v = values[ints.get(k)];
+				double f = Math.min(v - Math.floor(v), Math.ceil(v) - v);
+				if (f > fractionality) {
+					branch = k;
+					fractionality = f;
+				}
+			}
+
+			if (branch < 0) {
+				best = values;
+				bound = lp.getObjective();
+				if (verbose > 0) {
+					System.out.println("Incumbent " + (maximize ? -bound : bound) + " at node " + nodes);
+				}
+				if (objective.isEmpty()) {
+					break;
+				}
+			} else {
+				double v = values[ints.get(branch)];
+				Node down = node.copy();
+				down.upper[branch] = Math.floor(v);
+				Node up = node.copy();
+				up.lower[branch] = Math.ceil(v);
+
+				// the child closer to the relaxation is explored first
+				if (v - Math.floor(v) < 0.5) {
+					stack.push(up);
+					stack.push(down);
+				} else {
+					stack.push(down);
+					stack.push(up);
+				}
+			}
+		}
+
+		if (verbose > 0) {
+			System.out.println("Branch and bound explored " + nodes + " nodes");
+		}
+
+		incumbent = best;
+		if (best == null) {
+			return null;
+		}
+
+		double value = objectiveConstant + (maximize ? -bound : bound);
+		MpResult result = new MpResultImpl(objective.isEmpty() ? objectiveConstant : value);
+		for (Entry<Object, Integer> entry : objectToVar.entrySet()) {
+			int j = entry.getValue();
+			double v = best[j];
+			if (integer.get(j)) {
+				v = Math.round(v);
+			}
+			result.put(entry.getKey(), v);
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the number of explored nodes of the last solve.
+	 * 
+	 * @return the number of nodes
+	 */
+	public int getNodes() {
+		return nodes;
+	}
+
+	protected LinearProgram createLinearProgram(double[] c, double[] lb, double[] ub) {
+		int n = lower.size();
+		int m = rows.size();
+
+		double[][] a = new double[m][n];
+		char[] sense = new char[m];
+		double[] b = new double[m];
+		for (int i = 0; i < m; i++) {
+			for (Entry<Integer, Double> entry : rows.get(i).entrySet()) {
+				a[i][entry.getKey()] += entry.getValue();
+			}
+			sense[i] = senses.get(i);
+			b[i] = rhs.get(i);
+		}
+		return new LinearProgram(a, sense, b, c, lb, ub);
+	}
+
+	protected boolean isFeasible(double[] values, double[] lb, double[] ub) {
+		for (int j = 0; j < values.length; j++) {
+			if (values[j] < lb[j] - INTEGRALITY || values[j] > ub[j] + INTEGRALITY) {
+				return false;
+			}
+		}
+		for (int i = 0; i < rows.size(); i++) {
+			double lhs = 0;
+			for (Entry<Integer, Double> entry : rows.get(i).entrySet()) {
+				lhs += entry.getValue() * values[entry.getKey()];
+			}
+			double tolerance = INTEGRALITY * Math.max(1, Math.abs(rhs.get(i)));
+			char sense = senses.get(i);
+			if ((sense != '>' && lhs > rhs.get(i) + tolerance) || (sense != '<' && lhs < rhs.get(i) - tolerance)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public void add(MpConstraint constraint) {
+		registerConstraint(constraint, addConstraint(constraint));
+	}
+
+	@Override
+	public void setBounds(Object var, Number lower, Number upper) {
+		int j = getVar(var);
+		double l = lower.doubleValue();
+		double u = upper.doubleValue();
+		this.lower.set(j, l <= -INFINITY ? Double.NEGATIVE_INFINITY : l);
+		this.upper.set(j, u >= INFINITY ? Double.POSITIVE_INFINITY : u);
+	}
+
+	@Override
+	public void fix(Object var, Number value) {
+		setBounds(var, value, value);
+	}
+
+	@Override
+	public void setCoefficient(MpConstraint constraint, Object var, Number coefficient) {
+		for (Entry<Integer, MpConstraint> entry : constraints.entrySet()) {
+			if (entry.getValue() == constraint) {
+				rows.get(entry.getKey()).put(getVar(var), coefficient.doubleValue());
+				modified = true;
+				return;
+			}
+		}
+		throw new IllegalArgumentException("Constraint " + constraint + " is undefined.");
+	}
+
+	@Override
+	public MpSolver getSolver() {
+		return this;
+	}
+
+	@Override
+	public void setTimeout(int timeout) {
+		this.timeout = timeout;
+	}
+
+	@Override
+	public void setVerbose(int verbose) {
+		this.verbose = verbose;
+	}
+
+	@Override
+	public void setObjective(MpExpr expr, MpDirection direction) {
+		objectiveFunction = expr;
+		optType = direction;
+		objective = new LinkedHashMap<Integer, Double>();
+		objectiveConstant = 0;
+		for (MpExprTerm term : expr) {
+			objectiveConstant += addTerm(objective, term, 1.0);
+		}
+		maximize = direction == MpDirection.MAX;
+	}
+
+	@Override
+	protected Integer addConstraint(MpConstraint constraint) {
+		Map<Integer, Double> coefficients = new LinkedHashMap<Integer, Double>();
+		double constant = 0;
+		for (MpExprTerm term : constraint.getLhs()) {
+			constant += addTerm(coefficients, term, 1.0);
+		}
+		for (MpExprTerm term : constraint.getRhs()) {
+			constant += addTerm(coefficients, term, -1.0);
+		}
+
+		char sense;
+		switch (constraint.getOperator()) {
+		case LE:
+			sense = '<';
+			break;
+		case GE:
+			sense = '>';
+			break;
+		default:
+			sense = '=';
+		}
+		return addRow(coefficients, sense, -constant);
+	}
+
+	@Override
+	protected Integer addVariable(MpVariable variable) {
+		double l = variable.getLower().doubleValue();
+		double u = variable.getUpper().doubleValue();
+		boolean isInt = variable.getType().isInt();
+		if (variable.getType() == MpVariable.Type.BOOL) {
+			l = Math.max(l, 0);
+			u = Math.min(u, 1);
+		}
+		return addVariable(l, u, isInt);
+	}
+
+	protected int addVariable(double l, double u, boolean isInt) {
+		lower.add(l <= -INFINITY ? Double.NEGATIVE_INFINITY : l);
+		upper.add(u >= INFINITY ? Double.POSITIVE_INFINITY : u);
+		integer.add(isInt);
+		modified = true;
+		return lower.size() - 1;
+	}
+
+	protected int addRow(Map<Integer, Double> coefficients, char sense, double value) {
+		rows.add(coefficients);
+		senses.add(sense);
+		rhs.add(value);
+		modified = true;
+		return rows.size() - 1;
+	}
+
+	/**
+	 * Adds the term with the given sign to the coefficients.
+	 * 
+	 * @return the constant of the term
+	 */
+	protected double addTerm(Map<Integer, Double> coefficients, MpExprTerm term, double sign) {
+		double coeff = sign * term.getCoeff().doubleValue();
+		Object[] vars = term.getVars();
+		if (vars.length == 0) {
+			return coeff;
+		}
+		int j = vars.length == 1 ? getVar(vars[0]) : getProduct(vars);
+		Double previous = coefficients.get(j);
+		coefficients.put(j, previous == null ? coeff : previous + coeff);
+		return 0;
+	}
+
+	/**
+	 * Returns the auxiliary variable that equals the product of the given
+	 * variables.
+	 */
+	protected int getProduct(Object[] vars) {
+		List<Integer> binaries = new ArrayList<Integer>();
+		Integer other = null;
+		for (Object var : vars) {
+			int j = getVar(var);
+			if (isBinary(j)) {
+				if (!binaries.contains(j)) {
+					binaries.add(j);
+				}
+			} else if (other == null) {
+				other = j;
+			} else {
+				throw new IllegalArgumentException("The product of " + Arrays.toString(vars)
+						+ " contains more than one non-binary variable.");
+			}
+		}
+
+		if (binaries.isEmpty()) {
+			return other;
+		} else if (other == null && binaries.size() == 1) {
+			return binaries.get(0);
+		}
+
+		Collections.sort(binaries);
+		List<Integer> key = new ArrayList<Integer>(binaries);
+		key.add(other == null ? -1 : other);
+		if (products.containsKey(key)) {
+			return products.get(key);
+		}
+
+		int y;
+		if (binaries.size() == 1) {
+			y = binaries.get(0);
+		} else {
+			// y = b_1 * ... * b_k
+			y = addVariable(0, 1, false);
+			Map<Integer, Double> sum = new LinkedHashMap<Integer, Double>();
+			sum.put(y, 1.0);
+			for (int j : binaries) {
+				Map<Integer, Double> row = new LinkedHashMap<Integer, Double>();
+				row.put(y, 1.0);
+				row.put(j, -1.0);
+				addRow(row, '<', 0);
+				sum.put(j, -1.0);
+			}
+			addRow(sum, '>', 1 - binaries.size());
+		}
+
+		int result = y;
+		if (other != null) {
+			double l = lower.get(other);
+			double u = upper.get(other);
+			if (Double.isInfinite(l) || Double.isInfinite(u)) {
+				throw new IllegalArgumentException("The product of " + Arrays.toString(vars)
+						+ " requires finite bounds of the non-binary variable.");
+			}
+
+			// z = y * x with the exact linearization for a binary y
+			int z = addVariable(Math.min(0, l), Math.max(0, u), false);
+			addRow(linear(z, 1.0, y, -l), '>', 0);
+			addRow(linear(z, 1.0, y, -u), '<', 0);
+			Map<Integer, Double> row = linear(z, 1.0, y, -u);
+			row.put(other, -1.0);
+			addRow(row, '>', -u);
+			row = linear(z, 1.0, y, -l);
+			row.put(other, -1.0);
+			addRow(row, '<', -l);
+			result = z;
+		}
+
+		products.put(key, result);
+		return result;
+	}
+
+	protected Map<Integer, Double> linear(int j0, double c0, int j1, double c1) {
+		Map<Integer, Double> row = new LinkedHashMap<Integer, Double>();
+		row.put(j0, c0);
+		row.put(j1, c1);
+		return row;
+	}
+
+	protected boolean isBinary(int j) {
+		return integer.get(j) && lower.get(j) >= 0 && upper.get(j) <= 1;
+	}
+
+	protected static class Node {
+		final double[] lower;
+		final double[] upper;
+
+		Node(int size) {
+			lower = new double[size];
+			upper = new double[size];
+		}
+
+		Node copy() {
+			Node node = new Node(lower.length);
+			System.arraycopy(lower, 0, node.lower, 0, lower.length);
+			System.arraycopy(upper, 0, node.upper, 0, upper.length);
+			return node;
+		}
+	}
+
+}
@@ -24,15 +24,24 @@ package net.sf.opendse.realtime.et.qcqp;
 import java.util.Set;
 
 import net.sf.opendse.model.Specification;
+import net.sf.opendse.realtime.et.TimingAnalysisListener;
 import net.sf.opendse.realtime.et.graph.TimingElement;
 import net.sf.opendse.realtime.et.graph.TimingGraph;
 
 public interface MyConflictRefinement {
 
 	public enum ConflictRefinementMethod {
-		DELETION, HIERARCHICAL;
+		DELETION, HIERARCHICAL, QUICKXPLAIN, PARALLEL_DELETION;
 	}
 
 	public Set<TimingElement> find(TimingGraph tg, Specification impl);
 
+	/**
+	 * Adds a listener that is notified about each feasibility check.
+	 * 
+	 * @param listener
+	 *            the listener
+	 */
+	public void addListener(TimingAnalysisListener listener);
+
 }
@@ -22,6 +22,7 @@
 package net.sf.opendse.realtime.et.qcqp;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -33,6 +34,8 @@ import net.sf.jmpi.main.MpResult;
 import net.sf.jmpi.main.MpSolver;
 import net.sf.opendse.model.Specification;
 import net.sf.opendse.realtime.et.SolverProvider;
+import net.sf.opendse.realtime.et.TimingAnalysisListener;
+import net.sf.opendse.realtime.et.TimingAnalysisListeners;
 import net.sf.opendse.realtime.et.graph.TimingDependency;
 import net.sf.opendse.realtime.et.graph.TimingDependencyPriority;
 import net.sf.opendse.realtime.et.graph.TimingElement;
@@ -43,6 +46,7 @@ public class MyConflictRefinementDeletion implements MyConflictRefinement {
 	
 	protected final SolverProvider solverProvider;
 	protected final boolean rateMonotonic;
+	protected final TimingAnalysisListeners listeners = new TimingAnalysisListeners();
 
 	public MyConflictRefinementDeletion(SolverProvider solverProvider, boolean rateMonotonic) {
 		super();
@@ -50,6 +54,11 @@ public class MyConflictRefinementDeletion implements MyConflictRefinement {
 		this.rateMonotonic = rateMonotonic;
 	}
 
+	@Override
+	public void addListener(TimingAnalysisListener listener) {
+		listeners.add(listener);
+	}
+
 	public Set<TimingElement> find(TimingGraph tg, Specification impl) {
 		Set<TimingElement> iis = new HashSet<TimingElement>();
 
@@ -70,7 +79,6 @@ public class MyConflictRefinementDeletion implements MyConflictRefinement {
 		Double lastE = 0.0;
 
 		for (TimingElement te : teList) {
-			System.out.print("conflict refinement " + te);
 			lastE = te.getAttribute("e");
 			te.setAttribute("e", 0.0);
 
@@ -93,7 +101,7 @@ public class MyConflictRefinementDeletion implements MyConflictRefinement {
 			
 			MpResult result = solver.solve();
 
-			System.out.println(" " + ((result == null ? "infeasible" : "feasible")));
+			listeners.refinementStep(Collections.singleton(te), result != null);
 
 			// System.out.println("without "+te+" : "+result);
 
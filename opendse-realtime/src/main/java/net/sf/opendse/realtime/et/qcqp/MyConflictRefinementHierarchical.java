@@ -36,6 +36,8 @@ import net.sf.opendse.model.Function;
 import net.sf.opendse.model.Specification;
 import net.sf.opendse.model.Task;
 import net.sf.opendse.realtime.et.SolverProvider;
+import net.sf.opendse.realtime.et.TimingAnalysisListener;
+import net.sf.opendse.realtime.et.TimingAnalysisListeners;
 import net.sf.opendse.realtime.et.graph.TimingDependency;
 import net.sf.opendse.realtime.et.graph.TimingDependencyPriority;
 import net.sf.opendse.realtime.et.graph.TimingElement;
@@ -46,6 +48,7 @@ public class MyConflictRefinementHierarchical implements MyConflictRefinement {
 
 	protected final SolverProvider solverProvider;
 	protected final boolean rateMonotonic;
+	protected final TimingAnalysisListeners listeners = new TimingAnalysisListeners();
 	
 	public MyConflictRefinementHierarchical(SolverProvider solverProvider, boolean rateMonotonic) {
 		super();
@@ -53,10 +56,16 @@ public class MyConflictRefinementHierarchical implements MyConflictRefinement {
 		this.rateMonotonic = rateMonotonic;
 	}
 
+	@Override
+	public void addListener(TimingAnalysisListener listener) {
+		listeners.add(listener);
+	}
+
 	public Set<TimingElement> find(TimingGraph tg, Specification impl) {
 		Set<TimingElement> predef = findFunctions(tg, impl);
 		
 		MyConflictRefinementDeletion deletion = new MyConflictRefinementDeletion(solverProvider, rateMonotonic);
+		deletion.addListener(listeners);
 		return deletion.find(tg, impl, predef);
 	}
 	
@@ -84,7 +93,6 @@ public class MyConflictRefinementHierarchical implements MyConflictRefinement {
 		Double lastE = 0.0;
 
 		for (Set<TimingElement> teSet : teList) {
-			System.out.print("conflict refinement " + teSet);
 			
 			for(TimingElement te: teSet){
 				Double e = te.getAttribute("e");
@@ -114,7 +122,7 @@ public class MyConflictRefinementHierarchical implements MyConflictRefinement {
 
 			MpResult result = solver.solve();
 
-			System.out.println(" " + ((result == null ? "infeasible" : "feasible")));
+			listeners.refinementStep(teSet, result != null);
 
 			// System.out.println("without "+te+" : "+result);
 
@@ -0,0 +1,239 @@
+/*******************************************************************************
+ * Copyright (c) 2015 OpenDSE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *******************************************************************************/
+package net.sf.opendse.realtime.et.qcqp;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import net.sf.jmpi.main.MpProblem;
+import net.sf.jmpi.main.MpResult;
+import net.sf.jmpi.main.MpSolver;
+import net.sf.opendse.model.Specification;
+import net.sf.opendse.realtime.et.SolverProvider;
+import net.sf.opendse.realtime.et.SolverProviders;
+import net.sf.opendse.realtime.et.TimingAnalysisListener;
+import net.sf.opendse.realtime.et.TimingAnalysisListeners;
+import net.sf.opendse.realtime.et.graph.TimingDependency;
+import net.sf.opendse.realtime.et.graph.TimingDependencyPriority;
+import net.sf.opendse.realtime.et.graph.TimingElement;
+import net.sf.opendse.realtime.et.graph.TimingGraph;
+
+/**
+ * The {@code MyConflictRefinementParallel} is a deletion filter that tests a
+ * batch of candidates concurrently. The timing graph is not modified: each
+ * candidate is tested on a relaxed copy that is encoded and solved with its
+ * own solver.
+ * <p>
+ * A candidate whose relaxation makes the problem feasible belongs to every
+ * IIS of the remaining elements and is kept. The candidates whose relaxation
+ * keeps the problem infeasible are relaxed together if this is infeasible as
+ * well. Otherwise, only the first of them is relaxed and the others are
+ * tested again.
+ * <p>
+ * Since all Gurobi solvers share one static environment, the solver calls are
+ * synchronized if the provider creates Gurobi solvers, see
+ * {@link SolverProviders}. The relaxed timing graphs are still encoded
+ * concurrently.
+ */
+public class MyConflictRefinementParallel implements MyConflictRefinement {
+
+	protected final SolverProvider solverProvider;
+	protected final boolean rateMonotonic;
+	protected final int threads;
+	protected final TimingAnalysisListeners listeners = new TimingAnalysisListeners();
+	protected volatile boolean serialize = false;
+
+	public MyConflictRefinementParallel(SolverProvider solverProvider, boolean rateMonotonic) {
+		this(solverProvider, rateMonotonic, Runtime.getRuntime().availableProcessors());
+	}
+
+	public MyConflictRefinementParallel(SolverProvider solverProvider, boolean rateMonotonic, int threads) {
+		super();
+		this.solverProvider = solverProvider;
+		this.rateMonotonic = rateMonotonic;
+		this.threads = Math.max(1, threads);
+	}
+
+	@Override
+	public void addListener(TimingAnalysisListener listener) {
+		listeners.add(listener);
+	}
+
+	public Set<TimingElement> find(TimingGraph tg, Specification impl) {
+		return find(tg, impl, tg.getVertices());
+	}
+
+	public Set<TimingElement> find(TimingGraph tg, Specification impl, Collection<TimingElement> predef) {
+		Set<TimingElement> iis = new HashSet<TimingElement>(predef);
+		Set<TimingElement> relaxed = new HashSet<TimingElement>();
+		LinkedList<TimingElement> candidates = new LinkedList<TimingElement>(predef);
+		serialize = threads > 1 && solverProvider != null && SolverProviders.isGurobi(solverProvider);
+
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			while (!candidates.isEmpty()) {
+				List<TimingElement> batch = new ArrayList<TimingElement>();
+				while (!candidates.isEmpty() && batch.size() < threads) {
+					batch.add(candidates.poll());
+				}
+
+				List<Future<Boolean>> results = new ArrayList<Future<Boolean>>();
+				for (TimingElement te : batch) {
+					Set<TimingElement> relax = new HashSet<TimingElement>(relaxed);
+					relax.add(te);
+					results.add(submit(executor, relax(tg, relax)));
+				}
+
+				List<TimingElement> removable = new ArrayList<TimingElement>();
+				for (int i = 0; i < batch.size(); i++) {
+					boolean feasible = get(results.get(i));
+					listeners.refinementStep(Collections.singleton(batch.get(i)), feasible);
+					if (!feasible) {
+						removable.add(batch.get(i));
+					}
+				}
+
+				if (removable.size() > 1) {
+					Set<TimingElement> relax = new HashSet<TimingElement>(relaxed);
+					relax.addAll(removable);
+					boolean feasible = get(submit(executor, relax(tg, relax)));
+					listeners.refinementStep(new HashSet<TimingElement>(removable), feasible);
+					if (feasible) {
+						for (int i = removable.size() - 1; i > 0; i--) {
+							candidates.addFirst(removable.remove(i));
+						}
+					}
+				}
+
+				relaxed.addAll(removable);
+				iis.removeAll(removable);
+			}
+		} finally {
+			executor.shutdown();
+		}
+
+		return iis;
+	}
+
+	/**
+	 * Returns a copy of the timing graph where the given timing elements are
+	 * relaxed, i.e., their execution time is zero and their priority
+	 * dependencies are removed. All other timing elements and the
+	 * dependencies are shared with the original timing graph.
+	 * 
+	 * @param tg
+	 *            the timing graph
+	 * @param relaxed
+	 *            the relaxed timing elements
+	 * @return the relaxed copy
+	 */
+	protected TimingGraph relax(TimingGraph tg, Set<TimingElement> relaxed) {
+		TimingGraph copy = new TimingGraph();
+		Map<TimingElement, TimingElement> map = new HashMap<TimingElement, TimingElement>();
+
+		for (TimingElement te : tg.getVertices()) {
+			TimingElement element = te;
+			if (relaxed.contains(te)) {
+				element = new TimingElement(te.getTask(), te.getResource());
+				for (String name : te.getAttributeNames()) {
+					element.setAttribute(name, te.getAttribute(name));
+				}
+				element.setAttribute("e", 0.0);
+			}
+			map.put(te, element);
+			copy.addVertex(element);
+		}
+
+		for (TimingDependency td : tg.getEdges()) {
+			TimingElement source = tg.getSource(td);
+			TimingElement dest = tg.getDest(td);
+			if (!(td instanceof TimingDependencyPriority) || !(relaxed.contains(source) || relaxed.contains(dest))) {
+				copy.addEdge(td, map.get(source), map.get(dest));
+			}
+		}
+		return copy;
+	}
+
+	/**
+	 * Checks the feasibility of the timing graph with a new solver.
+	 * 
+	 * @param tg
+	 *            the timing graph
+	 * @return true if the timing graph is feasible
+	 */
+	protected boolean isFeasible(TimingGraph tg) {
+		MyEncoder encoder = new MyEncoder();
+		MpProblem problem = encoder.encode(tg, rateMonotonic);
+
+		if (serialize) {
+			synchronized (SolverProviders.GUROBI_LOCK) {
+				return isFeasible(problem);
+			}
+		}
+		return isFeasible(problem);
+	}
+
+	protected boolean isFeasible(MpProblem problem) {
+		MpSolver solver = solverProvider.get();
+		solver.add(problem);
+
+		MpResult result = solver.solve();
+		return result != null;
+	}
+
+	protected Future<Boolean> submit(ExecutorService executor, final TimingGraph tg) {
+		return executor.submit(new Callable<Boolean>() {
+			@Override
+			public Boolean call() throws Exception {
+				return isFeasible(tg);
+			}
+		});
+	}
+
+	protected boolean get(Future<Boolean> future) {
+		try {
+			return future.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RuntimeException(e);
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			throw new RuntimeException(cause);
+		}
+	}
+
+}
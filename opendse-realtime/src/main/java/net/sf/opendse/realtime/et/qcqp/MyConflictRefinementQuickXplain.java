@@ -0,0 +1,194 @@
+/*******************************************************************************
+ * Copyright (c) 2015 OpenDSE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *******************************************************************************/
+package net.sf.opendse.realtime.et.qcqp;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import net.sf.jmpi.main.MpProblem;
+import net.sf.jmpi.main.MpResult;
+import net.sf.jmpi.main.MpSolver;
+import net.sf.opendse.model.Specification;
+import net.sf.opendse.realtime.et.SolverProvider;
+import net.sf.opendse.realtime.et.TimingAnalysisListener;
+import net.sf.opendse.realtime.et.TimingAnalysisListeners;
+import net.sf.opendse.realtime.et.graph.TimingDependency;
+import net.sf.opendse.realtime.et.graph.TimingDependencyPriority;
+import net.sf.opendse.realtime.et.graph.TimingElement;
+import net.sf.opendse.realtime.et.graph.TimingGraph;
+import edu.uci.ics.jung.graph.util.Pair;
+
+/**
+ * The {@code MyConflictRefinementQuickXplain} determines an IIS with the
+ * divide-and-conquer scheme of QuickXplain (Junker, 2004). The candidates are
+ * split in halves recursively and a half is only refined further if it
+ * contributes to the conflict. An IIS of size k among n candidates requires
+ * O(k log(n/k)) solver calls instead of the n calls of the
+ * {@link MyConflictRefinementDeletion}.
+ * <p>
+ * As in the deletion filter, a {@link TimingElement} is relaxed by setting
+ * its execution time to zero and removing its priority dependencies. The
+ * timing graph is restored after each solver call.
+ */
+public class MyConflictRefinementQuickXplain implements MyConflictRefinement {
+
+	protected final SolverProvider solverProvider;
+	protected final boolean rateMonotonic;
+	protected final TimingAnalysisListeners listeners = new TimingAnalysisListeners();
+
+	public MyConflictRefinementQuickXplain(SolverProvider solverProvider, boolean rateMonotonic) {
+		super();
+		this.solverProvider = solverProvider;
+		this.rateMonotonic = rateMonotonic;
+	}
+
+	@Override
+	public void addListener(TimingAnalysisListener listener) {
+		listeners.add(listener);
+	}
+
+	public Set<TimingElement> find(TimingGraph tg, Specification impl) {
+		return find(tg, impl, tg.getVertices());
+	}
+
+	public Set<TimingElement> find(TimingGraph tg, Specification impl, Collection<TimingElement> predef) {
+		List<TimingElement> candidates = new ArrayList<TimingElement>(predef);
+		Set<TimingElement> background = new HashSet<TimingElement>(tg.getVertices());
+		background.removeAll(candidates);
+
+		if (candidates.isEmpty()) {
+			return new HashSet<TimingElement>();
+		}
+		return quickXplain(tg, background, !background.isEmpty(), candidates);
+	}
+
+	/**
+	 * Returns a minimal subset of the candidates that is infeasible together
+	 * with the background.
+	 * 
+	 * @param tg
+	 *            the timing graph
+	 * @param background
+	 *            the timing elements that are always active
+	 * @param changed
+	 *            true if the background was extended by the caller
+	 * @param candidates
+	 *            the candidates
+	 * @return the subset of the candidates that belongs to the IIS
+	 */
+	protected Set<TimingElement> quickXplain(TimingGraph tg, Set<TimingElement> background, boolean changed,
+			List<TimingElement> candidates) {
+		if (changed && !isFeasible(tg, background)) {
+			return new HashSet<TimingElement>();
+		}
+		if (candidates.size() == 1) {
+			return new HashSet<TimingElement>(candidates);
+		}
+
+		int k = candidates.size() / 2;
+		List<TimingElement> c1 = candidates.subList(0, k);
+		List<TimingElement> c2 = candidates.subList(k, candidates.size());
+
+		Set<TimingElement> b1 = new HashSet<TimingElement>(background);
+		b1.addAll(c1);
+		Set<TimingElement> d2 = quickXplain(tg, b1, true, c2);
+
+		Set<TimingElement> b2 = new HashSet<TimingElement>(background);
+		b2.addAll(d2);
+		Set<TimingElement> d1 = quickXplain(tg, b2, !d2.isEmpty(), c1);
+
+		d1.addAll(d2);
+		return d1;
+	}
+
+	/**
+	 * Checks the feasibility of the timing graph if all timing elements that
+	 * are not active are relaxed.
+	 * 
+	 * @param tg
+	 *            the timing graph
+	 * @param active
+	 *            the active timing elements
+	 * @return true if the relaxed timing graph is feasible
+	 */
+	protected boolean isFeasible(TimingGraph tg, Set<TimingElement> active) {
+		Map<TimingElement, Double> eMap = new HashMap<TimingElement, Double>();
+		Map<TimingDependencyPriority, Pair<TimingElement>> removed = new HashMap<TimingDependencyPriority, Pair<TimingElement>>();
+		Set<TimingElement> relaxed = new HashSet<TimingElement>();
+
+		for (TimingElement te : tg.getVertices()) {
+			if (!active.contains(te)) {
+				relaxed.add(te);
+				Double e = te.getAttribute("e");
+				eMap.put(te, e);
+				te.setAttribute("e", 0.0);
+
+				for (TimingDependency td : tg.getIncidentEdges(te)) {
+					if (td instanceof TimingDependencyPriority) {
+						removed.put((TimingDependencyPriority) td,
+								new Pair<TimingElement>(tg.getSource(td), tg.getDest(td)));
+					}
+				}
+			}
+		}
+		for (TimingDependency td : removed.keySet()) {
+			tg.removeEdge(td);
+		}
+
+		try {
+			boolean feasible = isFeasible(tg);
+			listeners.refinementStep(relaxed, feasible);
+			return feasible;
+		} finally {
+			for (Map.Entry<TimingElement, Double> entry : eMap.entrySet()) {
+				entry.getKey().setAttribute("e", entry.getValue());
+			}
+			for (TimingDependencyPriority td : removed.keySet()) {
+				tg.addEdge(td, removed.get(td));
+			}
+		}
+	}
+
+	/**
+	 * Checks the feasibility of the timing graph with a new solver.
+	 * 
+	 * @param tg
+	 *            the timing graph
+	 * @return true if the timing graph is feasible
+	 */
+	protected boolean isFeasible(TimingGraph tg) {
+		MyEncoder encoder = new MyEncoder();
+		MpProblem problem = encoder.encode(tg, rateMonotonic);
+
+		MpSolver solver = solverProvider.get();
+		solver.add(problem);
+
+		MpResult result = solver.solve();
+		return result != null;
+	}
+
+}
@@ -38,8 +38,11 @@ import static net.sf.opendse.realtime.et.qcqp.vars.Vars.jOut;
 import static net.sf.opendse.realtime.et.qcqp.vars.Vars.r;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -47,6 +50,7 @@ import java.util.Set;
 import net.sf.jmpi.main.MpConstraint;
 import net.sf.jmpi.main.MpDirection;
 import net.sf.jmpi.main.MpProblem;
+import net.sf.jmpi.main.MpResult;
 import net.sf.jmpi.main.expression.MpExpr;
 import net.sf.opendse.model.Resource;
 import net.sf.opendse.model.Task;
@@ -65,6 +69,7 @@ public class MyEncoder {
 	protected CycleCounter cycleCounter = CycleCounter.LOCAL;
 	//protected boolean forbidGlobalCycles = false;
 	protected final boolean uniquePriorityAssignment;
+	protected boolean lazyCycleElimination = false;
 	protected OptimizationObjective objective = null;
 
 	public enum OptimizationObjective {
@@ -99,6 +104,24 @@ public class MyEncoder {
 		this.uniquePriorityAssignment = uniquePriorityAssignment;
 	}
 	
+	/**
+	 * Enables or disables the lazy elimination of priority cycles. In the
+	 * lazy mode, the transitivity constraints of the priorities on each
+	 * resource are not encoded. Instead, the constraints of the cycles in a
+	 * solution are added with {@link #addViolatedCycles} and the problem is
+	 * solved again until the priorities are acyclic.
+	 * 
+	 * @param lazyCycleElimination
+	 *            true if the cycle constraints shall be added lazily
+	 */
+	public void setLazyCycleElimination(boolean lazyCycleElimination) {
+		this.lazyCycleElimination = lazyCycleElimination;
+	}
+
+	public boolean isLazyCycleElimination() {
+		return lazyCycleElimination;
+	}
+
 	public MpProblem encode(TimingGraph tg){
 		return encode(tg, false);
 	}
@@ -174,21 +197,24 @@ public class MyEncoder {
 				}
 			}
 
-			Map<Resource, Set<TimingElement>> resourceToTimingElement = getResourceToTimingElement(tg);
-			for (Resource resource : resourceToTimingElement.keySet()) {
-				List<TimingElement> tasks = new ArrayList<TimingElement>(resourceToTimingElement.get(resource));
-				// System.out.println(resource+" "+tasks);
-				for (TimingElement t0 : tasks) {
-					for (TimingElement t1 : tasks) {
-						for (TimingElement t2 : tasks) {
-							// System.out.println(t0 + " " + t1 + " " + t2);
-							if (!t0.equals(t1) && !t1.equals(t2) && !t2.equals(t0)) {
-								TimingDependencyPriority a0 = findDependencyPriority(tg, t0, t1);
-								TimingDependencyPriority a1 = findDependencyPriority(tg, t1, t2);
-								TimingDependencyPriority a2 = findDependencyPriority(tg, t2, t0);
-
-								if (a0 != null && a1 != null && a2 != null) {
-									problem.add(sum(a(a0), a(a1), a(a2)), "<=", 2);
+			// transitivity, added by addViolatedCycles in the lazy mode
+			if (!lazyCycleElimination) {
+				Map<Resource, Set<TimingElement>> resourceToTimingElement = getResourceToTimingElement(tg);
+				for (Resource resource : resourceToTimingElement.keySet()) {
+					List<TimingElement> tasks = new ArrayList<TimingElement>(resourceToTimingElement.get(resource));
+					// System.out.println(resource+" "+tasks);
+					for (TimingElement t0 : tasks) {
+						for (TimingElement t1 : tasks) {
+							for (TimingElement t2 : tasks) {
+								// System.out.println(t0 + " " + t1 + " " + t2);
+								if (!t0.equals(t1) && !t1.equals(t2) && !t2.equals(t0)) {
+									TimingDependencyPriority a0 = findDependencyPriority(tg, t0, t1);
+									TimingDependencyPriority a1 = findDependencyPriority(tg, t1, t2);
+									TimingDependencyPriority a2 = findDependencyPriority(tg, t2, t0);
+
+									if (a0 != null && a1 != null && a2 != null) {
+										problem.add(sum(a(a0), a(a1), a(a2)), "<=", 2);
+									}
 								}
 							}
 						}
@@ -375,12 +401,7 @@ public class MyEncoder {
 			}
 			problem.setObjective(objective, MpDirection.MAX);
 		} else if (objective == OptimizationObjective.DELAY_AND_JITTER_ALL) {
-			MpExpr objective = sum();
-			for (TimingElement te : tg.getVertices()) {
-				objective.add(d(te));
-				objective.add(jOut(te));
-			}
-			problem.setObjective(objective, MpDirection.MIN);
+			problem.setObjective(getDelayAndJitterObjective(tg), MpDirection.MIN);
 		} else if(objective == OptimizationObjective.MINSLACK){
 			problem.addVar("minslack", Double.class);
 			
@@ -401,6 +422,136 @@ public class MyEncoder {
 		return problem;
 	}
 
+	/**
+	 * Returns the sum of the delays and output jitters of all timing elements
+	 * that is minimized for {@link OptimizationObjective#DELAY_AND_JITTER_ALL}.
+	 * 
+	 * @param tg
+	 *            the timing graph
+	 * @return the objective
+	 */
+	public MpExpr getDelayAndJitterObjective(TimingGraph tg) {
+		MpExpr objective = sum();
+		for (TimingElement te : tg.getVertices()) {
+			objective.add(d(te));
+			objective.add(jOut(te));
+		}
+		return objective;
+	}
+
+	/**
+	 * Adds a constraint for each priority cycle of the result to the problem.
+	 * All cycles of three timing elements are added. If there are none, a
+	 * single longer cycle is added if one exists.
+	 * 
+	 * @param tg
+	 *            the timing graph
+	 * @param problem
+	 *            the problem
+	 * @param result
+	 *            the result of the problem
+	 * @return the number of added constraints
+	 */
+	public int addViolatedCycles(TimingGraph tg, MpProblem problem, MpResult result) {
+		Map<TimingElement, List<TimingDependency>> higher = new HashMap<TimingElement, List<TimingDependency>>();
+		for (TimingDependency td : tg.getEdges()) {
+			if (td instanceof TimingDependencyPriority && result.getBoolean(a(td))) {
+				TimingElement source = tg.getSource(td);
+				if (!higher.containsKey(source)) {
+					higher.put(source, new ArrayList<TimingDependency>());
+				}
+				higher.get(source).add(td);
+			}
+		}
+
+		Set<Set<TimingDependency>> cycles = new HashSet<Set<TimingDependency>>();
+		for (List<TimingDependency> tds : higher.values()) {
+			for (TimingDependency a0 : tds) {
+				TimingElement t0 = tg.getSource(a0);
+				TimingElement t1 = tg.getDest(a0);
+				if (!higher.containsKey(t1)) {
+					continue;
+				}
+				for (TimingDependency a1 : higher.get(t1)) {
+					TimingElement t2 = tg.getDest(a1);
+					if (!higher.containsKey(t2) || t2.equals(t0)) {
+						continue;
+					}
+					for (TimingDependency a2 : higher.get(t2)) {
+						if (tg.getDest(a2).equals(t0)) {
+							cycles.add(new HashSet<TimingDependency>(Arrays.asList(a0, a1, a2)));
+						}
+					}
+				}
+			}
+		}
+
+		if (cycles.isEmpty()) {
+			List<TimingDependency> cycle = findCycle(tg, higher);
+			if (cycle != null) {
+				cycles.add(new HashSet<TimingDependency>(cycle));
+			}
+		}
+
+		for (Set<TimingDependency> cycle : cycles) {
+			MpExpr lhs = sum();
+			for (TimingDependency td : cycle) {
+				lhs.add(a(td));
+			}
+			problem.add(lhs, "<=", cycle.size() - 1);
+		}
+		return cycles.size();
+	}
+
+	protected List<TimingDependency> findCycle(TimingGraph tg, Map<TimingElement, List<TimingDependency>> higher) {
+		Set<TimingElement> finished = new HashSet<TimingElement>();
+		for (TimingElement start : higher.keySet()) {
+			if (finished.contains(start)) {
+				continue;
+			}
+			// iterative depth-first search, the path contains the edges to the
+			// elements on the stack
+			List<TimingElement> stack = new ArrayList<TimingElement>();
+			List<Iterator<TimingDependency>> iterators = new ArrayList<Iterator<TimingDependency>>();
+			List<TimingDependency> path = new ArrayList<TimingDependency>();
+			Set<TimingElement> onStack = new HashSet<TimingElement>();
+
+			stack.add(start);
+			iterators.add(higher.get(start).iterator());
+			onStack.add(start);
+
+			while (!stack.isEmpty()) {
+				Iterator<TimingDependency> it = iterators.get(iterators.size() - 1);
+				if (it.hasNext()) {
+					TimingDependency td = it.next();
+					TimingElement next = tg.getDest(td);
+					if (onStack.contains(next)) {
+						List<TimingDependency> cycle = new ArrayList<TimingDependency>(path.subList(
+								stack.indexOf(next), path.size()));
+						cycle.add(td);
+						return cycle;
+					} else if (!finished.contains(next)) {
+						List<TimingDependency> tds = higher.get(next);
+						stack.add(next);
+						iterators.add(tds == null ? Collections.<TimingDependency> emptyList().iterator() : tds
+								.iterator());
+						path.add(td);
+						onStack.add(next);
+					}
+				} else {
+					TimingElement te = stack.remove(stack.size() - 1);
+					iterators.remove(iterators.size() - 1);
+					if (!path.isEmpty()) {
+						path.remove(path.size() - 1);
+					}
+					onStack.remove(te);
+					finished.add(te);
+				}
+			}
+		}
+		return null;
+	}
+
 	protected Map<Resource, Set<Task>> getResourceToTasks(TimingGraph tg) {
 		Map<Resource, Set<Task>> map = new HashMap<Resource, Set<Task>>();
 
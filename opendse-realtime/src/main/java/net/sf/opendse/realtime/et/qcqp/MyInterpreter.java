@@ -37,14 +37,15 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
-import net.sf.jmpi.main.MpProblem;
+import net.sf.jmpi.main.MpDirection;
 import net.sf.jmpi.main.MpResult;
-import net.sf.jmpi.main.MpSolver;
 import net.sf.opendse.model.Node;
 import net.sf.opendse.model.Resource;
 import net.sf.opendse.model.Specification;
 import net.sf.opendse.model.Task;
 import net.sf.opendse.realtime.et.SolverProvider;
+import net.sf.opendse.realtime.et.SolverSession;
+import net.sf.opendse.realtime.et.SolverSessions;
 import net.sf.opendse.realtime.et.TimingGraphViewer;
 import net.sf.opendse.realtime.et.graph.TimingDependency;
 import net.sf.opendse.realtime.et.graph.TimingDependencyPriority;
@@ -82,24 +83,53 @@ public class MyInterpreter {
 	}
 
 	public TimingGraph interprete(TimingGraph tg, Specification implementation, MpResult result) {
-		TimingGraph rtg = new TimingGraph();
-
-		final MpResult oResult = result;
-		Transformer<TimingDependencyPriority, Boolean> edgeValueTransformer = new Transformer<TimingDependencyPriority, Boolean>() {
-			public Boolean transform(TimingDependencyPriority input) {
-				Boolean value = oResult.getBoolean(a(input));
-				return value;
-			}
-		};
+		SolverSession session = null;
 
 		if (considerTiming) {
+			final MpResult oResult = result;
+			Transformer<TimingDependencyPriority, Boolean> edgeValueTransformer = new Transformer<TimingDependencyPriority, Boolean>() {
+				public Boolean transform(TimingDependencyPriority input) {
+					Boolean value = oResult.getBoolean(a(input));
+					return value;
+				}
+			};
+
 			MyEncoder encoder = new MyEncoder(OptimizationObjective.DELAY_AND_JITTER_ALL, edgeValueTransformer, false);
-			MpProblem problem = encoder.encode(tg);
+			session = SolverSessions.open(solverProvider, encoder.encode(tg));
+		}
+		return interprete(tg, implementation, result, session);
+	}
+
+	/**
+	 * Interprets the result with the session of the solved problem. The
+	 * priorities of the result are fixed in the session and the timing is
+	 * determined by solving the session again with the objective
+	 * {@link OptimizationObjective#DELAY_AND_JITTER_ALL}, which reuses the
+	 * model instead of encoding and solving a new problem.
+	 * 
+	 * @param tg
+	 *            the timing graph
+	 * @param implementation
+	 *            the implementation
+	 * @param result
+	 *            the result of the session
+	 * @param session
+	 *            the session that is modified, may be null if the timing is
+	 *            not considered
+	 * @return the timing graph with the resulting priorities
+	 */
+	public TimingGraph interprete(TimingGraph tg, Specification implementation, MpResult result, SolverSession session) {
+		TimingGraph rtg = new TimingGraph();
 
-			MpSolver solver = solverProvider.get();
-			solver.add(problem);
+		if (considerTiming) {
+			for (TimingDependency td : tg.getEdges()) {
+				if (td instanceof TimingDependencyPriority) {
+					session.fix(a(td), result.getBoolean(a(td)) ? 1 : 0);
+				}
+			}
+			session.setObjective(new MyEncoder().getDelayAndJitterObjective(tg), MpDirection.MIN);
 
-			result = solver.solve();
+			result = session.solve();
 			//System.out.println(result);
 		}
 
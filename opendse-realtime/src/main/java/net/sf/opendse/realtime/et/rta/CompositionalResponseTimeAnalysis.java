@@ -0,0 +1,225 @@
+/*******************************************************************************
+ * Copyright (c) 2015 OpenDSE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *******************************************************************************/
+package net.sf.opendse.realtime.et.rta;
+
+import static net.sf.opendse.realtime.et.PriorityScheduler.FIXEDDELAY_JITTER;
+import static net.sf.opendse.realtime.et.PriorityScheduler.FIXEDDELAY_RESPONSE;
+import static net.sf.opendse.realtime.et.PriorityScheduler.SCHEDULER;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import net.sf.opendse.model.Resource;
+import net.sf.opendse.realtime.et.graph.TimingDependency;
+import net.sf.opendse.realtime.et.graph.TimingDependencyTrigger;
+import net.sf.opendse.realtime.et.graph.TimingElement;
+import net.sf.opendse.realtime.et.graph.TimingGraph;
+
+/**
+ * The {@code CompositionalResponseTimeAnalysis} is a
+ * {@link ResponseTimeAnalysis} that analyzes each resource separately and
+ * caches the response times of a resource by its signature. The signature
+ * consists of the scheduler and, for each timing element on the resource,
+ * the task, the period, the execution time, the input jitter, and the
+ * elements with higher and lower priority. Since implementations of the same
+ * specification mostly share resources with the same tasks, an analysis
+ * that is used for many implementations only re-analyzes the resources whose
+ * signature changed.
+ * <p>
+ * The jitters are propagated between the resources until a fixed point is
+ * reached, which yields the same results as the {@link ResponseTimeAnalysis}.
+ * 
+ * @author lukasiewycz
+ * 
+ */
+public class CompositionalResponseTimeAnalysis extends ResponseTimeAnalysis {
+
+	protected final Map<List<Object>, double[]> cache;
+	protected final AtomicLong hits = new AtomicLong();
+	protected final AtomicLong misses = new AtomicLong();
+
+	public CompositionalResponseTimeAnalysis(boolean rateMonotonic) {
+		this(rateMonotonic, 1000.0, 1000, 10000);
+	}
+
+	/**
+	 * Constructs a {@code CompositionalResponseTimeAnalysis}.
+	 * 
+	 * @param rateMonotonic
+	 *            use rate-monotonic priorities instead of the given priorities
+	 * @param limit
+	 *            the limit of the response times and delays
+	 * @param maxIterations
+	 *            the maximal number of fixed-point iterations
+	 * @param cacheSize
+	 *            the maximal number of cached resource signatures
+	 */
+	public CompositionalResponseTimeAnalysis(boolean rateMonotonic, double limit, int maxIterations,
+			final int cacheSize) {
+		super(rateMonotonic, limit, maxIterations);
+		this.cache = Collections.synchronizedMap(new LinkedHashMap<List<Object>, double[]>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<List<Object>, double[]> eldest) {
+				return size() > cacheSize;
+			}
+		});
+	}
+
+	/**
+	 * Returns the number of resources whose response times were taken from
+	 * the cache.
+	 * 
+	 * @return the number of cache hits
+	 */
+	public long getHits() {
+		return hits.get();
+	}
+
+	/**
+	 * Returns the number of resources that were analyzed.
+	 * 
+	 * @return the number of cache misses
+	 */
+	public long getMisses() {
+		return misses.get();
+	}
+
+	@Override
+	protected void iterate(TimingGraph tg, List<TimingElement> order, Map<TimingElement, Set<TimingElement>> higher,
+			Map<TimingElement, Set<TimingElement>> lower, Map<TimingElement, Double> response,
+			Map<TimingElement, Double> delay, Map<TimingElement, Double> jitterIn, Map<TimingElement, Double> jitterOut) {
+		Map<Resource, List<TimingElement>> resourceToTimingElements = new LinkedHashMap<Resource, List<TimingElement>>();
+		for (TimingElement te : order) {
+			Resource resource = te.getResource();
+			if (!resourceToTimingElements.containsKey(resource)) {
+				resourceToTimingElements.put(resource, new ArrayList<TimingElement>());
+			}
+			resourceToTimingElements.get(resource).add(te);
+		}
+		Comparator<TimingElement> comparator = new Comparator<TimingElement>() {
+			@Override
+			public int compare(TimingElement o1, TimingElement o2) {
+				return o1.getId().compareTo(o2.getId());
+			}
+		};
+		for (List<TimingElement> tes : resourceToTimingElements.values()) {
+			Collections.sort(tes, comparator);
+		}
+
+		boolean changed = true;
+		for (int iteration = 0; changed && iteration < maxIterations; iteration++) {
+			changed = false;
+
+			for (Map.Entry<Resource, List<TimingElement>> entry : resourceToTimingElements.entrySet()) {
+				List<TimingElement> tes = entry.getValue();
+				List<Object> signature = getSignature(entry.getKey(), tes, higher, lower, jitterIn);
+				double[] responses = cache.get(signature);
+				if (responses == null) {
+					misses.incrementAndGet();
+					responses = new double[tes.size()];
+					for (int i = 0; i < tes.size(); i++) {
+						TimingElement te = tes.get(i);
+						responses[i] = response(te, higher.get(te), lower.get(te), jitterIn);
+					}
+					cache.put(signature, responses);
+				} else {
+					hits.incrementAndGet();
+				}
+				for (int i = 0; i < tes.size(); i++) {
+					changed |= update(response, tes.get(i), responses[i]);
+				}
+			}
+
+			for (TimingElement te : order) {
+				double jIn = 0;
+				double d = 0;
+				for (TimingDependency td : tg.getInEdges(te)) {
+					if (td instanceof TimingDependencyTrigger) {
+						TimingElement pred = tg.getSource(td);
+						jIn = Math.max(jIn, jitterOut.get(pred));
+						d = Math.max(d, delay.get(pred));
+					}
+				}
+
+				double r = response.get(te);
+				double jOut = jitterOut(te, jIn, r);
+				d = Math.min(limit, Math.max(d + r, jOut));
+
+				changed |= update(jitterIn, te, jIn);
+				changed |= update(jitterOut, te, jOut);
+				changed |= update(delay, te, d);
+			}
+		}
+	}
+
+	/**
+	 * Returns the signature of a resource that determines the response times
+	 * of its timing elements.
+	 * 
+	 * @param resource
+	 *            the resource
+	 * @param tes
+	 *            the timing elements of the resource in a fixed order
+	 * @param higher
+	 *            the higher priority elements of each element
+	 * @param lower
+	 *            the lower priority elements of each element
+	 * @param jitterIn
+	 *            the input jitters
+	 * @return the signature
+	 */
+	protected List<Object> getSignature(Resource resource, List<TimingElement> tes,
+			Map<TimingElement, Set<TimingElement>> higher, Map<TimingElement, Set<TimingElement>> lower,
+			Map<TimingElement, Double> jitterIn) {
+		List<Object> signature = new ArrayList<Object>();
+		signature.add(resource.getAttribute(SCHEDULER));
+		signature.add(resource.getAttribute(FIXEDDELAY_RESPONSE));
+		signature.add(resource.getAttribute(FIXEDDELAY_JITTER));
+		for (TimingElement te : tes) {
+			signature.add(te.getTask().getId());
+			signature.add(te.getAttribute("h"));
+			signature.add(te.getAttribute("e"));
+			signature.add(jitterIn.get(te));
+			signature.add(getIds(higher.get(te)));
+			signature.add(getIds(lower.get(te)));
+		}
+		return signature;
+	}
+
+	protected List<String> getIds(Set<TimingElement> tes) {
+		List<String> ids = new ArrayList<String>();
+		for (TimingElement te : tes) {
+			ids.add(te.getTask().getId());
+		}
+		Collections.sort(ids);
+		return ids;
+	}
+
+}
@@ -0,0 +1,282 @@
+/*******************************************************************************
+ * Copyright (c) 2015 OpenDSE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *******************************************************************************/
+package net.sf.opendse.realtime.et.rta;
+
+import static net.sf.opendse.realtime.et.PriorityScheduler.FIXEDPRIORITY_NONPREEMPTIVE;
+import static net.sf.opendse.realtime.et.PriorityScheduler.FIXEDPRIORITY_PREEMPTIVE;
+import static net.sf.opendse.realtime.et.PriorityScheduler.SCHEDULER;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import net.sf.opendse.model.Resource;
+import net.sf.opendse.realtime.et.graph.TimingDependency;
+import net.sf.opendse.realtime.et.graph.TimingDependencyTrigger;
+import net.sf.opendse.realtime.et.graph.TimingElement;
+import net.sf.opendse.realtime.et.graph.TimingGraph;
+import net.sf.opendse.realtime.et.graph.TimingGraphBuilder;
+
+/**
+ * The {@code OptimalPriorityAssignment} assigns the priorities of the
+ * fixed-priority resources by Audsley's optimal priority assignment instead
+ * of solving the problem of the
+ * {@link net.sf.opendse.realtime.et.qcqp.MyEncoder}.
+ * <p>
+ * On each resource, the lowest priority is assigned first to the timing
+ * element with the largest slack if all unassigned elements have a higher
+ * priority. The response times are determined by the
+ * {@link ResponseTimeAnalysis}, the local deadline of an element is given by
+ * its backwards deadline ({@code deadline*}) and the delays and jitters of its
+ * predecessors. Since the delays and jitters again depend on the priorities,
+ * the assignment is repeated with the results of the analysis of the previous
+ * assignment until all deadlines are met or the assignment does not change.
+ * Priority pairs that are fixed in the timing graph (and the rate-monotonic
+ * order if enabled) are respected.
+ * <p>
+ * The assignment is a heuristic for end-to-end deadlines: if it fails, the
+ * problem may still be feasible.
+ * 
+ * @author lukasiewycz
+ * 
+ */
+public class OptimalPriorityAssignment {
+
+	protected static final double EPSILON = ResponseTimeAnalysis.EPSILON;
+
+	protected final boolean rateMonotonic;
+	protected final double limit;
+	protected final int maxIterations;
+	protected final int maxRounds;
+
+	protected Map<TimingElement, Integer> priorities = null;
+
+	public OptimalPriorityAssignment(boolean rateMonotonic) {
+		this(rateMonotonic, 1000.0, 1000, 10);
+	}
+
+	/**
+	 * Constructs an {@code OptimalPriorityAssignment}.
+	 * 
+	 * @param rateMonotonic
+	 *            keep the rate-monotonic order of elements with different
+	 *            periods
+	 * @param limit
+	 *            the limit of the response times and delays
+	 * @param maxIterations
+	 *            the maximal number of fixed-point iterations of the analysis
+	 * @param maxRounds
+	 *            the maximal number of assignments
+	 */
+	public OptimalPriorityAssignment(boolean rateMonotonic, double limit, int maxIterations, int maxRounds) {
+		super();
+		this.rateMonotonic = rateMonotonic;
+		this.limit = limit;
+		this.maxIterations = maxIterations;
+		this.maxRounds = maxRounds;
+	}
+
+	/**
+	 * Assigns the priorities and analyzes the timing graph with these
+	 * priorities, see {@link ResponseTimeAnalysis#analyze(TimingGraph)}.
+	 * 
+	 * @param tg
+	 *            the timing graph
+	 * @return the timing graph that contains only the priority edges of the
+	 *         assigned priority order or {@code null} if no assignment that
+	 *         meets all deadlines was found
+	 */
+	public TimingGraph analyze(TimingGraph tg) {
+		for (TimingElement te : tg) {
+			if (te.getAttribute("deadline*") == null) {
+				TimingGraphBuilder.annotateBackwardsDeadlines(tg);
+				break;
+			}
+		}
+
+		priorities = null;
+		ResponseTimeAnalysis analysis = createAnalysis(null);
+		TimingGraph rtg = analysis.analyze(tg);
+
+		for (int round = 0; round < maxRounds && !analysis.isSchedulable(tg); round++) {
+			Map<TimingElement, Integer> assignment = assign(tg, analysis);
+			if (assignment == null || assignment.equals(priorities)) {
+				priorities = null;
+				return null;
+			}
+			priorities = assignment;
+			analysis = createAnalysis(priorities);
+			rtg = analysis.analyze(tg);
+		}
+
+		if (!analysis.isSchedulable(tg)) {
+			priorities = null;
+			return null;
+		}
+		return rtg;
+	}
+
+	/**
+	 * Returns the priorities of the last successful assignment where smaller
+	 * values have higher priority or {@code null} if the initial priorities
+	 * met all deadlines or no assignment was found.
+	 * 
+	 * @return the priorities
+	 */
+	public Map<TimingElement, Integer> getPriorities() {
+		return priorities;
+	}
+
+	/**
+	 * Assigns the priorities on each fixed-priority resource with the delays
+	 * and jitters annotated by the previous analysis.
+	 * 
+	 * @param tg
+	 *            the analyzed timing graph
+	 * @param analysis
+	 *            the analysis
+	 * @return the priorities or {@code null} if no priority can be assigned
+	 *         on a resource
+	 */
+	protected Map<TimingElement, Integer> assign(TimingGraph tg, ResponseTimeAnalysis analysis) {
+		Map<Resource, List<TimingElement>> resourceToTimingElements = new HashMap<Resource, List<TimingElement>>();
+		Map<TimingElement, Double> jitterIn = new HashMap<TimingElement, Double>();
+
+		for (TimingElement te : tg) {
+			jitterIn.put(te, te.<Double> getAttribute(ResponseTimeAnalysis.JITTER_IN));
+
+			Resource resource = te.getResource();
+			String scheduler = resource.getAttribute(SCHEDULER);
+			if (FIXEDPRIORITY_PREEMPTIVE.equals(scheduler) || FIXEDPRIORITY_NONPREEMPTIVE.equals(scheduler)) {
+				if (!resourceToTimingElements.containsKey(resource)) {
+					resourceToTimingElements.put(resource, new ArrayList<TimingElement>());
+				}
+				resourceToTimingElements.get(resource).add(te);
+			}
+		}
+
+		Map<TimingElement, Integer> assignment = new HashMap<TimingElement, Integer>();
+		for (List<TimingElement> tes : resourceToTimingElements.values()) {
+			Collections.sort(tes, analysis.getComparator());
+			Set<TimingElement> unassigned = new LinkedHashSet<TimingElement>(tes);
+			Set<TimingElement> assigned = new HashSet<TimingElement>();
+
+			for (int level = tes.size(); level > 0; level--) {
+				TimingElement best = null;
+				double bestSlack = Double.NEGATIVE_INFINITY;
+
+				for (TimingElement te : unassigned) {
+					if (!canBeLowest(tg, te, unassigned, analysis)) {
+						continue;
+					}
+					double slack = getSlack(tg, te, interfering(tg, te, unassigned, analysis),
+							interfering(tg, te, assigned, analysis), jitterIn, analysis);
+					if (slack >= -EPSILON && slack > bestSlack) {
+						best = te;
+						bestSlack = slack;
+					}
+				}
+
+				if (best == null) {
+					return null;
+				}
+				assignment.put(best, level);
+				unassigned.remove(best);
+				assigned.add(best);
+			}
+		}
+		return assignment;
+	}
+
+	/**
+	 * Returns {@code true} if the timing element may have a lower priority
+	 * than all other given timing elements.
+	 */
+	protected boolean canBeLowest(TimingGraph tg, TimingElement te, Set<TimingElement> others,
+			ResponseTimeAnalysis analysis) {
+		for (TimingElement other : others) {
+			if (other != te && analysis.hasPriorityEdge(tg, te, other)) {
+				if (!analysis.hasPriorityEdge(tg, other, te)) {
+					return false;
+				} else if (rateMonotonic && analysis.h(te) < analysis.h(other)) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Returns the given timing elements that interfere with the timing element
+	 * by a priority edge.
+	 */
+	protected Set<TimingElement> interfering(TimingGraph tg, TimingElement te, Set<TimingElement> others,
+			ResponseTimeAnalysis analysis) {
+		Set<TimingElement> interfering = new HashSet<TimingElement>();
+		for (TimingElement other : others) {
+			if (other != te && (analysis.hasPriorityEdge(tg, te, other) || analysis.hasPriorityEdge(tg, other, te))) {
+				interfering.add(other);
+			}
+		}
+		return interfering;
+	}
+
+	/**
+	 * Returns the difference of the backwards deadline and the delay of the
+	 * timing element for the given higher and lower priority elements.
+	 */
+	protected double getSlack(TimingGraph tg, TimingElement te, Set<TimingElement> higher,
+			Set<TimingElement> lower, Map<TimingElement, Double> jitterIn, ResponseTimeAnalysis analysis) {
+		Double deadline = te.getAttribute("deadline*");
+		if (deadline == null || deadline >= Double.MAX_VALUE) {
+			return Double.MAX_VALUE;
+		}
+
+		double dIn = 0;
+		for (TimingDependency td : tg.getInEdges(te)) {
+			if (td instanceof TimingDependencyTrigger) {
+				dIn = Math.max(dIn, tg.getSource(td).<Double> getAttribute(ResponseTimeAnalysis.DELAY));
+			}
+		}
+		double jIn = jitterIn.get(te);
+		double r = analysis.response(te, higher, lower, jitterIn);
+		double d = Math.max(dIn + r, jIn + r - analysis.e(te));
+		return deadline - d;
+	}
+
+	protected ResponseTimeAnalysis createAnalysis(final Map<TimingElement, Integer> priorities) {
+		if (priorities == null) {
+			return new ResponseTimeAnalysis(rateMonotonic, limit, maxIterations);
+		}
+		return new ResponseTimeAnalysis(false, limit, maxIterations) {
+			@Override
+			protected Integer getGivenPriority(TimingElement te) {
+				return priorities.get(te);
+			}
+		};
+	}
+}
@@ -0,0 +1,396 @@
+/*******************************************************************************
+ * Copyright (c) 2015 OpenDSE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *******************************************************************************/
+package net.sf.opendse.realtime.et.rta;
+
+import static net.sf.opendse.realtime.et.PriorityScheduler.FIXEDDELAY;
+import static net.sf.opendse.realtime.et.PriorityScheduler.FIXEDDELAY_JITTER;
+import static net.sf.opendse.realtime.et.PriorityScheduler.FIXEDDELAY_RESPONSE;
+import static net.sf.opendse.realtime.et.PriorityScheduler.FIXEDPRIORITY_NONPREEMPTIVE;
+import static net.sf.opendse.realtime.et.PriorityScheduler.FIXEDPRIORITY_PREEMPTIVE;
+import static net.sf.opendse.realtime.et.PriorityScheduler.PRIORITY;
+import static net.sf.opendse.realtime.et.PriorityScheduler.SCHEDULER;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import net.sf.opendse.model.Resource;
+import net.sf.opendse.realtime.et.graph.TimingDependency;
+import net.sf.opendse.realtime.et.graph.TimingDependencyPriority;
+import net.sf.opendse.realtime.et.graph.TimingDependencyTrigger;
+import net.sf.opendse.realtime.et.graph.TimingElement;
+import net.sf.opendse.realtime.et.graph.TimingGraph;
+import net.sf.opendse.realtime.et.graph.TriggerOrder;
+
+/**
+ * The {@code ResponseTimeAnalysis} is a solver-free alternative to the
+ * {@link net.sf.opendse.realtime.et.qcqp.MyEncoder}: It determines the
+ * response times, jitters, and delays of a {@link TimingGraph} by the classic
+ * iterative fixed-priority response-time analysis.
+ * <p>
+ * The priorities are either rate-monotonic (shorter period first) or given by
+ * the {@link net.sf.opendse.realtime.et.PriorityScheduler#PRIORITY} attribute
+ * of the task (or {@code prio:<resource>} for communications as written by
+ * the {@link net.sf.opendse.realtime.et.qcqp.MyInterpreter}), where smaller
+ * values have higher priority. Elements without a given priority have a lower
+ * priority than all elements with a given priority and are ordered
+ * rate-monotonically among themselves. A pair of timing elements that is
+ * connected by a single remaining priority edge is treated as fixed, as in
+ * the encoder.
+ * <p>
+ * The response times per resource depend on the input jitters which again
+ * depend on the response times of the predecessors. Thus, the analysis is
+ * repeated until a fixed point is reached. A response time exceeding the
+ * limit is considered as diverged and capped at the limit.
+ * 
+ * @author lukasiewycz
+ * 
+ */
+public class ResponseTimeAnalysis {
+
+	public static final String DELAY = "delay";
+	public static final String RESPONSE = "response";
+	public static final String JITTER_IN = "jitter[in]";
+	public static final String JITTER_OUT = "jitter[out]";
+
+	protected static final double EPSILON = 1e-9;
+
+	protected final boolean rateMonotonic;
+	protected final double limit;
+	protected final int maxIterations;
+
+	public ResponseTimeAnalysis() {
+		this(true);
+	}
+
+	public ResponseTimeAnalysis(boolean rateMonotonic) {
+		this(rateMonotonic, 1000.0, 1000);
+	}
+
+	/**
+	 * Constructs a {@code ResponseTimeAnalysis}.
+	 * 
+	 * @param rateMonotonic
+	 *            use rate-monotonic priorities instead of the given priorities
+	 * @param limit
+	 *            the limit of the response times and delays (the bound of the
+	 *            encoder variables is {@code 1000})
+	 * @param maxIterations
+	 *            the maximal number of fixed-point iterations
+	 */
+	public ResponseTimeAnalysis(boolean rateMonotonic, double limit, int maxIterations) {
+		super();
+		this.rateMonotonic = rateMonotonic;
+		this.limit = limit;
+		this.maxIterations = maxIterations;
+	}
+
+	/**
+	 * Analyzes the timing graph and annotates the response time, delay, and
+	 * the input and output jitter to each {@link TimingElement}.
+	 * 
+	 * @param tg
+	 *            the timing graph
+	 * @return the timing graph that contains only the priority edges of the
+	 *         applied priority order
+	 */
+	public TimingGraph analyze(TimingGraph tg) {
+		Map<TimingElement, Set<TimingElement>> higher = new HashMap<TimingElement, Set<TimingElement>>();
+		Map<TimingElement, Set<TimingElement>> lower = new HashMap<TimingElement, Set<TimingElement>>();
+		TimingGraph rtg = new TimingGraph();
+
+		for (TimingElement te : tg) {
+			higher.put(te, new HashSet<TimingElement>());
+			lower.put(te, new HashSet<TimingElement>());
+			rtg.addVertex(te);
+		}
+
+		Comparator<TimingElement> comparator = getComparator();
+		for (TimingDependency td : tg.getEdges()) {
+			if (td instanceof TimingDependencyPriority) {
+				TimingElement source = tg.getSource(td);
+				TimingElement dest = tg.getDest(td);
+
+				if (!hasPriorityEdge(tg, dest, source) || comparator.compare(source, dest) < 0) {
+					higher.get(dest).add(source);
+					lower.get(source).add(dest);
+					rtg.addEdge(td, source, dest);
+				}
+			}
+		}
+
+		annotatePriorities(tg, comparator);
+
+		List<TimingElement> order = getTopologicalOrder(tg);
+		Map<TimingElement, Double> response = new HashMap<TimingElement, Double>();
+		Map<TimingElement, Double> delay = new HashMap<TimingElement, Double>();
+		Map<TimingElement, Double> jitterIn = new HashMap<TimingElement, Double>();
+		Map<TimingElement, Double> jitterOut = new HashMap<TimingElement, Double>();
+
+		for (TimingElement te : order) {
+			jitterIn.put(te, 0.0);
+		}
+
+		iterate(tg, order, higher, lower, response, delay, jitterIn, jitterOut);
+
+		for (TimingElement te : order) {
+			te.setAttribute(RESPONSE, adjust(response.get(te)));
+			te.setAttribute(DELAY, adjust(delay.get(te)));
+			te.setAttribute(JITTER_IN, adjust(jitterIn.get(te)));
+			te.setAttribute(JITTER_OUT, adjust(jitterOut.get(te)));
+		}
+
+		return rtg;
+	}
+
+	/**
+	 * Determines the response times, delays, and jitters by the fixed-point
+	 * iteration over the timing elements in topological order.
+	 * 
+	 * @param tg
+	 *            the timing graph
+	 * @param order
+	 *            the topological order of the timing elements
+	 * @param higher
+	 *            the higher priority elements of each element
+	 * @param lower
+	 *            the lower priority elements of each element
+	 * @param response
+	 *            the response times
+	 * @param delay
+	 *            the delays
+	 * @param jitterIn
+	 *            the input jitters, initially zero
+	 * @param jitterOut
+	 *            the output jitters
+	 */
+	protected void iterate(TimingGraph tg, List<TimingElement> order, Map<TimingElement, Set<TimingElement>> higher,
+			Map<TimingElement, Set<TimingElement>> lower, Map<TimingElement, Double> response,
+			Map<TimingElement, Double> delay, Map<TimingElement, Double> jitterIn, Map<TimingElement, Double> jitterOut) {
+		boolean changed = true;
+		for (int iteration = 0; changed && iteration < maxIterations; iteration++) {
+			changed = false;
+
+			for (TimingElement te : order) {
+				double jIn = 0;
+				double d = 0;
+				for (TimingDependency td : tg.getInEdges(te)) {
+					if (td instanceof TimingDependencyTrigger) {
+						TimingElement pred = tg.getSource(td);
+						jIn = Math.max(jIn, jitterOut.get(pred));
+						d = Math.max(d, delay.get(pred));
+					}
+				}
+
+				double r = response(te, higher.get(te), lower.get(te), jitterIn);
+				double jOut = jitterOut(te, jIn, r);
+				d = Math.min(limit, Math.max(d + r, jOut));
+
+				changed |= update(response, te, r);
+				changed |= update(jitterIn, te, jIn);
+				changed |= update(jitterOut, te, jOut);
+				changed |= update(delay, te, d);
+			}
+		}
+	}
+
+	/**
+	 * Returns {@code true} if all deadlines of an analyzed timing graph are
+	 * met.
+	 * 
+	 * @param tg
+	 *            the analyzed timing graph
+	 * @return {@code true} if all deadlines are met
+	 */
+	public boolean isSchedulable(TimingGraph tg) {
+		for (TimingElement te : tg) {
+			if (getLateness(te) > 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Returns the lateness (delay minus deadline) of an analyzed timing
+	 * element or {@code 0} if it has no deadline or the deadline is met.
+	 * 
+	 * @param te
+	 *            the analyzed timing element
+	 * @return the lateness
+	 */
+	public double getLateness(TimingElement te) {
+		Double deadline = te.getAttribute("deadline");
+		Double d = te.getAttribute(DELAY);
+		if (deadline == null || d == null) {
+			return 0;
+		}
+		return Math.max(0, adjust(d - deadline));
+	}
+
+	protected double response(TimingElement te, Set<TimingElement> higher, Set<TimingElement> lower,
+			Map<TimingElement, Double> jitterIn) {
+		String scheduler = te.getResource().getAttribute(SCHEDULER);
+		double e = e(te);
+
+		if (FIXEDPRIORITY_PREEMPTIVE.equals(scheduler)) {
+			return fixedPoint(e, e, 0, higher, jitterIn);
+		} else if (FIXEDPRIORITY_NONPREEMPTIVE.equals(scheduler)) {
+			double b = 0;
+			for (TimingElement te2 : lower) {
+				b = Math.max(b, e(te2));
+			}
+			return fixedPoint(e + b, e + b, -e, higher, jitterIn);
+		} else if (FIXEDDELAY.equals(scheduler)) {
+			Double delay = te.getResource().getAttribute(FIXEDDELAY_RESPONSE);
+			return delay == null ? 0.0 : delay;
+		} else {
+			return 0.0;
+		}
+	}
+
+	/**
+	 * Solves {@code r = base + sum ceil((r + offset + jIn(hp)) / h(hp)) * e(hp)}
+	 * by the classic fixed-point iteration starting from {@code start}.
+	 */
+	protected double fixedPoint(double base, double start, double offset, Set<TimingElement> higher,
+			Map<TimingElement, Double> jitterIn) {
+		double r = start;
+		while (true) {
+			double next = base;
+			for (TimingElement hp : higher) {
+				double jIn = jitterIn.get(hp);
+				double activations = Math.ceil(Math.max(0, (r + offset + jIn) / h(hp)) - EPSILON);
+				next += activations * e(hp);
+			}
+			if (next > limit) {
+				return limit;
+			} else if (next <= r + EPSILON) {
+				return r;
+			}
+			r = next;
+		}
+	}
+
+	protected double jitterOut(TimingElement te, double jIn, double r) {
+		String scheduler = te.getResource().getAttribute(SCHEDULER);
+
+		if (FIXEDPRIORITY_PREEMPTIVE.equals(scheduler) || FIXEDPRIORITY_NONPREEMPTIVE.equals(scheduler)) {
+			return Math.min(limit, Math.max(jIn, jIn + r - e(te)));
+		} else if (FIXEDDELAY.equals(scheduler)) {
+			Double jitter = te.getResource().getAttribute(FIXEDDELAY_JITTER);
+			return Math.min(limit, jIn + (jitter == null ? 0.0 : jitter));
+		} else {
+			return jIn;
+		}
+	}
+
+	protected void annotatePriorities(TimingGraph tg, Comparator<TimingElement> comparator) {
+		Map<Resource, List<TimingElement>> resourceToTimingElements = new HashMap<Resource, List<TimingElement>>();
+		for (TimingElement te : tg) {
+			Resource resource = te.getResource();
+			String scheduler = resource.getAttribute(SCHEDULER);
+			if (FIXEDPRIORITY_PREEMPTIVE.equals(scheduler) || FIXEDPRIORITY_NONPREEMPTIVE.equals(scheduler)) {
+				if (!resourceToTimingElements.containsKey(resource)) {
+					resourceToTimingElements.put(resource, new ArrayList<TimingElement>());
+				}
+				resourceToTimingElements.get(resource).add(te);
+			}
+		}
+
+		for (List<TimingElement> tes : resourceToTimingElements.values()) {
+			Collections.sort(tes, comparator);
+			for (int i = 0; i < tes.size(); i++) {
+				tes.get(i).setAttribute(PRIORITY, i + 1);
+			}
+		}
+	}
+
+	protected Comparator<TimingElement> getComparator() {
+		return new Comparator<TimingElement>() {
+			@Override
+			public int compare(TimingElement o1, TimingElement o2) {
+				if (!rateMonotonic) {
+					Integer p1 = getGivenPriority(o1);
+					Integer p2 = getGivenPriority(o2);
+					// a total order: given priorities first, then period and id
+					if (p1 == null && p2 != null) {
+						return 1;
+					} else if (p1 != null && p2 == null) {
+						return -1;
+					} else if (p1 != null && !p1.equals(p2)) {
+						return p1.compareTo(p2);
+					}
+				}
+				int c = Double.compare(h(o1), h(o2));
+				if (c == 0) {
+					c = o1.getId().compareTo(o2.getId());
+				}
+				return c;
+			}
+		};
+	}
+
+	protected Integer getGivenPriority(TimingElement te) {
+		Object value = te.getTask().getAttribute(PRIORITY + ":" + te.getResource().getId());
+		if (value == null) {
+			value = te.getTask().getAttribute(PRIORITY);
+		}
+		return value instanceof Number ? ((Number) value).intValue() : null;
+	}
+
+	protected boolean hasPriorityEdge(TimingGraph tg, TimingElement source, TimingElement dest) {
+		for (TimingDependency td : tg.findEdgeSet(source, dest)) {
+			if (td instanceof TimingDependencyPriority) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	protected List<TimingElement> getTopologicalOrder(TimingGraph tg) {
+		return new TriggerOrder(tg).getOrder();
+	}
+
+	protected boolean update(Map<TimingElement, Double> map, TimingElement te, double value) {
+		Double old = map.put(te, value);
+		return old == null || Math.abs(old - value) > EPSILON;
+	}
+
+	protected double e(TimingElement te) {
+		return (Double) te.getAttribute("e");
+	}
+
+	protected double h(TimingElement te) {
+		return (Double) te.getAttribute("h");
+	}
+
+	public static double adjust(double value) {
+		return Math.round(value * 100000.0) / 100000.0;
+	}
+
+}
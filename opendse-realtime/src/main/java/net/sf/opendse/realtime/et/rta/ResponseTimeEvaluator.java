@@ -0,0 +1,90 @@
+/*******************************************************************************
+ * Copyright (c) 2015 OpenDSE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *******************************************************************************/
+package net.sf.opendse.realtime.et.rta;
+
+import net.sf.opendse.model.Specification;
+import net.sf.opendse.optimization.ImplementationEvaluator;
+import net.sf.opendse.realtime.et.PriorityScheduler;
+import net.sf.opendse.realtime.et.graph.TimingElement;
+import net.sf.opendse.realtime.et.graph.TimingGraph;
+import net.sf.opendse.realtime.et.qcqp.MyTimingPropertyAnnotater;
+
+import org.opt4j.core.Objective;
+import org.opt4j.core.Objective.Sign;
+import org.opt4j.core.Objectives;
+
+/**
+ * The {@code ResponseTimeEvaluator} evaluates the timing of each
+ * implementation with the {@link ResponseTimeAnalysis}. It annotates the
+ * response times, delays, and jitters to the implementation and minimizes the
+ * number of deadline misses and the overall lateness.
+ * 
+ * @author lukasiewycz
+ * 
+ */
+public class ResponseTimeEvaluator implements ImplementationEvaluator {
+
+	protected final Objective misses = new Objective("deadline misses", Sign.MIN);
+	protected final Objective lateness = new Objective("lateness", Sign.MIN);
+
+	protected final ResponseTimeAnalysis analysis;
+	protected final int priority;
+
+	public ResponseTimeEvaluator(boolean rateMonotonic, int priority) {
+		this(new ResponseTimeAnalysis(rateMonotonic), priority);
+	}
+
+	public ResponseTimeEvaluator(ResponseTimeAnalysis analysis, int priority) {
+		super();
+		this.analysis = analysis;
+		this.priority = priority;
+	}
+
+	@Override
+	public Specification evaluate(Specification implementation, Objectives objectives) {
+		TimingGraph tg = PriorityScheduler.createTimingGraph(implementation);
+		TimingGraph rtg = analysis.analyze(tg);
+
+		MyTimingPropertyAnnotater annotater = new MyTimingPropertyAnnotater();
+		annotater.annotate(rtg, implementation);
+
+		int count = 0;
+		double sum = 0;
+		for (TimingElement te : rtg) {
+			double l = analysis.getLateness(te);
+			if (l > 0) {
+				count++;
+				sum += l;
+			}
+		}
+
+		objectives.add(misses, count);
+		objectives.add(lateness, ResponseTimeAnalysis.adjust(sum));
+		return null;
+	}
+
+	@Override
+	public int getPriority() {
+		return priority;
+	}
+
+}
@@ -0,0 +1,100 @@
+/*******************************************************************************
+ * Copyright (c) 2015 OpenDSE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *******************************************************************************/
+package net.sf.opendse.realtime.et.rta;
+
+import net.sf.opendse.optimization.ImplementationEvaluator;
+import net.sf.opendse.optimization.evaluator.EvaluatorModule;
+
+import org.opt4j.core.config.annotations.Info;
+import org.opt4j.core.config.annotations.Order;
+
+import com.google.inject.multibindings.Multibinder;
+
+/**
+ * The {@code ResponseTimeEvaluatorModule} binds the
+ * {@link ResponseTimeEvaluator}.
+ * 
+ * @author lukasiewycz
+ * 
+ */
+@Info("Evaluates deadline misses and lateness by a fixed-priority response-time analysis without solver.")
+public class ResponseTimeEvaluatorModule extends EvaluatorModule {
+
+	@Order(0)
+	@Info("Use rate-monotonic priorities instead of the priorities given as task attributes.")
+	protected boolean rateMonotonic = true;
+
+	@Order(1)
+	@Info("The limit of response times and delays, larger values are considered unbounded.")
+	protected double limit = 1000.0;
+
+	@Order(2)
+	@Info("The number of cached per-resource analysis results, 0 disables the cache.")
+	protected int cacheSize = 0;
+
+	@Order(3)
+	protected int priority = 0;
+
+	public boolean isRateMonotonic() {
+		return rateMonotonic;
+	}
+
+	public void setRateMonotonic(boolean rateMonotonic) {
+		this.rateMonotonic = rateMonotonic;
+	}
+
+	public double getLimit() {
+		return limit;
+	}
+
+	public void setLimit(double limit) {
+		this.limit = limit;
+	}
+
+	public int getCacheSize() {
+		return cacheSize;
+	}
+
+	public void setCacheSize(int cacheSize) {
+		this.cacheSize = cacheSize;
+	}
+
+	public int getPriority() {
+		return priority;
+	}
+
+	public void setPriority(int priority) {
+		this.priority = priority;
+	}
+
+	@Override
+	protected void config() {
+		ResponseTimeAnalysis analysis = cacheSize > 0 ? new CompositionalResponseTimeAnalysis(rateMonotonic, limit,
+				1000, cacheSize) : new ResponseTimeAnalysis(rateMonotonic, limit, 1000);
+		ResponseTimeEvaluator evaluator = new ResponseTimeEvaluator(analysis, priority);
+
+		Multibinder<ImplementationEvaluator> multibinder = Multibinder.newSetBinder(binder(),
+				ImplementationEvaluator.class);
+		multibinder.addBinding().toInstance(evaluator);
+	}
+
+}
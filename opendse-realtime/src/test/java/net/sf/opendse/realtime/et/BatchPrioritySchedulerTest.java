@@ -0,0 +1,157 @@
+/*******************************************************************************
+ * Copyright (c) 2015 OpenDSE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *******************************************************************************/
+package net.sf.opendse.realtime.et;
+
+import static net.sf.opendse.realtime.et.PriorityScheduler.FIXEDPRIORITY_PREEMPTIVE;
+import static net.sf.opendse.realtime.et.PriorityScheduler.SCHEDULER;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+
+import net.sf.opendse.model.Application;
+import net.sf.opendse.model.Architecture;
+import net.sf.opendse.model.Dependency;
+import net.sf.opendse.model.Link;
+import net.sf.opendse.model.Mapping;
+import net.sf.opendse.model.Mappings;
+import net.sf.opendse.model.Resource;
+import net.sf.opendse.model.Routings;
+import net.sf.opendse.model.Specification;
+import net.sf.opendse.model.Task;
+import net.sf.opendse.realtime.et.BatchPriorityScheduler.Mode;
+import net.sf.opendse.realtime.et.BatchPriorityScheduler.Result;
+import net.sf.opendse.realtime.et.TimingAnalysisListener.Phase;
+import net.sf.opendse.realtime.et.qcqp.MyEncoder.OptimizationObjective;
+import net.sf.opendse.realtime.et.rta.CompositionalResponseTimeAnalysis;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class BatchPrioritySchedulerTest {
+
+	/**
+	 * Creates two tasks that are only schedulable with the priorities that
+	 * are not rate-monotonic if e1 is 4.
+	 */
+	protected Specification createImplementation(double e1) {
+		Application<Task, Dependency> application = new Application<Task, Dependency>();
+		Architecture<Resource, Link> architecture = new Architecture<Resource, Link>();
+		Mappings<Task, Resource> mappings = new Mappings<Task, Resource>();
+		Resource r1 = new Resource("r1");
+		r1.setAttribute(SCHEDULER, FIXEDPRIORITY_PREEMPTIVE);
+		architecture.addVertex(r1);
+
+		double[][] parameters = { { e1, 10.0, 10.0 }, { 5.0, 20.0, 5.0 } };
+		for (int k = 0; k < parameters.length; k++) {
+			Task task = new Task("t" + (k + 1));
+			task.setAttribute("e", parameters[k][0]);
+			task.setAttribute("h", parameters[k][1]);
+			task.setAttribute("deadline", parameters[k][2]);
+			application.addVertex(task);
+			mappings.add(new Mapping<Task, Resource>("m" + task.getId(), task, r1));
+		}
+		return new Specification(application, architecture, mappings, new Routings<Task, Resource, Link>());
+	}
+
+	@Test
+	public void testSchedule() {
+		List<Specification> implementations = new ArrayList<Specification>();
+		implementations.add(createImplementation(4.0));
+		implementations.add(createImplementation(6.0));
+		Specification invalid = createImplementation(4.0);
+		invalid.getApplication().getVertex("t1").setAttribute("h", null);
+		implementations.add(invalid);
+
+		BatchPriorityScheduler scheduler = new BatchPriorityScheduler(new DefaultSolverProvider(
+				DefaultSolverProvider.BRANCH_AND_BOUND, 60), false, 2);
+		scheduler.setObjective(OptimizationObjective.DELAY);
+		List<Result> results = scheduler.schedule(implementations);
+
+		Assert.assertEquals(3, results.size());
+		Assert.assertTrue(results.get(0).isFeasible());
+		Assert.assertNotNull(results.get(0).getTimingGraph());
+		Assert.assertFalse(results.get(1).isFeasible());
+		Assert.assertFalse(results.get(1).isFailed());
+		Assert.assertTrue(results.get(2).isFailed());
+		Assert.assertSame(invalid, results.get(2).getImplementation());
+		Assert.assertNotNull(results.get(2).getFailureReason());
+	}
+
+	@Test
+	public void testSolverFreeWorkConcurrently() {
+		List<Specification> implementations = new ArrayList<Specification>();
+		implementations.add(createImplementation(4.0));
+		implementations.add(createImplementation(4.0));
+
+		// both workers have to assign the priorities at the same time although
+		// the solvers of the provider are synchronized
+		final CyclicBarrier barrier = new CyclicBarrier(2);
+		BatchPriorityScheduler scheduler = new BatchPriorityScheduler(new DefaultSolverProvider(
+				DefaultSolverProvider.GUROBI, 60), false, 2);
+		scheduler.setOptimalPriorityAssignment(true);
+		scheduler.addListener(new TimingAnalysisMetrics() {
+			@Override
+			public void phaseCompleted(Phase phase, long nanos) {
+				if (phase == Phase.PRIORITY_ASSIGNMENT) {
+					try {
+						barrier.await(10, TimeUnit.SECONDS);
+					} catch (Exception e) {
+						throw new RuntimeException(e);
+					}
+				}
+			}
+		});
+		List<Result> results = scheduler.schedule(implementations);
+
+		for (Result result : results) {
+			Assert.assertFalse(result.getFailureReason(), result.isFailed());
+			Assert.assertTrue(result.isFeasible());
+		}
+	}
+
+	@Test
+	public void testAnalysis() {
+		List<Specification> implementations = new ArrayList<Specification>();
+		for (int i = 0; i < 4; i++) {
+			Specification implementation = createImplementation(1.0);
+			// schedulable with rate-monotonic priorities
+			implementation.getApplication().getVertex("t2").setAttribute("deadline", 20.0);
+			implementations.add(implementation);
+		}
+
+		BatchPriorityScheduler scheduler = new BatchPriorityScheduler(new DefaultSolverProvider(
+				DefaultSolverProvider.BRANCH_AND_BOUND, 60), true, 2);
+		scheduler.setMode(Mode.ANALYSIS);
+		List<Result> results = scheduler.schedule(implementations);
+
+		for (Result result : results) {
+			Assert.assertTrue(result.isFeasible());
+		}
+		// the resource of the equal implementations is analyzed at most once per thread
+		CompositionalResponseTimeAnalysis analysis = (CompositionalResponseTimeAnalysis) scheduler.getAnalysis();
+		Assert.assertTrue(analysis.getMisses() <= 2);
+		Assert.assertTrue(analysis.getHits() >= 2);
+	}
+
+}
@@ -0,0 +1,54 @@
+/*******************************************************************************
+ * Copyright (c) 2015 OpenDSE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *******************************************************************************/
+package net.sf.opendse.realtime.et;
+
+import net.sf.jmpi.main.MpSolver;
+import net.sf.opendse.realtime.et.milp.SolverBranchAndBound;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SolverProvidersTest {
+
+	@Test
+	public void testDefaultSolverProvider() {
+		// checked by the configuration without creating a Gurobi solver
+		Assert.assertTrue(SolverProviders.isGurobi(new DefaultSolverProvider(DefaultSolverProvider.GUROBI, 10)));
+		Assert.assertFalse(SolverProviders.isGurobi(new DefaultSolverProvider(
+				DefaultSolverProvider.BRANCH_AND_BOUND, 10)));
+	}
+
+	@Test
+	public void testSolverProvider() {
+		final int[] created = { 0 };
+		SolverProvider solverProvider = new SolverProvider() {
+			@Override
+			public MpSolver get() {
+				created[0]++;
+				return new SolverBranchAndBound();
+			}
+		};
+		Assert.assertFalse(SolverProviders.isGurobi(solverProvider));
+		Assert.assertEquals(1, created[0]);
+	}
+
+}
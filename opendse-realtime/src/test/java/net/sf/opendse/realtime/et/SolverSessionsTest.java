@@ -0,0 +1,118 @@
+/*******************************************************************************
+ * Copyright (c) 2015 OpenDSE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *******************************************************************************/
+package net.sf.opendse.realtime.et;
+
+import static net.sf.jmpi.main.expression.MpExpr.sum;
+import net.sf.jmpi.main.MpConstraint;
+import net.sf.jmpi.main.MpDirection;
+import net.sf.jmpi.main.MpOperator;
+import net.sf.jmpi.main.MpProblem;
+import net.sf.jmpi.main.MpResult;
+import net.sf.jmpi.main.MpSolver;
+import net.sf.opendse.realtime.et.milp.SolverBranchAndBound;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SolverSessionsTest {
+
+	protected MpConstraint constraint;
+
+	protected MpProblem createProblem() {
+		MpProblem problem = new MpProblem();
+		problem.addVar(0, "x", 10, Integer.class);
+		problem.addVar(0, "y", 10, Integer.class);
+		problem.add(sum("x", "y", "y"), "<=", 8);
+		constraint = problem.add(sum("x", "x", "x", "y"), "<=", 9);
+		problem.setObjective(sum("x", "y"), MpDirection.MAX);
+		return problem;
+	}
+
+	protected void check(SolverSession session) {
+		Assert.assertEquals(5.0, session.solve().getObjective().doubleValue(), 1e-6);
+
+		session.fix("y", 1);
+		MpResult result = session.solve();
+		Assert.assertEquals(3.0, result.getObjective().doubleValue(), 1e-6);
+		Assert.assertEquals(2, result.get("x").intValue());
+
+		session.setBounds("y", 0, 10);
+		session.setCoefficient(constraint, "x", 1);
+		Assert.assertEquals(8.0, session.solve().getObjective().doubleValue(), 1e-6);
+
+		session.setObjective(sum("y"), MpDirection.MAX);
+		Assert.assertEquals(4.0, session.solve().getObjective().doubleValue(), 1e-6);
+
+		session.add(new MpConstraint(sum("y"), MpOperator.LE, sum(2.5)));
+		Assert.assertEquals(2.0, session.solve().getObjective().doubleValue(), 1e-6);
+	}
+
+	@Test
+	public void testSolverSession() {
+		SolverSession session = SolverSessions.open(new SolverProvider() {
+			@Override
+			public MpSolver get() {
+				return new SolverBranchAndBound();
+			}
+		}, createProblem());
+
+		Assert.assertTrue(session instanceof SolverBranchAndBound);
+		check(session);
+	}
+
+	@Test
+	public void testRebuildSolverSession() {
+		SolverProvider solverProvider = new SolverProvider() {
+			@Override
+			public MpSolver get() {
+				// hides the session of the solver
+				final SolverBranchAndBound solver = new SolverBranchAndBound();
+				return new MpSolver() {
+					@Override
+					public void add(MpProblem problem) {
+						solver.add(problem);
+					}
+
+					@Override
+					public MpResult solve() {
+						return solver.solve();
+					}
+
+					@Override
+					public void setTimeout(int timeout) {
+						solver.setTimeout(timeout);
+					}
+
+					@Override
+					public void setVerbose(int verbose) {
+						solver.setVerbose(verbose);
+					}
+				};
+			}
+		};
+		SolverSession session = SolverSessions.open(solverProvider, createProblem());
+
+		Assert.assertTrue(session instanceof RebuildSolverSession);
+		check(session);
+	}
+
+}
@@ -0,0 +1,214 @@
+/*******************************************************************************
+ * Copyright (c) 2015 OpenDSE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *******************************************************************************/
+package net.sf.opendse.realtime.et;
+
+import static net.sf.opendse.realtime.et.PriorityScheduler.FIXEDPRIORITY_PREEMPTIVE;
+import static net.sf.opendse.realtime.et.PriorityScheduler.SCHEDULER;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import net.sf.jmpi.main.MpResult;
+import net.sf.opendse.model.Application;
+import net.sf.opendse.model.Architecture;
+import net.sf.opendse.model.Dependency;
+import net.sf.opendse.model.Link;
+import net.sf.opendse.model.Mapping;
+import net.sf.opendse.model.Mappings;
+import net.sf.opendse.model.Resource;
+import net.sf.opendse.model.Routings;
+import net.sf.opendse.model.Specification;
+import net.sf.opendse.model.Task;
+import net.sf.opendse.realtime.et.TimingAnalysisListener.Phase;
+import net.sf.opendse.realtime.et.graph.TimingElement;
+import net.sf.opendse.realtime.et.qcqp.MyConflictRefinement.ConflictRefinementMethod;
+import net.sf.opendse.realtime.et.qcqp.MyEncoder.OptimizationObjective;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TimingAnalysisMetricsTest {
+
+	protected final SolverProvider solverProvider = new DefaultSolverProvider(DefaultSolverProvider.BRANCH_AND_BOUND,
+			60);
+
+	/**
+	 * Creates two tasks that are only schedulable with the priorities that
+	 * are not rate-monotonic if e1 is 4.
+	 */
+	protected Specification createImplementation(double e1) {
+		Application<Task, Dependency> application = new Application<Task, Dependency>();
+		Architecture<Resource, Link> architecture = new Architecture<Resource, Link>();
+		Mappings<Task, Resource> mappings = new Mappings<Task, Resource>();
+		Resource r1 = new Resource("r1");
+		r1.setAttribute(SCHEDULER, FIXEDPRIORITY_PREEMPTIVE);
+		architecture.addVertex(r1);
+
+		double[][] parameters = { { e1, 10.0, 10.0 }, { 5.0, 20.0, 5.0 } };
+		for (int k = 0; k < parameters.length; k++) {
+			Task task = new Task("t" + (k + 1));
+			task.setAttribute("e", parameters[k][0]);
+			task.setAttribute("h", parameters[k][1]);
+			task.setAttribute("deadline", parameters[k][2]);
+			application.addVertex(task);
+			mappings.add(new Mapping<Task, Resource>("m" + task.getId(), task, r1));
+		}
+		return new Specification(application, architecture, mappings, new Routings<Task, Resource, Link>());
+	}
+
+	@Test
+	public void testSolve() {
+		PriorityScheduler scheduler = new PriorityScheduler(createImplementation(4.0), solverProvider, false);
+		Assert.assertTrue(scheduler.solve(OptimizationObjective.DELAY));
+
+		TimingAnalysisMetrics metrics = scheduler.getMetrics();
+		for (Phase phase : new Phase[] { Phase.GRAPH_BUILD, Phase.MODIFIER_FILTERING, Phase.ENCODING, Phase.SOLVE,
+				Phase.INTERPRETATION }) {
+			Assert.assertTrue(phase.toString(), metrics.getNanos(phase) > 0);
+		}
+		Assert.assertEquals(0, metrics.getNanos(Phase.CONFLICT_REFINEMENT));
+		Assert.assertTrue(metrics.getVariables() > 0);
+		Assert.assertTrue(metrics.getConstraints() > 0);
+		Assert.assertEquals(2, metrics.getPriorityEdges());
+		Assert.assertEquals(1, metrics.getSolves());
+		Assert.assertEquals(Boolean.TRUE, metrics.isFeasible());
+		Assert.assertEquals(0, metrics.getRefinementSteps());
+		Assert.assertNull(metrics.getIIS());
+	}
+
+	@Test
+	public void testConflictRefinement() {
+		PriorityScheduler scheduler = new PriorityScheduler(createImplementation(6.0), solverProvider, false);
+		final int[] steps = { 0 };
+		scheduler.addListener(new TimingAnalysisMetrics() {
+			@Override
+			public synchronized void refinementStep(Set<TimingElement> relaxed, boolean feasible) {
+				Assert.assertEquals(1, relaxed.size());
+				steps[0]++;
+			}
+		});
+		Assert.assertFalse(scheduler.solve(OptimizationObjective.DELAY));
+
+		TimingAnalysisMetrics metrics = scheduler.getMetrics();
+		Assert.assertEquals(Boolean.FALSE, metrics.isFeasible());
+
+		Set<TimingElement> iis = scheduler.determineIIS(ConflictRefinementMethod.DELETION);
+		Assert.assertEquals(iis, metrics.getIIS());
+		Assert.assertEquals(2, iis.size());
+		Assert.assertEquals(2, metrics.getIISFunctions().size());
+		Assert.assertEquals(2, metrics.getRefinementSteps());
+		Assert.assertEquals(2, steps[0]);
+		Assert.assertTrue(metrics.getNanos(Phase.CONFLICT_REFINEMENT) > 0);
+	}
+
+	@Test
+	public void testOptimalPriorityAssignment() {
+		PriorityScheduler scheduler = new PriorityScheduler(createImplementation(4.0), solverProvider, false);
+		scheduler.setOptimalPriorityAssignment(true);
+		Assert.assertTrue(scheduler.solve(OptimizationObjective.DELAY));
+
+		TimingAnalysisMetrics metrics = scheduler.getMetrics();
+		Assert.assertTrue(metrics.getNanos(Phase.PRIORITY_ASSIGNMENT) > 0);
+		Assert.assertEquals(0, metrics.getNanos(Phase.SOLVE));
+		Assert.assertEquals(1, metrics.getSolves());
+		Assert.assertEquals(Boolean.TRUE, metrics.isFeasible());
+		Assert.assertEquals(-1.0, metrics.getMIPGap(), 0.0);
+	}
+
+	@Test
+	public void testLazyCycleElimination() {
+		Application<Task, Dependency> application = new Application<Task, Dependency>();
+		Architecture<Resource, Link> architecture = new Architecture<Resource, Link>();
+		Mappings<Task, Resource> mappings = new Mappings<Task, Resource>();
+		Resource r1 = new Resource("r1");
+		r1.setAttribute(SCHEDULER, FIXEDPRIORITY_PREEMPTIVE);
+		architecture.addVertex(r1);
+		for (int k = 1; k <= 3; k++) {
+			Task task = new Task("t" + k);
+			task.setAttribute("e", 1.0);
+			task.setAttribute("h", 30.0);
+			application.addVertex(task);
+			mappings.add(new Mapping<Task, Resource>("m" + task.getId(), task, r1));
+		}
+		Specification implementation = new Specification(application, architecture, mappings,
+				new Routings<Task, Resource, Link>());
+
+		// the first result has all priorities in both directions, i.e., two
+		// violated triangles
+		PriorityScheduler scheduler = new PriorityScheduler(implementation, solverProvider, false) {
+			boolean first = true;
+
+			@Override
+			protected MpResult solve(SolverSession session) {
+				final MpResult result = super.solve(session);
+				if (!first || result == null) {
+					return result;
+				}
+				first = false;
+				return new MpResult() {
+					@Override
+					public Number getObjective() {
+						return result.getObjective();
+					}
+
+					@Override
+					public boolean getBoolean(Object var) {
+						return true;
+					}
+
+					@Override
+					public Number get(Object var) {
+						return result.get(var);
+					}
+
+					@Override
+					public void put(Object var, Number value) {
+						result.put(var, value);
+					}
+
+					@Override
+					public Boolean containsVar(Object var) {
+						return result.containsVar(var);
+					}
+				};
+			}
+		};
+		scheduler.setLazyCycleElimination(true);
+		final List<Integer> counts = new ArrayList<Integer>();
+		scheduler.addListener(new TimingAnalysisMetrics() {
+			@Override
+			public synchronized void problemEncoded(int variables, int constraints, int priorityEdges) {
+				counts.add(constraints);
+			}
+		});
+		Assert.assertTrue(scheduler.solve(OptimizationObjective.DELAY));
+
+		TimingAnalysisMetrics metrics = scheduler.getMetrics();
+		Assert.assertEquals(2, metrics.getSolves());
+		Assert.assertEquals(Boolean.TRUE, metrics.isFeasible());
+		Assert.assertEquals(2, counts.size());
+		Assert.assertEquals(counts.get(0) + 2, (int) counts.get(1));
+		Assert.assertEquals((int) counts.get(1), metrics.getConstraints());
+	}
+
+}
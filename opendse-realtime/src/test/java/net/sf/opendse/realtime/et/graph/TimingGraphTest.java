@@ -0,0 +1,62 @@
+/*******************************************************************************
+ * Copyright (c) 2015 OpenDSE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *******************************************************************************/
+package net.sf.opendse.realtime.et.graph;
+
+import net.sf.opendse.model.Resource;
+import net.sf.opendse.model.Task;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TimingGraphTest {
+
+	@Test
+	public void testFindNode() {
+		Task task = new Task("t");
+		Resource resource = new Resource("r");
+		TimingElement te = new TimingElement(task, resource);
+
+		TimingGraph tg = new TimingGraph();
+		tg.addVertex(te);
+
+		Assert.assertSame(te, tg.findNode(new TimingElement(task, resource)));
+		Assert.assertSame(te, tg.getTimingElement(task, resource));
+		Assert.assertNull(tg.getTimingElement(task, new Resource("r2")));
+
+		tg.removeVertex(te);
+		Assert.assertNull(tg.findNode(te));
+	}
+
+	@Test
+	public void testFindNodeAddedByEdge() {
+		Resource resource = new Resource("r");
+		TimingElement te1 = new TimingElement(new Task("t1"), resource);
+		TimingElement te2 = new TimingElement(new Task("t2"), resource);
+
+		TimingGraph tg = new TimingGraph();
+		tg.addEdge(new TimingDependencyPriority(), te1, te2);
+
+		Assert.assertSame(te1, tg.findNode(te1));
+		Assert.assertSame(te2, tg.findNode(te2));
+	}
+
+}
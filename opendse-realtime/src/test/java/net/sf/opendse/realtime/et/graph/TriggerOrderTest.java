@@ -0,0 +1,110 @@
+/*******************************************************************************
+ * Copyright (c) 2015 OpenDSE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *******************************************************************************/
+package net.sf.opendse.realtime.et.graph;
+
+import java.util.List;
+
+import net.sf.opendse.model.Resource;
+import net.sf.opendse.model.Task;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TriggerOrderTest {
+
+	protected TimingElement[] createChain(TimingGraph tg) {
+		Resource resource = new Resource("r");
+		TimingElement[] elements = new TimingElement[4];
+		for (int i = 0; i < elements.length; i++) {
+			elements[i] = new TimingElement(new Task("t" + i), resource);
+			elements[i].setAttribute("e", 1.0 + i);
+			tg.addVertex(elements[i]);
+		}
+		// t0 -> t1 -> t2, t3 is independent
+		tg.addEdge(new TimingDependencyTrigger(), elements[0], elements[1]);
+		tg.addEdge(new TimingDependencyTrigger(), elements[1], elements[2]);
+		tg.addEdge(new TimingDependencyPriority(), elements[2], elements[0]);
+		tg.addEdge(new TimingDependencyPriority(), elements[3], elements[1]);
+		return elements;
+	}
+
+	@Test
+	public void testOrder() {
+		TimingGraph tg = new TimingGraph();
+		TimingElement[] elements = createChain(tg);
+
+		TriggerOrder order = new TriggerOrder(tg);
+		List<TimingElement> list = order.getOrder();
+
+		Assert.assertEquals(4, list.size());
+		Assert.assertTrue(list.indexOf(elements[0]) < list.indexOf(elements[1]));
+		Assert.assertTrue(list.indexOf(elements[1]) < list.indexOf(elements[2]));
+		Assert.assertTrue(order.getReverseOrder().indexOf(elements[2]) < order.getReverseOrder().indexOf(elements[0]));
+
+		Assert.assertTrue(order.isPredecessor(elements[0], elements[2]));
+		Assert.assertTrue(order.isPredecessor(elements[1], elements[2]));
+		Assert.assertFalse(order.isPredecessor(elements[2], elements[0]));
+		Assert.assertFalse(order.isPredecessor(elements[3], elements[1]));
+		Assert.assertFalse(order.isPredecessor(elements[0], elements[0]));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testCycle() {
+		TimingGraph tg = new TimingGraph();
+		TimingElement[] elements = createChain(tg);
+		tg.addEdge(new TimingDependencyTrigger(), elements[2], elements[0]);
+
+		new TriggerOrder(tg);
+	}
+
+	@Test
+	public void testBackwardsDeadlines() {
+		TimingGraph tg = new TimingGraph();
+		TimingElement[] elements = createChain(tg);
+		elements[2].setAttribute("deadline", 10.0);
+
+		TimingGraphBuilder.annotateBackwardsDeadlines(tg);
+
+		Assert.assertEquals(10.0, (Double) elements[2].getAttribute("deadline*"), 0.0);
+		// 10 - e(t2)
+		Assert.assertEquals(7.0, (Double) elements[1].getAttribute("deadline*"), 0.0);
+		// 7 - e(t1)
+		Assert.assertEquals(5.0, (Double) elements[0].getAttribute("deadline*"), 0.0);
+	}
+
+	@Test
+	public void testPredicates() {
+		TimingGraph tg = new TimingGraph();
+		TimingElement[] elements = createChain(tg);
+		TimingDependency forward = new TimingDependencyPriority();
+		tg.addEdge(forward, elements[0], elements[2]);
+		TimingDependency backward = tg.findEdge(elements[2], elements[0]);
+
+		ApplicationPriorityCyclesPredicate cycles = new ApplicationPriorityCyclesPredicate(tg);
+		Assert.assertTrue(cycles.evaluate(forward));
+		Assert.assertFalse(cycles.evaluate(backward));
+
+		ApplicationDependencyInterferencePredicate interference = new ApplicationDependencyInterferencePredicate(tg);
+		Assert.assertFalse(interference.evaluate(forward));
+		Assert.assertTrue(interference.evaluate(backward));
+	}
+}
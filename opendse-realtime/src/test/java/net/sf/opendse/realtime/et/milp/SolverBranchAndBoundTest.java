@@ -0,0 +1,220 @@
+/*******************************************************************************
+ * Copyright (c) 2015 OpenDSE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *******************************************************************************/
+package net.sf.opendse.realtime.et.milp;
+
+import static net.sf.jmpi.main.expression.MpExpr.prod;
+import static net.sf.jmpi.main.expression.MpExpr.sum;
+import static net.sf.opendse.realtime.et.PriorityScheduler.FIXEDPRIORITY_PREEMPTIVE;
+import static net.sf.opendse.realtime.et.PriorityScheduler.PRIORITY;
+import static net.sf.opendse.realtime.et.PriorityScheduler.SCHEDULER;
+
+import java.util.Random;
+
+import net.sf.jmpi.main.MpDirection;
+import net.sf.jmpi.main.MpProblem;
+import net.sf.jmpi.main.MpResult;
+import net.sf.jmpi.main.expression.MpExpr;
+import net.sf.opendse.model.Application;
+import net.sf.opendse.model.Architecture;
+import net.sf.opendse.model.Dependency;
+import net.sf.opendse.model.Link;
+import net.sf.opendse.model.Mapping;
+import net.sf.opendse.model.Mappings;
+import net.sf.opendse.model.Resource;
+import net.sf.opendse.model.Routings;
+import net.sf.opendse.model.Specification;
+import net.sf.opendse.model.Task;
+import net.sf.opendse.realtime.et.DefaultSolverProvider;
+import net.sf.opendse.realtime.et.PriorityScheduler;
+import net.sf.opendse.realtime.et.qcqp.MyEncoder.OptimizationObjective;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SolverBranchAndBoundTest {
+
+	protected MpResult solve(MpProblem problem) {
+		SolverBranchAndBound solver = new SolverBranchAndBound();
+		solver.add(problem);
+		return solver.solve();
+	}
+
+	@Test
+	public void testLinearProgram() {
+		MpProblem problem = new MpProblem();
+		problem.addVar(0, "x", 4, Double.class);
+		problem.addVar("y", Double.class);
+		problem.add(sum("x", "y"), "<=", 5);
+		problem.add(sum("y"), ">=", sum(prod(-1, "x"), 1));
+		problem.setObjective(sum(prod(3, "x"), prod(2, "y")), MpDirection.MAX);
+
+		MpResult result = solve(problem);
+		Assert.assertNotNull(result);
+		Assert.assertEquals(4.0, result.get("x").doubleValue(), 1e-6);
+		Assert.assertEquals(1.0, result.get("y").doubleValue(), 1e-6);
+		Assert.assertEquals(14.0, result.getObjective().doubleValue(), 1e-6);
+	}
+
+	@Test
+	public void testInfeasible() {
+		MpProblem problem = new MpProblem();
+		problem.addVar("a", Boolean.class);
+		problem.addVar("b", Boolean.class);
+		problem.add(sum("a", "b"), ">=", 3);
+
+		Assert.assertNull(solve(problem));
+	}
+
+	@Test
+	public void testProduct() {
+		MpProblem problem = new MpProblem();
+		problem.addVar("a", Boolean.class);
+		problem.addVar(0, "i", 5, Integer.class);
+		problem.add(sum("i"), "<=", 4.5);
+		MpExpr objective = sum(-3, "i");
+		objective.addTerm(2, "a", "i");
+		problem.setObjective(sum(objective, prod(-3, "a")), MpDirection.MAX);
+
+		MpResult result = solve(problem);
+		Assert.assertNotNull(result);
+		Assert.assertTrue(result.getBoolean("a"));
+		Assert.assertEquals(4, result.get("i").intValue());
+		// 2*4 - 3 + 4 - 3
+		Assert.assertEquals(6.0, result.getObjective().doubleValue(), 1e-6);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testNonBinaryProduct() {
+		MpProblem problem = new MpProblem();
+		problem.addVar(0, "i", 5, Integer.class);
+		problem.addVar(0, "j", 5, Integer.class);
+		MpExpr lhs = sum();
+		lhs.addTerm(1, "i", "j");
+		problem.add(lhs, ">=", 4);
+		solve(problem);
+	}
+
+	@Test
+	public void testRandom() {
+		Random random = new Random(7);
+		for (int run = 0; run < 50; run++) {
+			int n = 4;
+			int m = 3;
+			double[][] a = new double[m][n];
+			double[] b = new double[m];
+			double[] c = new double[n];
+
+			MpProblem problem = new MpProblem();
+			for (int j = 0; j < n; j++) {
+				problem.addVar(0, "x" + j, 3, Integer.class);
+				c[j] = random.nextInt(11) - 5;
+			}
+			for (int i = 0; i < m; i++) {
+				MpExpr lhs = sum();
+				for (int j = 0; j < n; j++) {
+					a[i][j] = random.nextInt(9) - 3;
+					lhs.add(prod(a[i][j], "x" + j));
+				}
+				b[i] = random.nextInt(8);
+				problem.add(lhs, "<=", b[i]);
+			}
+			MpExpr objective = sum();
+			for (int j = 0; j < n; j++) {
+				objective.add(prod(c[j], "x" + j));
+			}
+			problem.setObjective(objective, MpDirection.MIN);
+
+			// enumerate all assignments
+			Double best = null;
+			int[] x = new int[n];
+			for (int k = 0; k < 256; k++) {
+				for (int j = 0, r = k; j < n; j++, r /= 4) {
+					x[j] = r % 4;
+				}
+				boolean feasible = true;
+				for (int i = 0; i < m; i++) {
+					double lhs = 0;
+					for (int j = 0; j < n; j++) {
+						lhs += a[i][j] * x[j];
+					}
+					feasible &= lhs <= b[i];
+				}
+				if (feasible) {
+					double value = 0;
+					for (int j = 0; j < n; j++) {
+						value += c[j] * x[j];
+					}
+					best = (best == null) ? value : Math.min(best, value);
+				}
+			}
+
+			MpResult result = solve(problem);
+			if (best == null) {
+				Assert.assertNull(result);
+			} else {
+				Assert.assertNotNull(result);
+				Assert.assertEquals(best, result.getObjective().doubleValue(), 1e-6);
+			}
+		}
+	}
+
+	protected Specification createImplementation(double e1) {
+		Application<Task, Dependency> application = new Application<Task, Dependency>();
+		Architecture<Resource, Link> architecture = new Architecture<Resource, Link>();
+		Mappings<Task, Resource> mappings = new Mappings<Task, Resource>();
+		Resource r1 = new Resource("r1");
+		r1.setAttribute(SCHEDULER, FIXEDPRIORITY_PREEMPTIVE);
+		architecture.addVertex(r1);
+
+		double[][] parameters = { { e1, 10.0, 10.0 }, { 5.0, 20.0, 5.0 } };
+		for (int k = 0; k < parameters.length; k++) {
+			Task task = new Task("t" + (k + 1));
+			task.setAttribute("e", parameters[k][0]);
+			task.setAttribute("h", parameters[k][1]);
+			task.setAttribute("deadline", parameters[k][2]);
+			application.addVertex(task);
+			mappings.add(new Mapping<Task, Resource>("m" + task.getId(), task, r1));
+		}
+		return new Specification(application, architecture, mappings, new Routings<Task, Resource, Link>());
+	}
+
+	@Test
+	public void testPriorityScheduler() {
+		Specification impl = createImplementation(4.0);
+		DefaultSolverProvider provider = new DefaultSolverProvider(DefaultSolverProvider.BRANCH_AND_BOUND, 60);
+		PriorityScheduler scheduler = new PriorityScheduler(impl, provider, false);
+
+		Assert.assertTrue(scheduler.solve(OptimizationObjective.DELAY));
+		Task t1 = impl.getApplication().getVertex("t1");
+		Task t2 = impl.getApplication().getVertex("t2");
+		Assert.assertTrue((Integer) t2.getAttribute(PRIORITY) < (Integer) t1.getAttribute(PRIORITY));
+	}
+
+	@Test
+	public void testPrioritySchedulerInfeasible() {
+		DefaultSolverProvider provider = new DefaultSolverProvider(DefaultSolverProvider.BRANCH_AND_BOUND, 60);
+		PriorityScheduler scheduler = new PriorityScheduler(createImplementation(6.0), provider, false);
+
+		Assert.assertFalse(scheduler.solve(OptimizationObjective.DELAY));
+	}
+
+}
@@ -0,0 +1,107 @@
+/*******************************************************************************
+ * Copyright (c) 2015 OpenDSE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *******************************************************************************/
+package net.sf.opendse.realtime.et.qcqp;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import net.sf.opendse.model.Resource;
+import net.sf.opendse.model.Task;
+import net.sf.opendse.realtime.et.graph.TimingDependency;
+import net.sf.opendse.realtime.et.graph.TimingDependencyPriority;
+import net.sf.opendse.realtime.et.graph.TimingElement;
+import net.sf.opendse.realtime.et.graph.TimingGraph;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class MyConflictRefinementParallelTest {
+
+	/**
+	 * Refinement that considers the timing graph infeasible if all elements
+	 * of one of the conflicts are active and the priority dependency between
+	 * the first two elements of the first conflict exists.
+	 */
+	static class ConflictRefinement extends MyConflictRefinementParallel {
+
+		final List<List<TimingElement>> conflicts;
+		final TimingDependency dependency;
+
+		ConflictRefinement(int threads, TimingDependency dependency, List<List<TimingElement>> conflicts) {
+			super(null, false, threads);
+			this.conflicts = conflicts;
+			this.dependency = dependency;
+		}
+
+		@Override
+		protected boolean isFeasible(TimingGraph tg) {
+			if (!tg.containsEdge(dependency)) {
+				return true;
+			}
+			for (List<TimingElement> conflict : conflicts) {
+				boolean active = true;
+				for (TimingElement te : conflict) {
+					active &= (Double) tg.findNode(te).getAttribute("e") > 0.0;
+				}
+				if (active) {
+					return false;
+				}
+			}
+			return true;
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	@Test
+	public void testFind() {
+		Resource resource = new Resource("r");
+		TimingGraph tg = new TimingGraph();
+		TimingElement[] elements = new TimingElement[16];
+		for (int i = 0; i < elements.length; i++) {
+			elements[i] = new TimingElement(new Task("t" + i), resource);
+			elements[i].setAttribute("e", 1.0);
+			tg.addVertex(elements[i]);
+		}
+		TimingDependency dependency = new TimingDependencyPriority();
+		tg.addEdge(dependency, elements[2], elements[3]);
+
+		// two overlapping conflicts, relaxing all removable candidates of a
+		// batch at once would remove both
+		List<TimingElement> c1 = Arrays.asList(elements[2], elements[3], elements[0]);
+		List<TimingElement> c2 = Arrays.asList(elements[2], elements[3], elements[1]);
+
+		for (int threads : new int[] { 1, 2, 4 }) {
+			ConflictRefinement refinement = new ConflictRefinement(threads, dependency, Arrays.asList(c1, c2));
+			Set<TimingElement> iis = refinement.find(tg, null);
+
+			Assert.assertTrue(iis.equals(new HashSet<TimingElement>(c1)) || iis.equals(new HashSet<TimingElement>(c2)));
+		}
+
+		// the timing graph is not modified
+		Assert.assertEquals(1, tg.getEdgeCount());
+		for (TimingElement te : elements) {
+			Assert.assertEquals(1.0, (Double) te.getAttribute("e"), 0.0);
+		}
+	}
+}
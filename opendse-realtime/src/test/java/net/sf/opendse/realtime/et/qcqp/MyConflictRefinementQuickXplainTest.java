@@ -0,0 +1,119 @@
+/*******************************************************************************
+ * Copyright (c) 2015 OpenDSE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *******************************************************************************/
+package net.sf.opendse.realtime.et.qcqp;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import net.sf.opendse.model.Resource;
+import net.sf.opendse.model.Task;
+import net.sf.opendse.realtime.et.graph.TimingDependency;
+import net.sf.opendse.realtime.et.graph.TimingDependencyPriority;
+import net.sf.opendse.realtime.et.graph.TimingElement;
+import net.sf.opendse.realtime.et.graph.TimingGraph;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class MyConflictRefinementQuickXplainTest {
+
+	/**
+	 * Refinement that considers the timing graph infeasible if all elements
+	 * of the conflict are active and the priority dependency between the
+	 * first two elements exists.
+	 */
+	static class ConflictRefinement extends MyConflictRefinementQuickXplain {
+
+		final List<TimingElement> conflict;
+		final TimingDependency dependency;
+		int calls = 0;
+
+		ConflictRefinement(List<TimingElement> conflict, TimingDependency dependency) {
+			super(null, false);
+			this.conflict = conflict;
+			this.dependency = dependency;
+		}
+
+		@Override
+		protected boolean isFeasible(TimingGraph tg) {
+			calls++;
+			for (TimingElement te : conflict) {
+				if ((Double) te.getAttribute("e") == 0.0) {
+					return true;
+				}
+			}
+			return !tg.containsEdge(dependency);
+		}
+	}
+
+	@Test
+	public void testFind() {
+		Resource resource = new Resource("r");
+		TimingGraph tg = new TimingGraph();
+		TimingElement[] elements = new TimingElement[64];
+		for (int i = 0; i < elements.length; i++) {
+			elements[i] = new TimingElement(new Task("t" + i), resource);
+			elements[i].setAttribute("e", 1.0 + i);
+			tg.addVertex(elements[i]);
+		}
+		TimingDependency dependency = new TimingDependencyPriority();
+		tg.addEdge(dependency, elements[7], elements[40]);
+		for (int i = 1; i < elements.length; i++) {
+			tg.addEdge(new TimingDependencyPriority(), elements[i - 1], elements[i]);
+		}
+
+		List<TimingElement> conflict = Arrays.asList(elements[7], elements[40], elements[51]);
+		ConflictRefinement refinement = new ConflictRefinement(conflict, dependency);
+		Set<TimingElement> iis = refinement.find(tg, null);
+
+		Assert.assertEquals(new HashSet<TimingElement>(conflict), iis);
+		Assert.assertTrue(refinement.calls < elements.length / 2);
+
+		// the timing graph is restored
+		Assert.assertEquals(64, tg.getEdgeCount());
+		for (int i = 0; i < elements.length; i++) {
+			Assert.assertEquals(1.0 + i, (Double) elements[i].getAttribute("e"), 0.0);
+		}
+	}
+
+	@Test
+	public void testFindPredefined() {
+		Resource resource = new Resource("r");
+		TimingGraph tg = new TimingGraph();
+		TimingElement[] elements = new TimingElement[8];
+		for (int i = 0; i < elements.length; i++) {
+			elements[i] = new TimingElement(new Task("t" + i), resource);
+			elements[i].setAttribute("e", 1.0);
+			tg.addVertex(elements[i]);
+		}
+		TimingDependency dependency = new TimingDependencyPriority();
+		tg.addEdge(dependency, elements[1], elements[2]);
+
+		List<TimingElement> conflict = Arrays.asList(elements[1], elements[2], elements[5]);
+		ConflictRefinement refinement = new ConflictRefinement(conflict, dependency);
+		Set<TimingElement> iis = refinement.find(tg, null, Arrays.asList(elements[0], elements[2], elements[5]));
+
+		Assert.assertEquals(new HashSet<TimingElement>(Arrays.asList(elements[2], elements[5])), iis);
+	}
+}
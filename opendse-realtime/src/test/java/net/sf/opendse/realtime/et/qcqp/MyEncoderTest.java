@@ -0,0 +1,160 @@
+/*******************************************************************************
+ * Copyright (c) 2015 OpenDSE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *******************************************************************************/
+package net.sf.opendse.realtime.et.qcqp;
+
+import static net.sf.opendse.realtime.et.qcqp.vars.Vars.a;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import net.sf.jmpi.main.MpProblem;
+import net.sf.jmpi.main.MpResult;
+import net.sf.opendse.model.Resource;
+import net.sf.opendse.model.Task;
+import net.sf.opendse.realtime.et.graph.TimingDependency;
+import net.sf.opendse.realtime.et.graph.TimingDependencyPriority;
+import net.sf.opendse.realtime.et.graph.TimingElement;
+import net.sf.opendse.realtime.et.graph.TimingGraph;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class MyEncoderTest {
+
+	static class Result implements MpResult {
+
+		final Set<Object> vars = new HashSet<Object>();
+
+		Result(TimingDependency... tds) {
+			for (TimingDependency td : tds) {
+				vars.add(a(td));
+			}
+		}
+
+		@Override
+		public Number getObjective() {
+			return 0;
+		}
+
+		@Override
+		public boolean getBoolean(Object var) {
+			return vars.contains(var);
+		}
+
+		@Override
+		public Number get(Object var) {
+			return vars.contains(var) ? 1 : 0;
+		}
+
+		@Override
+		public void put(Object var, Number value) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public Boolean containsVar(Object var) {
+			return true;
+		}
+	}
+
+	protected TimingElement[] createElements(TimingGraph tg, int n) {
+		Resource resource = new Resource("r");
+		TimingElement[] elements = new TimingElement[n];
+		for (int i = 0; i < n; i++) {
+			elements[i] = new TimingElement(new Task("t" + i), resource);
+			elements[i].setAttribute("e", 1.0);
+			elements[i].setAttribute("h", 10.0);
+			tg.addVertex(elements[i]);
+		}
+		return elements;
+	}
+
+	protected TimingDependency[][] addPriorities(TimingGraph tg, TimingElement[] elements, boolean complete) {
+		int n = elements.length;
+		TimingDependency[][] tds = new TimingDependency[n][n];
+		for (int i = 0; i < n; i++) {
+			for (int j = 0; j < n; j++) {
+				if (i != j && (complete || Math.abs(i - j) == 1 || Math.abs(i - j) == n - 1)) {
+					tds[i][j] = new TimingDependencyPriority();
+					tg.addEdge(tds[i][j], elements[i], elements[j]);
+				}
+			}
+		}
+		return tds;
+	}
+
+	@Test
+	public void testLazyEncoding() {
+		TimingGraph tg = new TimingGraph();
+		TimingElement[] elements = createElements(tg, 6);
+		addPriorities(tg, elements, true);
+
+		MpProblem eager = new MyEncoder().encode(tg);
+		MyEncoder encoder = new MyEncoder();
+		encoder.setLazyCycleElimination(true);
+		MpProblem lazy = encoder.encode(tg);
+
+		// 6 * 5 * 4 ordered triples
+		Assert.assertEquals(eager.getConstraintsCount() - 120, lazy.getConstraintsCount());
+	}
+
+	@Test
+	public void testAddViolatedTriangle() {
+		TimingGraph tg = new TimingGraph();
+		TimingElement[] elements = createElements(tg, 4);
+		TimingDependency[][] tds = addPriorities(tg, elements, true);
+
+		MyEncoder encoder = new MyEncoder();
+		encoder.setLazyCycleElimination(true);
+		MpProblem problem = encoder.encode(tg);
+		int constraints = problem.getConstraintsCount();
+
+		// 0 > 1 > 2 > 0 and 3 lowest
+		Result result = new Result(tds[0][1], tds[1][2], tds[2][0], tds[0][3], tds[1][3], tds[2][3]);
+		Assert.assertEquals(1, encoder.addViolatedCycles(tg, problem, result));
+		Assert.assertEquals(constraints + 1, problem.getConstraintsCount());
+
+		// 0 > 1 > 2 > 3
+		result = new Result(tds[0][1], tds[1][2], tds[0][2], tds[0][3], tds[1][3], tds[2][3]);
+		Assert.assertEquals(0, encoder.addViolatedCycles(tg, problem, result));
+	}
+
+	@Test
+	public void testAddViolatedCycle() {
+		TimingGraph tg = new TimingGraph();
+		TimingElement[] elements = createElements(tg, 5);
+		TimingDependency[][] tds = addPriorities(tg, elements, false);
+
+		MyEncoder encoder = new MyEncoder();
+		encoder.setLazyCycleElimination(true);
+		MpProblem problem = encoder.encode(tg);
+		int constraints = problem.getConstraintsCount();
+
+		// ring 0 > 1 > 2 > 3 > 4 > 0 without triangles
+		Result result = new Result(tds[0][1], tds[1][2], tds[2][3], tds[3][4], tds[4][0]);
+		Assert.assertEquals(1, encoder.addViolatedCycles(tg, problem, result));
+		Assert.assertEquals(constraints + 1, problem.getConstraintsCount());
+
+		result = new Result(tds[0][1], tds[1][2], tds[2][3], tds[3][4], tds[0][4]);
+		Assert.assertEquals(0, encoder.addViolatedCycles(tg, problem, result));
+	}
+}
@@ -0,0 +1,131 @@
+/*******************************************************************************
+ * Copyright (c) 2015 OpenDSE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *******************************************************************************/
+package net.sf.opendse.realtime.et.rta;
+
+import static net.sf.opendse.realtime.et.PriorityScheduler.FIXEDPRIORITY_PREEMPTIVE;
+import static net.sf.opendse.realtime.et.PriorityScheduler.SCHEDULER;
+
+import net.sf.jmpi.main.MpSolver;
+import net.sf.opendse.model.Application;
+import net.sf.opendse.model.Architecture;
+import net.sf.opendse.model.Dependency;
+import net.sf.opendse.model.Link;
+import net.sf.opendse.model.Mapping;
+import net.sf.opendse.model.Mappings;
+import net.sf.opendse.model.Resource;
+import net.sf.opendse.model.Routings;
+import net.sf.opendse.model.Specification;
+import net.sf.opendse.model.Task;
+import net.sf.opendse.realtime.et.PriorityScheduler;
+import net.sf.opendse.realtime.et.SolverProvider;
+import net.sf.opendse.realtime.et.graph.TimingElement;
+import net.sf.opendse.realtime.et.graph.TimingGraph;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class OptimalPriorityAssignmentTest {
+
+	protected Application<Task, Dependency> application;
+	protected Architecture<Resource, Link> architecture;
+	protected Mappings<Task, Resource> mappings;
+	protected Task t1;
+	protected Task t2;
+
+	protected Task addTask(String id, double e, double h, double deadline, Resource resource) {
+		Task task = new Task(id);
+		task.setAttribute("e", e);
+		task.setAttribute("h", h);
+		task.setAttribute("deadline", deadline);
+		application.addVertex(task);
+		mappings.add(new Mapping<Task, Resource>("m" + id, task, resource));
+		return task;
+	}
+
+	/**
+	 * Creates two tasks where the rate-monotonic priorities miss the
+	 * deadline of the task with the longer period if e1 is 4.
+	 */
+	protected Specification createImplementation(double e1) {
+		application = new Application<Task, Dependency>();
+		architecture = new Architecture<Resource, Link>();
+		mappings = new Mappings<Task, Resource>();
+		Resource r1 = new Resource("r1");
+		r1.setAttribute(SCHEDULER, FIXEDPRIORITY_PREEMPTIVE);
+		architecture.addVertex(r1);
+
+		t1 = addTask("t1", e1, 10.0, 10.0, r1);
+		t2 = addTask("t2", 5.0, 20.0, 5.0, r1);
+		return new Specification(application, architecture, mappings, new Routings<Task, Resource, Link>());
+	}
+
+	protected TimingElement get(TimingGraph tg, Task task) {
+		for (TimingElement te : tg) {
+			if (te.getTask().equals(task)) {
+				return te;
+			}
+		}
+		return null;
+	}
+
+	@Test
+	public void testAssignment() {
+		TimingGraph tg = PriorityScheduler.createTimingGraph(createImplementation(4.0));
+		Assert.assertFalse(new ResponseTimeAnalysis(true).isSchedulable(new ResponseTimeAnalysis(true).analyze(tg)));
+
+		OptimalPriorityAssignment assignment = new OptimalPriorityAssignment(false);
+		TimingGraph rtg = assignment.analyze(tg);
+
+		Assert.assertNotNull(rtg);
+		Assert.assertEquals(1, (int) assignment.getPriorities().get(get(tg, t2)));
+		Assert.assertEquals(2, (int) assignment.getPriorities().get(get(tg, t1)));
+		// 4 + 5
+		Assert.assertEquals(9.0, get(tg, t1).<Double> getAttribute(ResponseTimeAnalysis.RESPONSE), 0.0);
+		Assert.assertEquals(5.0, get(tg, t2).<Double> getAttribute(ResponseTimeAnalysis.RESPONSE), 0.0);
+	}
+
+	@Test
+	public void testRateMonotonic() {
+		TimingGraph tg = PriorityScheduler.createTimingGraph(createImplementation(4.0));
+		Assert.assertNull(new OptimalPriorityAssignment(true).analyze(tg));
+	}
+
+	@Test
+	public void testInfeasible() {
+		TimingGraph tg = PriorityScheduler.createTimingGraph(createImplementation(6.0));
+		Assert.assertNull(new OptimalPriorityAssignment(false).analyze(tg));
+	}
+
+	@Test
+	public void testPriorityScheduler() {
+		PriorityScheduler scheduler = new PriorityScheduler(createImplementation(4.0), new SolverProvider() {
+			@Override
+			public MpSolver get() {
+				throw new AssertionError("solver must not be used");
+			}
+		}, false);
+		scheduler.setOptimalPriorityAssignment(true);
+
+		Assert.assertTrue(scheduler.solve(null));
+		Assert.assertNotNull(scheduler.getReducedTimingGraph());
+	}
+}
@@ -0,0 +1,278 @@
+/*******************************************************************************
+ * Copyright (c) 2015 OpenDSE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *******************************************************************************/
+package net.sf.opendse.realtime.et.rta;
+
+import static net.sf.opendse.realtime.et.PriorityScheduler.FIXEDPRIORITY_NONPREEMPTIVE;
+import static net.sf.opendse.realtime.et.PriorityScheduler.FIXEDPRIORITY_PREEMPTIVE;
+import static net.sf.opendse.realtime.et.PriorityScheduler.PRIORITY;
+import static net.sf.opendse.realtime.et.PriorityScheduler.SCHEDULER;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+
+import net.sf.opendse.model.Application;
+import net.sf.opendse.model.Architecture;
+import net.sf.opendse.model.Communication;
+import net.sf.opendse.model.Dependency;
+import net.sf.opendse.model.Link;
+import net.sf.opendse.model.Mapping;
+import net.sf.opendse.model.Mappings;
+import net.sf.opendse.model.Resource;
+import net.sf.opendse.model.Routings;
+import net.sf.opendse.model.Specification;
+import net.sf.opendse.model.Task;
+import net.sf.opendse.realtime.et.PriorityScheduler;
+import net.sf.opendse.realtime.et.graph.TimingElement;
+import net.sf.opendse.realtime.et.graph.TimingGraph;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.opt4j.core.Objective;
+import org.opt4j.core.Objectives;
+
+import edu.uci.ics.jung.graph.util.EdgeType;
+
+public class ResponseTimeAnalysisTest {
+
+	protected Application<Task, Dependency> application;
+	protected Architecture<Resource, Link> architecture;
+	protected Mappings<Task, Resource> mappings;
+	protected Routings<Task, Resource, Link> routings;
+
+	protected Resource addResource(String id, String scheduler) {
+		Resource resource = new Resource(id);
+		resource.setAttribute(SCHEDULER, scheduler);
+		architecture.addVertex(resource);
+		return resource;
+	}
+
+	protected Task addTask(Task task, double e, double h, Resource resource) {
+		task.setAttribute("e", e);
+		task.setAttribute("h", h);
+		application.addVertex(task);
+		if (resource != null) {
+			mappings.add(new Mapping<Task, Resource>("m" + task.getId(), task, resource));
+		}
+		return task;
+	}
+
+	protected Specification createImplementation() {
+		application = new Application<Task, Dependency>();
+		architecture = new Architecture<Resource, Link>();
+		mappings = new Mappings<Task, Resource>();
+		routings = new Routings<Task, Resource, Link>();
+		return new Specification(application, architecture, mappings, routings);
+	}
+
+	protected TimingElement get(TimingGraph tg, Task task) {
+		for (TimingElement te : tg) {
+			if (te.getTask().equals(task)) {
+				return te;
+			}
+		}
+		return null;
+	}
+
+	@Test
+	public void testPreemptiveRateMonotonic() {
+		Specification impl = createImplementation();
+		Resource r1 = addResource("r1", FIXEDPRIORITY_PREEMPTIVE);
+		Task t1 = addTask(new Task("t1"), 2.0, 10.0, r1);
+		Task t2 = addTask(new Task("t2"), 5.0, 20.0, r1);
+		Task t3 = addTask(new Task("t3"), 4.0, 40.0, r1);
+		t3.setAttribute("deadline", 40.0);
+
+		TimingGraph tg = PriorityScheduler.createTimingGraph(impl);
+		ResponseTimeAnalysis analysis = new ResponseTimeAnalysis(true);
+		analysis.analyze(tg);
+
+		Assert.assertEquals(2.0, get(tg, t1).<Double> getAttribute(ResponseTimeAnalysis.RESPONSE), 0.0);
+		Assert.assertEquals(7.0, get(tg, t2).<Double> getAttribute(ResponseTimeAnalysis.RESPONSE), 0.0);
+		// 4 + 2*2 + 5 = 13
+		Assert.assertEquals(13.0, get(tg, t3).<Double> getAttribute(ResponseTimeAnalysis.RESPONSE), 0.0);
+		Assert.assertEquals(1, (int) get(tg, t1).<Integer> getAttribute(PRIORITY));
+		Assert.assertTrue(analysis.isSchedulable(tg));
+	}
+
+	@Test
+	public void testGivenPriorities() {
+		Specification impl = createImplementation();
+		Resource r1 = addResource("r1", FIXEDPRIORITY_PREEMPTIVE);
+		Task t1 = addTask(new Task("t1"), 2.0, 10.0, r1);
+		Task t2 = addTask(new Task("t2"), 5.0, 20.0, r1);
+		t1.setAttribute(PRIORITY, 2);
+		t2.setAttribute(PRIORITY, 1);
+		t1.setAttribute("deadline", 5.0);
+
+		TimingGraph tg = PriorityScheduler.createTimingGraph(impl);
+		ResponseTimeAnalysis analysis = new ResponseTimeAnalysis(false);
+		analysis.analyze(tg);
+
+		Assert.assertEquals(7.0, get(tg, t1).<Double> getAttribute(ResponseTimeAnalysis.RESPONSE), 0.0);
+		Assert.assertEquals(5.0, get(tg, t2).<Double> getAttribute(ResponseTimeAnalysis.RESPONSE), 0.0);
+		Assert.assertEquals(2.0, analysis.getLateness(get(tg, t1)), 0.0);
+		Assert.assertFalse(analysis.isSchedulable(tg));
+	}
+
+	@Test
+	public void testPartiallyGivenPriorities() {
+		Specification impl = createImplementation();
+		Resource r1 = addResource("r1", FIXEDPRIORITY_PREEMPTIVE);
+		Task a = addTask(new Task("a"), 1.0, 20.0, r1);
+		Task b = addTask(new Task("b"), 1.0, 10.0, r1);
+		Task c = addTask(new Task("c"), 1.0, 5.0, r1);
+		a.setAttribute(PRIORITY, 1);
+		c.setAttribute(PRIORITY, 2);
+
+		TimingGraph tg = PriorityScheduler.createTimingGraph(impl);
+		ResponseTimeAnalysis analysis = new ResponseTimeAnalysis(false);
+
+		// the comparison by priority only (a < c) and by period only
+		// (c < b < a) would be cyclic
+		Comparator<TimingElement> comparator = analysis.getComparator();
+		Assert.assertTrue(comparator.compare(get(tg, a), get(tg, c)) < 0);
+		Assert.assertTrue(comparator.compare(get(tg, c), get(tg, b)) < 0);
+		Assert.assertTrue(comparator.compare(get(tg, a), get(tg, b)) < 0);
+		Assert.assertTrue(comparator.compare(get(tg, b), get(tg, a)) > 0);
+
+		analysis.analyze(tg);
+		Assert.assertEquals(1, (int) get(tg, a).<Integer> getAttribute(PRIORITY));
+		Assert.assertEquals(2, (int) get(tg, c).<Integer> getAttribute(PRIORITY));
+		Assert.assertEquals(3, (int) get(tg, b).<Integer> getAttribute(PRIORITY));
+		Assert.assertEquals(1.0, get(tg, a).<Double> getAttribute(ResponseTimeAnalysis.RESPONSE), 0.0);
+		Assert.assertEquals(2.0, get(tg, c).<Double> getAttribute(ResponseTimeAnalysis.RESPONSE), 0.0);
+		Assert.assertEquals(3.0, get(tg, b).<Double> getAttribute(ResponseTimeAnalysis.RESPONSE), 0.0);
+	}
+
+	@Test
+	public void testJitterPropagation() {
+		Specification impl = createJitterImplementation();
+		Task t1 = application.getVertex("t1");
+		Task t2 = application.getVertex("t2");
+
+		TimingGraph tg = PriorityScheduler.createTimingGraph(impl);
+		ResponseTimeAnalysis analysis = new ResponseTimeAnalysis(true);
+		analysis.analyze(tg);
+
+		TimingElement te1 = get(tg, t1);
+		Assert.assertEquals(3.0, te1.<Double> getAttribute(ResponseTimeAnalysis.RESPONSE), 0.0);
+		Assert.assertEquals(1.0, te1.<Double> getAttribute(ResponseTimeAnalysis.JITTER_OUT), 0.0);
+
+		TimingElement te2 = get(tg, t2);
+		Assert.assertEquals(1.0, te2.<Double> getAttribute(ResponseTimeAnalysis.JITTER_IN), 0.0);
+		Assert.assertTrue(te2.<Double> getAttribute(ResponseTimeAnalysis.DELAY) >= 4.0);
+		Assert.assertTrue(analysis.isSchedulable(tg));
+	}
+
+	@Test
+	public void testCompositional() {
+		Specification impl = createJitterImplementation();
+
+		TimingGraph tg = PriorityScheduler.createTimingGraph(impl);
+		new ResponseTimeAnalysis(true).analyze(tg);
+
+		CompositionalResponseTimeAnalysis analysis = new CompositionalResponseTimeAnalysis(true);
+		TimingGraph tg2 = PriorityScheduler.createTimingGraph(impl);
+		analysis.analyze(tg2);
+
+		for (TimingElement te : tg) {
+			TimingElement te2 = tg2.findNode(te);
+			for (String attribute : new String[] { ResponseTimeAnalysis.RESPONSE, ResponseTimeAnalysis.DELAY,
+					ResponseTimeAnalysis.JITTER_IN, ResponseTimeAnalysis.JITTER_OUT }) {
+				Assert.assertEquals(te.<Double> getAttribute(attribute), te2.<Double> getAttribute(attribute), 0.0);
+			}
+		}
+
+		long misses = analysis.getMisses();
+		Assert.assertTrue(misses > 0);
+
+		// the same resources are taken from the cache
+		analysis.analyze(PriorityScheduler.createTimingGraph(impl));
+		Assert.assertEquals(misses, analysis.getMisses());
+		Assert.assertTrue(analysis.getHits() > 0);
+	}
+
+	protected Specification createJitterImplementation() {
+		Specification impl = createImplementation();
+		Resource r1 = addResource("r1", FIXEDPRIORITY_PREEMPTIVE);
+		Resource r2 = addResource("r2", FIXEDPRIORITY_PREEMPTIVE);
+		Resource bus = addResource("bus", FIXEDPRIORITY_NONPREEMPTIVE);
+		Link l1 = new Link("l1");
+		Link l2 = new Link("l2");
+		architecture.addEdge(l1, r1, bus);
+		architecture.addEdge(l2, bus, r2);
+
+		addTask(new Task("hp"), 1.0, 5.0, r1);
+		Task t1 = addTask(new Task("t1"), 2.0, 10.0, r1);
+		Task c = addTask(new Communication("c"), 1.0, 10.0, null);
+		Task t2 = addTask(new Task("t2"), 1.0, 10.0, r2);
+		application.addEdge(new Dependency("d1"), t1, c);
+		application.addEdge(new Dependency("d2"), c, t2);
+		t2.setAttribute("deadline", 10.0);
+
+		Architecture<Resource, Link> routing = new Architecture<Resource, Link>();
+		routing.addEdge(l1, r1, bus, EdgeType.DIRECTED);
+		routing.addEdge(l2, bus, r2, EdgeType.DIRECTED);
+		routings.set(c, routing);
+		return impl;
+	}
+
+	@Test
+	public void testOverload() {
+		Specification impl = createImplementation();
+		Resource r1 = addResource("r1", FIXEDPRIORITY_PREEMPTIVE);
+		addTask(new Task("t1"), 10.0, 10.0, r1);
+		Task t2 = addTask(new Task("t2"), 1.0, 20.0, r1);
+		t2.setAttribute("deadline", 20.0);
+
+		TimingGraph tg = PriorityScheduler.createTimingGraph(impl);
+		ResponseTimeAnalysis analysis = new ResponseTimeAnalysis(true, 100.0, 1000);
+		analysis.analyze(tg);
+
+		Assert.assertEquals(100.0, get(tg, t2).<Double> getAttribute(ResponseTimeAnalysis.RESPONSE), 0.0);
+		Assert.assertFalse(analysis.isSchedulable(tg));
+	}
+
+	@Test
+	public void testEvaluator() {
+		Specification impl = createImplementation();
+		Resource r1 = addResource("r1", FIXEDPRIORITY_PREEMPTIVE);
+		addTask(new Task("t1"), 2.0, 10.0, r1);
+		Task t2 = addTask(new Task("t2"), 5.0, 20.0, r1);
+		t2.setAttribute("deadline", 5.5);
+
+		ResponseTimeEvaluator evaluator = new ResponseTimeEvaluator(true, 0);
+		Objectives objectives = new Objectives();
+		Assert.assertNull(evaluator.evaluate(impl, objectives));
+
+		Assert.assertEquals(7.0, t2.<Double> getAttribute(PriorityScheduler.DELAY), 0.0);
+		Map<String, Double> values = new HashMap<String, Double>();
+		for (Objective objective : objectives.getKeys()) {
+			values.put(objective.getName(), objectives.get(objective).getDouble());
+		}
+		Assert.assertEquals(2, values.size());
+		Assert.assertEquals(1.0, values.get("deadline misses"), 0.0);
+		Assert.assertEquals(1.5, values.get("lateness"), 0.0);
+	}
+
+}
@@ -111,6 +111,7 @@ public class SchedulingStarter {
 					}
 				}
 			}
+			System.out.println(scheduler.getMetrics());
 		}
 
 		System.out.println("runtime " + getTime());